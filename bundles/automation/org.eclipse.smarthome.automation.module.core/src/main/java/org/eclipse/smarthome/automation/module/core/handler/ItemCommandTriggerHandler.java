@@ -25,6 +25,7 @@ import org.eclipse.smarthome.automation.handler.TriggerHandlerCallback;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.IndexableEventFilter;
 import org.eclipse.smarthome.core.items.events.ItemCommandEvent;
 import org.eclipse.smarthome.core.types.Command;
 import org.osgi.framework.BundleContext;
@@ -40,13 +41,15 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Initial contribution and API
  *
  */
-public class ItemCommandTriggerHandler extends BaseTriggerModuleHandler implements EventSubscriber, EventFilter {
+public class ItemCommandTriggerHandler extends BaseTriggerModuleHandler
+        implements EventSubscriber, IndexableEventFilter {
 
     private final Logger logger = LoggerFactory.getLogger(ItemCommandTriggerHandler.class);
 
     private final String itemName;
     private final String command;
     private final String topic;
+    private final Set<String> topicKeys;
 
     private final Set<String> types;
     private final BundleContext bundleContext;
@@ -67,6 +70,7 @@ public class ItemCommandTriggerHandler extends BaseTriggerModuleHandler implemen
         this.bundleContext = bundleContext;
         Dictionary<String, Object> properties = new Hashtable<String, Object>();
         this.topic = "smarthome/items/" + itemName + "/command";
+        this.topicKeys = Collections.singleton(topic);
         properties.put("event.topics", topic);
         eventSubscriberRegistration = this.bundleContext.registerService(EventSubscriber.class.getName(), this,
                 properties);
@@ -85,8 +89,10 @@ public class ItemCommandTriggerHandler extends BaseTriggerModuleHandler implemen
     @Override
     public void receive(Event event) {
         if (callback != null) {
-            logger.trace("Received Event: Source: {} Topic: {} Type: {}  Payload: {}", event.getSource(),
-                    event.getTopic(), event.getType(), event.getPayload());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Received Event: Source: {} Topic: {} Type: {}  Payload: {}", event.getSource(),
+                        event.getTopic(), event.getType(), event.getPayload());
+            }
             Map<String, Object> values = new HashMap<>();
             if (event instanceof ItemCommandEvent) {
                 Command command = ((ItemCommandEvent) event).getItemCommand();
@@ -117,4 +123,9 @@ public class ItemCommandTriggerHandler extends BaseTriggerModuleHandler implemen
         return event.getTopic().equals(topic);
     }
 
+    @Override
+    public Set<String> getTopicKeys() {
+        return topicKeys;
+    }
+
 }
@@ -26,6 +26,7 @@ import org.eclipse.smarthome.automation.handler.TriggerHandlerCallback;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.IndexableEventFilter;
 import org.eclipse.smarthome.core.items.events.GroupItemStateChangedEvent;
 import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
 import org.eclipse.smarthome.core.items.events.ItemStateEvent;
@@ -44,12 +45,14 @@ import org.slf4j.LoggerFactory;
  * @author Simon Merschjohann
  *
  */
-public class ItemStateTriggerHandler extends BaseTriggerModuleHandler implements EventSubscriber, EventFilter {
+public class ItemStateTriggerHandler extends BaseTriggerModuleHandler
+        implements EventSubscriber, IndexableEventFilter {
     private final Logger logger = LoggerFactory.getLogger(ItemStateTriggerHandler.class);
 
     private final String itemName;
     private final String state;
     private final String previousState;
+    private final Set<String> topicKeys;
     private Set<String> types;
     private final BundleContext bundleContext;
 
@@ -68,6 +71,7 @@ public class ItemStateTriggerHandler extends BaseTriggerModuleHandler implements
         this.itemName = (String) module.getConfiguration().get(CFG_ITEMNAME);
         this.state = (String) module.getConfiguration().get(CFG_STATE);
         this.previousState = (String) module.getConfiguration().get(CFG_PREVIOUS_STATE);
+        this.topicKeys = Collections.singleton("smarthome/items/" + itemName + "/");
         if (UPDATE_MODULE_TYPE_ID.equals(module.getTypeUID())) {
             this.types = Collections.singleton(ItemStateEvent.TYPE);
         } else {
@@ -96,8 +100,10 @@ public class ItemStateTriggerHandler extends BaseTriggerModuleHandler implements
     @Override
     public void receive(Event event) {
         if (callback != null) {
-            logger.trace("Received Event: Source: {} Topic: {} Type: {}  Payload: {}", event.getSource(),
-                    event.getTopic(), event.getType(), event.getPayload());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Received Event: Source: {} Topic: {} Type: {}  Payload: {}", event.getSource(),
+                        event.getTopic(), event.getType(), event.getPayload());
+            }
             Map<String, Object> values = new HashMap<>();
             if (event instanceof ItemStateEvent && UPDATE_MODULE_TYPE_ID.equals(module.getTypeUID())) {
                 State state = ((ItemStateEvent) event).getItemState();
@@ -147,4 +153,9 @@ public class ItemStateTriggerHandler extends BaseTriggerModuleHandler implements
         return event.getTopic().contains("smarthome/items/" + itemName + "/");
     }
 
+    @Override
+    public Set<String> getTopicKeys() {
+        return topicKeys;
+    }
+
 }
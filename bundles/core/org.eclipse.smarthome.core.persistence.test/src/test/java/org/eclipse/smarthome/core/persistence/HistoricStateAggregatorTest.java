@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+
+/**
+ * Tests the edge cases of the {@link HistoricStateAggregator}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class HistoricStateAggregatorTest {
+
+    private static final String ITEM_NAME = "Test";
+
+    @Test
+    public void testAggregatorWithoutStates() {
+        for (Function function : Function.values()) {
+            HistoricStateAggregator aggregator = new HistoricStateAggregator(
+                    new AggregationRequest(ITEM_NAME, function));
+            aggregator.add(1000, StringType.valueOf("ignored"));
+            aggregator.add(2000, new QuantityType<>("20 °C"));
+            assertTrue(function.name(), aggregator.getResult().isEmpty());
+        }
+
+        AggregationRequest request = new AggregationRequest(ITEM_NAME, Function.COUNT)
+                .setBeginDate(ZonedDateTime.of(2013, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault()));
+        assertFalse(HistoricStateAggregator.aggregate(new YearlyPersistenceService(), request).iterator().hasNext());
+    }
+
+    @Test
+    public void testAggregatorWithSingleState() {
+        for (Function function : Function.values()) {
+            HistoricStateAggregator aggregator = new HistoricStateAggregator(
+                    new AggregationRequest(ITEM_NAME, function).setInterval(Duration.ofSeconds(10)));
+            aggregator.add(12000, new DecimalType(5));
+            List<HistoricItem> result = aggregator.getResult();
+            assertEquals(function.name(), 1, result.size());
+            assertEquals(function.name(), function == Function.COUNT ? 1 : 5,
+                    ((DecimalType) result.get(0).getState()).intValue());
+        }
+    }
+
+    @Test
+    public void testAggregatorIntervalBoundaries() {
+        HistoricStateAggregator aggregator = new HistoricStateAggregator(
+                new AggregationRequest(ITEM_NAME, Function.COUNT).setInterval(Duration.ofSeconds(10)));
+        aggregator.add(0, new DecimalType(1));
+        aggregator.add(9999, new DecimalType(2));
+        aggregator.add(10000, new DecimalType(3));
+        aggregator.add(19999, new DecimalType(4));
+        aggregator.add(20000, StringType.valueOf("ignored"));
+        aggregator.add(30000, new DecimalType(5));
+
+        // the intervals are half-open and intervals without states are skipped
+        List<HistoricItem> result = aggregator.getResult();
+        assertEquals(3, result.size());
+        assertEquals(0, result.get(0).getTimestamp().getTime());
+        assertEquals(new DecimalType(2), result.get(0).getState());
+        assertEquals(10000, result.get(1).getTimestamp().getTime());
+        assertEquals(new DecimalType(2), result.get(1).getState());
+        assertEquals(30000, result.get(2).getTimestamp().getTime());
+        assertEquals(new DecimalType(1), result.get(2).getState());
+    }
+
+    @Test
+    public void testAggregatorIncludesBoundariesOfTimeRange() {
+        ZonedDateTime begin = ZonedDateTime.of(2005, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+        ZonedDateTime end = ZonedDateTime.of(2007, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+
+        assertEquals(new DecimalType(3), aggregate(Function.COUNT, begin, end).getState());
+        HistoricItem first = aggregate(Function.FIRST, begin, end);
+        assertEquals(new DecimalType(2005), first.getState());
+        assertEquals(Date.from(begin.toInstant()), first.getTimestamp());
+        HistoricItem last = aggregate(Function.LAST, begin, end);
+        assertEquals(new DecimalType(2007), last.getState());
+        assertEquals(Date.from(end.toInstant()), last.getTimestamp());
+    }
+
+    private HistoricItem aggregate(Function function, ZonedDateTime begin, ZonedDateTime end) {
+        AggregationRequest request = new AggregationRequest(ITEM_NAME, function).setBeginDate(begin).setEndDate(end);
+        Iterable<HistoricItem> result = HistoricStateAggregator.aggregate(new YearlyPersistenceService(), request);
+        return result.iterator().next();
+    }
+
+    /**
+     * A persistence service with the year as state at the start of each year from 2000 to 2012.
+     */
+    private static class YearlyPersistenceService implements QueryablePersistenceService {
+
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public String getLabel(Locale locale) {
+            return "Test";
+        }
+
+        @Override
+        public void store(Item item) {
+        }
+
+        @Override
+        public void store(Item item, String alias) {
+        }
+
+        @Override
+        public Iterable<HistoricItem> query(FilterCriteria filter) {
+            ZonedDateTime begin = filter.getBeginDateZoned();
+            ZonedDateTime end = filter.getEndDateZoned();
+            List<HistoricItem> results = new ArrayList<>();
+            for (int year = 2000; year <= 2012; year++) {
+                ZonedDateTime timestamp = ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+                if ((begin == null || !timestamp.isBefore(begin)) && (end == null || !timestamp.isAfter(end))) {
+                    results.add(new YearlyItem(timestamp, new DecimalType(year)));
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public Set<PersistenceItemInfo> getItemInfo() {
+            return Collections.emptySet();
+        }
+    }
+
+    private static class YearlyItem implements HistoricItem {
+
+        private final ZonedDateTime timestamp;
+        private final State state;
+
+        YearlyItem(ZonedDateTime timestamp, State state) {
+            this.timestamp = timestamp;
+            this.state = state;
+        }
+
+        @Override
+        public Date getTimestamp() {
+            return Date.from(timestamp.toInstant());
+        }
+
+        @Override
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String getName() {
+            return ITEM_NAME;
+        }
+    }
+
+}
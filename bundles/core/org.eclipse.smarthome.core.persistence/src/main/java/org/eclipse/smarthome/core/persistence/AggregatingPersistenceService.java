@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * An {@link AggregatingPersistenceService} is a {@link QueryablePersistenceService} which can aggregate the persisted
+ * states itself, so they do not need to be queried and iterated by the caller.
+ * <p>
+ * Callers should use {@link HistoricStateAggregator#aggregate(QueryablePersistenceService, AggregationRequest)},
+ * which falls back to aggregating the queried states for services not implementing this interface.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public interface AggregatingPersistenceService extends QueryablePersistenceService {
+
+    /**
+     * Aggregates the persisted states of an item. Only numeric states are taken into account. The result has to be
+     * the same as the one of a {@link HistoricStateAggregator} fed with the states of the item.
+     *
+     * @param request the aggregation request
+     * @return one historic item per interval which contains any states, in ascending order of their timestamps
+     */
+    Iterable<HistoricItem> aggregate(AggregationRequest request);
+
+}
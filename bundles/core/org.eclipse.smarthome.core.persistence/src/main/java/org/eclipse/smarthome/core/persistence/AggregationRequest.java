@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+
+/**
+ * An {@link AggregationRequest} asks an {@link AggregatingPersistenceService} to aggregate the persisted numeric
+ * states of an item within a time range, either into a single value or into one value per interval.
+ * <p>
+ * Intervals are aligned to multiples of their length since the epoch. Without an interval all states of the time
+ * range are aggregated into a single value.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class AggregationRequest {
+
+    /**
+     * The aggregation functions.
+     */
+    public enum Function {
+        /** The arithmetic mean of the states. */
+        AVERAGE,
+        /** The sum of the states. */
+        SUM,
+        /** The first state with the minimum value. */
+        MINIMUM,
+        /** The first state with the maximum value. */
+        MAXIMUM,
+        /** The number of states. */
+        COUNT,
+        /** The first state. */
+        FIRST,
+        /** The last state. */
+        LAST,
+        /**
+         * The mean of the states weighted by time, with the value changing linearly between two subsequent states.
+         */
+        TIME_WEIGHTED_AVERAGE
+    }
+
+    private final String itemName;
+    private final Function function;
+    private @Nullable ZonedDateTime beginDate;
+    private @Nullable ZonedDateTime endDate;
+    private @Nullable Duration interval;
+
+    /**
+     * Creates a request to aggregate all persisted states of an item.
+     *
+     * @param itemName the name of the item
+     * @param function the aggregation function
+     */
+    public AggregationRequest(String itemName, Function function) {
+        this.itemName = itemName;
+        this.function = function;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public @Nullable ZonedDateTime getBeginDate() {
+        return beginDate;
+    }
+
+    public AggregationRequest setBeginDate(@Nullable ZonedDateTime beginDate) {
+        this.beginDate = beginDate;
+        return this;
+    }
+
+    public @Nullable ZonedDateTime getEndDate() {
+        return endDate;
+    }
+
+    public AggregationRequest setEndDate(@Nullable ZonedDateTime endDate) {
+        this.endDate = endDate;
+        return this;
+    }
+
+    /**
+     * Gets the length of the intervals the states are aggregated by.
+     *
+     * @return the interval or null if all states are aggregated into a single value
+     */
+    public @Nullable Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * Sets the length of the intervals the states are aggregated by.
+     *
+     * @param interval the positive interval or null to aggregate all states into a single value
+     * @return this request
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public AggregationRequest setInterval(@Nullable Duration interval) {
+        if (interval != null && (interval.isNegative() || interval.isZero())) {
+            throw new IllegalArgumentException("The interval must be positive");
+        }
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * Creates the criteria to query the states to be aggregated in ascending order.
+     *
+     * @return the filter criteria
+     */
+    public FilterCriteria toFilterCriteria() {
+        return new FilterCriteria().setItemName(itemName).setBeginDate(beginDate).setEndDate(endDate)
+                .setOrdering(Ordering.ASCENDING);
+    }
+
+    @Override
+    public String toString() {
+        return "AggregationRequest [itemName=" + itemName + ", function=" + function + ", beginDate=" + beginDate
+                + ", endDate=" + endDate + ", interval=" + interval + "]";
+    }
+
+}
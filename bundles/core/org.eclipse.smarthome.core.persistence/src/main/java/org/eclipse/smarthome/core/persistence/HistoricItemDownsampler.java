@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * The {@link HistoricItemDownsampler} reduces a time series to a maximum number of items, keeping its visual shape
+ * when it is drawn as a chart.
+ * <p>
+ * It applies the Largest-Triangle-Three-Buckets algorithm to buckets of equal time spans: the first and the last item
+ * are always kept, from each bucket in between the item is kept which spans the largest triangle with the item kept
+ * from the previous bucket and the average of the next bucket. As the time range is known up front, the items can
+ * be processed as they are read, holding only the items of two buckets at a time.
+ * <p>
+ * States are compared by their {@link DecimalType} value. From a bucket without such states its first item is kept.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class HistoricItemDownsampler {
+
+    /** The minimum number of items a time series can be reduced to. */
+    public static final int MIN_POINTS = 3;
+
+    private final long begin;
+    private final double bucketDuration;
+    private final int bucketCount;
+    private final Consumer<HistoricItem> consumer;
+
+    private @Nullable Point previous;
+    private @Nullable Point last;
+    private @Nullable Bucket current;
+    private @Nullable Bucket next;
+
+    /**
+     * Creates a downsampler for the given time range.
+     *
+     * @param begin the begin of the time range in milliseconds since the epoch
+     * @param end the end of the time range in milliseconds since the epoch
+     * @param maxPoints the maximum number of items to keep, at least {@link #MIN_POINTS}
+     * @param consumer the consumer of the kept items, which are passed in ascending order of their timestamps
+     * @throws IllegalArgumentException if less than {@link #MIN_POINTS} items should be kept
+     */
+    public HistoricItemDownsampler(long begin, long end, int maxPoints, Consumer<HistoricItem> consumer) {
+        if (maxPoints < MIN_POINTS) {
+            throw new IllegalArgumentException("At least " + MIN_POINTS + " points have to be kept");
+        }
+        this.begin = begin;
+        this.bucketCount = maxPoints - 2;
+        this.bucketDuration = Math.max(1, end - begin) / (double) bucketCount;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Adds an item of the time series.
+     *
+     * @param item the item, which must not be older than the previously added one
+     */
+    public void add(HistoricItem item) {
+        Point point = new Point(item);
+        Point last = this.last;
+        this.last = point;
+        if (previous == null) {
+            // the first item is always kept
+            previous = point;
+            consumer.accept(point.item);
+            return;
+        }
+        if (last == null || last == previous) {
+            return;
+        }
+
+        // the item added before is not the last one, so it belongs to a bucket
+        int index = getBucketIndex(last.timestamp);
+        Bucket next = this.next;
+        if (next == null || next.index != index) {
+            Bucket current = this.current;
+            if (current != null) {
+                select(current, next != null ? next.getAverage() : null);
+            }
+            this.current = next;
+            this.next = next = new Bucket(index);
+        }
+        next.add(last);
+    }
+
+    /**
+     * Passes the remaining items to the consumer, once all items have been added.
+     */
+    public void finish() {
+        Point last = this.last;
+        if (last == null || last == previous) {
+            return;
+        }
+        Bucket current = this.current;
+        Bucket next = this.next;
+        if (current != null) {
+            select(current, next != null ? next.getAverage() : last);
+        }
+        if (next != null) {
+            select(next, last);
+        }
+        consumer.accept(last.item);
+        this.current = null;
+        this.next = null;
+        this.previous = last;
+    }
+
+    private int getBucketIndex(long timestamp) {
+        return (int) Math.max(0, Math.min(bucketCount - 1, (long) ((timestamp - begin) / bucketDuration)));
+    }
+
+    private void select(Bucket bucket, @Nullable Point average) {
+        Point previous = this.previous;
+        Point selected = bucket.points.get(0);
+        if (previous != null && average != null && !Double.isNaN(average.value)) {
+            double previousValue = Double.isNaN(previous.value) ? average.value : previous.value;
+            double maxArea = -1;
+            for (Point point : bucket.points) {
+                if (!Double.isNaN(point.value)) {
+                    double area = Math.abs((previous.timestamp - average.timestamp) * (point.value - previousValue)
+                            - (previous.timestamp - point.timestamp) * (average.value - previousValue));
+                    if (area > maxArea) {
+                        maxArea = area;
+                        selected = point;
+                    }
+                }
+            }
+        }
+        this.previous = selected;
+        consumer.accept(selected.item);
+    }
+
+    private static class Point {
+
+        private final HistoricItem item;
+        private final long timestamp;
+        private final double value;
+
+        Point(HistoricItem item) {
+            this(item, item.getTimestamp().getTime(), toValue(item.getState()));
+        }
+
+        Point(HistoricItem item, long timestamp, double value) {
+            this.item = item;
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+
+        private static double toValue(State state) {
+            DecimalType value = state.as(DecimalType.class);
+            return value == null ? Double.NaN : value.doubleValue();
+        }
+    }
+
+    private static class Bucket {
+
+        private final int index;
+        private final List<Point> points = new ArrayList<>();
+        private double timestampSum;
+        private double valueSum;
+        private int valueCount;
+
+        Bucket(int index) {
+            this.index = index;
+        }
+
+        void add(Point point) {
+            points.add(point);
+            if (!Double.isNaN(point.value)) {
+                timestampSum += point.timestamp;
+                valueSum += point.value;
+                valueCount++;
+            }
+        }
+
+        @Nullable
+        Point getAverage() {
+            if (valueCount == 0) {
+                return null;
+            }
+            return new Point(points.get(0).item, (long) (timestampSum / valueCount), valueSum / valueCount);
+        }
+    }
+
+}
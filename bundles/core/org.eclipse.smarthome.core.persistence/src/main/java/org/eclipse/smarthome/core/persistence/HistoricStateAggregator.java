@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * The {@link HistoricStateAggregator} computes the result of an {@link AggregationRequest} from the states of an item
+ * in a single pass, keeping only the state of the current interval.
+ * <p>
+ * The states have to be added in ascending order of their timestamps. Only {@link DecimalType}s are aggregated, all
+ * other states are ignored.
+ * <p>
+ * The timestamps of the results of {@link Function#MINIMUM}, {@link Function#MAXIMUM}, {@link Function#FIRST} and
+ * {@link Function#LAST} are the ones of the selected states. The timestamps of all other results are the start of
+ * their interval or - without an interval - the timestamp of the first aggregated state.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class HistoricStateAggregator {
+
+    private final String itemName;
+    private final Function function;
+    private final long interval;
+    private final List<HistoricItem> result = new ArrayList<>();
+
+    private @Nullable Bucket bucket;
+
+    /**
+     * Creates an aggregator for the given request.
+     *
+     * @param request the aggregation request
+     */
+    public HistoricStateAggregator(AggregationRequest request) {
+        this.itemName = request.getItemName();
+        this.function = request.getFunction();
+        Duration interval = request.getInterval();
+        this.interval = interval == null ? 0 : interval.toMillis();
+    }
+
+    /**
+     * Aggregates the states of an item with the given persistence service. The aggregation is delegated to the service
+     * if it is an {@link AggregatingPersistenceService}, otherwise the states are queried and aggregated one by one.
+     *
+     * @param service the persistence service
+     * @param request the aggregation request
+     * @return one historic item per interval which contains any states, in ascending order of their timestamps
+     */
+    public static Iterable<HistoricItem> aggregate(QueryablePersistenceService service, AggregationRequest request) {
+        if (service instanceof AggregatingPersistenceService) {
+            return ((AggregatingPersistenceService) service).aggregate(request);
+        }
+        HistoricStateAggregator aggregator = new HistoricStateAggregator(request);
+        try (Stream<HistoricItem> items = service.stream(request.toFilterCriteria())) {
+            items.forEachOrdered(aggregator::add);
+        }
+        return aggregator.getResult();
+    }
+
+    /**
+     * Adds a historic item.
+     *
+     * @param item the historic item, which must not be older than the previously added one
+     */
+    public void add(HistoricItem item) {
+        add(item.getTimestamp().getTime(), item.getState(), item);
+    }
+
+    /**
+     * Adds a state.
+     *
+     * @param timestamp the timestamp of the state, which must not be older than the previously added one
+     * @param state the state
+     */
+    public void add(long timestamp, State state) {
+        add(timestamp, state, null);
+    }
+
+    private void add(long timestamp, State state, @Nullable HistoricItem item) {
+        BigDecimal value = toNumber(state);
+        if (value == null) {
+            return;
+        }
+        Bucket bucket = this.bucket;
+        if (bucket == null || (interval > 0 && timestamp >= bucket.timestamp + interval)) {
+            if (bucket != null) {
+                result.add(bucket.getResult());
+            }
+            bucket = new Bucket(interval == 0 ? timestamp : Math.floorDiv(timestamp, interval) * interval);
+            this.bucket = bucket;
+        }
+        bucket.add(timestamp, state, value, item);
+    }
+
+    /**
+     * Gets the result of the aggregation of all states added so far.
+     *
+     * @return one historic item per interval which contains any states, in ascending order of their timestamps
+     */
+    public List<HistoricItem> getResult() {
+        Bucket bucket = this.bucket;
+        if (bucket == null) {
+            return Collections.unmodifiableList(result);
+        }
+        List<HistoricItem> result = new ArrayList<>(this.result);
+        result.add(bucket.getResult());
+        return Collections.unmodifiableList(result);
+    }
+
+    private static @Nullable BigDecimal toNumber(State state) {
+        if (state instanceof DecimalType) {
+            return ((DecimalType) state).toBigDecimal();
+        }
+        return null;
+    }
+
+    /**
+     * The state of the aggregation of one interval.
+     */
+    private class Bucket {
+
+        /** The start of the interval or the timestamp of the first state if there are no intervals. */
+        private final long timestamp;
+        private long count;
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        private @Nullable Selected selected;
+
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private BigDecimal lastValue = BigDecimal.ZERO;
+        private BigDecimal weightedSum = BigDecimal.ZERO;
+
+        Bucket(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        void add(long timestamp, State state, BigDecimal value, @Nullable HistoricItem item) {
+            switch (function) {
+                case AVERAGE:
+                case SUM:
+                    sum = sum.add(value);
+                    break;
+                case MINIMUM:
+                case MAXIMUM:
+                    Selected selected = this.selected;
+                    int comparison = selected == null ? 0 : value.compareTo(selected.value);
+                    if (selected == null || (function == Function.MINIMUM ? comparison < 0 : comparison > 0)) {
+                        this.selected = new Selected(timestamp, state, value, item);
+                    }
+                    break;
+                case FIRST:
+                    if (this.selected == null) {
+                        this.selected = new Selected(timestamp, state, value, item);
+                    }
+                    break;
+                case LAST:
+                    this.selected = new Selected(timestamp, state, value, item);
+                    break;
+                case TIME_WEIGHTED_AVERAGE:
+                    if (count == 0) {
+                        firstTimestamp = timestamp;
+                    } else {
+                        BigDecimal average = value.add(lastValue).divide(BigDecimal.valueOf(2), MathContext.DECIMAL64);
+                        weightedSum = weightedSum.add(
+                                average.multiply(BigDecimal.valueOf(timestamp - lastTimestamp), MathContext.DECIMAL64));
+                    }
+                    lastTimestamp = timestamp;
+                    lastValue = value;
+                    break;
+                default:
+                    break;
+            }
+            count++;
+        }
+
+        HistoricItem getResult() {
+            switch (function) {
+                case AVERAGE:
+                    return createItem(sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64));
+                case SUM:
+                    return createItem(sum);
+                case COUNT:
+                    return createItem(BigDecimal.valueOf(count));
+                case TIME_WEIGHTED_AVERAGE:
+                    long duration = lastTimestamp - firstTimestamp;
+                    return createItem(duration == 0 ? lastValue
+                            : weightedSum.divide(BigDecimal.valueOf(duration), MathContext.DECIMAL64));
+                default:
+                    Selected selected = this.selected;
+                    if (selected == null) {
+                        throw new IllegalStateException("No state has been selected");
+                    }
+                    return selected.getItem();
+            }
+        }
+
+        private HistoricItem createItem(BigDecimal value) {
+            return new AggregatedItem(itemName, new Date(timestamp), new DecimalType(value));
+        }
+    }
+
+    /**
+     * A state selected by the aggregation function.
+     */
+    private class Selected {
+
+        private final long timestamp;
+        private final State state;
+        private final BigDecimal value;
+        private final @Nullable HistoricItem item;
+
+        Selected(long timestamp, State state, BigDecimal value, @Nullable HistoricItem item) {
+            this.timestamp = timestamp;
+            this.state = state;
+            this.value = value;
+            this.item = item;
+        }
+
+        HistoricItem getItem() {
+            HistoricItem item = this.item;
+            return item != null ? item : new AggregatedItem(itemName, new Date(timestamp), state);
+        }
+    }
+
+    private static class AggregatedItem implements HistoricItem {
+
+        private final String name;
+        private final Date timestamp;
+        private final State state;
+
+        AggregatedItem(String name, Date timestamp, State state) {
+            this.name = name;
+            this.timestamp = timestamp;
+            this.state = state;
+        }
+
+        @Override
+        public Date getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + ": " + name + " -> " + state;
+        }
+    }
+
+}
@@ -34,4 +34,14 @@ public interface PersistenceManager {
      */
     void removeConfig(String dbId);
 
+    /**
+     * Gets the statistics of the queue through which the item states are handed to a persistence service.
+     *
+     * @param dbId the database id used by the persistence service
+     * @return the statistics of the queue or null, if there is no queue for the persistence service
+     */
+    default PersistenceQueueStatistics getQueueStatistics(String dbId) {
+        return null;
+    }
+
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link PersistenceQueueStatistics} describe the queue through which the item states are handed to a
+ * {@link PersistenceService} at a given time.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class PersistenceQueueStatistics {
+
+    private final int depth;
+    private final long storedCount;
+    private final long droppedCount;
+    private final long batchCount;
+
+    /**
+     * Creates the statistics of a queue.
+     *
+     * @param depth the number of items waiting to be stored
+     * @param storedCount the number of items which have been stored
+     * @param droppedCount the number of items which have been dropped, because the queue was full
+     * @param batchCount the number of batches which have been handed to the service
+     */
+    public PersistenceQueueStatistics(int depth, long storedCount, long droppedCount, long batchCount) {
+        this.depth = depth;
+        this.storedCount = storedCount;
+        this.droppedCount = droppedCount;
+        this.batchCount = batchCount;
+    }
+
+    /**
+     * Gets the number of items waiting to be stored.
+     *
+     * @return the number of pending items
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of items which have been stored.
+     *
+     * @return the number of stored items
+     */
+    public long getStoredCount() {
+        return storedCount;
+    }
+
+    /**
+     * Gets the number of items which have been dropped, because the queue was full.
+     *
+     * @return the number of dropped items
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Gets the number of batches which have been handed to the service.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "depth=" + depth + ", stored=" + storedCount + ", dropped=" + droppedCount + ", batches=" + batchCount;
+    }
+
+}
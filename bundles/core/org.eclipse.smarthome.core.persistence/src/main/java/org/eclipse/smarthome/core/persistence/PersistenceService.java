@@ -12,6 +12,7 @@
  */
 package org.eclipse.smarthome.core.persistence;
 
+import java.util.Collection;
 import java.util.Locale;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -70,4 +71,24 @@ public interface PersistenceService {
      * @param alias the alias under which the item should be persisted.
      */
     void store(Item item, String alias);
+
+    /**
+     * Stores the current values of the given items.
+     * <p>
+     * The persistence manager hands the items to the service in batches from a background thread, so a service does
+     * not have to queue them on its own. The default implementation stores the items one by one. Services which can
+     * store several items more efficiently at once, e.g. within one transaction, should override this method.
+     *
+     * @param requests the requests to store an item, each item and alias is contained at most once
+     */
+    default void storeBatch(Collection<StoreRequest> requests) {
+        for (StoreRequest request : requests) {
+            String alias = request.getAlias();
+            if (alias == null) {
+                store(request.getItem());
+            } else {
+                store(request.getItem(), alias);
+            }
+        }
+    }
 }
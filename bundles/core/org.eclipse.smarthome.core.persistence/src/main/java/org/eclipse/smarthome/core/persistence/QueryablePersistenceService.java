@@ -13,6 +13,8 @@
 package org.eclipse.smarthome.core.persistence;
 
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.items.Item;
@@ -35,6 +37,19 @@ public interface QueryablePersistenceService extends PersistenceService {
      */
     Iterable<HistoricItem> query(FilterCriteria filter);
 
+    /**
+     * Queries the {@link PersistenceService} for data with a given filter criteria and provides the results as a
+     * stream. Services can override this method to read the results lazily, so they do not have to be held in memory
+     * at once. The stream has to be closed by the caller, which allows the service to release any resources held by
+     * it.
+     *
+     * @param filter the filter to apply to the query
+     * @return a time series of items
+     */
+    default Stream<HistoricItem> stream(FilterCriteria filter) {
+        return StreamSupport.stream(query(filter).spliterator(), false);
+    }
+
     /**
      * Returns a list of items that are stored in the persistence service
      *
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.Item;
+
+/**
+ * A {@link StoreRequest} asks a {@link PersistenceService} to store the current value of an item, optionally under an
+ * alias. It is used to hand several items to a service at once.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class StoreRequest {
+
+    private final Item item;
+    private final @Nullable String alias;
+
+    /**
+     * Creates a request to store the given item.
+     *
+     * @param item the item which state should be persisted
+     * @param alias the alias under which the item should be persisted or null to persist it under its name
+     */
+    public StoreRequest(Item item, @Nullable String alias) {
+        this.item = item;
+        this.alias = alias;
+    }
+
+    /**
+     * Gets the item which state should be persisted.
+     *
+     * @return the item
+     */
+    public Item getItem() {
+        return item;
+    }
+
+    /**
+     * Gets the alias under which the item should be persisted.
+     *
+     * @return the alias or null if the item should be persisted under its name
+     */
+    public @Nullable String getAlias() {
+        return alias;
+    }
+
+    @Override
+    public String toString() {
+        return alias == null ? item.getName() : item.getName() + " (" + alias + ")";
+    }
+
+}
@@ -14,7 +14,9 @@ package org.eclipse.smarthome.core.persistence.internal;
 
 import java.text.DateFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,8 +24,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.common.SafeCaller;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -34,6 +38,7 @@ import org.eclipse.smarthome.core.items.StateChangeListener;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceManager;
+import org.eclipse.smarthome.core.persistence.PersistenceQueueStatistics;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceConfiguration;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
@@ -42,6 +47,7 @@ import org.eclipse.smarthome.core.persistence.config.SimpleAllConfig;
 import org.eclipse.smarthome.core.persistence.config.SimpleConfig;
 import org.eclipse.smarthome.core.persistence.config.SimpleGroupConfig;
 import org.eclipse.smarthome.core.persistence.config.SimpleItemConfig;
+import org.eclipse.smarthome.core.persistence.internal.WriteBehindQueue.OverflowPolicy;
 import org.eclipse.smarthome.core.persistence.strategy.SimpleCronStrategy;
 import org.eclipse.smarthome.core.persistence.strategy.SimpleStrategy;
 import org.eclipse.smarthome.core.scheduler.CronExpression;
@@ -50,6 +56,7 @@ import org.eclipse.smarthome.core.scheduler.ExpressionThreadPoolManager.Expressi
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -58,13 +65,26 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a persistence manager to manage all persistence services etc.
+ * <p>
+ * The state events of the items are handed to the persistence services through a {@link WriteBehindQueue} per service.
+ * The queues can be configured by the {@code batchWindow}, {@code queueCapacity} and {@code queueOverflow} properties
+ * of the {@code org.eclipse.smarthome.persistence} configuration.
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Markus Rathgeb - Separation of persistence core and model, drop Quartz usage.
  */
-@Component(service = PersistenceManager.class, immediate = true)
+@Component(service = PersistenceManager.class, immediate = true, configurationPid = "org.eclipse.smarthome.persistence")
 public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryChangeListener, StateChangeListener {
 
+    private static final String CONFIG_BATCH_WINDOW = "batchWindow";
+    private static final String CONFIG_QUEUE_CAPACITY = "queueCapacity";
+    private static final String CONFIG_QUEUE_OVERFLOW = "queueOverflow";
+
+    private static final long DEFAULT_BATCH_WINDOW = 0;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private static final String THREAD_POOL_NAME = "persistence";
+
     private final Logger logger = LoggerFactory.getLogger(PersistenceManagerImpl.class);
 
     // the scheduler used for timer events
@@ -74,14 +94,27 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
     private SafeCaller safeCaller;
     private volatile boolean started = false;
 
-    final Map<String, PersistenceService> persistenceServices = new HashMap<>();
+    final Map<String, PersistenceService> persistenceServices = new ConcurrentHashMap<>();
+    final Map<String, WriteBehindQueue> queues = new ConcurrentHashMap<>();
     final Map<String, PersistenceServiceConfiguration> persistenceServiceConfigs = new HashMap<>();
     private final Map<String, Set<Runnable>> persistenceJobs = new HashMap<>();
 
+    /**
+     * The routes of the state events of each item to the persistence services, compiled on demand out of the
+     * configurations. Every change of the configurations, the services or the items replaces the map, so routes which
+     * are compiled concurrently to a change are dropped.
+     */
+    private volatile Map<String, List<PersistenceRoute>> routes = new ConcurrentHashMap<>();
+
+    private long batchWindow = DEFAULT_BATCH_WINDOW;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
     public PersistenceManagerImpl() {
     }
 
-    protected void activate() {
+    protected void activate(Map<String, Object> config) {
+        modified(config);
         scheduler = ExpressionThreadPoolManager.getExpressionScheduledPool("persist");
         allItemsChanged(null);
         started = true;
@@ -94,6 +127,71 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
         removeTimers();
         removeItemStateChangeListeners();
         scheduler = null;
+        for (WriteBehindQueue queue : queues.values()) {
+            queue.close();
+        }
+        queues.clear();
+    }
+
+    @Modified
+    protected synchronized void modified(Map<String, Object> config) {
+        if (config == null) {
+            return;
+        }
+        long newBatchWindow = getPositiveInteger(config, CONFIG_BATCH_WINDOW, DEFAULT_BATCH_WINDOW, true);
+        int newQueueCapacity = (int) getPositiveInteger(config, CONFIG_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY,
+                false);
+        Object overflow = config.get(CONFIG_QUEUE_OVERFLOW);
+        OverflowPolicy newOverflowPolicy = overflow != null && "block".equalsIgnoreCase(overflow.toString())
+                ? OverflowPolicy.BLOCK
+                : OverflowPolicy.DROP;
+        if (newBatchWindow == batchWindow && newQueueCapacity == queueCapacity
+                && newOverflowPolicy == overflowPolicy) {
+            return;
+        }
+        batchWindow = newBatchWindow;
+        queueCapacity = newQueueCapacity;
+        overflowPolicy = newOverflowPolicy;
+        // the services might have been added before, so their queues have to be created with the new settings
+        for (PersistenceService persistenceService : persistenceServices.values()) {
+            createQueue(persistenceService);
+        }
+    }
+
+    private long getPositiveInteger(Map<String, Object> config, String key, long defaultValue, boolean zeroAllowed) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long number = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+            if (number > 0 || (zeroAllowed && number == 0)) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        logger.warn("Ignoring invalid configuration for '{}': {} - value must be a {} integer", key, value,
+                zeroAllowed ? "non-negative" : "positive");
+        return defaultValue;
+    }
+
+    private synchronized void createQueue(PersistenceService persistenceService) {
+        WriteBehindQueue queue = new WriteBehindQueue(persistenceService,
+                ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME), batchWindow, queueCapacity, overflowPolicy);
+        WriteBehindQueue oldQueue = queues.put(persistenceService.getId(), queue);
+        clearRoutes();
+        if (oldQueue != null) {
+            oldQueue.close();
+        }
+    }
+
+    private synchronized void removeQueue(PersistenceService persistenceService) {
+        WriteBehindQueue queue = queues.remove(persistenceService.getId());
+        clearRoutes();
+        if (queue != null) {
+            queue.close();
+        }
     }
 
     @Reference
@@ -118,6 +216,7 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
     protected void addPersistenceService(PersistenceService persistenceService) {
         logger.debug("Initializing {} persistence service.", persistenceService.getId());
         persistenceServices.put(persistenceService.getId(), persistenceService);
+        createQueue(persistenceService);
         if (started) {
             stopEventHandling(persistenceService.getId());
             startEventHandling(persistenceService.getId());
@@ -127,6 +226,7 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
     protected void removePersistenceService(PersistenceService persistenceService) {
         stopEventHandling(persistenceService.getId());
         persistenceServices.remove(persistenceService.getId());
+        removeQueue(persistenceService);
     }
 
     /**
@@ -136,22 +236,51 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
      * @param onlyChanges true, if it has the change strategy, false otherwise
      */
     private void handleStateEvent(Item item, boolean onlyChanges) {
+        for (PersistenceRoute route : getRoutes(item)) {
+            if (onlyChanges ? route.onChange : route.onUpdate) {
+                route.queue.add(item, route.alias);
+            }
+        }
+    }
+
+    /**
+     * Gets the routes of the state events of an item, compiling them if they are not known yet.
+     *
+     * @param item the item
+     * @return the routes to the persistence services which store the item on a change or an update
+     */
+    private List<PersistenceRoute> getRoutes(Item item) {
+        final Map<String, List<PersistenceRoute>> routes = this.routes;
+        List<PersistenceRoute> itemRoutes = routes.get(item.getName());
+        if (itemRoutes == null) {
+            itemRoutes = compileRoutes(item);
+            routes.put(item.getName(), itemRoutes);
+        }
+        return itemRoutes;
+    }
+
+    private List<PersistenceRoute> compileRoutes(Item item) {
+        List<PersistenceRoute> itemRoutes = new ArrayList<>();
         synchronized (persistenceServiceConfigs) {
             for (Entry<String, PersistenceServiceConfiguration> entry : persistenceServiceConfigs.entrySet()) {
                 final String serviceName = entry.getKey();
-                final PersistenceServiceConfiguration config = entry.getValue();
-                if (persistenceServices.containsKey(serviceName)) {
-                    for (SimpleItemConfiguration itemConfig : config.getConfigs()) {
-                        if (hasStrategy(serviceName, itemConfig,
-                                onlyChanges ? SimpleStrategy.Globals.CHANGE : SimpleStrategy.Globals.UPDATE)) {
-                            if (appliesToItem(itemConfig, item)) {
-                                persistenceServices.get(serviceName).store(item, itemConfig.getAlias());
-                            }
+                final WriteBehindQueue queue = queues.get(serviceName);
+                if (queue != null) {
+                    for (SimpleItemConfiguration itemConfig : entry.getValue().getConfigs()) {
+                        boolean onChange = hasStrategy(serviceName, itemConfig, SimpleStrategy.Globals.CHANGE);
+                        boolean onUpdate = hasStrategy(serviceName, itemConfig, SimpleStrategy.Globals.UPDATE);
+                        if ((onChange || onUpdate) && appliesToItem(itemConfig, item)) {
+                            itemRoutes.add(new PersistenceRoute(queue, itemConfig.getAlias(), onChange, onUpdate));
                         }
                     }
                 }
             }
         }
+        return itemRoutes.isEmpty() ? Collections.emptyList() : itemRoutes;
+    }
+
+    private void clearRoutes() {
+        routes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -196,16 +325,10 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
             }
             if (itemCfg instanceof SimpleGroupConfig) {
                 SimpleGroupConfig groupItemCfg = (SimpleGroupConfig) itemCfg;
-                String groupName = groupItemCfg.getGroup();
-                try {
-                    Item gItem = itemRegistry.getItem(groupName);
-                    if (gItem instanceof GroupItem) {
-                        GroupItem groupItem = (GroupItem) gItem;
-                        if (groupItem.getAllMembers().contains(item)) {
-                            return true;
-                        }
-                    }
-                } catch (Exception e) {
+                // group items are not members in the sense of GroupItem#getAllMembers()
+                if (!(item instanceof GroupItem)
+                        && itemRegistry.getAllGroupNames(item.getName()).contains(groupItemCfg.getGroup())) {
+                    return true;
                 }
             }
         }
@@ -387,6 +510,7 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
     public void addConfig(final String dbId, final PersistenceServiceConfiguration config) {
         synchronized (persistenceServiceConfigs) {
             this.persistenceServiceConfigs.put(dbId, config);
+            clearRoutes();
             if (persistenceServices.containsKey(dbId)) {
                 startEventHandling(dbId);
             }
@@ -398,9 +522,16 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
         synchronized (persistenceServiceConfigs) {
             stopEventHandling(dbId);
             this.persistenceServiceConfigs.remove(dbId);
+            clearRoutes();
         }
     }
 
+    @Override
+    public PersistenceQueueStatistics getQueueStatistics(String dbId) {
+        WriteBehindQueue queue = queues.get(dbId);
+        return queue != null ? queue.getStatistics() : null;
+    }
+
     private void startEventHandling(final String dbId) {
         synchronized (persistenceServiceConfigs) {
             final PersistenceServiceConfiguration config = persistenceServiceConfigs.get(dbId);
@@ -427,6 +558,7 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
 
     @Override
     public void allItemsChanged(Collection<String> oldItemNames) {
+        clearRoutes();
         for (Item item : itemRegistry.getItems()) {
             added(item);
         }
@@ -434,6 +566,8 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
 
     @Override
     public void added(Item item) {
+        // the item might be a group, which changes the routes of its members
+        clearRoutes();
         initialize(item);
         if (item instanceof GenericItem) {
             GenericItem genericItem = (GenericItem) item;
@@ -443,6 +577,7 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
 
     @Override
     public void removed(Item item) {
+        clearRoutes();
         if (item instanceof GenericItem) {
             GenericItem genericItem = (GenericItem) item;
             genericItem.removeStateChangeListener(this);
@@ -469,4 +604,22 @@ public class PersistenceManagerImpl implements PersistenceManager, ItemRegistryC
         handleStateEvent(item, false);
     }
 
+    /**
+     * A route of the state events of an item to the queue of a persistence service.
+     */
+    private static class PersistenceRoute {
+
+        private final WriteBehindQueue queue;
+        private final String alias;
+        private final boolean onChange;
+        private final boolean onUpdate;
+
+        PersistenceRoute(WriteBehindQueue queue, String alias, boolean onChange, boolean onUpdate) {
+            this.queue = queue;
+            this.alias = alias;
+            this.onChange = onChange;
+            this.onUpdate = onUpdate;
+        }
+    }
+
 }
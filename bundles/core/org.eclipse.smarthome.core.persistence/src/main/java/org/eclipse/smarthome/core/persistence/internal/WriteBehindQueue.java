@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.persistence.PersistenceQueueStatistics;
+import org.eclipse.smarthome.core.persistence.PersistenceService;
+import org.eclipse.smarthome.core.persistence.StoreRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link WriteBehindQueue} decouples the state events of the items from a {@link PersistenceService}. The items to
+ * store are queued and handed to the service in batches by a background thread, so a slow service does not delay the
+ * notification of the item state listeners.
+ * <p>
+ * An item which is queued again under the same alias before it has been stored is only stored once, with the state it
+ * has at that time. If the queue is full, new items are either dropped or the caller is blocked until the pending
+ * batch has been taken, depending on the {@link OverflowPolicy}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class WriteBehindQueue {
+
+    /**
+     * Defines what happens to an item which is queued while the queue is full.
+     */
+    enum OverflowPolicy {
+        /** The item is not stored. */
+        DROP,
+        /** The caller is blocked until there is space in the queue. */
+        BLOCK
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private final PersistenceService service;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindow;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Object lock = new Object();
+
+    /** Serializes taking and storing the batches, so they are neither stored twice nor out of order. */
+    private final Object storeLock = new Object();
+
+    /** The pending requests by item name and alias, guarded by the lock. */
+    private Map<String, StoreRequest> pending = new LinkedHashMap<>();
+
+    /** Whether a flush is scheduled or running, guarded by the lock. */
+    private boolean flushScheduled;
+
+    /** The scheduled flush, guarded by the lock. */
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    /** Whether items have been dropped since the queue has been flushed the last time, guarded by the lock. */
+    private boolean overflowing;
+
+    /** Whether the queue has been closed, guarded by the lock. */
+    private boolean closed;
+
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    /**
+     * Creates a queue for the given service.
+     *
+     * @param service the persistence service to store the items with
+     * @param scheduler the scheduler to run the flushes with
+     * @param batchWindow the time in milliseconds to collect items after the first one has been queued
+     * @param capacity the maximum number of pending items
+     * @param overflowPolicy what happens to items queued while the queue is full
+     */
+    WriteBehindQueue(PersistenceService service, ScheduledExecutorService scheduler, long batchWindow, int capacity,
+            OverflowPolicy overflowPolicy) {
+        this.service = service;
+        this.scheduler = scheduler;
+        this.batchWindow = batchWindow;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Queues an item to be stored under the given alias.
+     *
+     * @param item the item
+     * @param alias the alias or null to store the item under its name
+     */
+    void add(Item item, @Nullable String alias) {
+        String key = alias == null ? item.getName() : item.getName() + "/" + alias;
+        synchronized (lock) {
+            while (!closed && pending.size() >= capacity && !pending.containsKey(key)) {
+                if (overflowPolicy != OverflowPolicy.BLOCK || !awaitSpace()) {
+                    dropped(item);
+                    return;
+                }
+            }
+            if (closed) {
+                return;
+            }
+            pending.put(key, new StoreRequest(item, alias));
+            if (!flushScheduled) {
+                flushScheduled = true;
+                flushJob = scheduler.schedule(this::flush, batchWindow, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private boolean awaitSpace() {
+        try {
+            lock.wait();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dropped(Item item) {
+        droppedCount.incrementAndGet();
+        if (!overflowing) {
+            overflowing = true;
+            logger.warn("Persistence service '{}' does not keep up, dropping states of items like '{}' ({} pending).",
+                    service.getId(), item.getName(), pending.size());
+        }
+    }
+
+    private void flush() {
+        synchronized (storeLock) {
+            store(takePending());
+        }
+        synchronized (lock) {
+            if (pending.isEmpty() || closed) {
+                flushScheduled = false;
+                flushJob = null;
+            } else {
+                flushJob = scheduler.schedule(this::flush, batchWindow, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private Collection<StoreRequest> takePending() {
+        synchronized (lock) {
+            Collection<StoreRequest> batch = pending.values();
+            pending = new LinkedHashMap<>();
+            overflowing = false;
+            lock.notifyAll();
+            return batch;
+        }
+    }
+
+    private void store(Collection<StoreRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            service.storeBatch(Collections.unmodifiableCollection(batch));
+            storedCount.addAndGet(batch.size());
+            batchCount.incrementAndGet();
+            logger.trace("Stored a batch of {} items with persistence service '{}'.", batch.size(), service.getId());
+        } catch (RuntimeException e) {
+            logger.error("Persistence service '{}' failed to store {} items: {}", service.getId(), batch.size(),
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes the queue and stores the pending items. Items queued afterwards are ignored.
+     */
+    void close() {
+        ScheduledFuture<?> flushJob;
+        synchronized (lock) {
+            closed = true;
+            flushJob = this.flushJob;
+            this.flushJob = null;
+            // wake up the callers waiting for space, their items are ignored now
+            lock.notifyAll();
+        }
+        if (flushJob != null) {
+            flushJob.cancel(false);
+        }
+        // waits for a running flush, so the remaining items are stored after its batch
+        synchronized (storeLock) {
+            store(takePending());
+        }
+    }
+
+    /**
+     * Gets the statistics of the queue.
+     *
+     * @return the current statistics
+     */
+    PersistenceQueueStatistics getStatistics() {
+        int depth;
+        synchronized (lock) {
+            depth = pending.size();
+        }
+        return new PersistenceQueueStatistics(depth, storedCount.get(), droppedCount.get(), batchCount.get());
+    }
+
+}
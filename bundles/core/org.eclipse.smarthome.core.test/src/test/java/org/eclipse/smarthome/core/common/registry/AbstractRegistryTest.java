@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.common.registry;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the snapshot based element access of the {@link AbstractRegistry}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class AbstractRegistryTest {
+
+    private TestProvider provider;
+    private TestRegistry registry;
+
+    @Before
+    public void setup() {
+        provider = new TestProvider(Arrays.asList(new TestElement("a", 1), new TestElement("b", 1)));
+        registry = new TestRegistry();
+        registry.addProvider(provider);
+    }
+
+    @Test
+    public void testGetAllAndGet() {
+        assertThat(registry.getAll().stream().map(TestElement::getUID).collect(Collectors.toList()),
+                containsInAnyOrder("a", "b"));
+        assertThat(registry.get("a").getUID(), is("a"));
+        assertThat(registry.get("c"), is(nullValue()));
+        assertThat(registry.stream().count(), is(2L));
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByChanges() {
+        Collection<TestElement> before = registry.getAll();
+
+        provider.add(new TestElement("c", 1));
+        provider.update(new TestElement("a", 1), new TestElement("a", 2));
+        provider.remove(new TestElement("b", 1));
+
+        assertThat(before.size(), is(2));
+        assertThat(before.stream().map(TestElement::getUID).collect(Collectors.toList()), containsInAnyOrder("a", "b"));
+        assertThat(registry.getAll().stream().map(TestElement::getUID).collect(Collectors.toList()),
+                containsInAnyOrder("a", "c"));
+        assertThat(registry.get("a").version, is(2));
+        assertThat(registry.get("b"), is(nullValue()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetAllIsUnmodifiable() {
+        registry.getAll().clear();
+    }
+
+    @Test
+    public void testRemoveProvider() {
+        registry.removeProvider(provider);
+
+        assertThat(registry.getAll().isEmpty(), is(true));
+        assertThat(registry.get("a"), is(nullValue()));
+    }
+
+    private static class TestElement implements Identifiable<String> {
+
+        private final String uid;
+        private final int version;
+
+        TestElement(String uid, int version) {
+            this.uid = uid;
+            this.version = version;
+        }
+
+        @Override
+        public String getUID() {
+            return uid;
+        }
+    }
+
+    private static class TestProvider extends AbstractProvider<TestElement> {
+
+        private final Collection<TestElement> elements;
+
+        TestProvider(Collection<TestElement> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Collection<TestElement> getAll() {
+            return elements;
+        }
+
+        void add(TestElement element) {
+            notifyListenersAboutAddedElement(element);
+        }
+
+        void update(TestElement oldElement, TestElement element) {
+            notifyListenersAboutUpdatedElement(oldElement, element);
+        }
+
+        void remove(TestElement element) {
+            notifyListenersAboutRemovedElement(element);
+        }
+    }
+
+    private static class TestRegistry extends AbstractRegistry<TestElement, String, TestProvider> {
+
+        TestRegistry() {
+            super(null);
+        }
+    }
+
+}
@@ -408,6 +408,65 @@ public class SafeCallerImplTest extends JavaTest {
         verifyNoMoreInteractions(mockTimeoutHandler);
     }
 
+    @Test
+    public void testHandle_sync() throws Exception {
+        Runnable mock1 = mock(Runnable.class);
+        Consumer<Object> handle = safeCaller.create(mock1, Runnable.class).withTimeout(TIMEOUT)
+                .onTimeout(mockTimeoutHandler).onException(mockErrorHandler).build((r, arg) -> r.run());
+
+        handle.accept(null);
+        handle.accept(null);
+        verify(mock1, times(2)).run();
+        verifyNoMoreInteractions(mockErrorHandler);
+        verifyNoMoreInteractions(mockTimeoutHandler);
+    }
+
+    @Test
+    public void testHandle_asyncTimeoutHandler() throws Exception {
+        Runnable mock1 = mock(Runnable.class);
+        doAnswer(a -> sleep(BLOCK)).when(mock1).run();
+        Consumer<Object> handle = safeCaller.create(mock1, Runnable.class).withTimeout(TIMEOUT).withAsync()
+                .onTimeout(mockTimeoutHandler).onException(mockErrorHandler).build((r, arg) -> r.run());
+
+        assertDurationBelow(GRACE, () -> handle.accept(null));
+        waitForAssert(() -> verify(mock1, times(1)).run());
+        waitForAssert(() -> verify(mockTimeoutHandler, times(1)).run());
+        verifyNoMoreInteractions(mockErrorHandler);
+    }
+
+    @Test
+    public void testHandle_asyncExceptionHandler() throws Exception {
+        Runnable mock1 = mock(Runnable.class);
+        doThrow(RuntimeException.class).when(mock1).run();
+        Consumer<Object> handle = safeCaller.create(mock1, Runnable.class).withTimeout(TIMEOUT).withAsync()
+                .onTimeout(mockTimeoutHandler).onException(mockErrorHandler).build((r, arg) -> r.run());
+
+        assertDurationBelow(GRACE, () -> handle.accept(null));
+        waitForAssert(() -> verify(mock1, times(1)).run());
+        waitForAssert(() -> verify(mockErrorHandler, times(1)).accept(isA(RuntimeException.class)));
+        verifyNoMoreInteractions(mockTimeoutHandler);
+    }
+
+    @Test
+    public void testHandle_asyncTimeoutHandlerFails() throws Exception {
+        Runnable mock1 = mock(Runnable.class);
+        Runnable mock2 = mock(Runnable.class);
+        doAnswer(a -> sleep(BLOCK)).when(mock1).run();
+        doAnswer(a -> sleep(BLOCK)).when(mock2).run();
+        Runnable failingTimeoutHandler = mock(Runnable.class);
+        doThrow(RuntimeException.class).when(failingTimeoutHandler).run();
+        Consumer<Object> handle1 = safeCaller.create(mock1, Runnable.class).withTimeout(TIMEOUT).withAsync()
+                .onTimeout(failingTimeoutHandler).build((r, arg) -> r.run());
+        Consumer<Object> handle2 = safeCaller.create(mock2, Runnable.class).withTimeout(TIMEOUT).withAsync()
+                .onTimeout(mockTimeoutHandler).build((r, arg) -> r.run());
+
+        handle1.accept(null);
+        waitForAssert(() -> verify(failingTimeoutHandler, times(1)).run());
+        // the watcher still handles the timeouts of later invocations
+        handle2.accept(null);
+        waitForAssert(() -> verify(mockTimeoutHandler, times(1)).run());
+    }
+
     @Test
     public void testAsyncDoesNotTimeout_differentIdentifiers() throws Exception {
         Runnable mock1 = mock(Runnable.class);
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.IndexableEventFilter;
+import org.eclipse.smarthome.core.events.TopicEventFilter;
+import org.eclipse.smarthome.core.internal.events.EventSubscriberIndex.Subscription;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link EventSubscriberIndex}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class EventSubscriberIndexTest {
+
+    private static final String TYPE_A = "TypeA";
+    private static final String TYPE_B = "TypeB";
+
+    private EventSubscriberIndex index;
+
+    @Before
+    public void setup() {
+        index = new EventSubscriberIndex();
+    }
+
+    @Test
+    public void testSubscribersWithoutFilterAreReturnedForEveryTopic() {
+        EventSubscriber subscriber = createSubscriber(TYPE_A);
+        index.add(subscriber);
+
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item1/state"), is(Arrays.asList(subscriber)));
+        assertThat(getEventSubscribers(TYPE_B, "smarthome/items/item1/state").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testSubscribersAreSelectedByTopicKeys() {
+        EventSubscriber exact = createSubscriber(TYPE_A, new TopicEventFilter("smarthome/items/item1/state"));
+        EventSubscriber prefix = createSubscriber(TYPE_A, new TopicEventFilter("smarthome/items/item2/.*"));
+        EventSubscriber regex = createSubscriber(TYPE_A, new TopicEventFilter("smarthome/items/item[0-9]/state"));
+        index.add(exact);
+        index.add(prefix);
+        index.add(regex);
+
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item1/state"), containsInAnyOrder(exact, regex));
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item2/state"), containsInAnyOrder(prefix, regex));
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item3/state"), containsInAnyOrder(regex));
+    }
+
+    @Test
+    public void testSubscribersAreReturnedOnlyOnce() {
+        IndexableEventFilter filter = mock(IndexableEventFilter.class);
+        when(filter.getTopicKeys()).thenReturn(new HashSet<>(
+                Arrays.asList("smarthome/", "smarthome/items/", "smarthome/items/item1/state", "smarthome/things/")));
+        EventSubscriber subscriber = createSubscriber(TYPE_A, filter);
+        EventSubscriber allTypes = createSubscriber(EventSubscriber.ALL_EVENT_TYPES);
+        when(allTypes.getSubscribedEventTypes())
+                .thenReturn(new HashSet<>(Arrays.asList(TYPE_A, EventSubscriber.ALL_EVENT_TYPES)));
+        index.add(subscriber);
+        index.add(allTypes);
+
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item1/state"),
+                containsInAnyOrder(subscriber, allTypes));
+    }
+
+    @Test
+    public void testRemove() {
+        EventSubscriber subscriber1 = createSubscriber(TYPE_A, new TopicEventFilter("smarthome/items/item1/state"));
+        EventSubscriber subscriber2 = createSubscriber(TYPE_A, new TopicEventFilter("smarthome/items/item1/state"));
+        index.add(subscriber1);
+        index.add(subscriber2);
+
+        index.remove(subscriber1);
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item1/state"), is(Arrays.asList(subscriber2)));
+
+        index.remove(subscriber2);
+        assertThat(getEventSubscribers(TYPE_A, "smarthome/items/item1/state").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTopicEventFilterKeys() {
+        assertThat(new TopicEventFilter("smarthome/items/item1/state").getTopicKeys(),
+                is(Collections.singleton("smarthome/items/item1/state")));
+        assertThat(new TopicEventFilter("smarthome/items/.*").getTopicKeys(),
+                is(Collections.singleton("smarthome/items/")));
+        assertThat(new TopicEventFilter("smarthome/items/.*/state").getTopicKeys().isEmpty(), is(true));
+        assertThat(new TopicEventFilter("smarthome/items.*").getTopicKeys().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testReceiverIsCreatedOnlyOnce() {
+        EventSubscriber subscriber = createSubscriber(TYPE_A);
+        index.add(subscriber);
+
+        Subscription subscription = index.getSubscriptions(TYPE_A, "smarthome/items/item1/state").get(0);
+        Consumer<Event> receiver = subscription.getReceiver(s -> s::receive);
+        assertThat(subscription.getReceiver(s -> s::receive), is(sameInstance(receiver)));
+        assertThat(index.getSubscriptions(TYPE_A, "smarthome/items/item2/state").get(0).getReceiver(s -> s::receive),
+                is(sameInstance(receiver)));
+    }
+
+    private List<EventSubscriber> getEventSubscribers(String type, String topic) {
+        return index.getSubscriptions(type, topic).stream().map(Subscription::getSubscriber)
+                .collect(Collectors.toList());
+    }
+
+    private EventSubscriber createSubscriber(String type) {
+        return createSubscriber(type, null);
+    }
+
+    private EventSubscriber createSubscriber(String type, IndexableEventFilter filter) {
+        EventSubscriber subscriber = mock(EventSubscriber.class);
+        when(subscriber.getSubscribedEventTypes()).thenReturn(Collections.singleton(type));
+        when(subscriber.getEventFilter()).thenReturn(filter);
+        return subscriber;
+    }
+
+}
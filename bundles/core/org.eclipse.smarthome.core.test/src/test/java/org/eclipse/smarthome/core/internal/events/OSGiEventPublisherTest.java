@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.smarthome.core.events.AbstractEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentConstants;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Tests that the {@link OSGiEventPublisher} only serializes the payload of an event if it is read.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class OSGiEventPublisherTest {
+
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    private EventAdmin eventAdmin;
+    private OSGiEventPublisher publisher;
+
+    @Before
+    public void setup() {
+        eventAdmin = mock(EventAdmin.class);
+        publisher = new OSGiEventPublisher();
+        publisher.setEventAdmin(eventAdmin);
+    }
+
+    @Test
+    public void testPayloadIsNotSerializedForTheEventManager() {
+        publisher.addEventHandler(mockEventHandlerReference(OSGiEventManager.class.getName()));
+
+        Event osgiEvent = post();
+
+        assertThat(osgiEvent.getProperty("event"), is(instanceOf(TestEvent.class)));
+        assertThat(osgiEvent.getProperty("payload"), is(nullValue()));
+        assertThat(serializations.get(), is(0));
+    }
+
+    @Test
+    public void testPayloadIsSerializedForOtherEventHandlers() {
+        ServiceReference<EventHandler> reference = mockEventHandlerReference("other.handler");
+        publisher.addEventHandler(reference);
+
+        assertThat(post().getProperty("payload"), is("payload"));
+        assertThat(serializations.get(), is(1));
+
+        publisher.removeEventHandler(reference);
+
+        assertThat(post().getProperty("payload"), is(nullValue()));
+        assertThat(serializations.get(), is(1));
+    }
+
+    private Event post() {
+        publisher.post(new TestEvent(() -> {
+            serializations.incrementAndGet();
+            return "payload";
+        }));
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        verify(eventAdmin, atLeastOnce()).postEvent(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ServiceReference<EventHandler> mockEventHandlerReference(String componentName) {
+        ServiceReference<EventHandler> reference = mock(ServiceReference.class);
+        when(reference.getProperty(ComponentConstants.COMPONENT_NAME)).thenReturn(componentName);
+        return reference;
+    }
+
+    private static class TestEvent extends AbstractEvent {
+
+        TestEvent(Supplier<String> payloadSupplier) {
+            super("smarthome/test", payloadSupplier, null);
+        }
+
+        @Override
+        public String getType() {
+            return "TestEvent";
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFactory;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.internal.common.SafeCallerImpl;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the partitioned dispatching of the {@link ThreadedEventHandler}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class ThreadedEventHandlerTest extends JavaTest {
+
+    private static final String EVENT_TYPE = "TestEvent";
+    private static final int EVENTS_PER_ITEM = 50;
+
+    private final Map<String, List<String>> received = new HashMap<>();
+    private final List<Event> receivedEvents = new ArrayList<>();
+
+    private SafeCallerImpl safeCaller;
+    private ThreadedEventHandler eventHandler;
+
+    @Before
+    public void setup() {
+        safeCaller = new SafeCallerImpl();
+        safeCaller.activate(null);
+
+        EventSubscriber subscriber = new EventSubscriber() {
+            @Override
+            public Set<String> getSubscribedEventTypes() {
+                return Collections.singleton(EVENT_TYPE);
+            }
+
+            @Override
+            public @Nullable EventFilter getEventFilter() {
+                return null;
+            }
+
+            @Override
+            public void receive(Event event) {
+                synchronized (received) {
+                    receivedEvents.add(event);
+                    received.computeIfAbsent(event.getTopic(), topic -> new ArrayList<>()).add(event.getPayload());
+                }
+            }
+        };
+
+        EventFactory eventFactory = new EventFactory() {
+            @Override
+            public Set<String> getSupportedEventTypes() {
+                return Collections.singleton(EVENT_TYPE);
+            }
+
+            @Override
+            public Event createEvent(String eventType, String topic, String payload, @Nullable String source) {
+                return new TestEvent(topic, payload, source);
+            }
+        };
+
+        EventSubscriberIndex eventSubscribers = new EventSubscriberIndex();
+        eventSubscribers.add(subscriber);
+        Map<String, EventFactory> typedEventFactories = new ConcurrentHashMap<>();
+        typedEventFactories.put(EVENT_TYPE, eventFactory);
+
+        eventHandler = new ThreadedEventHandler(eventSubscribers, typedEventFactories, safeCaller, 4);
+        eventHandler.open();
+    }
+
+    @After
+    public void tearDown() {
+        eventHandler.close();
+        safeCaller.deactivate();
+    }
+
+    @Test
+    public void testPartitionKey() {
+        assertThat(ThreadedEventHandler.getPartitionKey("smarthome/items/item1/state"), is("smarthome/items/item1"));
+        assertThat(ThreadedEventHandler.getPartitionKey("smarthome/items/item1/statechanged"),
+                is("smarthome/items/item1"));
+        assertThat(ThreadedEventHandler.getPartitionKey("smarthome/things/a:b:c/status"), is("smarthome/things/a:b:c"));
+        assertThat(ThreadedEventHandler.getPartitionKey("smarthome/items/item1"), is("smarthome/items/item1"));
+        assertThat(ThreadedEventHandler.getPartitionKey("smarthome"), is("smarthome"));
+    }
+
+    @Test
+    public void testOrderIsKeptPerItem() {
+        String[] items = { "item1", "item2", "item3", "item4", "item5", "item6" };
+        for (int i = 0; i < EVENTS_PER_ITEM; i++) {
+            for (String item : items) {
+                Map<String, Object> properties = new Hashtable<>();
+                properties.put("type", EVENT_TYPE);
+                properties.put("payload", String.valueOf(i));
+                properties.put("topic", "smarthome/items/" + item + "/state");
+                eventHandler.handleEvent(new org.osgi.service.event.Event("smarthome", properties));
+            }
+        }
+
+        waitForAssert(() -> {
+            synchronized (received) {
+                assertThat(received.size(), is(items.length));
+                for (List<String> payloads : received.values()) {
+                    assertThat(payloads.size(), is(EVENTS_PER_ITEM));
+                }
+            }
+        });
+
+        synchronized (received) {
+            for (List<String> payloads : received.values()) {
+                for (int i = 0; i < EVENTS_PER_ITEM; i++) {
+                    assertThat(payloads.get(i), is(String.valueOf(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInProcessEventIsDispatchedWithoutRecreation() {
+        Event event = new TestEvent("smarthome/items/item1/state", "payload", null);
+        Map<String, Object> properties = new Hashtable<>();
+        properties.put("type", EVENT_TYPE);
+        properties.put("topic", event.getTopic());
+        properties.put("event", event);
+        eventHandler.handleEvent(new org.osgi.service.event.Event("smarthome", properties));
+
+        waitForAssert(() -> {
+            synchronized (received) {
+                assertThat(receivedEvents.size(), is(1));
+                assertThat(receivedEvents.get(0), is(sameInstance(event)));
+            }
+        });
+    }
+
+    private static class TestEvent implements Event {
+
+        private final String topic;
+        private final String payload;
+        private final @Nullable String source;
+
+        TestEvent(String topic, String payload, @Nullable String source) {
+            this.topic = topic;
+            this.payload = payload;
+            this.source = source;
+        }
+
+        @Override
+        public String getType() {
+            return EVENT_TYPE;
+        }
+
+        @Override
+        public String getTopic() {
+            return topic;
+        }
+
+        @Override
+        public String getPayload() {
+            return payload;
+        }
+
+        @Override
+        public @Nullable String getSource() {
+            return source;
+        }
+    }
+
+}
@@ -110,6 +110,29 @@ public class GenericItemTest {
         assertNull(item.getStateAs(NULL()));
     }
 
+    @Test
+    public void testListenersAreNotified() {
+        TestItem item = new TestItem("test");
+        StateChangeListener listener1 = mock(StateChangeListener.class);
+        StateChangeListener listener2 = mock(StateChangeListener.class);
+        item.addStateChangeListener(listener1);
+        item.addStateChangeListener(listener2);
+        State oldState = item.getState();
+
+        item.setState(new StringType("new"));
+        verify(listener1, timeout(1000)).stateUpdated(item, new StringType("new"));
+        verify(listener1, timeout(1000)).stateChanged(item, oldState, new StringType("new"));
+        verify(listener2, timeout(1000)).stateUpdated(item, new StringType("new"));
+        verify(listener2, timeout(1000)).stateChanged(item, oldState, new StringType("new"));
+
+        // unchanged state and removed listener
+        item.removeStateChangeListener(listener2);
+        item.setState(new StringType("new"));
+        verify(listener1, timeout(1000).times(2)).stateUpdated(item, new StringType("new"));
+        verify(listener1, after(100).times(1)).stateChanged(any(), any(), any());
+        verify(listener2, times(1)).stateUpdated(any(), any());
+    }
+
     @Test
     public void testDispose() {
         TestItem item = new TestItem("test");
@@ -14,6 +14,8 @@ package org.eclipse.smarthome.core.items;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -195,6 +197,44 @@ public class GroupItemTest extends JavaOSGiTest {
         assertThat(group.getMembers(), hasSize(0));
     }
 
+    @Test
+    public void testGetAllMembersFollowsNestedMembershipChanges() {
+        GroupItem rootGroupItem = new GroupItem("root");
+        GroupItem subGroup = new GroupItem("subGroup");
+        rootGroupItem.addMember(subGroup);
+        TestItem member = new TestItem("member");
+        subGroup.addMember(member);
+        assertThat(rootGroupItem.getAllMembers(), contains(member));
+
+        TestItem member2 = new TestItem("member2");
+        subGroup.addMember(member2);
+        assertThat(rootGroupItem.getAllMembers(), contains(member, member2));
+
+        subGroup.removeMember(member);
+        assertThat(rootGroupItem.getAllMembers(), contains(member2));
+        assertThat(rootGroupItem.getMembers(i -> true), containsInAnyOrder(subGroup, member2));
+    }
+
+    @Test
+    public void testGetAllMembersIsKeptOnUnrelatedMembershipChanges() {
+        GroupItem rootGroupItem = new GroupItem("root");
+        GroupItem subGroup = new GroupItem("subGroup");
+        GroupItem subSubGroup = new GroupItem("subSubGroup");
+        rootGroupItem.addMember(subGroup);
+        subGroup.addMember(subSubGroup);
+        TestItem member = new TestItem("member");
+        subSubGroup.addMember(member);
+        Set<Item> allMembers = rootGroupItem.getAllMembers();
+        assertThat(allMembers, contains(member));
+
+        new GroupItem("otherGroup").addMember(new TestItem("otherMember"));
+        assertThat(rootGroupItem.getAllMembers(), is(sameInstance(allMembers)));
+
+        TestItem member2 = new TestItem("member2");
+        subSubGroup.addMember(member2);
+        assertThat(rootGroupItem.getAllMembers(), contains(member, member2));
+    }
+
     @Test
     public void testGetAllMembersWithCircleDependency() {
         GroupItem rootGroupItem = new GroupItem("root");
@@ -328,6 +368,44 @@ public class GroupItemTest extends JavaOSGiTest {
         assertThat(stateUpdatedState, is(OnOffType.ON));
     }
 
+    @Test
+    public void testStateUpdateFollowsMembershipChanges() {
+        GroupItem rootGroupItem = new GroupItem("root", new NumberItem("baseItem"), new ArithmeticGroupFunction.Sum());
+        rootGroupItem.setItemStateConverter(itemStateConverter);
+
+        NumberItem member1 = new NumberItem("member1");
+        rootGroupItem.addMember(member1);
+        NumberItem member2 = new NumberItem("member2");
+        rootGroupItem.addMember(member2);
+
+        member1.setState(new DecimalType(1));
+        rootGroupItem.stateUpdated(member1, member1.getState());
+        member2.setState(new DecimalType(2));
+        rootGroupItem.stateUpdated(member2, member2.getState());
+        assertThat(rootGroupItem.getState(), is(new DecimalType(3)));
+
+        member1.setState(new DecimalType(5));
+        rootGroupItem.stateUpdated(member1, member1.getState());
+        assertThat(rootGroupItem.getState(), is(new DecimalType(7)));
+
+        rootGroupItem.removeMember(member2);
+        rootGroupItem.stateUpdated(member1, member1.getState());
+        assertThat(rootGroupItem.getState(), is(new DecimalType(5)));
+
+        // members of sub-groups without a state are taken into account as well
+        GroupItem subGroup = new GroupItem("subGroup");
+        NumberItem subMember = new NumberItem("subMember");
+        subMember.setState(new DecimalType(10));
+        subGroup.addMember(subMember);
+        rootGroupItem.addMember(subGroup);
+        rootGroupItem.stateUpdated(member1, member1.getState());
+        assertThat(rootGroupItem.getState(), is(new DecimalType(15)));
+
+        subMember.setState(new DecimalType(20));
+        rootGroupItem.stateUpdated(subGroup, subGroup.getState());
+        assertThat(rootGroupItem.getState(), is(new DecimalType(25)));
+    }
+
     @Test
     public void assertCyclicGroupItemsCalculateState() {
         GroupFunction countFn = new ArithmeticGroupFunction.Count(new StringType(".*"));
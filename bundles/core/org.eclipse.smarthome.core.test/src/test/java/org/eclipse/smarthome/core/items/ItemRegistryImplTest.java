@@ -14,6 +14,7 @@ package org.eclipse.smarthome.core.items;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.junit.Assert.*;
@@ -22,9 +23,13 @@ import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.smarthome.core.common.registry.ProviderChangeListener;
 import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.i18n.UnitProvider;
@@ -192,6 +197,71 @@ public class ItemRegistryImplTest extends JavaTest {
         assertThat(itemRegistry.getItemsByTag(GenericItem.class, CAMERA_TAG).size(), is(4));
     }
 
+    @Test
+    public void assertGetItemsByTagAndTypeAndGroupReturnsItemsMatchingAllCriteria() {
+        itemProvider.add(new GroupItem("group"));
+        SwitchItem switchItem = new SwitchItem("switch");
+        switchItem.addGroupName("group");
+        switchItem.addTag(CAMERA_TAG);
+        itemProvider.add(switchItem);
+        NumberItem numberItem = new NumberItem("number");
+        numberItem.addGroupName("group");
+        numberItem.addTag(CAMERA_TAG);
+        itemProvider.add(numberItem);
+
+        List<String> itemNames = itemRegistry.getItemsByTagAndTypeAndGroup("Switch", "group", CAMERA_TAG).stream()
+                .map(i -> i.getName()).collect(toList());
+        assertThat(itemNames, is(equalTo(Collections.singletonList("switch"))));
+        assertThat(itemRegistry.getItemsByTagAndTypeAndGroup(null, "group"), hasSize(2));
+        assertThat(itemRegistry.getItemsByTagAndTypeAndGroup(null, null, CAMERA_TAG), hasSize(6));
+        assertThat(itemRegistry.getItemsByTagAndTypeAndGroup(null, null), hasSize(8));
+    }
+
+    @Test
+    public void assertIndexesFollowItemUpdatesAndRemovals() {
+        GenericItem item = new StringItem("item");
+        itemProvider.add(item);
+        assertThat(itemRegistry.getItemsByTag(OTHER_TAG), hasSize(0));
+
+        // modification of the live instance, as done by the REST API
+        item = (GenericItem) itemRegistry.get("item");
+        item.addTag(OTHER_TAG);
+        itemRegistry.update(item);
+        assertThat(itemRegistry.getItemsByTag(OTHER_TAG), hasSize(1));
+        assertThat(itemRegistry.getItemsByTagAndType("String", OTHER_TAG), hasSize(1));
+
+        itemRegistry.remove("item");
+        assertThat(itemRegistry.getItemsByTag(OTHER_TAG), hasSize(0));
+        assertThat(itemRegistry.getItemsOfType("String"), hasSize(0));
+    }
+
+    @Test
+    public void assertGetAllGroupNamesFollowsNestedGroups() {
+        itemProvider.add(new GroupItem("root"));
+        GroupItem subGroup = new GroupItem("subGroup");
+        subGroup.addGroupName("root");
+        itemProvider.add(subGroup);
+        SwitchItem switchItem = new SwitchItem("switch");
+        switchItem.addGroupName("subGroup");
+        switchItem.addGroupName("unknownGroup");
+        itemProvider.add(switchItem);
+
+        assertThat(itemRegistry.getAllGroupNames("switch"), containsInAnyOrder("root", "subGroup"));
+        assertThat(itemRegistry.getAllGroupNames("subGroup"), containsInAnyOrder("root"));
+        assertThat(itemRegistry.getAllGroupNames("unknownItem"), hasSize(0));
+
+        itemRegistry.remove("subGroup");
+        assertThat(itemRegistry.getAllGroupNames("switch"), hasSize(0));
+    }
+
+    @Test
+    public void assertGetItemsByPattern() {
+        assertThat(itemRegistry.getItems(CAMERA_ITEM_NAME1), hasSize(1));
+        assertThat(itemRegistry.getItems("cameraItem?"), hasSize(4));
+        assertThat(itemRegistry.getItems("camera*"), hasSize(4));
+        assertThat(itemRegistry.getItems("unknown"), hasSize(0));
+    }
+
     @Test
     public void assertItemRegistrySetsAndRemovesMembersOfGroupItems() throws ItemNotFoundException {
         // test added item with group name is added as member to group
@@ -248,6 +318,58 @@ public class ItemRegistryImplTest extends JavaTest {
         assertEquals(1, group.getMembers().size());
     }
 
+    @Test
+    public void assertGetItemsByTagReflectsTagsChangedOnLiveItem() {
+        GenericItem item = (GenericItem) itemRegistry.get(ITEM_NAME);
+        item.addTag(OTHER_TAG);
+        assertThat(itemRegistry.getItemsByTag(OTHER_TAG), hasItem(item));
+
+        item.removeTag(OTHER_TAG);
+        assertThat(itemRegistry.getItemsByTag(OTHER_TAG), hasSize(0));
+    }
+
+    @Test
+    public void assertGetItemsByTagAndTypeAndGroupReflectsGroupNamesChangedOnLiveItem() {
+        itemRegistry.add(new GroupItem("group"));
+        GenericItem item = (GenericItem) itemRegistry.get(CAMERA_ITEM_NAME1);
+        item.addGroupName("group");
+        assertThat(itemRegistry.getItemsByTagAndTypeAndGroup(null, "group", CAMERA_TAG), hasItem(item));
+        assertThat(itemRegistry.getAllGroupNames(CAMERA_ITEM_NAME1), hasItem("group"));
+    }
+
+    @Test
+    public void testGroupMembersFromSameProvider() {
+        GenericItem member1 = new StringItem("member1");
+        member1.addGroupName("group");
+        GenericItem member2 = new StringItem("member2");
+        member2.addGroupName("group");
+        // the group is added in between its members, so both ways of resolving the membership are involved
+        List<Item> items = Arrays.asList(member1, new GroupItem("group"), member2);
+        ItemProvider provider = new ItemProvider() {
+            @Override
+            public Collection<Item> getAll() {
+                return items;
+            }
+
+            @Override
+            public void addProviderChangeListener(ProviderChangeListener<Item> listener) {
+            }
+
+            @Override
+            public void removeProviderChangeListener(ProviderChangeListener<Item> listener) {
+            }
+        };
+
+        ItemRegistry registry = new ItemRegistryImpl() {
+            {
+                addProvider(provider);
+            }
+        };
+
+        GroupItem group = (GroupItem) registry.get("group");
+        assertThat(group.getMembers(), containsInAnyOrder(member1, member2));
+    }
+
     @Test
     public void assertItemRegistryChangeListenersAreInformedAboutItemChanges() {
         ItemRegistryChangeListener registryChangeListener = mock(ItemRegistryChangeListener.class);
@@ -14,6 +14,7 @@ package org.eclipse.smarthome.core.library.types;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.Set;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupFunction;
+import org.eclipse.smarthome.core.items.GroupStateAggregator;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.library.items.DimmerItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
@@ -219,6 +221,56 @@ public class ArithmeticGroupFunctionTest {
         assertEquals(new DecimalType("2"), state);
     }
 
+    @Test
+    public void testAggregatorsMatchCalculation() {
+        List<GroupFunction> functions = Arrays.asList(new ArithmeticGroupFunction.Sum(),
+                new ArithmeticGroupFunction.Avg(), new ArithmeticGroupFunction.Min(),
+                new ArithmeticGroupFunction.Max(), new ArithmeticGroupFunction.Count(new StringType("1.*")),
+                new ArithmeticGroupFunction.And(OnOffType.ON, OnOffType.OFF),
+                new ArithmeticGroupFunction.Or(OnOffType.ON, OnOffType.OFF),
+                new ArithmeticGroupFunction.NAnd(OnOffType.ON, OnOffType.OFF),
+                new ArithmeticGroupFunction.NOr(OnOffType.ON, OnOffType.OFF));
+
+        for (GroupFunction function : functions) {
+            items.clear();
+            TestItem item1 = new TestItem("TestItem1", new DecimalType("1.25"));
+            TestItem item2 = new TestItem("TestItem2", new DecimalType("2"));
+            TestItem item3 = new TestItem("TestItem3", UnDefType.UNDEF);
+            GroupStateAggregator aggregator = function.createAggregator();
+            assertAggregatorState(function, aggregator);
+
+            items.addAll(Arrays.asList(item1, item2, item3));
+            items.forEach(aggregator::add);
+            assertAggregatorState(function, aggregator);
+
+            item3.setState(new DecimalType("10.5"));
+            aggregator.update(item3);
+            assertAggregatorState(function, aggregator);
+
+            item1.setState(OnOffType.ON);
+            aggregator.update(item1);
+            assertAggregatorState(function, aggregator);
+
+            item2.setState(OnOffType.ON);
+            aggregator.update(item2);
+            assertAggregatorState(function, aggregator);
+
+            items.remove(item3);
+            aggregator.remove(item3);
+            assertAggregatorState(function, aggregator);
+
+            // updates of items which are not aggregated are ignored
+            aggregator.update(item3);
+            assertAggregatorState(function, aggregator);
+        }
+    }
+
+    private void assertAggregatorState(GroupFunction function, GroupStateAggregator aggregator) {
+        // compare the string representation, so the scale of decimal states has to match as well
+        assertEquals(function.getClass().getSimpleName(), function.calculate(items).toString(),
+                aggregator.getState().toString());
+    }
+
     private class TestItem extends GenericItem {
 
         public TestItem(String name, State state) {
@@ -278,7 +278,7 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
                                 .withAsync() //
                                 .withIdentifier(thing) //
                                 .withTimeout(THINGHANDLER_EVENT_TIMEOUT) //
-                                .build().onCommandFromItem(convertedCommand);
+                                .build(StateProfile::onCommandFromItem).accept(convertedCommand);
                     }
                 });
     }
@@ -292,7 +292,7 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
                             .withAsync() //
                             .withIdentifier(thing) //
                             .withTimeout(THINGHANDLER_EVENT_TIMEOUT) //
-                            .build().onStateUpdateFromItem(convertedState);
+                            .build(Profile::onStateUpdateFromItem).accept(convertedState);
                 });
     }
 
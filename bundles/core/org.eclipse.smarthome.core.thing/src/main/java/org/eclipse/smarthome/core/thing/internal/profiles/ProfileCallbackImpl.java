@@ -72,7 +72,8 @@ public class ProfileCallbackImpl implements ProfileCallback {
                             .withTimeout(CommunicationManager.THINGHANDLER_EVENT_TIMEOUT).onTimeout(() -> {
                                 logger.warn("Handler for thing '{}' takes more than {}ms for handling a command",
                                         handler.getThing().getUID(), CommunicationManager.THINGHANDLER_EVENT_TIMEOUT);
-                            }).build().handleCommand(link.getLinkedUID(), command);
+                            }).build((ThingHandler h, Command c) -> h.handleCommand(link.getLinkedUID(), c))
+                            .accept(command);
                 } else {
                     logger.debug("Not delegating command '{}' for item '{}' to handler for channel '{}', "
                             + "because handler is not initialized (thing must be in status UNKNOWN, ONLINE or OFFLINE but was {}).",
@@ -104,7 +105,8 @@ public class ProfileCallbackImpl implements ProfileCallback {
                             .withTimeout(CommunicationManager.THINGHANDLER_EVENT_TIMEOUT).onTimeout(() -> {
                                 logger.warn("Handler for thing '{}' takes more than {}ms for handling an update",
                                         handler.getThing().getUID(), CommunicationManager.THINGHANDLER_EVENT_TIMEOUT);
-                            }).build().handleUpdate(link.getLinkedUID(), state);
+                            }).build((ThingHandler h, State s) -> h.handleUpdate(link.getLinkedUID(), s))
+                            .accept(state);
                 } else {
                     logger.debug("Not delegating update '{}' for item '{}' to handler for channel '{}', "
                             + "because handler is not initialized (thing must be in status UNKNOWN, ONLINE or OFFLINE but was {}).",
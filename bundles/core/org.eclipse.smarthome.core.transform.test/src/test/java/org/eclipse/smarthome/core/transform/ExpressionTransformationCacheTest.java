@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @author afuechsel - Initial contribution
+ */
+public class ExpressionTransformationCacheTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+    private final ExpressionTransformationCache<String> cache = new ExpressionTransformationCache<>(2, expression -> {
+        compilations.incrementAndGet();
+        return expression.toUpperCase();
+    });
+
+    @Test
+    public void testExpressionIsCompiledOnce() {
+        assertThat(cache.get("a"), is("A"));
+        String compiled = cache.get("a");
+
+        assertThat(compiled, is("A"));
+        assertThat(cache.get("a"), is(sameInstance(compiled)));
+        assertThat(compilations.get(), is(1));
+    }
+
+    @Test
+    public void testCacheIsClearedWhenFull() {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        assertThat(compilations.get(), is(3));
+
+        // the cache has been cleared before "c" has been added
+        cache.get("c");
+        assertThat(compilations.get(), is(3));
+        cache.get("a");
+        assertThat(compilations.get(), is(4));
+    }
+
+}
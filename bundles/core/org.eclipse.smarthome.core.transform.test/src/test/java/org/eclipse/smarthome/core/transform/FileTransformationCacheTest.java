@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author afuechsel - Initial contribution
+ */
+public class FileTransformationCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final FileTransformationCache<String> cache = new FileTransformationCache<>(file -> {
+        loads.incrementAndGet();
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new TransformationException("cannot read " + file, e);
+        }
+    });
+
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = folder.newFile("test.txt");
+    }
+
+    @Test
+    public void testFileIsLoadedOnce() throws Exception {
+        write("a");
+
+        assertThat(cache.get(file), is("a"));
+        assertThat(cache.get(file), is("a"));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void testFileIsReloadedWhenModified() throws Exception {
+        write("a");
+        assertThat(cache.get(file), is("a"));
+
+        write("b");
+        file.setLastModified(file.lastModified() + 2000);
+        assertThat(cache.get(file), is("b"));
+
+        write("changed");
+        assertThat(cache.get(file), is("changed"));
+        assertThat(loads.get(), is(3));
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() throws Exception {
+        File missing = new File(folder.getRoot(), "missing.txt");
+        try {
+            cache.get(missing);
+            fail();
+        } catch (TransformationException e) {
+            // expected
+        }
+
+        Files.write(missing.toPath(), "a".getBytes(StandardCharsets.UTF_8));
+        assertThat(cache.get(missing), is("a"));
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
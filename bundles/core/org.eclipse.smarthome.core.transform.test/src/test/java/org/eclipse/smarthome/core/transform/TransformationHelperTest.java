@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the parsing of transformation patterns by the {@link TransformationHelper}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class TransformationHelperTest {
+
+    @Test
+    public void testCompile() {
+        TransformationExpression expression = TransformationHelper.compile("MAP(en.map):%s");
+        assertThat(expression, is(notNullValue()));
+        assertThat(expression.getType(), is("MAP"));
+        assertThat(expression.getFunction(), is("en.map"));
+        assertThat(expression.getFormat(), is("%s"));
+        assertThat(TransformationHelper.compile("MAP(en.map):%s"), is(sameInstance(expression)));
+
+        assertThat(TransformationHelper.compile("%.1f °C"), is(nullValue()));
+    }
+
+    @Test
+    public void testIsTransform() {
+        assertThat(TransformationHelper.isTransform("REGEX(s/a(.*)/$1/):%s"), is(true));
+        assertThat(TransformationHelper.isTransform("%s"), is(false));
+        assertThat(TransformationHelper.isTransform("%s\nMAP(en.map):%s"), is(false));
+    }
+
+    @Test
+    public void testTransformWithoutTransformation() throws TransformationException {
+        assertThat(TransformationHelper.transform(null, "%s", "value"), is("value"));
+    }
+
+}
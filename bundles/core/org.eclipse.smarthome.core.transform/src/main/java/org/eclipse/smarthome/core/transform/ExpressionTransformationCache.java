@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * An {@link ExpressionTransformationCache} keeps what is derived from transformation expressions, like parsed patterns
+ * or compiled regular expressions, so an expression is only compiled once.
+ * <p>
+ * The number of cached objects is bounded, as the expressions can be arbitrary. If the cache is full, it is cleared
+ * before a new object is added, which is cheap and keeps the frequently used expressions after a short while.
+ *
+ * @author afuechsel - Initial contribution
+ *
+ * @param <T> the type of the objects derived from the expressions
+ */
+@NonNullByDefault
+public class ExpressionTransformationCache<T> {
+
+    private final Map<String, T> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Function<String, T> compiler;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of cached objects
+     * @param compiler the function deriving the object from an expression
+     */
+    public ExpressionTransformationCache(int maxSize, Function<String, T> compiler) {
+        this.maxSize = maxSize;
+        this.compiler = compiler;
+    }
+
+    /**
+     * Returns the object derived from the given expression, which is compiled if it is not cached.
+     *
+     * @param expression the expression
+     * @return the derived object
+     */
+    public T get(String expression) {
+        T value = entries.get(expression);
+        if (value == null) {
+            value = compiler.apply(expression);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+            entries.put(expression, value);
+        }
+        return value;
+    }
+
+}
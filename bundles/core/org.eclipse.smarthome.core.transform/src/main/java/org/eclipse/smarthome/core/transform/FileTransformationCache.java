@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A {@link FileTransformationCache} keeps what transformation services derive from their transformation files, like
+ * compiled scripts or stylesheets. The derived object of a file is kept until the modification time or the length of
+ * the file changes, then it is loaded again.
+ *
+ * @author afuechsel - Initial contribution
+ *
+ * @param <T> the type of the objects derived from the files
+ */
+@NonNullByDefault
+public class FileTransformationCache<T> {
+
+    /**
+     * Loads the object derived from a transformation file.
+     *
+     * @param <T> the type of the objects derived from the files
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        /**
+         * Loads the object derived from the given file.
+         *
+         * @param file the transformation file
+         * @return the derived object
+         * @throws TransformationException if the file cannot be loaded
+         */
+        T load(File file) throws TransformationException;
+    }
+
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Loader<T> loader;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param loader the loader of the objects derived from the files
+     */
+    public FileTransformationCache(Loader<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the object derived from the given file, which is (re-)loaded if the file has been modified since it has
+     * been cached.
+     *
+     * @param file the transformation file
+     * @return the derived object
+     * @throws TransformationException if the file cannot be loaded
+     */
+    public T get(File file) throws TransformationException {
+        String path = file.getPath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        Entry<T> entry = entries.get(path);
+        if (entry == null || entry.lastModified != lastModified || entry.length != length) {
+            entries.remove(path);
+            entry = new Entry<>(loader.load(file), lastModified, length);
+            entries.put(path, entry);
+        }
+        return entry.value;
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long lastModified;
+        private final long length;
+
+        Entry(T value, long lastModified, long length) {
+            this.value = value;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.framework.BundleContext;
+
+/**
+ * A {@link TransformationExpression} is the parsed form of a transformation pattern like {@code MAP(en.map):%s},
+ * consisting of the transformation type, the function passed to the transformation service and the format the state
+ * is formatted with before being transformed.
+ * <p>
+ * Expressions are immutable, so they can be kept and reused instead of parsing the pattern again for every
+ * transformation. Use {@link TransformationHelper#compile(String)} to obtain the expression of a pattern.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationExpression {
+
+    private final String type;
+    private final String function;
+    private final String format;
+
+    TransformationExpression(String type, String function, String format) {
+        this.type = type;
+        this.function = function;
+        this.format = format;
+    }
+
+    /**
+     * Gets the transformation type (e.g. REGEX, XSLT, etc.)
+     *
+     * @return the transformation type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the function containing the transformation instruction
+     *
+     * @return the function
+     */
+    public String getFunction() {
+        return function;
+    }
+
+    /**
+     * Gets the format the state is converted to before the transformation
+     *
+     * @return the format
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Transforms a state string using the transformation service of the type of this expression.
+     *
+     * @param context a valid bundle context, required for accessing the services
+     * @param state the state to be formatted before being passed into the transformation function
+     * @return the result of the transformation. If no transformation was done, <code>null</code> is returned
+     * @throws TransformationException if transformation service is not available or the transformation failed
+     */
+    public @Nullable String transform(@Nullable BundleContext context, String state) throws TransformationException {
+        TransformationService service = TransformationHelper.getTransformationService(context, type);
+        if (service == null) {
+            throw new TransformationException(
+                    "Couldn't transform value because transformation service of type '" + type + "' is not available.");
+        }
+        return TransformationHelper.transform(service, function, format, state);
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + function + ")" + TransformationHelper.FUNCTION_VALUE_DELIMITER + format;
+    }
+
+}
@@ -19,6 +19,8 @@ import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.internal.TransformationActivator;
+import org.eclipse.smarthome.core.transform.internal.TransformationServiceTracker;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -40,6 +42,12 @@ public class TransformationHelper {
     protected static final Pattern EXTRACT_TRANSFORMFUNCTION_PATTERN = Pattern
             .compile("(.*?)\\((.*)\\)" + FUNCTION_VALUE_DELIMITER + "(.*)");
 
+    /** The maximum number of parsed patterns to keep */
+    private static final int MAX_CACHED_PATTERNS = 1000;
+
+    private static final ExpressionTransformationCache<ParsedPattern> PARSED_PATTERNS = new ExpressionTransformationCache<>(
+            MAX_CACHED_PATTERNS, ParsedPattern::new);
+
     /**
      * determines whether a pattern refers to a transformation service
      *
@@ -47,13 +55,28 @@ public class TransformationHelper {
      * @return true, if the pattern contains a transformation
      */
     public static boolean isTransform(String pattern) {
-        return EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(pattern).matches();
+        return PARSED_PATTERNS.get(pattern).isTransform;
+    }
+
+    /**
+     * Parses a pattern containing transformation instructions (e.g. <code>MAP(en.map):%s</code>) into a reusable
+     * {@link TransformationExpression}. The parsed patterns are cached, so calling this repeatedly for the same pattern
+     * is cheap.
+     *
+     * @param pattern the pattern that contains the transformation instructions
+     * @return the transformation expression or null, if the pattern does not contain a transformation
+     */
+    public static @Nullable TransformationExpression compile(String pattern) {
+        return PARSED_PATTERNS.get(pattern).expression;
     }
 
     /**
      * Queries the OSGi service registry for a service that provides a transformation service of
      * a given transformation type (e.g. REGEX, XSLT, etc.)
      *
+     * As long as this bundle is started, the services are taken from the services it tracks instead of querying the
+     * service registry with the given context.
+     *
      * @param context the bundle context which can be null
      * @param transformationType the desired transformation type
      * @return a service instance or null, if none could be found
@@ -61,6 +84,15 @@ public class TransformationHelper {
     public static @Nullable TransformationService getTransformationService(@Nullable BundleContext context,
             String transformationType) {
         if (context != null) {
+            TransformationServiceTracker serviceTracker = TransformationActivator.getServiceTracker();
+            if (serviceTracker != null) {
+                TransformationService service = serviceTracker.getService(transformationType);
+                if (service == null) {
+                    LOGGER.debug("Cannot get service reference for transformation service of type {}",
+                            transformationType);
+                }
+                return service;
+            }
             String filter = "(smarthome.transform=" + transformationType + ")";
             try {
                 Collection<ServiceReference<TransformationService>> refs = context
@@ -90,18 +122,9 @@ public class TransformationHelper {
      */
     public static @Nullable String transform(BundleContext context, String stateDescPattern, String state)
             throws TransformationException {
-        Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(stateDescPattern);
-        if (matcher.find()) {
-            String type = matcher.group(1);
-            String pattern = matcher.group(2);
-            String value = matcher.group(3);
-            TransformationService transformation = TransformationHelper.getTransformationService(context, type);
-            if (transformation != null) {
-                return transform(transformation, pattern, value, state);
-            } else {
-                throw new TransformationException("Couldn't transform value because transformation service of type '"
-                        + type + "' is not available.");
-            }
+        TransformationExpression expression = compile(stateDescPattern);
+        if (expression != null) {
+            return expression.transform(context, state);
         } else {
             return state;
         }
@@ -128,4 +151,26 @@ public class TransformationHelper {
         }
     }
 
+    /**
+     * The result of parsing a pattern. A pattern only refers to a transformation service if it matches the syntax as a
+     * whole, while {@link TransformationHelper#transform(BundleContext, String, String)} also accepts a transformation
+     * within a multi-line pattern.
+     */
+    private static class ParsedPattern {
+
+        private final @Nullable TransformationExpression expression;
+        private final boolean isTransform;
+
+        ParsedPattern(String pattern) {
+            Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(pattern);
+            if (matcher.find()) {
+                expression = new TransformationExpression(matcher.group(1), matcher.group(2), matcher.group(3));
+                isTransform = matcher.start() == 0 && matcher.end() == pattern.length();
+            } else {
+                expression = null;
+                isTransform = false;
+            }
+        }
+    }
+
 }
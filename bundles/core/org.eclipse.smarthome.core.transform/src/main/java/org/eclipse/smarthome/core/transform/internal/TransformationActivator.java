@@ -12,6 +12,7 @@
  */
 package org.eclipse.smarthome.core.transform.internal;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
@@ -30,12 +31,17 @@ public final class TransformationActivator implements BundleActivator {
 
     private static BundleContext context;
 
+    private static @Nullable TransformationServiceTracker serviceTracker;
+
     /**
      * Called whenever the OSGi framework starts our bundle
      */
     @Override
     public void start(BundleContext bc) throws Exception {
         context = bc;
+        TransformationServiceTracker serviceTracker = new TransformationServiceTracker(bc);
+        serviceTracker.open();
+        TransformationActivator.serviceTracker = serviceTracker;
         logger.debug("Transformation Service has been started.");
     }
 
@@ -44,6 +50,11 @@ public final class TransformationActivator implements BundleActivator {
      */
     @Override
     public void stop(BundleContext bc) throws Exception {
+        TransformationServiceTracker serviceTracker = TransformationActivator.serviceTracker;
+        if (serviceTracker != null) {
+            TransformationActivator.serviceTracker = null;
+            serviceTracker.close();
+        }
         context = null;
         logger.debug("Transformation Service has been stopped.");
     }
@@ -57,4 +68,13 @@ public final class TransformationActivator implements BundleActivator {
         return context;
     }
 
+    /**
+     * Returns the tracker of the transformation services
+     *
+     * @return the service tracker or null, if the bundle is not started
+     */
+    public static @Nullable TransformationServiceTracker getServiceTracker() {
+        return serviceTracker;
+    }
+
 }
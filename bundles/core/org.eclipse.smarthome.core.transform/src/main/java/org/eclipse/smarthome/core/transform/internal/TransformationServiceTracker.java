@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * The {@link TransformationServiceTracker} tracks the registered {@link TransformationService}s and keeps them indexed
+ * by the transformation types given in their {@code smarthome.transform} service property.
+ * <p>
+ * The index is rebuilt whenever a service is registered, modified or unregistered and published atomically, so a
+ * lookup does not need to query the service registry. If several services provide the same type, the one with the
+ * highest ranking is used.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationServiceTracker extends ServiceTracker<TransformationService, TransformationService> {
+
+    /** The name of the service property holding the transformation type(s) of a service. */
+    public static final String TRANSFORMATION_TYPE_PROPERTY = "smarthome.transform";
+
+    private final Map<ServiceReference<TransformationService>, TransformationService> services = new HashMap<>();
+
+    private volatile Map<String, TransformationService> servicesByType = Collections.emptyMap();
+
+    /**
+     * Constructor.
+     *
+     * @param context the bundle context to track the services with
+     */
+    public TransformationServiceTracker(BundleContext context) {
+        super(context, TransformationService.class, null);
+    }
+
+    /**
+     * Gets the transformation service of the given type.
+     *
+     * @param transformationType the transformation type (e.g. REGEX, XSLT, etc.)
+     * @return the transformation service or null, if none is registered for the type
+     */
+    public @Nullable TransformationService getService(String transformationType) {
+        return servicesByType.get(transformationType);
+    }
+
+    @Override
+    public @Nullable TransformationService addingService(ServiceReference<TransformationService> reference) {
+        TransformationService service = super.addingService(reference);
+        if (service != null) {
+            synchronized (services) {
+                services.put(reference, service);
+                updateIndex();
+            }
+        }
+        return service;
+    }
+
+    @Override
+    public void modifiedService(ServiceReference<TransformationService> reference, TransformationService service) {
+        // the types or the ranking of the service could have changed
+        synchronized (services) {
+            updateIndex();
+        }
+    }
+
+    @Override
+    public void removedService(ServiceReference<TransformationService> reference, TransformationService service) {
+        synchronized (services) {
+            services.remove(reference);
+            updateIndex();
+        }
+        super.removedService(reference, service);
+    }
+
+    private void updateIndex() {
+        Map<String, ServiceReference<TransformationService>> references = new HashMap<>();
+        Map<String, TransformationService> newServicesByType = new HashMap<>();
+        for (Entry<ServiceReference<TransformationService>, TransformationService> entry : services.entrySet()) {
+            for (String type : getTypes(entry.getKey())) {
+                ServiceReference<TransformationService> current = references.get(type);
+                if (current == null || entry.getKey().compareTo(current) > 0) {
+                    references.put(type, entry.getKey());
+                    newServicesByType.put(type, entry.getValue());
+                }
+            }
+        }
+        servicesByType = Collections.unmodifiableMap(newServicesByType);
+    }
+
+    private static String[] getTypes(ServiceReference<TransformationService> reference) {
+        Object types = reference.getProperty(TRANSFORMATION_TYPE_PROPERTY);
+        if (types instanceof String) {
+            return new String[] { (String) types };
+        } else if (types instanceof String[]) {
+            return (String[]) types;
+        }
+        return new String[0];
+    }
+
+}
@@ -12,6 +12,7 @@
  */
 package org.eclipse.smarthome.core.common;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -34,6 +35,24 @@ public interface SafeCallerBuilder<T> {
      */
     T build();
 
+    /**
+     * Creates a reusable handle which safely executes the given call on the target object.
+     * <p>
+     * In contrast to {@link #build()} no dynamic proxy is involved and the call is not made via reflection, so this
+     * should be preferred if the same call is made frequently (e.g. for every event), keeping the handle instead of
+     * creating a new one for each call.
+     * <p>
+     * The default implementation executes the call on a dynamic proxy created by {@link #build()}.
+     *
+     * @param call the call to execute on the target object, e.g. a method reference like
+     *            {@code EventSubscriber::receive}
+     * @return a consumer which executes the call with its argument on the target object
+     */
+    default <A> Consumer<A> build(BiConsumer<T, A> call) {
+        final T proxy = build();
+        return argument -> call.accept(proxy, argument);
+    }
+
     /**
      * Sets the timeout
      *
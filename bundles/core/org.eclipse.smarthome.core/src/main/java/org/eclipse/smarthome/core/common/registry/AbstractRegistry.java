@@ -13,7 +13,9 @@
 package org.eclipse.smarthome.core.common.registry;
 
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -69,7 +71,13 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
     private final Map<Provider<E>, Collection<E>> providerToElements = new HashMap<>();
     private final Map<E, Provider<E>> elementToProvider = new HashMap<>();
     private final Map<K, E> identifierToElement = new HashMap<>();
-    private final Set<E> elements = new HashSet<>();
+
+    /**
+     * The immutable snapshot of the elements, which allows reading them without locking and copying. It is dropped on
+     * every change while holding the write lock and created again on the next read, so a batch of changes only needs
+     * one copy of the elements.
+     */
+    private volatile Snapshot<K, E> snapshot = new Snapshot<>(Collections.emptyMap());
 
     private final Collection<RegistryChangeListener<E>> listeners = new CopyOnWriteArraySet<RegistryChangeListener<E>>();
 
@@ -148,6 +156,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
             if (!added(provider, element, providerElements)) {
                 return;
             }
+            invalidateSnapshot();
         } finally {
             elementWriteLock.unlock();
         }
@@ -185,23 +194,61 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
         identifierToElement.put(element.getUID(), element);
         elementToProvider.put(element, provider);
         providerElements.add(element);
-        elements.add(element);
         return true;
     }
 
+    /**
+     * Drops the snapshot of the elements after they have been changed.
+     *
+     * <p>
+     * This method must only be called if the write lock for elements has been locked!
+     */
+    private void invalidateSnapshot() {
+        snapshot = null;
+    }
+
+    /**
+     * Gets the snapshot of the current elements, creating it if the elements have been changed since it was created.
+     *
+     * @return the snapshot
+     */
+    private Snapshot<K, E> getSnapshot() {
+        Snapshot<K, E> snapshot = this.snapshot;
+        if (snapshot == null) {
+            elementReadLock.lock();
+            try {
+                // the elements cannot change while holding the read lock, so the snapshot is still valid afterwards
+                snapshot = this.snapshot;
+                if (snapshot == null) {
+                    snapshot = new Snapshot<>(identifierToElement);
+                    this.snapshot = snapshot;
+                }
+            } finally {
+                elementReadLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
     @Override
     public void addRegistryChangeListener(RegistryChangeListener<E> listener) {
         listeners.add(listener);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The returned collection is an unmodifiable snapshot, it is not affected by later changes of the registry.
+     */
     @Override
     public Collection<@NonNull E> getAll() {
-        elementReadLock.lock();
-        try {
-            return new HashSet<>(elements);
-        } finally {
-            elementReadLock.unlock();
+        if (elementWriteLock.isHeldByCurrentThread()) {
+            // called while changing the elements (e.g. by onAddElement), which must see the changes made so far
+            return Collections.unmodifiableCollection(new ArrayList<>(identifierToElement.values()));
         }
+        // the snapshot is immutable, so it can be handed out without copying
+        return getSnapshot().elements;
     }
 
     @Override
@@ -233,7 +280,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
             identifierToElement.remove(uid);
             elementToProvider.remove(existingElement);
             providerToElements.get(provider).remove(existingElement);
-            elements.remove(existingElement);
+            invalidateSnapshot();
         } finally {
             elementWriteLock.unlock();
         }
@@ -280,8 +327,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
             final Collection<E> providerElements = providerToElements.get(provider);
             providerElements.remove(existingElement);
             providerElements.add(element);
-            elements.remove(existingElement);
-            elements.add(element);
+            invalidateSnapshot();
         } finally {
             elementWriteLock.unlock();
         }
@@ -290,12 +336,11 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
 
     @Override
     public E get(K key) {
-        elementReadLock.lock();
-        try {
+        if (elementWriteLock.isHeldByCurrentThread()) {
+            // called while changing the elements (e.g. by onAddElement), which must see the changes made so far
             return identifierToElement.get(key);
-        } finally {
-            elementReadLock.unlock();
         }
+        return getSnapshot().identifierToElement.get(key);
     }
 
     /**
@@ -392,6 +437,9 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
                     elementsAdded.add(element);
                 }
             }
+            if (!elementsAdded.isEmpty()) {
+                invalidateSnapshot();
+            }
         } finally {
             elementWriteLock.unlock();
         }
@@ -442,7 +490,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
      * collections.
      * You should also not call third party code that could e.g. access the registry itself again. This could lead to a
      * dead lock and hard finding bugs.
-     * The {@link #getAll()} and {@link #stream()} method will operate on a copy and so no lock is hold.
+     * The {@link #getAll()} and {@link #stream()} method will operate on a snapshot and so no lock is hold.
      *
      * @param provider provider to traverse elements of
      * @param consumer function to call with element
@@ -468,14 +516,14 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
      * collections.
      * You should also not call third party code that could e.g. access the registry itself again. This could lead to a
      * dead lock and hard finding bugs.
-     * The {@link #getAll()} and {@link #stream()} method will operate on a copy and so no lock is hold.
+     * The {@link #getAll()} and {@link #stream()} method will operate on a snapshot and so no lock is hold.
      * 
      * @param consumer function to call with element
      */
     protected void forEach(Consumer<E> consumer) {
         elementReadLock.lock();
         try {
-            elements.forEach(consumer);
+            identifierToElement.values().forEach(consumer);
         } finally {
             elementReadLock.unlock();
         }
@@ -491,7 +539,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
      * collections.
      * You should also not call third party code that could e.g. access the registry itself again. This could lead to a
      * dead lock and hard finding bugs.
-     * The {@link #getAll()} and {@link #stream()} method will operate on a copy and so no lock is hold.
+     * The {@link #getAll()} and {@link #stream()} method will operate on a snapshot and so no lock is hold.
      * 
      * @param consumer function to call with the provider and element
      */
@@ -600,10 +648,10 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
                             ex.getMessage(), ex);
                 }
                 removedElements.add(element);
-                elements.remove(element);
                 elementToProvider.remove(element);
                 identifierToElement.remove(element.getUID());
             }
+            invalidateSnapshot();
         } finally {
             elementWriteLock.unlock();
         }
@@ -640,4 +688,18 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
         }
     }
 
+    /**
+     * An immutable snapshot of the elements of the registry.
+     */
+    private static final class Snapshot<K, E> {
+
+        private final Map<K, E> identifierToElement;
+        private final Set<E> elements;
+
+        Snapshot(Map<K, E> identifierToElement) {
+            this.identifierToElement = Collections.unmodifiableMap(new HashMap<>(identifierToElement));
+            this.elements = Collections.unmodifiableSet(new HashSet<>(identifierToElement.values()));
+        }
+    }
+
 }
@@ -12,6 +12,8 @@
  */
 package org.eclipse.smarthome.core.events;
 
+import java.util.function.Supplier;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -25,7 +27,9 @@ public abstract class AbstractEvent implements Event {
 
     private final String topic;
 
-    private final String payload;
+    private volatile @Nullable String payload;
+
+    private final @Nullable Supplier<String> payloadSupplier;
 
     private final @Nullable String source;
 
@@ -39,6 +43,25 @@ public abstract class AbstractEvent implements Event {
     public AbstractEvent(String topic, String payload, @Nullable String source) {
         this.topic = topic;
         this.payload = payload;
+        this.payloadSupplier = null;
+        this.source = source;
+    }
+
+    /**
+     * Must be called in subclass constructor to create a new event whose payload is serialized lazily.
+     *
+     * The supplier is called at most once per event (unless accessed concurrently), the first time the payload is
+     * requested. Events which are only received by subscribers within the same runtime are thus not serialized,
+     * unless other OSGi Event Admin handlers are registered for them.
+     *
+     * @param topic the topic
+     * @param payloadSupplier the supplier of the serialized payload
+     * @param source the source
+     */
+    protected AbstractEvent(String topic, Supplier<String> payloadSupplier, @Nullable String source) {
+        this.topic = topic;
+        this.payload = null;
+        this.payloadSupplier = payloadSupplier;
         this.source = source;
     }
 
@@ -49,6 +72,15 @@ public abstract class AbstractEvent implements Event {
 
     @Override
     public String getPayload() {
+        String payload = this.payload;
+        if (payload == null) {
+            Supplier<String> payloadSupplier = this.payloadSupplier;
+            if (payloadSupplier == null) {
+                throw new IllegalStateException("The event has neither a payload nor a payload supplier.");
+            }
+            payload = payloadSupplier.get();
+            this.payload = payload;
+        }
         return payload;
     }
 
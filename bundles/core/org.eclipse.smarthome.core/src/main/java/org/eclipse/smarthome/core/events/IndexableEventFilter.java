@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.events;
+
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * An {@link IndexableEventFilter} is an {@link EventFilter} which declares up front the topics of the events it can
+ * apply to. This allows the event bus to select the candidate {@link EventSubscriber}s of an event by its topic instead
+ * of applying the filter of every subscriber.
+ * <p>
+ * The filter is still applied to each event whose topic matches one of the keys. The keys must not change as long as
+ * the subscriber is registered.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public interface IndexableEventFilter extends EventFilter {
+
+    /**
+     * Gets the topic keys of the filter. A key ending with a '/' is a topic prefix that matches all topics starting
+     * with it, every other key must be equal to the topic of an event. The filter must not apply to any event whose
+     * topic does not match one of the keys.
+     *
+     * @return the topic keys, or an empty set if the filter cannot be restricted to specific topics
+     */
+    Set<String> getTopicKeys();
+
+}
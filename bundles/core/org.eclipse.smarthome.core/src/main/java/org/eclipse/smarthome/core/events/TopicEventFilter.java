@@ -12,16 +12,28 @@
  */
 package org.eclipse.smarthome.core.events;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 /**
  * The {@link TopicEventFilter} is a default Eclipse SmartHome {@link EventFilter} implementation that ensures filtering
  * of events based on an event topic.
+ *
+ * If the regular expression is a plain topic or a plain topic prefix ending with '/' followed by {@code .*}, the filter
+ * declares it as its {@link #getTopicKeys() topic key}, so the event bus does not need to apply it to other topics.
  * 
  * @author Stefan Bußweiler - Initial contribution
  */
-public class TopicEventFilter implements EventFilter {
+public class TopicEventFilter implements IndexableEventFilter {
+
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String ANY_SUFFIX = ".*";
+
+    private final Pattern topicRegex;
+
+    private final Set<String> topicKeys;
 
-    private final String topicRegex;
-    
     /**
      * Constructs a new topic event filter.
      * 
@@ -29,12 +41,40 @@ public class TopicEventFilter implements EventFilter {
      * @see <a href="http://docs.oracle.com/javase/7/docs/api/java/util/regex/Pattern.html">Java Regex</a>
      */
     public TopicEventFilter(String topicRegex) {
-        this.topicRegex = topicRegex;
+        this.topicRegex = Pattern.compile(topicRegex);
+        this.topicKeys = getTopicKeys(topicRegex);
     }
- 
+
     @Override
     public boolean apply(Event event) {
-        return event.getTopic().matches(topicRegex);
+        return topicRegex.matcher(event.getTopic()).matches();
+    }
+
+    @Override
+    public Set<String> getTopicKeys() {
+        return topicKeys;
+    }
+
+    private static Set<String> getTopicKeys(String topicRegex) {
+        if (isLiteral(topicRegex)) {
+            return Collections.singleton(topicRegex);
+        }
+        if (topicRegex.endsWith(ANY_SUFFIX)) {
+            String prefix = topicRegex.substring(0, topicRegex.length() - ANY_SUFFIX.length());
+            if (prefix.endsWith("/") && isLiteral(prefix)) {
+                return Collections.singleton(prefix);
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    private static boolean isLiteral(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_META_CHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
@@ -13,7 +13,6 @@
 package org.eclipse.smarthome.core.internal.common;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
@@ -89,28 +88,28 @@ abstract class AbstractInvocationHandler<T> {
         return timeoutHandler;
     }
 
-    void handleExecutionException(Method method, ExecutionException e) {
+    void handleExecutionException(Invocation invocation, ExecutionException e) {
         if (e.getCause() instanceof DuplicateExecutionException) {
-            handleDuplicate(method, (DuplicateExecutionException) e.getCause());
+            handleDuplicate(invocation, (DuplicateExecutionException) e.getCause());
         } else if (e.getCause() instanceof InvocationTargetException) {
-            handleException(method, (InvocationTargetException) e.getCause());
+            handleException(invocation, (InvocationTargetException) e.getCause());
         }
     }
 
-    void handleException(Method method, InvocationTargetException e) {
-        logger.error(MSG_ERROR, toString(method), target, e.getCause().getMessage(), e.getCause());
+    void handleException(Invocation invocation, InvocationTargetException e) {
+        logger.error(MSG_ERROR, invocation.getMethodName(), target, e.getCause().getMessage(), e.getCause());
         if (exceptionHandler != null) {
             exceptionHandler.accept(e.getCause());
         }
     }
 
-    void handleDuplicate(Method method, DuplicateExecutionException e) {
+    void handleDuplicate(Invocation invocation, DuplicateExecutionException e) {
         Thread thread = e.getCallable().getThread();
-        logger.debug(MSG_DUPLICATE, toString(method), target, toString(e.getCallable().getMethod()), thread.getName(),
-                thread.getId(), thread.getState().toString(), getStacktrace(thread));
+        logger.debug(MSG_DUPLICATE, invocation.getMethodName(), target, e.getCallable().getMethodName(),
+                thread.getName(), thread.getId(), thread.getState().toString(), getStacktrace(thread));
     }
 
-    void handleTimeout(Method method, Invocation invocation) {
+    void handleTimeout(Invocation invocation) {
         final Thread thread = invocation.getThread();
         if (thread != null) {
             logger.debug(MSG_TIMEOUT_R, timeout, toString(invocation.getInvocationStack()), thread.getName(),
@@ -124,7 +123,7 @@ abstract class AbstractInvocationHandler<T> {
     }
 
     private String toString(Collection<Invocation> invocationStack) {
-        return invocationStack.stream().map(invocation -> "\t'" + toString(invocation.getMethod()) + "' on '"
+        return invocationStack.stream().map(invocation -> "\t'" + invocation.getMethodName() + "' on '"
                 + invocation.getInvocationHandler().getTarget() + "'").collect(Collectors.joining(" via\n"));
     }
 
@@ -138,9 +137,16 @@ abstract class AbstractInvocationHandler<T> {
         return Arrays.stream(elements).map(element -> "\tat " + element.toString()).collect(Collectors.joining("\n"));
     }
 
-    String toString(Method method) {
-        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
-    }
+    /**
+     * Executes the given invocation according to the mode of the handler.
+     *
+     * @param invocation the invocation
+     * @return the result of the call, always {@code null} for asynchronous calls
+     * @throws IllegalAccessException if the called method is not accessible
+     * @throws InterruptedException if the thread was interrupted while waiting for a synchronous call
+     */
+    @Nullable
+    abstract Object execute(Invocation invocation) throws IllegalAccessException, InterruptedException;
 
     @Nullable
     Object invokeDirect(Invocation invocation) throws IllegalAccessException, IllegalArgumentException {
@@ -150,9 +156,9 @@ abstract class AbstractInvocationHandler<T> {
             return null;
         }
         try {
-            return invocation.getMethod().invoke(target, invocation.getArgs());
+            return invocation.invoke(target);
         } catch (InvocationTargetException e) {
-            handleException(invocation.getMethod(), e);
+            handleException(invocation, e);
             return null;
         } finally {
             manager.recordCallEnd(invocation);
@@ -12,34 +12,60 @@
  */
 package org.eclipse.smarthome.core.internal.common;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Represents a call to the dynamic proxy which wraps a {@link Callable} and tracks the executing thread.
+ * <p>
+ * The call is either a reflective call of a method of the target or - for handles created by
+ * {@link SafeCallerBuilderImpl#build(BiConsumer)} - a direct call of a {@link BiConsumer}. Invocations which are
+ * watched for timeouts are {@link Delayed} by their timeout, so they can be queued by the {@link SafeCallManagerImpl}
+ * without any further wrapping.
  *
  * @author Simon Kaufmann - initial contribution and API.
  *
  */
-class Invocation implements Callable<Object> {
+class Invocation implements Callable<Object>, Delayed {
 
-    private final Method method;
+    private final @Nullable Method method;
     private final @Nullable Object @Nullable [] args;
+    private final @Nullable BiConsumer<Object, @Nullable Object> call;
+    private final @Nullable Object argument;
+    private final @Nullable String callName;
     private final AbstractInvocationHandler<?> invocationHandler;
-    private final Deque<Invocation> invocationStack = new LinkedList<>();
+    private @Nullable Deque<Invocation> invocationStack;
 
     @Nullable
     private Thread thread;
 
+    private long deadline;
+
     Invocation(AbstractInvocationHandler<?> invocationHandler, Method method, @Nullable Object @Nullable [] args) {
         this.method = method;
         this.args = args;
+        this.call = null;
+        this.argument = null;
+        this.callName = null;
+        this.invocationHandler = invocationHandler;
+    }
+
+    Invocation(AbstractInvocationHandler<?> invocationHandler, String callName,
+            BiConsumer<Object, @Nullable Object> call, @Nullable Object argument) {
+        this.method = null;
+        this.args = null;
+        this.call = call;
+        this.argument = argument;
+        this.callName = callName;
         this.invocationHandler = invocationHandler;
-        this.invocationStack.push(this);
     }
 
     @Nullable
@@ -53,12 +79,40 @@ class Invocation implements Callable<Object> {
         return invocationHandler.invokeDirect(this);
     }
 
-    Method getMethod() {
-        return method;
+    /**
+     * Executes the call on the given target.
+     *
+     * @param target the target
+     * @return the result of the call
+     * @throws InvocationTargetException if the call threw an exception
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    @Nullable
+    Object invoke(Object target) throws InvocationTargetException, IllegalAccessException {
+        final BiConsumer<Object, @Nullable Object> call = this.call;
+        if (call == null) {
+            return method.invoke(target, args);
+        }
+        try {
+            call.accept(target, argument);
+        } catch (Throwable t) {
+            // behave like a reflective call
+            throw new InvocationTargetException(t);
+        }
+        return null;
     }
 
-    Object[] getArgs() {
-        return args;
+    /**
+     * Gets a human readable name of the called method, used for logging.
+     *
+     * @return the name of the called method
+     */
+    String getMethodName() {
+        final Method method = this.method;
+        if (method == null) {
+            return String.valueOf(callName);
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
     }
 
     long getTimeout() {
@@ -75,11 +129,38 @@ class Invocation implements Callable<Object> {
 
     @Override
     public String toString() {
-        return "invocation of '" + method.getName() + "()' on '" + invocationHandler.getTarget() + "'";
+        return "invocation of '" + getMethodName() + "' on '" + invocationHandler.getTarget() + "'";
     }
 
     Deque<Invocation> getInvocationStack() {
+        Deque<Invocation> invocationStack = this.invocationStack;
+        if (invocationStack == null) {
+            // only needed for nested calls and timeouts, so created on demand
+            invocationStack = new LinkedList<>();
+            invocationStack.push(this);
+            this.invocationStack = invocationStack;
+        }
         return invocationStack;
     }
 
+    /**
+     * Starts the timeout of the invocation.
+     */
+    void startTimeout() {
+        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getTimeout());
+    }
+
+    @Override
+    public long getDelay(@Nullable TimeUnit unit) {
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(@Nullable Delayed other) {
+        if (other instanceof Invocation) {
+            return Long.compare(deadline, ((Invocation) other).deadline);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
 }
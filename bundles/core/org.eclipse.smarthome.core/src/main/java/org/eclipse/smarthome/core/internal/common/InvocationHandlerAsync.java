@@ -41,11 +41,18 @@ class InvocationHandlerAsync<T> extends AbstractInvocationHandler<T> implements
     @Nullable
     public Object invoke(@Nullable Object proxy, @Nullable Method method, Object @Nullable [] args) throws Throwable {
         if (method != null) {
-            try {
-                getManager().enqueue(new Invocation(this, method, args));
-            } catch (DuplicateExecutionException e) {
-                handleDuplicate(method, e);
-            }
+            execute(new Invocation(this, method, args));
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    Object execute(Invocation invocation) {
+        try {
+            getManager().enqueue(invocation);
+        } catch (DuplicateExecutionException e) {
+            handleDuplicate(invocation, e);
         }
         return null;
     }
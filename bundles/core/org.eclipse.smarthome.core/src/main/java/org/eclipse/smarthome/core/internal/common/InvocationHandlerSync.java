@@ -48,28 +48,34 @@ public class InvocationHandlerSync<T> extends AbstractInvocationHandler<T> imple
     @Nullable
     public Object invoke(@Nullable Object proxy, @Nullable Method method, Object @Nullable [] args) throws Throwable {
         if (method != null) {
-            Invocation invocation = new Invocation(this, method, args);
-            Invocation activeInvocation = getManager().getActiveInvocation();
-            if (activeInvocation != null) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug(MSG_CONTEXT, toString(method), getTarget());
-                }
-                try {
-                    activeInvocation.getInvocationStack().push(invocation);
-                    return invokeDirect(invocation);
-                } finally {
-                    activeInvocation.getInvocationStack().poll();
-                }
+            return execute(new Invocation(this, method, args));
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    Object execute(Invocation invocation) throws IllegalAccessException, InterruptedException {
+        Invocation activeInvocation = getManager().getActiveInvocation();
+        if (activeInvocation != null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(MSG_CONTEXT, invocation.getMethodName(), getTarget());
             }
             try {
-                Future<Object> future = getManager().getScheduler().submit(invocation);
-                return future.get(getTimeout(), TimeUnit.MILLISECONDS);
-            } catch (TimeoutException e) {
-                handleTimeout(method, invocation);
-            } catch (ExecutionException e) {
-                handleExecutionException(method, e);
+                activeInvocation.getInvocationStack().push(invocation);
+                return invokeDirect(invocation);
+            } finally {
+                activeInvocation.getInvocationStack().poll();
             }
         }
+        try {
+            Future<Object> future = getManager().getScheduler().submit(invocation);
+            return future.get(getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            handleTimeout(invocation);
+        } catch (ExecutionException e) {
+            handleExecutionException(invocation, e);
+        }
         return null;
     }
 
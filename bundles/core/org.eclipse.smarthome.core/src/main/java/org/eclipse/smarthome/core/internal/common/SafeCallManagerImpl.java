@@ -16,9 +16,11 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.DelayQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -43,6 +45,13 @@ public class SafeCallManagerImpl implements SafeCallManager {
     private final Map<Object, @Nullable Invocation> activeIdentifiers = new HashMap<>();
     private final Map<Object, @Nullable Invocation> activeAsyncInvocations = new HashMap<>();
 
+    /** The time the watcher task waits for further invocations before it ends, if there is nothing to watch. */
+    private static final long WATCHER_IDLE_TIMEOUT = 10;
+
+    /** The watched asynchronous invocations, ordered by their timeout, all handled by a single watcher task. */
+    private final DelayQueue<Invocation> timeouts = new DelayQueue<>();
+    private final AtomicBoolean watching = new AtomicBoolean();
+
     private final ScheduledExecutorService watcher;
     private final ExecutorService scheduler;
     private boolean enforceSingleThreadPerIdentifier;
@@ -126,7 +135,7 @@ public class SafeCallManagerImpl implements SafeCallManager {
         if (activeAsyncInvocation == invocation) {
             Invocation activeInvocation = activeIdentifiers.get(identifier);
             if (activeInvocation != null) {
-                invocation.getInvocationHandler().handleTimeout(invocation.getMethod(), activeInvocation);
+                invocation.getInvocationHandler().handleTimeout(activeInvocation);
             }
         }
     }
@@ -161,10 +170,36 @@ public class SafeCallManagerImpl implements SafeCallManager {
     }
 
     private void watch(Invocation invocation) {
-        watcher.schedule(() -> {
-            handlePotentialTimeout(invocation);
-        }, invocation.getTimeout(), TimeUnit.MILLISECONDS);
-        logger.trace("Scheduling timeout watcher in {}ms", invocation.getTimeout());
+        invocation.startTimeout();
+        timeouts.offer(invocation);
+        if (!watching.getAndSet(true)) {
+            watcher.submit(this::watchTimeouts);
+        }
+        logger.trace("Watching for a timeout in {}ms", invocation.getTimeout());
+    }
+
+    private void watchTimeouts() {
+        try {
+            while (true) {
+                Invocation invocation = timeouts.poll(WATCHER_IDLE_TIMEOUT, TimeUnit.SECONDS);
+                if (invocation != null) {
+                    try {
+                        handlePotentialTimeout(invocation);
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to handle the timeout of {}", invocation, e);
+                    }
+                } else if (timeouts.isEmpty()) {
+                    watching.set(false);
+                    // an invocation could have been added in the meantime without starting a new watcher
+                    if (timeouts.isEmpty() || watching.getAndSet(true)) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // the watcher has been shut down, a new one is started for the next invocation
+            watching.set(false);
+        }
     }
 
     public void setEnforceSingleThreadPerIdentifier(boolean enforceSingleThreadPerIdentifier) {
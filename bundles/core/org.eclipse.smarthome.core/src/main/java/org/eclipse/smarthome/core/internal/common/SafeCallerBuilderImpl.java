@@ -16,6 +16,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -57,18 +58,40 @@ public class SafeCallerBuilderImpl<T> implements SafeCallerBuilder<T> {
     @Override
     public T build() {
         return AccessController.doPrivileged((PrivilegedAction<T>) () -> {
-            InvocationHandler handler;
-            if (async) {
-                handler = new InvocationHandlerAsync<T>(manager, target, identifier, timeout, exceptionHandler,
-                        timeoutHandler);
-            } else {
-                handler = new InvocationHandlerSync<T>(manager, target, identifier, timeout, exceptionHandler,
-                        timeoutHandler);
-            }
+            InvocationHandler handler = (InvocationHandler) createInvocationHandler();
             return (T) Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaceTypes, handler);
         });
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <A> Consumer<A> build(BiConsumer<T, A> call) {
+        final AbstractInvocationHandler<T> handler = createInvocationHandler();
+        final BiConsumer<Object, @Nullable Object> untypedCall = (BiConsumer<Object, @Nullable Object>) call;
+        // the called method is not known, so name the call by the class of the target and the called interface
+        final String callName = target.getClass().getName() + " (" + interfaceTypes[0].getSimpleName() + ")";
+        return argument -> {
+            try {
+                handler.execute(new Invocation(handler, callName, untypedCall, argument));
+            } catch (IllegalAccessException e) {
+                // cannot happen, the call is not made via reflection
+                throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private AbstractInvocationHandler<T> createInvocationHandler() {
+        if (async) {
+            return new InvocationHandlerAsync<T>(manager, target, identifier, timeout, exceptionHandler,
+                    timeoutHandler);
+        } else {
+            return new InvocationHandlerSync<T>(manager, target, identifier, timeout, exceptionHandler,
+                    timeoutHandler);
+        }
+    }
+
     @Override
     public SafeCallerBuilder<T> withTimeout(long timeout) {
         this.timeout = timeout;
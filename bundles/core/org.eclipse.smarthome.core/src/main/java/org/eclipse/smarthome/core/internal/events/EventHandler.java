@@ -13,9 +13,9 @@
 package org.eclipse.smarthome.core.internal.events;
 
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -24,6 +24,7 @@ import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFactory;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.internal.events.EventSubscriberIndex.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,20 +38,20 @@ public class EventHandler {
 
     private final Logger logger = LoggerFactory.getLogger(EventHandler.class);
 
-    private final Map<String, Set<EventSubscriber>> typedEventSubscribers;
+    private final EventSubscriberIndex eventSubscribers;
     private final Map<String, EventFactory> typedEventFactories;
     private final SafeCaller safeCaller;
 
     /**
      * Create a new event handler.
      *
-     * @param typedEventSubscribers the event subscribers indexed by the event type
+     * @param eventSubscribers the index of the event subscribers
      * @param typedEventFactories the event factories indexed by the event type
      * @param safeCaller the safe caller to use
      */
-    public EventHandler(final Map<String, Set<EventSubscriber>> typedEventSubscribers,
+    public EventHandler(final EventSubscriberIndex eventSubscribers,
             final Map<String, EventFactory> typedEventFactories, final SafeCaller safeCaller) {
-        this.typedEventSubscribers = typedEventSubscribers;
+        this.eventSubscribers = eventSubscribers;
         this.typedEventFactories = typedEventFactories;
         this.safeCaller = safeCaller;
     }
@@ -58,6 +59,13 @@ public class EventHandler {
     public void handleEvent(org.osgi.service.event.Event osgiEvent) {
         logger.trace("Handle OSGi event (event: {})", osgiEvent);
 
+        Object eventObj = osgiEvent.getProperty("event");
+        if (eventObj instanceof Event) {
+            // the event has been posted within this runtime, so there is no need to recreate it from its payload
+            handleEvent((Event) eventObj);
+            return;
+        }
+
         Object typeObj = osgiEvent.getProperty("type");
         Object payloadObj = osgiEvent.getProperty("payload");
         Object topicObj = osgiEvent.getProperty("topic");
@@ -87,8 +95,8 @@ public class EventHandler {
             return;
         }
 
-        final Set<EventSubscriber> eventSubscribers = getEventSubscribers(type);
-        if (eventSubscribers.isEmpty()) {
+        final List<Subscription> subscriptions = eventSubscribers.getSubscriptions(type, topic);
+        if (subscriptions.isEmpty()) {
             return;
         }
 
@@ -97,21 +105,16 @@ public class EventHandler {
             return;
         }
 
-        dispatchESHEvent(eventSubscribers, eshEvent);
+        dispatchESHEvent(subscriptions, eshEvent);
     }
 
-    private Set<EventSubscriber> getEventSubscribers(String eventType) {
-        Set<EventSubscriber> eventTypeSubscribers = typedEventSubscribers.get(eventType);
-        Set<EventSubscriber> allEventTypeSubscribers = typedEventSubscribers.get(EventSubscriber.ALL_EVENT_TYPES);
-
-        Set<EventSubscriber> subscribers = new HashSet<>();
-        if (eventTypeSubscribers != null) {
-            subscribers.addAll(eventTypeSubscribers);
-        }
-        if (allEventTypeSubscribers != null) {
-            subscribers.addAll(allEventTypeSubscribers);
+    private void handleEvent(final Event event) {
+        final List<Subscription> subscriptions = eventSubscribers.getSubscriptions(event.getType(), event.getTopic());
+        if (subscriptions.isEmpty()) {
+            return;
         }
-        return subscribers;
+
+        dispatchESHEvent(subscriptions, event);
     }
 
     private @Nullable Event createESHEvent(final EventFactory eventFactory, final String type, final String payload,
@@ -128,19 +131,23 @@ public class EventHandler {
         return eshEvent;
     }
 
-    private synchronized void dispatchESHEvent(final Set<EventSubscriber> eventSubscribers, final Event event) {
-        for (final EventSubscriber eventSubscriber : eventSubscribers) {
-            EventFilter filter = eventSubscriber.getEventFilter();
+    private void dispatchESHEvent(final List<Subscription> subscriptions, final Event event) {
+        for (final Subscription subscription : subscriptions) {
+            EventFilter filter = subscription.getSubscriber().getEventFilter();
             if (filter == null || filter.apply(event)) {
-                safeCaller.create(eventSubscriber, EventSubscriber.class).withAsync().onTimeout(() -> {
-                    logger.warn("Dispatching event to subscriber '{}' takes more than {}ms.",
-                            eventSubscriber.toString(), SafeCaller.DEFAULT_TIMEOUT);
-                }).onException(e -> {
-                    logger.error("Dispatching/filtering event for subscriber '{}' failed: {}",
-                            EventSubscriber.class.getName(), e.getMessage(), e);
-                }).build().receive(event);
+                subscription.getReceiver(this::createReceiver).accept(event);
             }
         }
     }
 
+    private Consumer<Event> createReceiver(final EventSubscriber eventSubscriber) {
+        return safeCaller.create(eventSubscriber, EventSubscriber.class).withAsync().onTimeout(() -> {
+            logger.warn("Dispatching event to subscriber '{}' takes more than {}ms.", eventSubscriber.toString(),
+                    SafeCaller.DEFAULT_TIMEOUT);
+        }).onException(e -> {
+            logger.error("Dispatching/filtering event for subscriber '{}' failed: {}",
+                    EventSubscriber.class.getName(), e.getMessage(), e);
+        }).build(EventSubscriber::receive);
+    }
+
 }
@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.IndexableEventFilter;
+
+/**
+ * The {@link EventSubscriberIndex} keeps the registered {@link EventSubscriber}s indexed by their subscribed event
+ * types and - if their filter is an {@link IndexableEventFilter} - by the topic keys of their filter.
+ * <p>
+ * The index is copy-on-write: modifications create a new immutable snapshot which is published atomically, so lookups
+ * do not need any locking and only touch the subscribers which could be interested in an event.
+ * <p>
+ * Each subscriber is represented by a {@link Subscription} which lives as long as the subscriber is registered, so it
+ * can be used to keep per-subscriber state of the dispatching, like the safe-call handle used to deliver the events.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class EventSubscriberIndex {
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    /** The subscriptions of the registered subscribers, holding the event types and topic keys they are indexed by. */
+    private final Map<EventSubscriber, Subscription> subscriptions = new IdentityHashMap<>();
+
+    private volatile Map<String, TypeEntry> entries = Collections.emptyMap();
+
+    /**
+     * Adds an event subscriber to the index.
+     *
+     * @param subscriber the event subscriber
+     */
+    public synchronized void add(EventSubscriber subscriber) {
+        if (subscriptions.containsKey(subscriber)) {
+            return;
+        }
+        Subscription subscription = new Subscription(subscriber);
+        subscriptions.put(subscriber, subscription);
+
+        Map<String, TypeEntry> newEntries = new HashMap<>(entries);
+        for (String type : subscription.types) {
+            TypeEntry entry = newEntries.get(type);
+            newEntries.put(type, (entry == null ? TypeEntry.EMPTY : entry).with(subscription));
+        }
+        entries = Collections.unmodifiableMap(newEntries);
+    }
+
+    /**
+     * Removes an event subscriber from the index.
+     *
+     * @param subscriber the event subscriber
+     */
+    public synchronized void remove(EventSubscriber subscriber) {
+        Subscription subscription = subscriptions.remove(subscriber);
+        if (subscription == null) {
+            return;
+        }
+
+        Map<String, TypeEntry> newEntries = new HashMap<>(entries);
+        for (String type : subscription.types) {
+            TypeEntry entry = newEntries.get(type);
+            if (entry != null) {
+                TypeEntry newEntry = entry.without(subscription);
+                if (newEntry.isEmpty()) {
+                    newEntries.remove(type);
+                } else {
+                    newEntries.put(type, newEntry);
+                }
+            }
+        }
+        entries = Collections.unmodifiableMap(newEntries);
+    }
+
+    /**
+     * Gets the subscriptions of the event subscribers which are subscribed to the given event type (or to all event
+     * types) and whose filter could apply to the given topic. The filters of the returned subscribers still need to be
+     * applied.
+     *
+     * @param eventType the event type
+     * @param topic the topic of the event
+     * @return the candidate subscriptions, each contained only once
+     */
+    public List<Subscription> getSubscriptions(String eventType, String topic) {
+        final Map<String, TypeEntry> entries = this.entries;
+        final TypeEntry typeEntry = entries.get(eventType);
+        final TypeEntry allTypesEntry = entries.get(EventSubscriber.ALL_EVENT_TYPES);
+        if (typeEntry == null && allTypesEntry == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Subscription> subscriptions = new ArrayList<>();
+        if (typeEntry != null) {
+            typeEntry.collect(topic, subscriptions);
+        }
+        if (allTypesEntry != null) {
+            allTypesEntry.collect(topic, subscriptions);
+        }
+        return subscriptions;
+    }
+
+    /**
+     * The subscription of a registered {@link EventSubscriber}.
+     */
+    public static class Subscription {
+
+        private final EventSubscriber subscriber;
+        private final Set<String> types;
+        private final Set<String> topicKeys;
+        private volatile @Nullable Consumer<Event> receiver;
+
+        Subscription(EventSubscriber subscriber) {
+            this.subscriber = subscriber;
+            Set<String> subscribedEventTypes = subscriber.getSubscribedEventTypes();
+            // a subscriber for all event types is only indexed once, so it cannot receive an event twice
+            types = subscribedEventTypes.contains(EventSubscriber.ALL_EVENT_TYPES)
+                    ? Collections.singleton(EventSubscriber.ALL_EVENT_TYPES)
+                    : Collections.unmodifiableSet(new HashSet<>(subscribedEventTypes));
+            EventFilter filter = subscriber.getEventFilter();
+            topicKeys = filter instanceof IndexableEventFilter
+                    ? Collections.unmodifiableSet(new HashSet<>(((IndexableEventFilter) filter).getTopicKeys()))
+                    : Collections.emptySet();
+        }
+
+        /**
+         * Gets the event subscriber.
+         *
+         * @return the event subscriber
+         */
+        public EventSubscriber getSubscriber() {
+            return subscriber;
+        }
+
+        /**
+         * Gets the receiver which delivers the events to the subscriber, creating it on first use.
+         *
+         * @param receiverFactory the factory to create the receiver for the subscriber
+         * @return the receiver
+         */
+        public Consumer<Event> getReceiver(Function<EventSubscriber, Consumer<Event>> receiverFactory) {
+            Consumer<Event> receiver = this.receiver;
+            if (receiver == null) {
+                // creating it twice concurrently does not do any harm
+                receiver = receiverFactory.apply(subscriber);
+                this.receiver = receiver;
+            }
+            return receiver;
+        }
+    }
+
+    /**
+     * The immutable index of the subscribers of one event type.
+     */
+    private static class TypeEntry {
+
+        static final TypeEntry EMPTY = new TypeEntry(NO_SUBSCRIPTIONS, Collections.emptyMap(), Collections.emptyMap());
+
+        /** Subscribers without an indexable filter, they are candidates for every topic. */
+        private final Subscription[] unindexed;
+        private final Map<String, Subscription[]> byTopic;
+        private final Map<String, Subscription[]> byTopicPrefix;
+
+        private TypeEntry(Subscription[] unindexed, Map<String, Subscription[]> byTopic,
+                Map<String, Subscription[]> byTopicPrefix) {
+            this.unindexed = unindexed;
+            this.byTopic = byTopic;
+            this.byTopicPrefix = byTopicPrefix;
+        }
+
+        boolean isEmpty() {
+            return unindexed.length == 0 && byTopic.isEmpty() && byTopicPrefix.isEmpty();
+        }
+
+        TypeEntry with(Subscription subscription) {
+            if (subscription.topicKeys.isEmpty()) {
+                return new TypeEntry(append(unindexed, subscription), byTopic, byTopicPrefix);
+            }
+            Map<String, Subscription[]> newByTopic = new HashMap<>(byTopic);
+            Map<String, Subscription[]> newByTopicPrefix = new HashMap<>(byTopicPrefix);
+            for (String key : subscription.topicKeys) {
+                Map<String, Subscription[]> map = isPrefix(key) ? newByTopicPrefix : newByTopic;
+                Subscription[] subscriptions = map.get(key);
+                map.put(key, append(subscriptions == null ? NO_SUBSCRIPTIONS : subscriptions, subscription));
+            }
+            return new TypeEntry(unindexed, newByTopic, newByTopicPrefix);
+        }
+
+        TypeEntry without(Subscription subscription) {
+            if (subscription.topicKeys.isEmpty()) {
+                return new TypeEntry(remove(unindexed, subscription), byTopic, byTopicPrefix);
+            }
+            Map<String, Subscription[]> newByTopic = new HashMap<>(byTopic);
+            Map<String, Subscription[]> newByTopicPrefix = new HashMap<>(byTopicPrefix);
+            for (String key : subscription.topicKeys) {
+                Map<String, Subscription[]> map = isPrefix(key) ? newByTopicPrefix : newByTopic;
+                Subscription[] subscriptions = map.get(key);
+                if (subscriptions != null) {
+                    Subscription[] remaining = remove(subscriptions, subscription);
+                    if (remaining.length == 0) {
+                        map.remove(key);
+                    } else {
+                        map.put(key, remaining);
+                    }
+                }
+            }
+            return new TypeEntry(unindexed, newByTopic, newByTopicPrefix);
+        }
+
+        void collect(String topic, List<Subscription> result) {
+            result.addAll(Arrays.asList(unindexed));
+            if (byTopic.isEmpty() && byTopicPrefix.isEmpty()) {
+                return;
+            }
+            // a subscriber can only be contained more than once in the keyed part, if several of its keys match
+            final int keyedStart = result.size();
+            addDistinct(byTopic.get(topic), result, keyedStart);
+            if (!byTopicPrefix.isEmpty()) {
+                for (int index = topic.indexOf('/'); index >= 0; index = topic.indexOf('/', index + 1)) {
+                    addDistinct(byTopicPrefix.get(topic.substring(0, index + 1)), result, keyedStart);
+                }
+            }
+        }
+
+        private static void addDistinct(Subscription @Nullable [] subscriptions, List<Subscription> result,
+                int fromIndex) {
+            if (subscriptions == null) {
+                return;
+            }
+            if (result.size() == fromIndex) {
+                result.addAll(Arrays.asList(subscriptions));
+                return;
+            }
+            for (Subscription subscription : subscriptions) {
+                if (!result.subList(fromIndex, result.size()).contains(subscription)) {
+                    result.add(subscription);
+                }
+            }
+        }
+
+        private static boolean isPrefix(String topicKey) {
+            return topicKey.endsWith("/");
+        }
+
+        private static Subscription[] append(Subscription[] subscriptions, Subscription subscription) {
+            Subscription[] result = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+            result[subscriptions.length] = subscription;
+            return result;
+        }
+
+        private static Subscription[] remove(Subscription[] subscriptions, Subscription subscription) {
+            for (int i = 0; i < subscriptions.length; i++) {
+                if (subscriptions[i] == subscription) {
+                    Subscription[] result = new Subscription[subscriptions.length - 1];
+                    System.arraycopy(subscriptions, 0, result, 0, i);
+                    System.arraycopy(subscriptions, i + 1, result, i, subscriptions.length - i - 1);
+                    return result;
+                }
+            }
+            return subscriptions;
+        }
+    }
+
+}
@@ -12,11 +12,9 @@
  */
 package org.eclipse.smarthome.core.internal.events;
 
-import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.smarthome.core.common.SafeCaller;
 import org.eclipse.smarthome.core.events.Event;
@@ -30,6 +28,8 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link OSGiEventManager} provides an OSGi based default implementation of the Eclipse SmartHome event bus.
@@ -38,15 +38,24 @@ import org.osgi.service.event.EventHandler;
  * implementing the OSGi {@link EventHandler} interface) and dispatches the received OSGi events as ESH {@link Event}s
  * to the {@link EventSubscriber}s if the provided filter applies.
  *
+ * The number of threads the received events are dispatched with can be configured by the {@code dispatchThreads}
+ * property of the {@code org.eclipse.smarthome.eventmanager} configuration. Events are partitioned by the entity of
+ * their topic, so the order of the events of one entity (e.g. an item) is kept.
+ *
  * @author Stefan Bußweiler - Initial contribution
  * @author Markus Rathgeb - Return on received events as fast as possible (handle event in another thread)
  */
-@Component(immediate = true, property = { "event.topics:String=smarthome" })
+@Component(immediate = true, configurationPid = "org.eclipse.smarthome.eventmanager", property = {
+        "event.topics:String=smarthome" })
 public class OSGiEventManager implements EventHandler {
 
-    /** The event subscribers indexed by the event type. */
-    // Use a concurrent hash map because the map is written and read by different threads!
-    private final Map<String, Set<EventSubscriber>> typedEventSubscribers = new ConcurrentHashMap<>();
+    private static final String CONFIG_DISPATCH_THREADS = "dispatchThreads";
+    private static final int DEFAULT_DISPATCH_THREADS = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(OSGiEventManager.class);
+
+    /** The event subscribers indexed by the event type and the topic keys of their filters. */
+    private final EventSubscriberIndex eventSubscribers = new EventSubscriberIndex();
     private final Map<String, EventFactory> typedEventFactories = new ConcurrentHashMap<>();
 
     private ThreadedEventHandler eventHandler;
@@ -54,8 +63,9 @@ public class OSGiEventManager implements EventHandler {
     private SafeCaller safeCaller;
 
     @Activate
-    protected void activate(ComponentContext componentContext) {
-        eventHandler = new ThreadedEventHandler(typedEventSubscribers, typedEventFactories, safeCaller);
+    protected void activate(ComponentContext componentContext, Map<String, Object> properties) {
+        eventHandler = new ThreadedEventHandler(eventSubscribers, typedEventFactories, safeCaller,
+                getDispatchThreads(properties));
         eventHandler.open();
     }
 
@@ -69,30 +79,11 @@ public class OSGiEventManager implements EventHandler {
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
     protected void addEventSubscriber(final EventSubscriber eventSubscriber) {
-        final Set<String> subscribedEventTypes = eventSubscriber.getSubscribedEventTypes();
-        for (final String subscribedEventType : subscribedEventTypes) {
-            final Set<EventSubscriber> entries = typedEventSubscribers.get(subscribedEventType);
-            if (entries == null) {
-                // Use a copy on write array set because the set is written and read by different threads!
-                typedEventSubscribers.put(subscribedEventType,
-                        new CopyOnWriteArraySet<>(Collections.singleton(eventSubscriber)));
-            } else {
-                entries.add(eventSubscriber);
-            }
-        }
+        eventSubscribers.add(eventSubscriber);
     }
 
     protected void removeEventSubscriber(EventSubscriber eventSubscriber) {
-        final Set<String> subscribedEventTypes = eventSubscriber.getSubscribedEventTypes();
-        for (final String subscribedEventType : subscribedEventTypes) {
-            final Set<EventSubscriber> entries = typedEventSubscribers.get(subscribedEventType);
-            if (entries != null) {
-                entries.remove(eventSubscriber);
-                if (entries.isEmpty()) {
-                    typedEventSubscribers.remove(subscribedEventType);
-                }
-            }
-        }
+        eventSubscribers.remove(eventSubscriber);
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
@@ -125,6 +116,24 @@ public class OSGiEventManager implements EventHandler {
         this.safeCaller = null;
     }
 
+    private int getDispatchThreads(Map<String, Object> properties) {
+        Object value = properties.get(CONFIG_DISPATCH_THREADS);
+        if (value == null) {
+            return DEFAULT_DISPATCH_THREADS;
+        }
+        try {
+            int threads = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        logger.warn("Ignoring invalid configuration for '{}': {} - value must be a positive integer",
+                CONFIG_DISPATCH_THREADS, value);
+        return DEFAULT_DISPATCH_THREADS;
+    }
+
     @Override
     public void handleEvent(org.osgi.service.event.Event osgiEvent) {
         eventHandler.handleEvent(osgiEvent);
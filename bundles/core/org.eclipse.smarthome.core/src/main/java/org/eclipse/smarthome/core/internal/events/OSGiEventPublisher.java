@@ -17,18 +17,28 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventPublisher;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventHandler;
 
 /**
  * The {@link OSGiEventPublisher} provides an OSGi based default implementation of the Eclipse SmartHome event
  * publisher.
  *
- * Events are send in an asynchronous way via OSGi Event Admin mechanism.
+ * Events are send in an asynchronous way via OSGi Event Admin mechanism. The OSGi event carries the original
+ * {@link Event} object, so subscribers of the {@link OSGiEventManager} receive it without a serialization round trip.
+ * The serialized payload is only added if other Event Admin handlers are registered for the events, since they
+ * cannot make use of the event object.
  *
  * @author Stefan Bußweiler - Initial contribution
  * @author Simon Kaufmann - separated from OSGiEventManager
@@ -36,8 +46,13 @@ import org.osgi.service.event.EventAdmin;
 @Component
 public class OSGiEventPublisher implements EventPublisher {
 
+    private static final String EVENT_MANAGER_COMPONENT_NAME = OSGiEventManager.class.getName();
+
     private EventAdmin osgiEventAdmin;
 
+    /** The Event Admin handlers of the events other than the {@link OSGiEventManager}. */
+    private final Set<ServiceReference<EventHandler>> foreignEventHandlers = ConcurrentHashMap.newKeySet();
+
     @Reference
     protected void setEventAdmin(EventAdmin eventAdmin) {
         this.osgiEventAdmin = eventAdmin;
@@ -47,23 +62,42 @@ public class OSGiEventPublisher implements EventPublisher {
         this.osgiEventAdmin = null;
     }
 
+    @Reference(service = EventHandler.class, cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC, target = "(|(event.topics=smarthome)(event.topics=\\*))")
+    protected void addEventHandler(ServiceReference<EventHandler> eventHandlerReference) {
+        Object componentName = eventHandlerReference.getProperty(ComponentConstants.COMPONENT_NAME);
+        if (!EVENT_MANAGER_COMPONENT_NAME.equals(componentName)) {
+            foreignEventHandlers.add(eventHandlerReference);
+        }
+    }
+
+    protected void removeEventHandler(ServiceReference<EventHandler> eventHandlerReference) {
+        foreignEventHandlers.remove(eventHandlerReference);
+    }
+
     @Override
     public void post(final Event event) throws IllegalArgumentException, IllegalStateException {
         EventAdmin eventAdmin = this.osgiEventAdmin;
-        assertValidArgument(event);
+        // serializing the payload is only worth it if someone reads it
+        boolean withPayload = !foreignEventHandlers.isEmpty();
+        assertValidArgument(event, withPayload);
         assertValidState(eventAdmin);
-        postAsOSGiEvent(eventAdmin, event);
+        postAsOSGiEvent(eventAdmin, event, withPayload);
     }
 
-    private void postAsOSGiEvent(final EventAdmin eventAdmin, final Event event) throws IllegalStateException {
+    private void postAsOSGiEvent(final EventAdmin eventAdmin, final Event event, final boolean withPayload)
+            throws IllegalStateException {
         try {
             AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
                 @Override
                 public Void run() throws Exception {
-                    Dictionary<String, Object> properties = new Hashtable<String, Object>(3);
+                    Dictionary<String, Object> properties = new Hashtable<String, Object>(5);
                     properties.put("type", event.getType());
-                    properties.put("payload", event.getPayload());
+                    if (withPayload) {
+                        properties.put("payload", event.getPayload());
+                    }
                     properties.put("topic", event.getTopic());
+                    properties.put("event", event);
                     if (event.getSource() != null) {
                         properties.put("source", event.getSource());
                     }
@@ -78,7 +112,7 @@ public class OSGiEventPublisher implements EventPublisher {
         }
     }
 
-    private void assertValidArgument(Event event) throws IllegalArgumentException {
+    private void assertValidArgument(Event event, boolean withPayload) throws IllegalArgumentException {
         String errorMsg = "The %s of the 'event' argument must not be null or empty.";
         String value;
 
@@ -88,7 +122,7 @@ public class OSGiEventPublisher implements EventPublisher {
         if ((value = event.getType()) == null || value.isEmpty()) {
             throw new IllegalArgumentException(String.format(errorMsg, "type"));
         }
-        if ((value = event.getPayload()) == null || value.isEmpty()) {
+        if (withPayload && ((value = event.getPayload()) == null || value.isEmpty())) {
             throw new IllegalArgumentException(String.format(errorMsg, "payload"));
         }
         if ((value = event.getTopic()) == null || value.isEmpty()) {
@@ -15,7 +15,6 @@ package org.eclipse.smarthome.core.internal.events;
 import java.io.Closeable;
 import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -24,74 +23,147 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.common.SafeCaller;
 import org.eclipse.smarthome.core.events.EventFactory;
-import org.eclipse.smarthome.core.events.EventSubscriber;
 import org.osgi.service.event.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Handle Eclipse SmartHome events encapsulated by OSGi events in a separate thread.
+ * Handle Eclipse SmartHome events encapsulated by OSGi events in separate threads.
+ *
+ * <p>
+ * The events are partitioned by the entity part of their topic (e.g. the item name for
+ * {@code smarthome/items/<itemName>/state}) across a fixed number of dispatcher threads. Events of the same entity are
+ * always handled by the same thread, so their order is kept, while events of unrelated entities do not queue up behind
+ * each other.
  *
  * @author Markus Rathgeb - Initial contribution
  */
 @NonNullByDefault
 public class ThreadedEventHandler implements Closeable {
 
-    private final Logger logger = LoggerFactory.getLogger(ThreadedEventHandler.class);
+    private static final String THREAD_NAME = "ESH-OSGiEventManager";
 
-    private final Thread thread;
+    private final Logger logger = LoggerFactory.getLogger(ThreadedEventHandler.class);
 
     private final Event notifyEvent = new Event("notify", Collections.emptyMap());
-    private final BlockingQueue<Event> queue = new LinkedBlockingQueue<>();
     private final AtomicBoolean running = new AtomicBoolean(true);
 
+    private final Partition[] partitions;
+
     /**
-     * Create a new threaded event handler.
+     * Create a new threaded event handler that uses a single dispatcher thread.
      *
-     * @param typedEventSubscribers the event subscribers
+     * @param eventSubscribers the event subscribers
      * @param typedEventFactories the event factories indexed by the event type
      * @param safeCaller the safe caller to use
      */
-    ThreadedEventHandler(Map<String, Set<EventSubscriber>> typedEventSubscribers,
+    ThreadedEventHandler(EventSubscriberIndex eventSubscribers,
             final Map<String, EventFactory> typedEventFactories, final SafeCaller safeCaller) {
-        thread = new Thread(() -> {
-            final EventHandler worker = new EventHandler(typedEventSubscribers, typedEventFactories, safeCaller);
-            while (running.get()) {
-                try {
-                    final Event event = queue.poll(1, TimeUnit.HOURS);
-                    if (event == null) {
-                        logger.debug("Hey, you have really very few events.");
-                    } else if (event == notifyEvent) {
-                        // received an internal notification
-                    } else {
-                        worker.handleEvent(event);
-                    }
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                } catch (RuntimeException ex) {
-                    logger.error("Error on event handling.", ex);
-                }
-            }
-        }, "ESH-OSGiEventManager");
+        this(eventSubscribers, typedEventFactories, safeCaller, 1);
+    }
+
+    /**
+     * Create a new threaded event handler.
+     *
+     * @param eventSubscribers the event subscribers
+     * @param typedEventFactories the event factories indexed by the event type
+     * @param safeCaller the safe caller to use
+     * @param threads the number of dispatcher threads the events are partitioned across (values below 1 are treated
+     *            as 1)
+     */
+    ThreadedEventHandler(EventSubscriberIndex eventSubscribers,
+            final Map<String, EventFactory> typedEventFactories, final SafeCaller safeCaller, int threads) {
+        final int count = Math.max(1, threads);
+        partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            final String name = count == 1 ? THREAD_NAME : THREAD_NAME + "-" + (i + 1);
+            partitions[i] = new Partition(new EventHandler(eventSubscribers, typedEventFactories, safeCaller),
+                    name);
+        }
     }
 
     void open() {
-        thread.start();
+        for (Partition partition : partitions) {
+            partition.thread.start();
+        }
     }
 
     @Override
     public void close() {
         running.set(false);
-        queue.add(notifyEvent);
-        thread.interrupt();
-        try {
-            thread.join();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        for (Partition partition : partitions) {
+            partition.queue.add(notifyEvent);
+            partition.thread.interrupt();
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
     void handleEvent(Event event) {
-        queue.add(event);
+        getPartition(event).queue.add(event);
+    }
+
+    private Partition getPartition(Event event) {
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        final Object topic = event.getProperty("topic");
+        if (!(topic instanceof String)) {
+            return partitions[0];
+        }
+        return partitions[(getPartitionKey((String) topic).hashCode() & Integer.MAX_VALUE) % partitions.length];
+    }
+
+    /**
+     * Returns the part of the topic that identifies the entity the event belongs to.
+     *
+     * <p>
+     * The Eclipse SmartHome topics are built as {@code smarthome/<entityType>/<entity>/<action>}, so the first three
+     * segments are used. If the topic does not follow that structure, the whole topic is used.
+     *
+     * @param topic the topic of the event
+     * @return the partition key
+     */
+    static String getPartitionKey(String topic) {
+        int index = topic.indexOf('/');
+        if (index >= 0) {
+            index = topic.indexOf('/', index + 1);
+        }
+        if (index >= 0) {
+            index = topic.indexOf('/', index + 1);
+        }
+        return index < 0 ? topic : topic.substring(0, index);
+    }
+
+    private class Partition {
+
+        private final BlockingQueue<Event> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        Partition(final EventHandler worker, final String name) {
+            thread = new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        final Event event = queue.poll(1, TimeUnit.HOURS);
+                        if (event == null) {
+                            logger.debug("Hey, you have really very few events.");
+                        } else if (event == notifyEvent) {
+                            // received an internal notification
+                        } else {
+                            worker.handleEvent(event);
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException ex) {
+                        logger.error("Error on event handling.", ex);
+                    }
+                }
+            }, name);
+        }
     }
 }
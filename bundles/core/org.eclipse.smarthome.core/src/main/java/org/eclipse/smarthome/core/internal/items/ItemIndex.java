@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.items;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+
+/**
+ * The {@link ItemIndex} keeps the names of the items of the {@link ItemRegistryImpl} indexed by their tags, their type
+ * and the groups they are a member of.
+ * <p>
+ * The index is maintained by the registry whenever an item is added, updated or removed, i.e. it reflects the tags
+ * and group names the items had at that time. It only selects the candidates of a query, so the current items still
+ * need to be checked against the criteria. Items whose tags or group names are changed while being registered are
+ * indexed again through {@link #update(Item)}. The modifications are synchronized, while the index can be read
+ * concurrently.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class ItemIndex {
+
+    private final Map<String, Set<String>> byTag = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byType = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byGroup = new ConcurrentHashMap<>();
+
+    /** The keys each item has been indexed with, so it can be removed even if the item has been modified since. */
+    private final Map<String, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
+
+    /**
+     * The names of the groups which contain an item directly or through nested groups, computed on demand. Every
+     * modification of the index replaces the map, so a result computed while the index is being modified is dropped.
+     */
+    private volatile Map<String, Set<String>> allGroupNames = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an item to the index, replacing a previously indexed item with the same name.
+     *
+     * @param item the item
+     */
+    synchronized void add(Item item) {
+        remove(item.getName());
+        IndexedKeys keys = new IndexedKeys(item);
+        indexedKeys.put(item.getName(), keys);
+        keys.tags.forEach(tag -> add(byTag, tag, item.getName()));
+        add(byType, keys.type, item.getName());
+        keys.groupNames.forEach(groupName -> add(byGroup, groupName, item.getName()));
+        allGroupNames = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Removes the item with the given name from the index.
+     *
+     * @param itemName the name of the item
+     */
+    synchronized void remove(String itemName) {
+        IndexedKeys keys = indexedKeys.remove(itemName);
+        if (keys != null) {
+            keys.tags.forEach(tag -> remove(byTag, tag, itemName));
+            remove(byType, keys.type, itemName);
+            keys.groupNames.forEach(groupName -> remove(byGroup, groupName, itemName));
+            allGroupNames = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Indexes an item again after its tags or group names have been changed, if it is the indexed instance.
+     *
+     * @param item the item
+     */
+    synchronized void update(Item item) {
+        IndexedKeys keys = indexedKeys.get(item.getName());
+        if (keys != null && keys.item == item) {
+            add(item);
+        }
+    }
+
+    /**
+     * Gets the names of the items which have been indexed as direct members of the given group.
+     *
+     * @param groupName the name of the group
+     * @return the names of the member items
+     */
+    Set<String> getMemberNames(String groupName) {
+        return get(byGroup, groupName);
+    }
+
+    /**
+     * Gets the names of the indexed groups which contain the item with the given name, either directly or through
+     * nested groups.
+     *
+     * @param itemName the name of the item
+     * @return the names of the groups
+     */
+    Set<String> getAllGroupNames(String itemName) {
+        final Map<String, Set<String>> allGroupNames = this.allGroupNames;
+        Set<String> groupNames = allGroupNames.get(itemName);
+        if (groupNames == null) {
+            groupNames = collectGroupNames(itemName);
+            allGroupNames.put(itemName, groupNames);
+        }
+        return groupNames;
+    }
+
+    private Set<String> collectGroupNames(String itemName) {
+        Set<String> groupNames = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(itemName);
+        while (!pending.isEmpty()) {
+            IndexedKeys keys = indexedKeys.get(pending.pop());
+            if (keys != null) {
+                for (String groupName : keys.groupNames) {
+                    IndexedKeys groupKeys = indexedKeys.get(groupName);
+                    if (groupKeys != null && GroupItem.TYPE.equals(groupKeys.type) && groupNames.add(groupName)) {
+                        pending.push(groupName);
+                    }
+                }
+            }
+        }
+        return groupNames.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(groupNames);
+    }
+
+    /**
+     * Gets the smallest set of item names which contains all items matching the given criteria.
+     *
+     * @param type the item type or {@code null} if the type does not matter
+     * @param groupName the name of the group the items have to be a member of or {@code null} if it does not matter
+     * @param tags the tags the items have to have
+     * @return the names of the candidate items or {@code null} if no criterion has been given
+     */
+    @Nullable
+    Set<String> getCandidateNames(@Nullable String type, @Nullable String groupName, String... tags) {
+        Set<String> candidates = null;
+        if (type != null) {
+            candidates = get(byType, type);
+        }
+        if (groupName != null) {
+            candidates = smaller(candidates, get(byGroup, groupName));
+        }
+        for (String tag : tags) {
+            candidates = smaller(candidates, get(byTag, toKey(tag)));
+        }
+        return candidates;
+    }
+
+    private static Set<String> smaller(@Nullable Set<String> candidates, Set<String> other) {
+        return candidates == null || other.size() < candidates.size() ? other : candidates;
+    }
+
+    private static Set<String> get(Map<String, Set<String>> index, String key) {
+        Set<String> names = index.get(key);
+        return names == null ? Collections.emptySet() : Collections.unmodifiableSet(names);
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String itemName) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(itemName);
+    }
+
+    private static void remove(Map<String, Set<String>> index, String key, String itemName) {
+        index.computeIfPresent(key, (k, names) -> {
+            names.remove(itemName);
+            return names.isEmpty() ? null : names;
+        });
+    }
+
+    private static String toKey(String tag) {
+        // tags are compared case insensitive
+        return tag.toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexedKeys {
+
+        private final Item item;
+        private final Set<String> tags = new HashSet<>();
+        private final String type;
+        private final Set<String> groupNames;
+
+        IndexedKeys(Item item) {
+            this.item = item;
+            item.getTags().forEach(tag -> tags.add(toKey(tag)));
+            type = item.getType();
+            groupNames = new HashSet<>(item.getGroupNames());
+        }
+    }
+
+}
@@ -17,8 +17,11 @@ import static java.util.stream.Collectors.toList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.registry.AbstractRegistry;
 import org.eclipse.smarthome.core.common.registry.Provider;
 import org.eclipse.smarthome.core.events.EventPublisher;
@@ -62,6 +65,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
     private final Logger logger = LoggerFactory.getLogger(ItemRegistryImpl.class);
 
     private final List<RegistryHook<Item>> registryHooks = new CopyOnWriteArrayList<>();
+    private final ItemIndex itemIndex = new ItemIndex();
     private StateDescriptionService stateDescriptionService;
     private MetadataRegistry metadataRegistry;
 
@@ -110,10 +114,25 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
 
     @Override
     public Collection<Item> getItemsOfType(String type) {
+        return getItemsByTagAndTypeAndGroup(type, null);
+    }
+
+    @Override
+    public Collection<Item> getItems(String pattern) {
         Collection<Item> matchedItems = new ArrayList<Item>();
 
+        if (ItemUtil.isValidItemName(pattern)) {
+            // without any wildcards the pattern can only match the item with that name
+            Item item = get(pattern);
+            if (item != null) {
+                matchedItems.add(item);
+            }
+            return matchedItems;
+        }
+
+        Pattern regex = Pattern.compile(pattern.replace("?", ".?").replace("*", ".*?"));
         for (Item item : getItems()) {
-            if (item.getType().equals(type)) {
+            if (regex.matcher(item.getName()).matches()) {
                 matchedItems.add(item);
             }
         }
@@ -122,12 +141,21 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
     }
 
     @Override
-    public Collection<Item> getItems(String pattern) {
-        String regex = pattern.replace("?", ".?").replace("*", ".*?");
+    public Collection<Item> getItemsByTagAndTypeAndGroup(@Nullable String type, @Nullable String groupName,
+            String... tags) {
         Collection<Item> matchedItems = new ArrayList<Item>();
 
-        for (Item item : getItems()) {
-            if (item.getName().matches(regex)) {
+        Set<String> candidateNames = itemIndex.getCandidateNames(type, groupName, tags);
+        if (candidateNames == null) {
+            matchedItems.addAll(getItems());
+            return matchedItems;
+        }
+
+        for (String candidateName : candidateNames) {
+            Item item = get(candidateName);
+            // the index only selects the candidates, the items might have been modified since they were indexed
+            if (item != null && (type == null || item.getType().equals(type))
+                    && (groupName == null || item.getGroupNames().contains(groupName)) && itemHasTags(item, tags)) {
                 matchedItems.add(item);
             }
         }
@@ -135,6 +163,11 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
         return matchedItems;
     }
 
+    @Override
+    public Set<String> getAllGroupNames(String itemName) {
+        return itemIndex.getAllGroupNames(itemName);
+    }
+
     private void addToGroupItems(Item item, List<String> groupItemNames) {
         for (String groupName : groupItemNames) {
             if (groupName != null) {
@@ -194,12 +227,15 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
             genericItem.setStateDescriptionService(stateDescriptionService);
             genericItem.setUnitProvider(unitProvider);
             genericItem.setItemStateConverter(itemStateConverter);
+            // the tags and group names of the live instance can be changed without updating it in the registry
+            genericItem.setTagsAndGroupNamesListener(() -> itemIndex.update(genericItem));
         }
     }
 
     private void addMembersToGroupItem(GroupItem groupItem) {
-        for (Item i : getItems()) {
-            if (i.getGroupNames().contains(groupItem.getName())) {
+        for (String memberName : itemIndex.getMemberNames(groupItem.getName())) {
+            Item i = get(memberName);
+            if (i != null && i.getGroupNames().contains(groupItem.getName())) {
                 groupItem.addMember(i);
             }
         }
@@ -223,10 +259,12 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
     @Override
     protected void onAddElement(Item element) throws IllegalArgumentException {
         initializeItem(element);
+        itemIndex.add(element);
     }
 
     @Override
     protected void onRemoveElement(Item element) {
+        itemIndex.remove(element.getName());
         if (element instanceof GenericItem) {
             ((GenericItem) element).dispose();
         }
@@ -254,6 +292,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
             addMembersToGroupItem((GroupItem) item);
         }
         injectServices(item);
+        itemIndex.add(item);
     }
 
     @Override
@@ -305,13 +344,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
 
     @Override
     public Collection<Item> getItemsByTag(String... tags) {
-        List<Item> filteredItems = new ArrayList<Item>();
-        for (Item item : getItems()) {
-            if (itemHasTags(item, tags)) {
-                filteredItems.add(item);
-            }
-        }
-        return filteredItems;
+        return getItemsByTagAndTypeAndGroup(null, null, tags);
     }
 
     private boolean itemHasTags(Item item, String... tags) {
@@ -339,13 +372,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
 
     @Override
     public Collection<Item> getItemsByTagAndType(String type, String... tags) {
-        List<Item> filteredItems = new ArrayList<Item>();
-        for (Item item : getItemsOfType(type)) {
-            if (itemHasTags(item, tags)) {
-                filteredItems.add(item);
-            }
-        }
-        return filteredItems;
+        return getItemsByTagAndTypeAndGroup(type, null, tags);
     }
 
     @Override
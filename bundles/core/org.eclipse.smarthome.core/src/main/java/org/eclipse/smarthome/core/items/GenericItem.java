@@ -22,7 +22,6 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -62,6 +61,9 @@ public abstract class GenericItem implements ActiveItem {
     protected Set<StateChangeListener> listeners = new CopyOnWriteArraySet<StateChangeListener>(
             Collections.newSetFromMap(new WeakHashMap<StateChangeListener, Boolean>()));
 
+    /** The listeners to notify, cached as array until they are changed. */
+    private volatile StateChangeListener @Nullable [] listenersToNotify;
+
     protected List<String> groupNames = new ArrayList<String>();
 
     protected Set<String> tags = new HashSet<String>();
@@ -82,6 +84,8 @@ public abstract class GenericItem implements ActiveItem {
 
     protected @Nullable ItemStateConverter itemStateConverter;
 
+    private @Nullable Runnable tagsAndGroupNamesListener;
+
     public GenericItem(String type, String name) {
         this.name = name;
         this.type = type;
@@ -130,6 +134,7 @@ public abstract class GenericItem implements ActiveItem {
         }
         if (!groupNames.contains(groupItemName)) {
             groupNames.add(groupItemName);
+            tagsOrGroupNamesChanged();
         }
     }
 
@@ -158,7 +163,9 @@ public abstract class GenericItem implements ActiveItem {
         if (groupItemName == null) {
             throw new IllegalArgumentException("Group item name must not be null!");
         }
-        groupNames.remove(groupItemName);
+        if (groupNames.remove(groupItemName)) {
+            tagsOrGroupNamesChanged();
+        }
     }
 
     /**
@@ -167,11 +174,15 @@ public abstract class GenericItem implements ActiveItem {
      * member order in case this item is exchanged in a group.
      */
     public void dispose() {
-        this.listeners.clear();
+        synchronized (listeners) {
+            this.listeners.clear();
+            this.listenersToNotify = null;
+        }
         this.eventPublisher = null;
         this.stateDescriptionService = null;
         this.unitProvider = null;
         this.itemStateConverter = null;
+        this.tagsAndGroupNamesListener = null;
     }
 
     public void setEventPublisher(@Nullable EventPublisher eventPublisher) {
@@ -190,6 +201,23 @@ public abstract class GenericItem implements ActiveItem {
         this.itemStateConverter = itemStateConverter;
     }
 
+    /**
+     * Sets a callback which is run after the tags or the group names of this item have been changed. It is used by the
+     * item registry to keep its index of the items up to date.
+     *
+     * @param tagsAndGroupNamesListener the callback or {@code null} to remove it
+     */
+    public void setTagsAndGroupNamesListener(@Nullable Runnable tagsAndGroupNamesListener) {
+        this.tagsAndGroupNamesListener = tagsAndGroupNamesListener;
+    }
+
+    private void tagsOrGroupNamesChanged() {
+        Runnable listener = tagsAndGroupNamesListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
     protected void internalSend(Command command) {
         // try to send the command to the bus
         if (eventPublisher != null) {
@@ -237,26 +265,37 @@ public abstract class GenericItem implements ActiveItem {
     }
 
     protected void notifyListeners(final State oldState, final State newState) {
-        // if nothing has changed, we send update notifications
-        Set<StateChangeListener> clonedListeners = null;
-        clonedListeners = new CopyOnWriteArraySet<StateChangeListener>(listeners);
-        ExecutorService pool = ThreadPoolManager.getPool(ITEM_THREADPOOLNAME);
-        for (final StateChangeListener listener : clonedListeners) {
-            pool.execute(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        listener.stateUpdated(GenericItem.this, newState);
-                        if (newState != null && !newState.equals(oldState)) {
-                            listener.stateChanged(GenericItem.this, oldState, newState);
-                        }
-                    } catch (Exception e) {
-                        logger.warn("failed notifying listener '{}' about state update of item {}: {}", listener,
-                                GenericItem.this.getName(), e.getMessage(), e);
+        final StateChangeListener[] listenersToNotify = getListenersToNotify();
+        if (listenersToNotify.length == 0) {
+            return;
+        }
+        // a single task per update notifies all listeners, which have been registered at the time of the update
+        ThreadPoolManager.getPool(ITEM_THREADPOOLNAME).execute(() -> {
+            // if nothing has changed, we send update notifications
+            final boolean changed = newState != null && !newState.equals(oldState);
+            for (final StateChangeListener listener : listenersToNotify) {
+                try {
+                    listener.stateUpdated(GenericItem.this, newState);
+                    if (changed) {
+                        listener.stateChanged(GenericItem.this, oldState, newState);
                     }
+                } catch (Exception e) {
+                    logger.warn("failed notifying listener '{}' about state update of item {}: {}", listener,
+                            GenericItem.this.getName(), e.getMessage(), e);
                 }
-            });
+            }
+        });
+    }
+
+    private StateChangeListener[] getListenersToNotify() {
+        StateChangeListener[] listenersToNotify = this.listenersToNotify;
+        if (listenersToNotify == null) {
+            synchronized (listeners) {
+                listenersToNotify = listeners.toArray(new StateChangeListener[listeners.size()]);
+                this.listenersToNotify = listenersToNotify;
+            }
         }
+        return listenersToNotify;
     }
 
     @Override
@@ -294,12 +333,14 @@ public abstract class GenericItem implements ActiveItem {
     public void addStateChangeListener(StateChangeListener listener) {
         synchronized (listeners) {
             listeners.add(listener);
+            listenersToNotify = null;
         }
     }
 
     public void removeStateChangeListener(StateChangeListener listener) {
         synchronized (listeners) {
             listeners.remove(listener);
+            listenersToNotify = null;
         }
     }
 
@@ -346,26 +387,31 @@ public abstract class GenericItem implements ActiveItem {
     @Override
     public void addTag(String tag) {
         tags.add(tag);
+        tagsOrGroupNamesChanged();
     }
 
     @Override
     public void addTags(Collection<String> tags) {
         this.tags.addAll(tags);
+        tagsOrGroupNamesChanged();
     }
 
     @Override
     public void addTags(String... tags) {
         this.tags.addAll(Arrays.asList(tags));
+        tagsOrGroupNamesChanged();
     }
 
     @Override
     public void removeTag(String tag) {
         tags.remove(tags.stream().filter(t -> t.equalsIgnoreCase(tag)).findFirst().orElse(tag));
+        tagsOrGroupNamesChanged();
     }
 
     @Override
     public void removeAllTags() {
         tags.clear();
+        tagsOrGroupNamesChanged();
     }
 
     @Override
@@ -51,6 +51,18 @@ public interface GroupFunction {
      */
     State[] getParameters();
 
+    /**
+     * Creates an aggregator which maintains the state of this function incrementally, if the function supports it.
+     * <p>
+     * Implementations which change the calculation of a function supporting aggregators have to override this method as
+     * well.
+     *
+     * @return a new aggregator or null, if the state has to be calculated out of all items on every change
+     */
+    default GroupStateAggregator createAggregator() {
+        return null;
+    }
+
     /**
      * This is the default group function that does nothing else than to check if all member items
      * have the same state. If this is the case, this state is returned, otherwise UNDEF is returned.
@@ -15,11 +15,14 @@ package org.eclipse.smarthome.core.items;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -49,6 +52,22 @@ public class GroupItem extends GenericItem implements StateChangeListener {
 
     protected @Nullable GroupFunction function;
 
+    /**
+     * The aggregator which keeps the state of the function for the current members, if the function supports it and
+     * all state members are direct members. It is created on the first state update after the members have changed.
+     */
+    private @Nullable GroupStateAggregator aggregator;
+
+    private final Object aggregatorLock = new Object();
+
+    /**
+     * The version of the direct members of this group. As the flattened members of a group also depend on the members
+     * of its nested groups, they are only valid as long as the versions of all these groups are unchanged.
+     */
+    private final AtomicLong membershipVersion = new AtomicLong();
+
+    private volatile @Nullable FlattenedMembers flattenedMembers;
+
     /**
      * Creates a plain GroupItem
      *
@@ -92,6 +111,7 @@ public class GroupItem extends GenericItem implements StateChangeListener {
             unregisterStateListener(member);
         }
         members.clear();
+        membershipChanged();
     }
 
     /**
@@ -132,17 +152,19 @@ public class GroupItem extends GenericItem implements StateChangeListener {
      * @return all members of this and all contained {@link GroupItem}s
      */
     public Set<Item> getAllMembers() {
-        return Collections.unmodifiableSet(new LinkedHashSet<>(getMembers((Item i) -> !(i instanceof GroupItem))));
+        return getFlattenedMembers().nonGroupMembers;
     }
 
-    private void collectMembers(Collection<Item> allMembers, Collection<Item> members) {
-        for (Item member : members) {
+    private void collectMembers(Collection<Item> allMembers, Map<GroupItem, Long> groupVersions, GroupItem group) {
+        // read the version before collecting, so a concurrent change leaves the result outdated
+        groupVersions.putIfAbsent(group, group.membershipVersion.get());
+        for (Item member : group.members) {
             if (allMembers.contains(member)) {
                 continue;
             }
             allMembers.add(member);
             if (member instanceof GroupItem) {
-                collectMembers(allMembers, ((GroupItem) member).members);
+                collectMembers(allMembers, groupVersions, (GroupItem) member);
             }
         }
     }
@@ -154,9 +176,24 @@ public class GroupItem extends GenericItem implements StateChangeListener {
      * @return Set of member items filtered by filterItem
      */
     public Set<Item> getMembers(Predicate<Item> filterItem) {
-        Set<Item> allMembers = new LinkedHashSet<Item>();
-        collectMembers(allMembers, members);
-        return allMembers.stream().filter(filterItem).collect(Collectors.toSet());
+        return getFlattenedMembers().allMembers.stream().filter(filterItem).collect(Collectors.toSet());
+    }
+
+    private FlattenedMembers getFlattenedMembers() {
+        FlattenedMembers flattenedMembers = this.flattenedMembers;
+        if (flattenedMembers == null || !flattenedMembers.isCurrent()) {
+            Set<Item> allMembers = new LinkedHashSet<Item>();
+            Map<GroupItem, Long> groupVersions = new IdentityHashMap<>();
+            collectMembers(allMembers, groupVersions, this);
+            flattenedMembers = new FlattenedMembers(groupVersions, allMembers);
+            this.flattenedMembers = flattenedMembers;
+        }
+        return flattenedMembers;
+    }
+
+    private void membershipChanged() {
+        membershipVersion.incrementAndGet();
+        resetAggregator();
     }
 
     /**
@@ -171,6 +208,9 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         }
 
         boolean added = members.addIfAbsent(item);
+        if (added) {
+            membershipChanged();
+        }
 
         // in case membership is constructed programmatically this sanitises
         // the group names on the item:
@@ -202,6 +242,7 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         if (index > -1) {
             Item old = members.set(index, newItem);
             unregisterStateListener(old);
+            membershipChanged();
         }
         registerStateListener(newItem);
     }
@@ -216,7 +257,9 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         if (item == null) {
             throw new IllegalArgumentException("Item must not be null!");
         }
-        members.remove(item);
+        if (members.remove(item)) {
+            membershipChanged();
+        }
         unregisterStateListener(item);
     }
 
@@ -369,7 +412,7 @@ public class GroupItem extends GenericItem implements StateChangeListener {
     public void stateUpdated(Item item, State state) {
         State oldState = this.state;
         if (function != null && baseItem != null) {
-            State calculatedState = function.calculate(getStateMembers(getMembers()));
+            State calculatedState = calculateState(function, item);
             calculatedState = itemStateConverter.convertToAcceptedState(calculatedState, baseItem);
             setState(calculatedState);
         }
@@ -397,6 +440,37 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         }
     }
 
+    private State calculateState(GroupFunction function, Item updatedItem) {
+        synchronized (aggregatorLock) {
+            GroupStateAggregator aggregator = this.aggregator;
+            if (aggregator != null) {
+                aggregator.update(updatedItem);
+                return aggregator.getState();
+            }
+            Set<Item> stateMembers = getStateMembers(getMembers());
+            // the aggregator only learns about state updates of the direct members, which have to notify this group
+            if (members.stream().allMatch(this::isNotifyingStateMember)) {
+                aggregator = function.createAggregator();
+                if (aggregator != null) {
+                    stateMembers.forEach(aggregator::add);
+                    this.aggregator = aggregator;
+                    return aggregator.getState();
+                }
+            }
+            return function.calculate(stateMembers);
+        }
+    }
+
+    private boolean isNotifyingStateMember(Item item) {
+        return item instanceof GenericItem && (!isGroupItem(item) || hasOwnState((GroupItem) item));
+    }
+
+    private void resetAggregator() {
+        synchronized (aggregatorLock) {
+            aggregator = null;
+        }
+    }
+
     private Set<Item> getStateMembers(Set<Item> items) {
         Set<Item> result = new HashSet<>();
         collectStateMembers(result, items);
@@ -419,6 +493,34 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         }
     }
 
+    /**
+     * The members of a group and recursively of all its nested groups, collected at certain membership versions of
+     * these groups.
+     */
+    private static class FlattenedMembers {
+
+        private final Map<GroupItem, Long> groupVersions;
+        private final Set<Item> allMembers;
+        private final Set<Item> nonGroupMembers;
+
+        FlattenedMembers(Map<GroupItem, Long> groupVersions, Set<Item> allMembers) {
+            this.groupVersions = groupVersions;
+            this.allMembers = Collections.unmodifiableSet(allMembers);
+            Set<Item> nonGroupMembers = new LinkedHashSet<>();
+            allMembers.stream().filter(i -> !(i instanceof GroupItem)).forEach(nonGroupMembers::add);
+            this.nonGroupMembers = Collections.unmodifiableSet(nonGroupMembers);
+        }
+
+        boolean isCurrent() {
+            for (Map.Entry<GroupItem, Long> groupVersion : groupVersions.entrySet()) {
+                if (groupVersion.getKey().membershipVersion.get() != groupVersion.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private boolean isGroupItem(Item item) {
         return item instanceof GroupItem;
     }
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.items;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * A {@link GroupStateAggregator} maintains the state of a {@link GroupFunction} incrementally, i.e. it keeps the
+ * contribution of each member and only applies the difference when the state of a member changes, instead of
+ * calculating the state out of all members again.
+ * <p>
+ * The state of the aggregator must always be equal to the state the function would calculate for its members. The
+ * aggregator is not thread-safe, the callers have to synchronize the access.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public interface GroupStateAggregator {
+
+    /**
+     * Adds a member with its current state. Adding a member which is already known updates its state.
+     *
+     * @param item the member to add
+     */
+    void add(Item item);
+
+    /**
+     * Updates the contribution of a known member to its current state. Unknown items are ignored.
+     *
+     * @param item the member whose state has been updated
+     */
+    void update(Item item);
+
+    /**
+     * Removes a member.
+     *
+     * @param item the member to remove
+     */
+    void remove(Item item);
+
+    /**
+     * Gets the state which the group function calculates for the current members.
+     *
+     * @return the aggregated state
+     */
+    State getState();
+
+}
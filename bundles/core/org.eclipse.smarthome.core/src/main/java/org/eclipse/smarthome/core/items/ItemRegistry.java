@@ -12,8 +12,13 @@
  */
 package org.eclipse.smarthome.core.items;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -98,6 +103,51 @@ public interface ItemRegistry extends Registry<Item, String> {
      */
     public @NonNull Collection<Item> getItemsByTagAndType(@NonNull String type, @NonNull String... tags);
 
+    /**
+     * Returns list of items matching all of the given criteria.
+     *
+     * @param type
+     *            - item type as defined by {@link ItemFactory}s or {@code null} to not restrict the type
+     * @param groupName
+     *            - name of the group the items have to be a direct member of or {@code null} to not restrict the
+     *            group membership
+     * @param tags
+     *            - array of tags to be present on the returned items.
+     * @return list of items matching all of the given criteria.
+     */
+    default @NonNull Collection<Item> getItemsByTagAndTypeAndGroup(@Nullable String type, @Nullable String groupName,
+            @NonNull String... tags) {
+        Collection<Item> items = type == null ? getItemsByTag(tags) : getItemsByTagAndType(type, tags);
+        if (groupName == null) {
+            return items;
+        }
+        return items.stream().filter(item -> item.getGroupNames().contains(groupName)).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the names of all groups which contain the given item, either directly or through nested groups.
+     *
+     * @param itemName
+     *            - the name of the item
+     * @return the names of the groups containing the item, an empty set if the item does not exist.
+     */
+    default @NonNull Set<@NonNull String> getAllGroupNames(@NonNull String itemName) {
+        Set<@NonNull String> groupNames = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(itemName);
+        while (!pending.isEmpty()) {
+            Item item = get(pending.pop());
+            if (item != null) {
+                for (String groupName : item.getGroupNames()) {
+                    if (get(groupName) instanceof GroupItem && groupNames.add(groupName)) {
+                        pending.push(groupName);
+                    }
+                }
+            }
+        }
+        return groupNames;
+    }
+
     /**
      * Returns list of items which contains all of the given tags.
      *
@@ -16,6 +16,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -223,7 +224,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         assertValidArguments(itemName, command, "command");
         String topic = buildTopic(ITEM_COMAND_EVENT_TOPIC, itemName);
         ItemEventPayloadBean bean = new ItemEventPayloadBean(getCommandType(command), command.toString());
-        String payload = serializePayload(bean);
+        Supplier<String> payload = () -> serializePayload(bean);
         return new ItemCommandEvent(topic, payload, itemName, command, source);
     }
 
@@ -252,7 +253,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         assertValidArguments(itemName, state, "state");
         String topic = buildTopic(ITEM_STATE_EVENT_TOPIC, itemName);
         ItemEventPayloadBean bean = new ItemEventPayloadBean(getStateType(state), state.toFullString());
-        String payload = serializePayload(bean);
+        Supplier<String> payload = () -> serializePayload(bean);
         return new ItemStateEvent(topic, payload, itemName, state, source);
     }
 
@@ -283,7 +284,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         String topic = buildTopic(ITEM_STATE_PREDICTED_EVENT_TOPIC, itemName);
         ItemStatePredictedEventPayloadBean bean = new ItemStatePredictedEventPayloadBean(getStateType(state),
                 state.toFullString(), isConfirmation);
-        String payload = serializePayload(bean);
+        Supplier<String> payload = () -> serializePayload(bean);
         return new ItemStatePredictedEvent(topic, payload, itemName, state, isConfirmation);
     }
 
@@ -301,7 +302,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         String topic = buildTopic(ITEM_STATE_CHANGED_EVENT_TOPIC, itemName);
         ItemStateChangedEventPayloadBean bean = new ItemStateChangedEventPayloadBean(getStateType(newState),
                 newState.toFullString(), getStateType(oldState), oldState.toFullString());
-        String payload = serializePayload(bean);
+        Supplier<String> payload = () -> serializePayload(bean);
         return new ItemStateChangedEvent(topic, payload, itemName, newState, oldState);
     }
 
@@ -311,7 +312,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         String topic = buildGroupTopic(GROUPITEM_STATE_CHANGED_EVENT_TOPIC, itemName, memberName);
         ItemStateChangedEventPayloadBean bean = new ItemStateChangedEventPayloadBean(getStateType(newState),
                 newState.toFullString(), getStateType(oldState), oldState.toFullString());
-        String payload = serializePayload(bean);
+        Supplier<String> payload = () -> serializePayload(bean);
         return new GroupItemStateChangedEvent(topic, payload, itemName, memberName, newState, oldState);
     }
 
@@ -12,6 +12,8 @@
  */
 package org.eclipse.smarthome.core.items.events;
 
+import java.util.function.Supplier;
+
 import org.eclipse.smarthome.core.events.AbstractEvent;
 import org.eclipse.smarthome.core.types.State;
 
@@ -46,6 +48,14 @@ public class ItemStatePredictedEvent extends AbstractEvent {
         this.isConfirmation = isConfirmation;
     }
 
+    protected ItemStatePredictedEvent(String topic, Supplier<String> payloadSupplier, String itemName,
+            State predictedState, boolean isConfirmation) {
+        super(topic, payloadSupplier, null);
+        this.itemName = itemName;
+        this.predictedState = predictedState;
+        this.isConfirmation = isConfirmation;
+    }
+
     @Override
     public String getType() {
         return TYPE;
@@ -19,6 +19,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.smarthome.core.items.GroupFunction;
+import org.eclipse.smarthome.core.items.GroupStateAggregator;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
@@ -104,6 +105,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[] { activeState, passiveState };
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Logical(activeState, passiveState, true, false);
+        }
     }
 
     /**
@@ -168,6 +174,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[] { activeState, passiveState };
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Logical(activeState, passiveState, false, false);
+        }
     }
 
     /**
@@ -189,6 +200,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             return notResult;
         }
 
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Logical(activeState, passiveState, true, true);
+        }
+
     }
 
     /**
@@ -210,6 +226,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             return notResult;
         }
 
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Logical(activeState, passiveState, false, true);
+        }
+
     }
 
     /**
@@ -254,6 +275,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[0];
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Sum(true);
+        }
     }
 
     /**
@@ -292,6 +318,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[0];
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Sum(false);
+        }
     }
 
     /**
@@ -335,6 +366,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[0];
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Extremum(false);
+        }
     }
 
     /**
@@ -378,6 +414,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[0];
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Extremum(true);
+        }
     }
 
     /**
@@ -427,6 +468,11 @@ public interface ArithmeticGroupFunction extends GroupFunction {
         public State[] getParameters() {
             return new State[] { new StringType(pattern.pattern()) };
         }
+
+        @Override
+        public GroupStateAggregator createAggregator() {
+            return new ArithmeticGroupStateAggregators.Count(pattern);
+        }
     }
 
 }
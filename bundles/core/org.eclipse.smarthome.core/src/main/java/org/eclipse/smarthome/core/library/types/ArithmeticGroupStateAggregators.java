@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.library.types;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.GroupStateAggregator;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+
+/**
+ * This class is only a container for the {@link GroupStateAggregator}s of the {@link ArithmeticGroupFunction}s. Each
+ * aggregator produces exactly the state the {@code calculate} method of its function returns for the same members.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+final class ArithmeticGroupStateAggregators {
+
+    private ArithmeticGroupStateAggregators() {
+    }
+
+    /**
+     * Base class of the aggregators. It keeps the contribution of each member, so the previous contribution can be
+     * taken back when the state of a member changes.
+     *
+     * @param <C> the type of the contribution of a member
+     */
+    abstract static class AbstractAggregator<C> implements GroupStateAggregator {
+
+        /** The contribution of each member, {@code null} if the state of the member does not contribute. */
+        private final Map<Item, @Nullable C> contributions = new IdentityHashMap<>();
+
+        @Override
+        public void add(Item item) {
+            remove(item);
+            C contribution = getContribution(item);
+            contributions.put(item, contribution);
+            if (contribution != null) {
+                added(contribution);
+            }
+        }
+
+        @Override
+        public void update(Item item) {
+            if (contributions.containsKey(item)) {
+                add(item);
+            }
+        }
+
+        @Override
+        public void remove(Item item) {
+            if (contributions.containsKey(item)) {
+                C contribution = contributions.remove(item);
+                if (contribution != null) {
+                    removed(contribution);
+                }
+            }
+        }
+
+        /**
+         * Gets the number of members, including the ones which do not contribute to the result.
+         *
+         * @return the number of members
+         */
+        protected int getMemberCount() {
+            return contributions.size();
+        }
+
+        /**
+         * Gets the contribution of a member out of its current state.
+         *
+         * @param item the member
+         * @return the contribution or {@code null} if the state does not contribute to the result
+         */
+        protected abstract @Nullable C getContribution(Item item);
+
+        /**
+         * Adds the contribution of a member to the result.
+         *
+         * @param contribution the contribution
+         */
+        protected abstract void added(C contribution);
+
+        /**
+         * Takes back the contribution of a member from the result.
+         *
+         * @param contribution the contribution which has been added before
+         */
+        protected abstract void removed(C contribution);
+    }
+
+    /**
+     * Counts the members in the active state for the 'and', 'or', 'nand' and 'nor' functions.
+     */
+    static class Logical extends AbstractAggregator<Boolean> {
+
+        private final State activeState;
+        private final State passiveState;
+        private final boolean and;
+        private final boolean negate;
+        private int activeCount;
+
+        Logical(State activeState, State passiveState, boolean and, boolean negate) {
+            this.activeState = activeState;
+            this.passiveState = passiveState;
+            this.and = and;
+            this.negate = negate;
+        }
+
+        @Override
+        protected @Nullable Boolean getContribution(Item item) {
+            return activeState.equals(item.getStateAs(activeState.getClass())) ? Boolean.TRUE : null;
+        }
+
+        @Override
+        protected void added(Boolean contribution) {
+            activeCount++;
+        }
+
+        @Override
+        protected void removed(Boolean contribution) {
+            activeCount--;
+        }
+
+        @Override
+        public State getState() {
+            boolean active = and ? getMemberCount() > 0 && activeCount == getMemberCount() : activeCount > 0;
+            State result = active ? activeState : passiveState;
+            if (negate) {
+                return result.equals(activeState) ? passiveState : activeState;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Keeps the running sum of the decimal states for the 'sum' and 'avg' functions.
+     */
+    static class Sum extends AbstractAggregator<BigDecimal> {
+
+        private final boolean average;
+        private BigDecimal sum = BigDecimal.ZERO;
+        private int count;
+
+        /** The number of contributions per scale, the scale of the result is the largest one. */
+        private final TreeMap<Integer, Integer> scales = new TreeMap<>();
+
+        Sum(boolean average) {
+            this.average = average;
+        }
+
+        @Override
+        protected @Nullable BigDecimal getContribution(Item item) {
+            DecimalType itemState = item.getStateAs(DecimalType.class);
+            return itemState == null ? null : itemState.toBigDecimal();
+        }
+
+        @Override
+        protected void added(BigDecimal contribution) {
+            sum = sum.add(contribution);
+            count++;
+            scales.merge(contribution.scale(), 1, Integer::sum);
+        }
+
+        @Override
+        protected void removed(BigDecimal contribution) {
+            sum = sum.subtract(contribution);
+            count--;
+            scales.computeIfPresent(contribution.scale(), (scale, scaleCount) -> scaleCount > 1 ? scaleCount - 1 : null);
+        }
+
+        @Override
+        public State getState() {
+            if (average && count == 0) {
+                return UnDefType.UNDEF;
+            }
+            // a sum calculated at once has the largest scale of its summands, which also determines the scale of the
+            // average, so the scale of a removed summand must not be kept
+            int scale = scales.isEmpty() ? 0 : Math.max(0, scales.lastKey());
+            BigDecimal result = sum.setScale(scale, RoundingMode.UNNECESSARY);
+            if (average) {
+                result = result.divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP);
+            }
+            return new DecimalType(result);
+        }
+    }
+
+    /**
+     * Keeps the decimal states ordered for the 'min' and 'max' functions.
+     */
+    static class Extremum extends AbstractAggregator<BigDecimal> {
+
+        private final boolean max;
+
+        /** The number of contributions per value. */
+        private final TreeMap<BigDecimal, Integer> values = new TreeMap<>();
+
+        Extremum(boolean max) {
+            this.max = max;
+        }
+
+        @Override
+        protected @Nullable BigDecimal getContribution(Item item) {
+            DecimalType itemState = item.getStateAs(DecimalType.class);
+            return itemState == null ? null : itemState.toBigDecimal();
+        }
+
+        @Override
+        protected void added(BigDecimal contribution) {
+            values.merge(contribution, 1, Integer::sum);
+        }
+
+        @Override
+        protected void removed(BigDecimal contribution) {
+            values.computeIfPresent(contribution, (value, valueCount) -> valueCount > 1 ? valueCount - 1 : null);
+        }
+
+        @Override
+        public State getState() {
+            if (values.isEmpty()) {
+                return UnDefType.UNDEF;
+            }
+            return new DecimalType(max ? values.lastKey() : values.firstKey());
+        }
+    }
+
+    /**
+     * Counts the members whose state matches the pattern of the 'count' function.
+     */
+    static class Count extends AbstractAggregator<Boolean> {
+
+        private final Pattern pattern;
+        private int count;
+
+        Count(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        protected @Nullable Boolean getContribution(Item item) {
+            return pattern.matcher(item.getState().toString()).matches() ? Boolean.TRUE : null;
+        }
+
+        @Override
+        protected void added(Boolean contribution) {
+            count++;
+        }
+
+        @Override
+        protected void removed(Boolean contribution) {
+            count--;
+        }
+
+        @Override
+        public State getState() {
+            return new DecimalType(count);
+        }
+    }
+
+}
@@ -16,12 +16,24 @@ import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.StreamingOutput;
 
 import org.eclipse.smarthome.core.i18n.TimeZoneProvider;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.persistence.AggregatingPersistenceService;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
@@ -31,6 +43,10 @@ import org.eclipse.smarthome.core.types.State;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
 /**
  * Tests for PersistenceItem Restresource
  *
@@ -40,9 +56,13 @@ import org.junit.Test;
 public class PersistenceResourceTest {
 
     private final static String PERSISTENCE_SERVICE_ID = "TestServiceID";
+    private final static String AGGREGATING_PERSISTENCE_SERVICE_ID = "AggregatingServiceID";
+    private final static String NUMERIC_PERSISTENCE_SERVICE_ID = "NumericServiceID";
+    private final static String FAILING_PERSISTENCE_SERVICE_ID = "FailingServiceID";
 
     private PersistenceResource pResource;
     private ArrayList<HistoricItem> items;
+    private AggregatingPersistenceService aggregatingService;
 
     @Before
     public void setup() {
@@ -77,6 +97,7 @@ public class PersistenceResourceTest {
 
         QueryablePersistenceService pService = mock(QueryablePersistenceService.class);
         when(pService.query(any())).thenReturn(items);
+        when(pService.stream(any())).thenCallRealMethod();
 
         TimeZoneProvider timeZoneProvider = mock(TimeZoneProvider.class);
         when(timeZoneProvider.getTimeZone()).thenReturn(TimeZone.getDefault().toZoneId());
@@ -84,6 +105,31 @@ public class PersistenceResourceTest {
         PersistenceServiceRegistry pServiceRegistry = mock(PersistenceServiceRegistry.class);
         when(pServiceRegistry.get(PERSISTENCE_SERVICE_ID)).thenReturn(pService);
 
+        aggregatingService = mock(AggregatingPersistenceService.class);
+        HistoricItem aggregatedItem = mock(HistoricItem.class);
+        when(aggregatedItem.getTimestamp()).thenReturn(new Date());
+        when(aggregatedItem.getState()).thenReturn(new DecimalType(21));
+        when(aggregatingService.aggregate(any())).thenReturn(Collections.singletonList(aggregatedItem));
+        when(pServiceRegistry.get(AGGREGATING_PERSISTENCE_SERVICE_ID)).thenReturn(aggregatingService);
+
+        List<HistoricItem> numericItems = new ArrayList<>();
+        long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < 1000; i++) {
+            HistoricItem numericItem = mock(HistoricItem.class);
+            when(numericItem.getTimestamp()).thenReturn(new Date(start + TimeUnit.SECONDS.toMillis(86 * i)));
+            when(numericItem.getState()).thenReturn(new DecimalType(i % 100));
+            numericItems.add(numericItem);
+        }
+        QueryablePersistenceService numericService = mock(QueryablePersistenceService.class);
+        when(numericService.query(any())).thenReturn(numericItems);
+        when(numericService.stream(any())).thenCallRealMethod();
+        when(pServiceRegistry.get(NUMERIC_PERSISTENCE_SERVICE_ID)).thenReturn(numericService);
+
+        QueryablePersistenceService failingService = mock(QueryablePersistenceService.class);
+        when(failingService.getId()).thenReturn(FAILING_PERSISTENCE_SERVICE_ID);
+        when(failingService.stream(any())).thenThrow(new IllegalStateException("Database is closed"));
+        when(pServiceRegistry.get(FAILING_PERSISTENCE_SERVICE_ID)).thenReturn(failingService);
+
         pResource.setPersistenceServiceRegistry(pServiceRegistry);
         pResource.setTimeZoneProvider(timeZoneProvider);
     }
@@ -119,4 +165,74 @@ public class PersistenceResourceTest {
         assertEquals(item3.time, item4.time);
         assertNotEquals(item3.state, item4.state);
     }
+
+    @Test
+    public void testGetAggregatedPersistenceItemData() {
+        ItemHistoryDTO dto = pResource.createDTO(AGGREGATING_PERSISTENCE_SERVICE_ID, "testItem", null, null, 0, 0,
+                false, Function.AVERAGE, Duration.ofHours(1), 0);
+
+        assertEquals(1, Integer.parseInt(dto.datapoints));
+        assertEquals("21", dto.data.get(0).state);
+        verify(aggregatingService).aggregate(any());
+        verify(aggregatingService, never()).query(any());
+    }
+
+    @Test
+    public void testGetDownsampledPersistenceItemData() {
+        ItemHistoryDTO dto = pResource.createDTO(NUMERIC_PERSISTENCE_SERVICE_ID, "testItem", null, null, 0, 0, false,
+                null, null, 50);
+
+        assertEquals(50, Integer.parseInt(dto.datapoints));
+        assertEquals(50, dto.data.size());
+        assertEquals("0", dto.data.get(0).state);
+        assertEquals("99", dto.data.get(49).state);
+        for (int i = 1; i < dto.data.size(); i++) {
+            assertTrue(dto.data.get(i - 1).time < dto.data.get(i).time);
+        }
+    }
+
+    @Test
+    public void testGetStreamedPersistenceItemData() throws IOException {
+        StreamingOutput output = pResource.createHistoryOutput(NUMERIC_PERSISTENCE_SERVICE_ID, "testItem", null,
+                null, 0, 0, false, null, null, 0);
+
+        ClosingOutputStream out = new ClosingOutputStream();
+        output.write(out);
+
+        JsonObject json = new JsonParser().parse(new String(out.toByteArray(), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        JsonArray data = json.getAsJsonArray("data");
+        assertEquals("testItem", json.get("name").getAsString());
+        assertEquals("1000", json.get("datapoints").getAsString());
+        assertEquals(1000, data.size());
+        assertEquals("0", data.get(0).getAsJsonObject().get("state").getAsString());
+        assertEquals("99", data.get(999).getAsJsonObject().get("state").getAsString());
+        assertTrue(out.closed);
+    }
+
+    @Test
+    public void testGetStreamedPersistenceItemDataClosesStreamOnError() throws IOException {
+        StreamingOutput output = pResource.createHistoryOutput(FAILING_PERSISTENCE_SERVICE_ID, "testItem", null,
+                null, 0, 0, false, null, null, 0);
+
+        ClosingOutputStream out = new ClosingOutputStream();
+        try {
+            output.write(out);
+            fail("The error of the persistence service must abort the response");
+        } catch (IllegalStateException e) {
+            assertEquals("Database is closed", e.getMessage());
+        }
+        assertTrue(out.closed);
+    }
+
+    private static class ClosingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
 }
@@ -12,13 +12,23 @@
  */
 package org.eclipse.smarthome.io.rest.core.internal.persistence;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.DELETE;
@@ -34,6 +44,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.eclipse.smarthome.core.auth.Role;
 import org.eclipse.smarthome.core.i18n.TimeZoneProvider;
@@ -43,9 +54,14 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.persistence.AggregatingPersistenceService;
+import org.eclipse.smarthome.core.persistence.AggregationRequest;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
 import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.HistoricItemDownsampler;
+import org.eclipse.smarthome.core.persistence.HistoricStateAggregator;
 import org.eclipse.smarthome.core.persistence.ModifiablePersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
@@ -64,6 +80,8 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.stream.JsonWriter;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -179,8 +197,27 @@ public class PersistenceResource implements RESTResource {
                     + "]", required = false) @QueryParam("endtime") String endTime,
             @ApiParam(value = "Page number of data to return. This parameter will enable paging.", required = false) @QueryParam("page") int pageNumber,
             @ApiParam(value = "The length of each page.", required = false) @QueryParam("pagelength") int pageLength,
-            @ApiParam(value = "Gets one value before and after the requested period.", required = false) @QueryParam("boundary") boolean boundary) {
-        return getItemHistoryDTO(serviceId, itemName, startTime, endTime, pageNumber, pageLength, boundary);
+            @ApiParam(value = "Gets one value before and after the requested period.", required = false) @QueryParam("boundary") boolean boundary,
+            @ApiParam(value = "Aggregates the numeric states of the requested period with the given function instead of returning all states. Paging is not applied to aggregated data.", required = false, allowableValues = "average,sum,minimum,maximum,count,first,last,time_weighted_average") @QueryParam("aggregation") String aggregation,
+            @ApiParam(value = "The length of the intervals in seconds the states are aggregated by. If not provided, all states are aggregated into a single value.", required = false) @QueryParam("interval") long interval,
+            @ApiParam(value = "The maximum number of states to return for the requested period, at least 3. The states are reduced while keeping the shape of the chart they are drawn as.", required = false) @QueryParam("maxpoints") int maxPoints) {
+        Function function = null;
+        if (aggregation != null) {
+            try {
+                function = Function.valueOf(aggregation.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return JSONResponse.createErrorResponse(Status.BAD_REQUEST, "Unknown aggregation: " + aggregation);
+            }
+        }
+        if (interval < 0) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, "Interval must not be negative: " + interval);
+        }
+        if (maxPoints != 0 && maxPoints < HistoricItemDownsampler.MIN_POINTS) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, "Maximum number of points must be at least "
+                    + HistoricItemDownsampler.MIN_POINTS + ": " + maxPoints);
+        }
+        return getItemHistory(serviceId, itemName, startTime, endTime, pageNumber, pageLength, boundary, function,
+                interval == 0 ? null : Duration.ofSeconds(interval), maxPoints);
     }
 
     @DELETE
@@ -223,26 +260,107 @@ public class PersistenceResource implements RESTResource {
         return dateTime.getZonedDateTime();
     }
 
-    private Response getItemHistoryDTO(String serviceId, String itemName, String timeBegin, String timeEnd,
-            int pageNumber, int pageLength, boolean boundary) {
-        // Benchmarking timer...
-        long timerStart = System.currentTimeMillis();
-
-        ItemHistoryDTO dto = createDTO(serviceId, itemName, timeBegin, timeEnd, pageNumber, pageLength, boundary);
-        if (dto == null) {
-            JSONResponse.createErrorResponse(Status.BAD_REQUEST, "Persistence service not queryable: " + serviceId);
+    private Response getItemHistory(String serviceId, String itemName, String timeBegin, String timeEnd,
+            int pageNumber, int pageLength, boolean boundary, Function aggregation, Duration interval, int maxPoints) {
+        StreamingOutput output = createHistoryOutput(serviceId, itemName, timeBegin, timeEnd, pageNumber, pageLength,
+                boundary, aggregation, interval, maxPoints);
+        if (output == null) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST,
+                    "Persistence service not queryable: " + serviceId);
         }
-        logger.debug("Persistence returned {} rows in {}ms", dto.datapoints, System.currentTimeMillis() - timerStart);
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
+    }
 
-        return JSONResponse.createResponse(Status.OK, dto, "");
+    /**
+     * Creates the output which writes the history of an item to the response while it is read from the persistence
+     * service, so it does not need to be held in memory. The stream is closed when the history has been written or
+     * reading it has failed.
+     */
+    protected StreamingOutput createHistoryOutput(String serviceId, String itemName, String timeBegin,
+            String timeEnd, int pageNumber, int pageLength, boolean boundary, Function aggregation, Duration interval,
+            int maxPoints) {
+        QueryablePersistenceService qService = getQueryableService(serviceId);
+        if (qService == null) {
+            return null;
+        }
+        ZonedDateTime dateTimeEnd = getEndTime(timeEnd);
+        ZonedDateTime dateTimeBegin = getBeginTime(timeBegin, dateTimeEnd);
+
+        StreamingOutput output = outputStream -> {
+            // Benchmarking timer...
+            long timerStart = System.currentTimeMillis();
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+                JsonWriter writer = new JsonWriter(out);
+                writer.beginObject();
+                writer.name("name").value(itemName);
+                writer.name("data").beginArray();
+                long quantity = collectHistory(qService, itemName, dateTimeBegin, dateTimeEnd, pageNumber, pageLength,
+                        boundary, aggregation, interval, maxPoints, (time, state) -> {
+                            try {
+                                writer.beginObject();
+                                writer.name("time").value(time);
+                                writer.name("state").value(state.toString());
+                                writer.endObject();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                writer.endArray();
+                writer.name("datapoints").value(Long.toString(quantity));
+                writer.endObject();
+                writer.flush();
+
+                logger.debug("Persistence returned {} rows in {}ms", quantity, System.currentTimeMillis() - timerStart);
+            } catch (UncheckedIOException e) {
+                // most likely the client has closed the connection
+                logger.debug("Failed to write the history of item '{}': {}", itemName, e.getCause().getMessage());
+                throw e.getCause();
+            } catch (IOException e) {
+                logger.debug("Failed to write the history of item '{}': {}", itemName, e.getMessage());
+                throw e;
+            } catch (RuntimeException e) {
+                // the response has already been started, so it can only be aborted
+                logger.warn("Failed to read the history of item '{}' from persistence service '{}': {}", itemName,
+                        qService.getId(), e.getMessage(), e);
+                throw e;
+            }
+        };
+        return output;
     }
 
     protected ItemHistoryDTO createDTO(String serviceId, String itemName, String timeBegin, String timeEnd,
             int pageNumber, int pageLength, boolean boundary) {
+        return createDTO(serviceId, itemName, timeBegin, timeEnd, pageNumber, pageLength, boundary, null, null, 0);
+    }
+
+    /**
+     * Creates the history of an item. If an aggregation function is given, the numeric states of the requested
+     * period are aggregated - by the persistence service itself if it is an {@link AggregatingPersistenceService}. If
+     * a maximum number of points is given, the states are reduced by a {@link HistoricItemDownsampler}.
+     */
+    protected ItemHistoryDTO createDTO(String serviceId, String itemName, String timeBegin, String timeEnd,
+            int pageNumber, int pageLength, boolean boundary, Function aggregation, Duration interval,
+            int maxPoints) {
+        QueryablePersistenceService qService = getQueryableService(serviceId);
+        if (qService == null) {
+            return null;
+        }
+        ZonedDateTime dateTimeEnd = getEndTime(timeEnd);
+        ZonedDateTime dateTimeBegin = getBeginTime(timeBegin, dateTimeEnd);
+
+        ItemHistoryDTO dto = new ItemHistoryDTO();
+        dto.name = itemName;
+        long quantity = collectHistory(qService, itemName, dateTimeBegin, dateTimeEnd, pageNumber, pageLength,
+                boundary, aggregation, interval, maxPoints, dto::addData);
+        dto.datapoints = Long.toString(quantity);
+        return dto;
+    }
+
+    private QueryablePersistenceService getQueryableService(String serviceId) {
         // If serviceId is null, then use the default service
-        PersistenceService service = null;
         String effectiveServiceId = serviceId != null ? serviceId : persistenceServiceRegistry.getDefaultId();
-        service = persistenceServiceRegistry.get(effectiveServiceId);
+        PersistenceService service = persistenceServiceRegistry.get(effectiveServiceId);
 
         if (service == null) {
             logger.debug("Persistence service not found '{}'.", effectiveServiceId);
@@ -254,46 +372,48 @@ public class PersistenceResource implements RESTResource {
             return null;
         }
 
-        QueryablePersistenceService qService = (QueryablePersistenceService) service;
-
-        ZonedDateTime dateTimeBegin = ZonedDateTime.now();
-        ZonedDateTime dateTimeEnd = dateTimeBegin;
-        if (timeBegin != null) {
-            dateTimeBegin = convertTime(timeBegin);
-        }
+        return (QueryablePersistenceService) service;
+    }
 
-        if (timeEnd != null) {
-            dateTimeEnd = convertTime(timeEnd);
-        }
+    private ZonedDateTime getEndTime(String timeEnd) {
+        ZonedDateTime dateTimeEnd = timeEnd != null ? convertTime(timeEnd) : ZonedDateTime.now();
 
         // End now...
         if (dateTimeEnd.toEpochSecond() == 0) {
             dateTimeEnd = ZonedDateTime.of(LocalDateTime.now(), timeZoneProvider.getTimeZone());
         }
-        if (dateTimeBegin.toEpochSecond() == 0) {
-            // Default to 1 days data if the times are the same or the start time is newer
-            // than the end time
-            dateTimeBegin = ZonedDateTime.of(dateTimeEnd.toLocalDateTime().plusDays(-1),
-                    timeZoneProvider.getTimeZone());
-        }
+        return dateTimeEnd;
+    }
+
+    private ZonedDateTime getBeginTime(String timeBegin, ZonedDateTime dateTimeEnd) {
+        ZonedDateTime dateTimeBegin = timeBegin != null ? convertTime(timeBegin) : dateTimeEnd;
 
         // Default to 1 days data if the times are the same or the start time is newer
         // than the end time
-        if (dateTimeBegin.isAfter(dateTimeEnd) || dateTimeBegin.isEqual(dateTimeEnd)) {
+        if (dateTimeBegin.toEpochSecond() == 0 || dateTimeBegin.isAfter(dateTimeEnd)
+                || dateTimeBegin.isEqual(dateTimeEnd)) {
             dateTimeBegin = ZonedDateTime.of(dateTimeEnd.toLocalDateTime().plusDays(-1),
                     timeZoneProvider.getTimeZone());
         }
+        return dateTimeBegin;
+    }
 
-        FilterCriteria filter;
-        Iterable<HistoricItem> result;
-        State state = null;
-
-        Long quantity = 0l;
-
-        ItemHistoryDTO dto = new ItemHistoryDTO();
-        dto.name = itemName;
-
-        filter = new FilterCriteria();
+    /**
+     * Passes the history of an item to the given consumer in the order of time, streaming it from the persistence
+     * service.
+     *
+     * @return the number of data points passed to the consumer
+     */
+    private long collectHistory(QueryablePersistenceService qService, String itemName, ZonedDateTime dateTimeBegin,
+            ZonedDateTime dateTimeEnd, int pageNumber, int pageLength, boolean boundary, Function aggregation,
+            Duration interval, int maxPoints, BiConsumer<Long, State> consumer) {
+        long[] quantity = new long[1];
+        BiConsumer<Long, State> countingConsumer = (time, state) -> {
+            consumer.accept(time, state);
+            quantity[0]++;
+        };
+
+        FilterCriteria filter = new FilterCriteria();
         filter.setItemName(itemName);
 
         // If "boundary" is true then we want to get one value before and after the requested period
@@ -304,10 +424,9 @@ public class PersistenceResource implements RESTResource {
             filter.setEndDate(dateTimeBegin);
             filter.setPageSize(1);
             filter.setOrdering(Ordering.DESCENDING);
-            result = qService.query(filter);
-            if (result != null && result.iterator().hasNext()) {
-                dto.addData(dateTimeBegin.toInstant().toEpochMilli(), result.iterator().next().getState());
-                quantity++;
+            try (Stream<HistoricItem> result = qService.stream(filter)) {
+                result.findFirst().ifPresent(historicItem -> countingConsumer
+                        .accept(dateTimeBegin.toInstant().toEpochMilli(), historicItem.getState()));
             }
         }
 
@@ -323,29 +442,37 @@ public class PersistenceResource implements RESTResource {
         filter.setEndDate(dateTimeEnd);
         filter.setOrdering(Ordering.ASCENDING);
 
-        result = qService.query(filter);
-        if (result != null) {
-            Iterator<HistoricItem> it = result.iterator();
+        Consumer<HistoricItem> itemConsumer = new Consumer<HistoricItem>() {
+            private HistoricItem lastItem;
 
-            // Iterate through the data
-            HistoricItem lastItem = null;
-            while (it.hasNext()) {
-                HistoricItem historicItem = it.next();
-                state = historicItem.getState();
+            @Override
+            public void accept(HistoricItem historicItem) {
+                State state = historicItem.getState();
 
                 // For 'binary' states, we need to replicate the data
                 // to avoid diagonal lines
                 if (state instanceof OnOffType || state instanceof OpenClosedType) {
                     if (lastItem != null) {
-                        dto.addData(historicItem.getTimestamp().getTime(), lastItem.getState());
-                        quantity++;
+                        countingConsumer.accept(historicItem.getTimestamp().getTime(), lastItem.getState());
                     }
                 }
 
-                dto.addData(historicItem.getTimestamp().getTime(), state);
-                quantity++;
+                countingConsumer.accept(historicItem.getTimestamp().getTime(), state);
                 lastItem = historicItem;
             }
+        };
+        HistoricItemDownsampler downsampler = null;
+        if (maxPoints > 0) {
+            downsampler = new HistoricItemDownsampler(dateTimeBegin.toInstant().toEpochMilli(),
+                    dateTimeEnd.toInstant().toEpochMilli(), maxPoints, itemConsumer);
+            itemConsumer = downsampler::add;
+        }
+
+        try (Stream<HistoricItem> result = queryHistory(qService, filter, aggregation, interval)) {
+            result.forEachOrdered(itemConsumer);
+        }
+        if (downsampler != null) {
+            downsampler.finish();
         }
 
         if (boundary) {
@@ -353,15 +480,23 @@ public class PersistenceResource implements RESTResource {
             filter.setBeginDate(dateTimeEnd);
             filter.setPageSize(1);
             filter.setOrdering(Ordering.ASCENDING);
-            result = qService.query(filter);
-            if (result != null && result.iterator().hasNext()) {
-                dto.addData(dateTimeEnd.toInstant().toEpochMilli(), result.iterator().next().getState());
-                quantity++;
+            try (Stream<HistoricItem> result = qService.stream(filter)) {
+                result.findFirst().ifPresent(historicItem -> countingConsumer
+                        .accept(dateTimeEnd.toInstant().toEpochMilli(), historicItem.getState()));
             }
         }
 
-        dto.datapoints = Long.toString(quantity);
-        return dto;
+        return quantity[0];
+    }
+
+    private Stream<HistoricItem> queryHistory(QueryablePersistenceService qService, FilterCriteria filter,
+            Function aggregation, Duration interval) {
+        if (aggregation == null) {
+            return qService.stream(filter);
+        }
+        AggregationRequest request = new AggregationRequest(filter.getItemName(), aggregation)
+                .setBeginDate(filter.getBeginDateZoned()).setEndDate(filter.getEndDateZoned()).setInterval(interval);
+        return StreamSupport.stream(HistoricStateAggregator.aggregate(qService, request).spliterator(), false);
     }
 
     /**
@@ -66,6 +66,7 @@ public class ResourceFilterImpl implements ResourceFilter {
             // JAX-RS
             "javax.ws.rs.ext.MessageBodyReader", "javax.ws.rs.ext.MessageBodyWriter",
             // Eclipse SmartHome
+            "org.eclipse.smarthome.io.rest.internal.filter.GzipFilter",
             "org.eclipse.smarthome.io.rest.internal.filter.ProxyFilter",
             "org.eclipse.smarthome.io.rest.internal.resources.RootResource",
             "org.eclipse.smarthome.io.rest.JSONResponse$ExceptionMapper", "org.eclipse.smarthome.io.rest.RESTResource",
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.ItemNotFoundException;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
+import org.eclipse.smarthome.model.sitemap.Frame;
+import org.eclipse.smarthome.model.sitemap.VisibilityRule;
+import org.eclipse.smarthome.model.sitemap.Widget;
+import org.eclipse.smarthome.ui.items.ItemUIRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+/**
+ * Test aspects of the {@link PageChangeListener}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class PageChangeListenerTest {
+
+    private static final String SITEMAP_NAME = "defaultSitemap";
+    private static final String PAGE_ID = "00";
+    private static final String ITEM_NAME = "itemName";
+    private static final String VISIBILITY_RULE_ITEM_NAME = "visibilityRuleItem";
+    private static final String WIDGET1_ID = "0000";
+    private static final String WIDGET2_ID = "0001";
+
+    @Mock
+    private ItemUIRegistry itemUIRegistry;
+
+    @Mock
+    private SitemapSubscriptionCallback callback;
+
+    private TestItem item;
+    private TestItem visibilityRuleItem;
+
+    private PageChangeListener listener;
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+
+        item = new TestItem(ITEM_NAME);
+        visibilityRuleItem = new TestItem(VISIBILITY_RULE_ITEM_NAME);
+
+        // the listener is driven directly by the tests, so it must not register on the items
+        when(itemUIRegistry.getItem(anyString())).thenThrow(new ItemNotFoundException("no item"));
+        when(itemUIRegistry.convertState(any(Widget.class), any(), any(State.class)))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        EList<Widget> widgets = new BasicEList<>();
+        widgets.add(createWidget(WIDGET1_ID, ITEM_NAME, null));
+        widgets.add(createWidget(WIDGET2_ID, null, VISIBILITY_RULE_ITEM_NAME));
+
+        listener = new PageChangeListener(SITEMAP_NAME, PAGE_ID, itemUIRegistry, widgets);
+        listener.addCallback(callback);
+    }
+
+    @Test
+    public void whenFrameHasNoChildrenThePageIsIndexed() {
+        Frame frame = mock(Frame.class);
+        mockWidgetType(frame, "Frame");
+        when(frame.getVisibility()).thenReturn(new BasicEList<>());
+        when(frame.getLabelColor()).thenReturn(new BasicEList<>());
+        when(frame.getValueColor()).thenReturn(new BasicEList<>());
+        when(itemUIRegistry.getChildren(frame)).thenReturn(null);
+        EList<Widget> widgets = new BasicEList<>();
+        widgets.add(frame);
+
+        listener.sitemapContentChanged(widgets);
+
+        verify(callback).onEvent(any(SitemapChangedEvent.class));
+    }
+
+    @Test
+    public void whenStateChangesTheAffectedWidgetIsSent() {
+        item.setState(new DecimalType(1));
+        listener.stateChanged(item, UnDefType.NULL, item.getState());
+
+        List<SitemapWidgetEvent> events = captureEvents(1);
+        assertThat(events.get(0).widgetId, is(WIDGET1_ID));
+        assertThat(events.get(0).item.state, is("1"));
+    }
+
+    @Test
+    public void whenVisibilityItemChangesTheDependingWidgetIsSent() {
+        visibilityRuleItem.setState(new DecimalType(1));
+        listener.stateChanged(visibilityRuleItem, UnDefType.NULL, visibilityRuleItem.getState());
+
+        List<SitemapWidgetEvent> events = captureEvents(1);
+        assertThat(events.get(0).widgetId, is(WIDGET2_ID));
+    }
+
+    @Test
+    public void whenRenderingIsUnchangedTheWidgetIsNotSentAgain() {
+        item.setState(new DecimalType(1));
+        listener.stateChanged(item, UnDefType.NULL, item.getState());
+        listener.changeStateTo(item, item.getState());
+
+        captureEvents(1);
+
+        item.setState(new DecimalType(2));
+        listener.changeStateTo(item, item.getState());
+
+        List<SitemapWidgetEvent> events = captureEvents(2);
+        assertThat(events.get(1).item.state, is("2"));
+    }
+
+    @Test
+    public void whenCurrentStateIsKeptTheWidgetIsSentAgain() {
+        item.setState(new DecimalType(1));
+        listener.stateChanged(item, UnDefType.NULL, item.getState());
+        listener.keepCurrentState(item);
+
+        ArgumentCaptor<SitemapWidgetEvent> captor = ArgumentCaptor.forClass(SitemapWidgetEvent.class);
+        verify(callback, timeout(5000).times(2)).onEvent(captor.capture());
+        assertThat(captor.getAllValues().get(1).widgetId, is(WIDGET1_ID));
+    }
+
+    private List<SitemapWidgetEvent> captureEvents(int count) {
+        ArgumentCaptor<SitemapWidgetEvent> captor = ArgumentCaptor.forClass(SitemapWidgetEvent.class);
+        verify(callback, times(count)).onEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private Widget createWidget(String id, String itemName, String visibilityRuleItemName) {
+        Widget widget = mock(Widget.class);
+        mockWidgetType(widget, "Text");
+        when(widget.getItem()).thenReturn(itemName);
+
+        EList<VisibilityRule> visibilityRules = new BasicEList<>();
+        if (visibilityRuleItemName != null) {
+            VisibilityRule visibilityRule = mock(VisibilityRule.class);
+            when(visibilityRule.getItem()).thenReturn(visibilityRuleItemName);
+            visibilityRules.add(visibilityRule);
+        }
+        when(widget.getVisibility()).thenReturn(visibilityRules);
+        when(widget.getLabelColor()).thenReturn(new BasicEList<>());
+        when(widget.getValueColor()).thenReturn(new BasicEList<>());
+
+        when(itemUIRegistry.getWidgetId(widget)).thenReturn(id);
+        when(itemUIRegistry.getLabel(widget)).thenReturn("widget " + id);
+        when(itemUIRegistry.getVisiblity(widget)).thenReturn(true);
+        return widget;
+    }
+
+    private void mockWidgetType(Widget widget, String typeName) {
+        EClass widgetClass = mock(EClass.class);
+        when(widgetClass.getName()).thenReturn(typeName);
+        when(widgetClass.getInstanceTypeName()).thenReturn("org.eclipse.smarthome.model.sitemap." + typeName);
+        when(widget.eClass()).thenReturn(widgetClass);
+    }
+
+    private class TestItem extends GenericItem {
+
+        public TestItem(String name) {
+            super("Number", name);
+        }
+
+        @Override
+        public List<Class<? extends State>> getAcceptedDataTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Class<? extends Command>> getAcceptedCommandTypes() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -24,8 +24,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
@@ -51,6 +53,7 @@ import org.eclipse.smarthome.test.java.JavaTest;
 import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 /**
@@ -62,6 +65,7 @@ import org.mockito.Mock;
 public class SitemapResourceTest extends JavaTest {
 
     private static final int STATE_UPDATE_WAIT_TIME = 100;
+    private static final int RESUME_WAIT_TIME = 5000;
 
     private static final String HTTP_HEADER_X_ATMOSPHERE_TRANSPORT = "X-Atmosphere-Transport";
     private static final String ITEM_NAME = "itemName";
@@ -173,7 +177,7 @@ public class SitemapResourceTest extends JavaTest {
         // non-null is sufficient here.
         when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(Collections.emptyList());
 
-        Response response = sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null);
+        Response response = getPageData();
 
         PageDTO pageDTO = (PageDTO) response.getEntity();
         assertThat(pageDTO.timeout, is(false)); // assert that the item state change did trigger the blocking method to
@@ -194,7 +198,7 @@ public class SitemapResourceTest extends JavaTest {
         // non-null is sufficient here.
         when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(Collections.emptyList());
 
-        Response response = sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null);
+        Response response = getPageData();
 
         PageDTO pageDTO = (PageDTO) response.getEntity();
         assertThat(pageDTO.timeout, is(false)); // assert that the item state change did trigger the blocking method to
@@ -215,7 +219,7 @@ public class SitemapResourceTest extends JavaTest {
         // non-null is sufficient here.
         when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(Collections.emptyList());
 
-        Response response = sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null);
+        Response response = getPageData();
 
         PageDTO pageDTO = (PageDTO) response.getEntity();
         assertThat(pageDTO.timeout, is(false)); // assert that the item state change did trigger the blocking method to
@@ -236,13 +240,28 @@ public class SitemapResourceTest extends JavaTest {
         // non-null is sufficient here.
         when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(Collections.emptyList());
 
-        Response response = sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null);
+        Response response = getPageData();
 
         PageDTO pageDTO = (PageDTO) response.getEntity();
         assertThat(pageDTO.timeout, is(false)); // assert that the item state change did trigger the blocking method to
                                                 // return
     }
 
+    @Test
+    public void whenLongPolling_ShouldNotBlockUntilItemsChange() {
+        // non-null is sufficient here.
+        when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(Collections.emptyList());
+
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null, asyncResponse);
+        verify(asyncResponse, never()).resume(any(Object.class));
+        // the container answers the request if it is never resumed
+        verify(asyncResponse).setTimeout(anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        item.setState(PercentType.ZERO);
+        verify(asyncResponse, timeout(RESUME_WAIT_TIME)).resume(any(Response.class));
+    }
+
     @Test
     public void whenGetPageData_ShouldReturnPageBean() throws ItemNotFoundException {
         item.setState(new PercentType(50));
@@ -251,7 +270,7 @@ public class SitemapResourceTest extends JavaTest {
         // Disable long polling
         when(headers.getRequestHeader(HTTP_HEADER_X_ATMOSPHERE_TRANSPORT)).thenReturn(null);
 
-        Response response = sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null);
+        Response response = getPageData();
 
         PageDTO pageDTO = (PageDTO) response.getEntity();
         assertThat(pageDTO.id, is(SITEMAP_NAME));
@@ -281,6 +300,24 @@ public class SitemapResourceTest extends JavaTest {
         assertThat(pageDTO.widgets.get(1).item.state, is("50"));
     }
 
+    @Test
+    public void whenRenderingFails_ShouldResumeWithInternalServerError() {
+        when(itemUIRegistry.getLabel(widgets.get(0))).thenThrow(new IllegalStateException("rendering failed"));
+
+        Response response = getPageData();
+
+        assertThat(response.getStatus(), is(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+    }
+
+    private Response getPageData() {
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        sitemapResource.getPageData(headers, null, SITEMAP_MODEL_NAME, SITEMAP_NAME, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse, timeout(RESUME_WAIT_TIME)).resume(response.capture());
+        return response.getValue();
+    }
+
     private void configureItemUIRegistry(State state1, State state2) throws ItemNotFoundException {
         when(itemUIRegistry.getChildren(defaultSitemap)).thenReturn(widgets);
         when(itemUIRegistry.getItem(ITEM_NAME)).thenReturn(item);
@@ -14,9 +14,14 @@ package org.eclipse.smarthome.io.rest.sitemap.internal;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
@@ -30,6 +35,7 @@ import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.StateChangeListener;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
 import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
 import org.eclipse.smarthome.model.sitemap.Chart;
@@ -42,6 +48,11 @@ import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 /**
  * This is a class that listens on item state change events and creates sitemap events for a dedicated sitemap page.
  *
+ * The listener is shared by all subscriptions of the page. It keeps the widgets of the page indexed by the items they
+ * depend on, i.e. the item they show and the items of their visibility and color conditions, so a state change only
+ * renders the affected widgets, once for all subscriptions. The last rendering of each widget is cached, so only the
+ * widgets whose rendering has changed are sent to the subscriptions.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  *
  */
@@ -53,8 +64,11 @@ public class PageChangeListener implements StateChangeListener {
     private final String sitemapName;
     private final String pageId;
     private final ItemUIRegistry itemUIRegistry;
-    private EList<Widget> widgets;
-    private Set<Item> items;
+    private Set<Item> items = Collections.emptySet();
+    /* item name -> widgets of the page depending on the item */
+    private volatile Map<String, List<Widget>> widgetsByItemName = Collections.emptyMap();
+    /* widget -> the event the widget has been rendered to the last time */
+    private final Map<Widget, SitemapWidgetEvent> renderedWidgets = new ConcurrentHashMap<>();
     private final List<SitemapSubscriptionCallback> callbacks = Collections
             .synchronizedList(new ArrayList<SitemapSubscriptionCallback>());
     private Set<SitemapSubscriptionCallback> distinctCallbacks = Collections.emptySet();
@@ -75,19 +89,19 @@ public class PageChangeListener implements StateChangeListener {
         updateItemsAndWidgets(widgets);
     }
 
-    private void updateItemsAndWidgets(EList<Widget> widgets) {
-        if (this.widgets != null) {
-            // cleanup statechange listeners in case widgets were removed
-            items = getAllItems(this.widgets);
-            for (Item item : items) {
-                if (item instanceof GenericItem) {
-                    ((GenericItem) item).removeStateChangeListener(this);
-                }
+    private synchronized void updateItemsAndWidgets(EList<Widget> widgets) {
+        // cleanup statechange listeners in case widgets were removed
+        for (Item item : items) {
+            if (item instanceof GenericItem) {
+                ((GenericItem) item).removeStateChangeListener(this);
             }
         }
 
-        this.widgets = widgets;
-        items = getAllItems(widgets);
+        Map<String, List<Widget>> widgetsByItemName = new HashMap<>();
+        indexWidgets(widgets, widgetsByItemName);
+        this.widgetsByItemName = widgetsByItemName;
+        renderedWidgets.clear();
+        items = getAllItems(widgetsByItemName.keySet());
         for (Item item : items) {
             if (item instanceof GenericItem) {
                 ((GenericItem) item).addStateChangeListener(this);
@@ -117,7 +131,7 @@ public class PageChangeListener implements StateChangeListener {
     /**
      * Disposes this instance and releases all resources.
      */
-    public void dispose() {
+    public synchronized void dispose() {
         for (Item item : items) {
             if (item instanceof GenericItem) {
                 ((GenericItem) item).removeStateChangeListener(this);
@@ -128,50 +142,71 @@ public class PageChangeListener implements StateChangeListener {
     }
 
     /**
-     * Collects all items that are represented by a given list of widgets
+     * Indexes the given widgets and the widgets of their frames by the names of the items they depend on
      *
      * @param widgets
-     *            the widget list to get the items for added to all bundles containing REST resources
-     * @return all items that are represented by the list of widgets
+     *            the widget list to index
+     * @param widgetsByItemName
+     *            the index to add the widgets to
      */
-    private Set<Item> getAllItems(EList<Widget> widgets) {
-        Set<Item> items = new HashSet<Item>();
-        if (itemUIRegistry != null) {
-            for (Widget widget : widgets) {
-                addItemWithName(items, widget.getItem());
-                if (widget instanceof Frame) {
-                    items.addAll(getAllItems(((Frame) widget).getChildren()));
-                }
-                // now scan visibility rules
-                for (VisibilityRule rule : widget.getVisibility()) {
-                    addItemWithName(items, rule.getItem());
+    private void indexWidgets(List<Widget> widgets, Map<String, List<Widget>> widgetsByItemName) {
+        for (Widget widget : widgets) {
+            if (widget instanceof Frame) {
+                EList<Widget> children = itemUIRegistry.getChildren((Frame) widget);
+                if (children != null) {
+                    indexWidgets(children, widgetsByItemName);
                 }
-                // now scan label color rules
-                for (ColorArray rule : widget.getLabelColor()) {
-                    addItemWithName(items, rule.getItem());
-                }
-                // now scan value color rules
-                for (ColorArray rule : widget.getValueColor()) {
-                    addItemWithName(items, rule.getItem());
+            }
+            // the item names are collected in a set, so a widget is only rendered once per state change
+            Set<String> itemNames = new LinkedHashSet<>();
+            itemNames.add(widget.getItem());
+            // now scan visibility rules
+            for (VisibilityRule rule : widget.getVisibility()) {
+                itemNames.add(rule.getItem());
+            }
+            // now scan label color rules
+            for (ColorArray rule : widget.getLabelColor()) {
+                itemNames.add(rule.getItem());
+            }
+            // now scan value color rules
+            for (ColorArray rule : widget.getValueColor()) {
+                itemNames.add(rule.getItem());
+            }
+            for (String itemName : itemNames) {
+                if (itemName != null) {
+                    widgetsByItemName.computeIfAbsent(itemName, name -> new ArrayList<>()).add(widget);
                 }
             }
         }
-        return items;
     }
 
-    private void addItemWithName(Set<Item> items, String itemName) {
-        if (itemName != null) {
-            try {
-                Item item = itemUIRegistry.getItem(itemName);
-                items.add(item);
-            } catch (ItemNotFoundException e) {
-                // ignore
+    /**
+     * Collects all items with the given names
+     *
+     * @param itemNames
+     *            the names of the items the widgets of the page depend on
+     * @return all items that exist
+     */
+    private Set<Item> getAllItems(Set<String> itemNames) {
+        Set<Item> items = new HashSet<Item>();
+        if (itemUIRegistry != null) {
+            for (String itemName : itemNames) {
+                try {
+                    items.add(itemUIRegistry.getItem(itemName));
+                } catch (ItemNotFoundException e) {
+                    // ignore
+                }
             }
         }
+        return items;
     }
 
-    private void constructAndSendEvents(Item item, State newState) {
-        Set<SitemapEvent> events = constructSitemapEvents(item, newState, widgets);
+    private void constructAndSendEvents(Item item, State newState, boolean resend) {
+        List<Widget> widgets = widgetsByItemName.get(item.getName());
+        if (widgets == null) {
+            return;
+        }
+        List<SitemapEvent> events = constructSitemapEvents(item, newState, widgets, resend);
         for (SitemapEvent event : events) {
             for (SitemapSubscriptionCallback callback : distinctCallbacks) {
                 callback.onEvent(event);
@@ -185,7 +220,7 @@ public class PageChangeListener implements StateChangeListener {
         if (item instanceof GroupItem) {
             return;
         }
-        constructAndSendEvents(item, newState);
+        constructAndSendEvents(item, newState, false);
     }
 
     @Override
@@ -196,26 +231,25 @@ public class PageChangeListener implements StateChangeListener {
         if (!(item instanceof GroupItem)) {
             return;
         }
-        constructAndSendEvents(item, state);
+        constructAndSendEvents(item, state, false);
     }
 
     public void keepCurrentState(Item item) {
         scheduler.schedule(() -> {
-            constructAndSendEvents(item, item.getState());
+            // the widgets are sent even if their rendering is unchanged, as the clients might have changed them
+            constructAndSendEvents(item, item.getState(), true);
         }, REVERT_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     public void changeStateTo(Item item, State state) {
-        constructAndSendEvents(item, state);
+        constructAndSendEvents(item, state, false);
     }
 
-    private Set<SitemapEvent> constructSitemapEvents(Item item, State state, List<Widget> widgets) {
-        Set<SitemapEvent> events = new HashSet<>();
+    private List<SitemapEvent> constructSitemapEvents(Item item, State state, List<Widget> widgets, boolean resend) {
+        List<SitemapEvent> events = new ArrayList<>();
+        // the item is the same for all widgets, so it is only mapped once for each kind of widget
+        EnrichedItemDTO[] itemDTOs = new EnrichedItemDTO[2];
         for (Widget w : widgets) {
-            if (w instanceof Frame) {
-                events.addAll(constructSitemapEvents(item, state, itemUIRegistry.getChildren((Frame) w)));
-            }
-
             boolean skipWidget = (w.getItem() == null) || !w.getItem().equals(item.getName());
             // We skip the chart widgets having a refresh argument
             if (!skipWidget && w instanceof Chart) {
@@ -235,8 +269,12 @@ public class PageChangeListener implements StateChangeListener {
                 String widgetTypeName = w.eClass().getInstanceTypeName()
                         .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
                 boolean drillDown = "mapview".equalsIgnoreCase(widgetTypeName);
-                Predicate<Item> itemFilter = (i -> i.getType().equals(CoreItemFactory.LOCATION));
-                event.item = EnrichedItemDTOMapper.map(item, drillDown, itemFilter, null, null);
+                int index = drillDown ? 1 : 0;
+                if (itemDTOs[index] == null) {
+                    Predicate<Item> itemFilter = (i -> i.getType().equals(CoreItemFactory.LOCATION));
+                    itemDTOs[index] = EnrichedItemDTOMapper.map(item, drillDown, itemFilter, null, null);
+                }
+                event.item = itemDTOs[index];
 
                 // event.state is an adjustment of the item state to the widget type.
                 event.state = itemUIRegistry.convertState(w, item, state).toFullString();
@@ -245,12 +283,24 @@ public class PageChangeListener implements StateChangeListener {
                     event.state = null;
                 }
 
-                events.add(event);
+                SitemapWidgetEvent lastEvent = renderedWidgets.put(w, event);
+                if (resend || lastEvent == null || !isSameRendering(lastEvent, event)) {
+                    events.add(event);
+                }
             }
         }
         return events;
     }
 
+    private boolean isSameRendering(SitemapWidgetEvent event, SitemapWidgetEvent other) {
+        return Objects.equals(event.widgetId, other.widgetId) && Objects.equals(event.label, other.label)
+                && Objects.equals(event.icon, other.icon) && Objects.equals(event.labelcolor, other.labelcolor)
+                && Objects.equals(event.valuecolor, other.valuecolor) && event.visibility == other.visibility
+                && Objects.equals(event.state, other.state) && Objects.equals(event.item.state, other.item.state)
+                && Objects.equals(event.item.transformedState, other.item.transformedState)
+                && Objects.equals(event.item.label, other.item.label);
+    }
+
     private boolean definesVisibilityOrColor(Widget w, String name) {
         for (VisibilityRule rule : w.getVisibility()) {
             if (name.equals(rule.getItem())) {
@@ -15,7 +15,6 @@ package org.eclipse.smarthome.io.rest.sitemap.internal;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Locale;
@@ -24,6 +23,8 @@ import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import javax.annotation.security.RolesAllowed;
@@ -38,6 +39,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -127,6 +130,12 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
 
     private static final long TIMEOUT_IN_MS = 30000;
 
+    /**
+     * The time after which a long polling request is answered by the container, if it has not been resumed before
+     * for whatever reason.
+     */
+    private static final long ASYNC_RESPONSE_TIMEOUT_IN_MS = 2 * TIMEOUT_IN_MS;
+
     private SseBroadcaster broadcaster;
 
     @Context
@@ -252,11 +261,12 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
             @ApiResponse(code = 404, message = "Sitemap with requested name does not exist or page does not exist, or page refers to a non-linkable widget"),
             @ApiResponse(code = 400, message = "Invalid subscription id has been provided.") })
-    public Response getPageData(@Context HttpHeaders headers,
+    public void getPageData(@Context HttpHeaders headers,
             @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language,
             @PathParam("sitemapname") @ApiParam(value = "sitemap name") String sitemapname,
             @PathParam("pageid") @ApiParam(value = "page id") String pageId,
-            @QueryParam("subscriptionid") @ApiParam(value = "subscriptionid", required = false) String subscriptionId) {
+            @QueryParam("subscriptionid") @ApiParam(value = "subscriptionid", required = false) String subscriptionId,
+            @Suspended AsyncResponse asyncResponse) {
         final Locale locale = localeService.getLocale(language);
         logger.debug("Received HTTP GET request from IP {} at '{}'", request.getRemoteAddr(), uriInfo.getPath());
 
@@ -264,21 +274,38 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
             try {
                 subscriptions.setPageId(subscriptionId, sitemapname, pageId);
             } catch (IllegalArgumentException e) {
-                return JSONResponse.createErrorResponse(Response.Status.BAD_REQUEST, e.getMessage());
+                asyncResponse.resume(JSONResponse.createErrorResponse(Response.Status.BAD_REQUEST, e.getMessage()));
+                return;
             }
         }
 
-        boolean timeout = false;
+        final URI uri = uriInfo.getBaseUriBuilder().build();
         if (headers.getRequestHeader("X-Atmosphere-Transport") != null) {
             // Make the REST-API pseudo-compatible with openHAB 1.x
             // The client asks Atmosphere for server push functionality,
             // so we do a simply listening for changes on the appropriate items
-            // The blocking has a timeout of 30 seconds. If this timeout is reached,
+            // The request is suspended with a timeout of 30 seconds. If this timeout is reached,
             // we notice this information in the response object.
-            timeout = blockUnlessChangeOccurs(sitemapname, pageId);
+            asyncResponse.setTimeout(ASYNC_RESPONSE_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+            if (resumeOnChange(sitemapname, pageId,
+                    timeout -> resumeWithPage(asyncResponse, sitemapname, pageId, uri, locale, timeout))) {
+                return;
+            }
+        }
+        resumeWithPage(asyncResponse, sitemapname, pageId, uri, locale, false);
+    }
+
+    private void resumeWithPage(AsyncResponse asyncResponse, String sitemapName, String pageId, URI uri, Locale locale,
+            boolean timeout) {
+        try {
+            asyncResponse.resume(Response.ok(getPageBean(sitemapName, pageId, uri, locale, timeout)).build());
+        } catch (WebApplicationException e) {
+            asyncResponse.resume(e);
+        } catch (RuntimeException e) {
+            logger.error("Error rendering page '{}' of sitemap '{}': {}", pageId, sitemapName, e.getMessage(), e);
+            asyncResponse.resume(
+                    JSONResponse.createErrorResponse(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage()));
         }
-        PageDTO responseObject = getPageBean(sitemapname, pageId, uriInfo.getBaseUriBuilder().build(), locale, timeout);
-        return Response.ok(responseObject).build();
     }
 
     /**
@@ -628,54 +655,38 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
         return null;
     }
 
-    private boolean blockUnlessChangeOccurs(String sitemapname, String pageId) {
-        boolean timeout = false;
+    private boolean resumeOnChange(String sitemapname, String pageId, Consumer<Boolean> resume) {
         Sitemap sitemap = getSitemap(sitemapname);
         if (sitemap != null) {
             if (pageId.equals(sitemap.getName())) {
                 EList<Widget> children = itemUIRegistry.getChildren(sitemap);
-                timeout = waitForChanges(children);
+                resumeOnChange(children, resume);
+                return true;
             } else {
                 Widget pageWidget = itemUIRegistry.getWidget(sitemap, pageId);
                 if (pageWidget instanceof LinkableWidget) {
                     EList<Widget> children = itemUIRegistry.getChildren((LinkableWidget) pageWidget);
-                    timeout = waitForChanges(children);
+                    resumeOnChange(children, resume);
+                    return true;
                 }
             }
         }
-        return timeout;
+        return false;
     }
 
     /**
-     * This method only returns when a change has occurred to any item on the
-     * page to display or if the timeout is reached
+     * Calls the given resume function as soon as a change has occurred to any item on the
+     * page to display or if the timeout is reached. No thread is blocked while waiting.
      *
      * @param widgets
      *            the widgets of the page to observe
-     * @return true if the timeout is reached
+     * @param resume
+     *            the function to call with true if the timeout is reached
      */
-    private boolean waitForChanges(EList<Widget> widgets) {
-        long startTime = (new Date()).getTime();
-        boolean timeout = false;
-        BlockingStateChangeListener listener = new BlockingStateChangeListener();
+    private void resumeOnChange(EList<Widget> widgets, Consumer<Boolean> resume) {
         // let's get all items for these widgets
         Set<GenericItem> items = getAllItems(widgets);
-        for (GenericItem item : items) {
-            item.addStateChangeListener(listener);
-        }
-        while (!listener.hasChangeOccurred() && !timeout) {
-            timeout = (new Date()).getTime() - startTime > TIMEOUT_IN_MS;
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                timeout = true;
-                break;
-            }
-        }
-        for (GenericItem item : items) {
-            item.removeStateChangeListener(listener);
-        }
-        return timeout;
+        new LongPollingStateChangeListener(items, resume).observe();
     }
 
     /**
@@ -756,34 +767,58 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
     }
 
     /**
-     * This is a state change listener, which is merely used to determine, if a
-     * state change has occurred on one of a list of items.
+     * This is a state change listener, which is used to resume a long polling request as soon as a
+     * state change has occurred on one of a list of items or the timeout is reached.
      *
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    private static class BlockingStateChangeListener implements StateChangeListener {
+    private class LongPollingStateChangeListener implements StateChangeListener {
 
-        private boolean changed = false;
+        private final Set<GenericItem> items;
+        private final Consumer<Boolean> resume;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private ScheduledFuture<?> timeoutJob;
 
-        @Override
-        public void stateChanged(Item item, State oldState, State newState) {
-            changed = true;
+        LongPollingStateChangeListener(Set<GenericItem> items, Consumer<Boolean> resume) {
+            this.items = items;
+            this.resume = resume;
         }
 
         /**
-         * determines, whether a state change has occurred since its creation
-         *
-         * @return true, if a state has changed
+         * starts listening to the state changes of the items
          */
-        public boolean hasChangeOccurred() {
-            return changed;
+        void observe() {
+            for (GenericItem item : items) {
+                item.addStateChangeListener(this);
+            }
+            timeoutJob = scheduler.schedule(() -> release(true), TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void stateChanged(Item item, State oldState, State newState) {
+            if (!released.get()) {
+                // the page is not rendered on the thread which is notifying about the change
+                scheduler.execute(() -> release(false));
+            }
         }
 
         @Override
         public void stateUpdated(Item item, State state) {
             // ignore if the state did not change
         }
+
+        private void release(boolean timeout) {
+            if (released.compareAndSet(false, true)) {
+                for (GenericItem item : items) {
+                    item.removeStateChangeListener(this);
+                }
+                if (timeoutJob != null) {
+                    timeoutJob.cancel(false);
+                }
+                resume.accept(timeout);
+            }
+        }
     }
 
     @Override
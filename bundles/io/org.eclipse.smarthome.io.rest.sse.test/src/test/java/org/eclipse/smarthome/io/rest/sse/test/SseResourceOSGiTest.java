@@ -17,6 +17,7 @@ import static org.junit.Assert.assertThat;
 
 import java.util.List;
 
+import org.eclipse.smarthome.io.rest.sse.internal.SseTopicFilter;
 import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.eclipse.smarthome.test.java.JavaOSGiTest;
 import org.junit.Test;
@@ -112,4 +113,28 @@ public class SseResourceOSGiTest extends JavaOSGiTest {
         assertThat("smarthome/items/anyitem/added".matches(regexes.get(0)), is(true));
         assertThat("smarthome/items/anyitem/removed".matches(regexes.get(0)), is(false));
     }
+
+    @Test
+    public void testTopicFilters() {
+        SseTopicFilter filter = SseTopicFilter.compile("smarthome/*/test/test,    smarthome/items/*/added, qivicon");
+        assertThat(filter.getFilter(), is("smarthome/*/test/test,smarthome/items/*/added,qivicon"));
+
+        assertThat(filter.matches("smarthome/asdf/test/test/test"), is(true));
+        assertThat(filter.matches("smarthome/asdf/ASDF/test/foo"), is(false));
+        assertThat(filter.matches("smarthome/items/anyitem/added"), is(true));
+        assertThat(filter.matches("smarthome/items/anyitem/removed"), is(false));
+        assertThat(filter.matches("qivicon/asdf"), is(true));
+        assertThat(filter.matches("smarthome/qivicon"), is(false));
+
+        filter = SseTopicFilter.compile("");
+        assertThat(filter.matches("smarthome/items/anyitem/added"), is(true));
+
+        filter = SseTopicFilter.compile("*added");
+        assertThat(filter.matches("smarthome/items/anyitem/added"), is(true));
+        assertThat(filter.matches("smarthome/items/anyitem/removed"), is(false));
+
+        filter = SseTopicFilter.compile("smarthome/*/*/state");
+        assertThat(filter.matches("smarthome/items/item/state"), is(true));
+        assertThat(filter.matches("smarthome/items/state"), is(false));
+    }
 }
@@ -32,10 +32,10 @@ import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.smarthome.core.auth.Role;
 import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.io.rest.sse.internal.SseEventBroadcaster;
 import org.eclipse.smarthome.io.rest.sse.internal.SseEventOutput;
 import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.osgi.service.component.annotations.Component;
 
@@ -63,7 +63,7 @@ public class SseResource {
 
     private static final String X_ACCEL_BUFFERING_HEADER = "X-Accel-Buffering";
 
-    private final SseBroadcaster broadcaster;
+    private final SseEventBroadcaster broadcaster;
 
     private final ExecutorService executorService;
 
@@ -78,7 +78,7 @@ public class SseResource {
 
     public SseResource() {
         this.executorService = Executors.newSingleThreadExecutor();
-        this.broadcaster = new SseBroadcaster();
+        this.broadcaster = new SseEventBroadcaster();
     }
 
     /**
@@ -104,7 +104,7 @@ public class SseResource {
 
         // construct an EventOutput that will only write out events that match
         // the given filter
-        final EventOutput eventOutput = new SseEventOutput(eventFilter);
+        final SseEventOutput eventOutput = new SseEventOutput(eventFilter);
         broadcaster.add(eventOutput);
 
         // Disables proxy buffering when using an nginx http server proxy for this response.
@@ -132,7 +132,7 @@ public class SseResource {
 
     /**
      * Broadcasts an event described by the given parameter to all currently
-     * listening clients.
+     * listening clients whose topic filter matches.
      *
      * @param sseEventType the SSE event type
      * @param event the event
@@ -141,7 +141,7 @@ public class SseResource {
         executorService.execute(new Runnable() {
             @Override
             public void run() {
-                broadcaster.broadcast(SseUtil.buildEvent(event));
+                broadcaster.broadcast(event);
             }
         });
     }
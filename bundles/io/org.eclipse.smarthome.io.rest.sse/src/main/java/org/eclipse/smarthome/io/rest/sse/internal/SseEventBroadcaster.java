@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SseEventBroadcaster} writes events to the connected {@link SseEventOutput}s whose topic filter matches.
+ * <p>
+ * The outputs are grouped by their normalized topic filter, so each distinct filter is only checked once per event,
+ * no matter how many clients have subscribed with it. The frame of an event is only built once and written to all
+ * matching outputs. Outputs which have been closed or cannot be written to anymore are removed.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class SseEventBroadcaster {
+
+    private final Logger logger = LoggerFactory.getLogger(SseEventBroadcaster.class);
+
+    private final Map<String, FilterGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an output which is written to until it is closed.
+     *
+     * @param output the output
+     */
+    public synchronized void add(SseEventOutput output) {
+        SseTopicFilter topicFilter = output.getTopicFilter();
+        groups.computeIfAbsent(topicFilter.getFilter(), filter -> new FilterGroup(topicFilter)).outputs.add(output);
+    }
+
+    /**
+     * Removes an output, it is not closed.
+     *
+     * @param output the output
+     */
+    public synchronized void remove(SseEventOutput output) {
+        String filter = output.getTopicFilter().getFilter();
+        FilterGroup group = groups.get(filter);
+        if (group != null && group.outputs.remove(output) && group.outputs.isEmpty()) {
+            groups.remove(filter);
+        }
+    }
+
+    /**
+     * Writes the given event to all outputs whose topic filter matches its topic.
+     *
+     * @param event the event
+     */
+    public void broadcast(Event event) {
+        final String topic = event.getTopic();
+        @Nullable OutboundEvent frame = null;
+        for (FilterGroup group : groups.values()) {
+            if (group.topicFilter.matches(topic)) {
+                if (frame == null) {
+                    frame = SseUtil.buildEvent(event);
+                }
+                for (SseEventOutput output : group.outputs) {
+                    write(output, frame);
+                }
+            }
+        }
+    }
+
+    private void write(SseEventOutput output, OutboundEvent frame) {
+        if (!output.isClosed()) {
+            try {
+                output.write(frame);
+            } catch (IOException e) {
+                logger.debug("Closing SSE connection after failing to write to it: {}", e.getMessage());
+                close(output);
+            }
+        }
+        if (output.isClosed()) {
+            remove(output);
+        }
+    }
+
+    private void close(SseEventOutput output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            // the connection is dropped anyway
+        }
+    }
+
+    private static class FilterGroup {
+
+        private final SseTopicFilter topicFilter;
+        private final List<SseEventOutput> outputs = new CopyOnWriteArrayList<>();
+
+        FilterGroup(SseTopicFilter topicFilter) {
+            this.topicFilter = topicFilter;
+        }
+    }
+
+}
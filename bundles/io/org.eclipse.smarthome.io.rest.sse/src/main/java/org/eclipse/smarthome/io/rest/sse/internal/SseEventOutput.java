@@ -12,41 +12,31 @@
  */
 package org.eclipse.smarthome.io.rest.sse.internal;
 
-import java.io.IOException;
-import java.util.List;
-
-import org.eclipse.smarthome.io.rest.sse.beans.EventBean;
-import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.OutboundEvent;
 
 /**
- * {@link EventOutput} implementation that takes a filter parameter and only writes out events that match this filter.
- * Should only be used when the {@link OutboundEvent}s sent through this {@link EventOutput} contain a data object of
- * type {@link EventBean}
+ * {@link EventOutput} implementation that takes a filter parameter. The {@link SseEventBroadcaster} only writes out
+ * events that match this filter, checking it once for all outputs with the same filter.
  * 
  * @author Ivan Iliev - Initial contribution and API
  * 
  */
 public class SseEventOutput extends EventOutput {
 
-    private List<String> regexFilters;
+    private final SseTopicFilter topicFilter;
 
     public SseEventOutput(String topicFilter) {
         super();
-        this.regexFilters = SseUtil.convertToRegex(topicFilter);
+        this.topicFilter = SseTopicFilter.compile(topicFilter);
     }
 
-    @Override
-    public void write(OutboundEvent chunk) throws IOException {
-        EventBean event = (EventBean) chunk.getData();
-
-        for (String filter : regexFilters) {
-            if (event.topic.matches(filter)) {
-                super.write(chunk);
-                return;
-            }
-        }
+    /**
+     * Gets the compiled topic filter of this output.
+     *
+     * @return the topic filter
+     */
+    public SseTopicFilter getTopicFilter() {
+        return topicFilter;
     }
 
 }
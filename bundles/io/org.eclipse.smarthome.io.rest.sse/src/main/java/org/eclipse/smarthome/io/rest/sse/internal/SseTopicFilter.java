@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link SseTopicFilter} is the compiled form of the topic filter of an SSE connection.
+ * <p>
+ * The filter is a comma separated list of topic patterns. A topic matches a pattern if it starts with it, where a
+ * wildcard (*) matches any sequence of characters. This is the same semantics as the regular expressions created by
+ * {@link org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil#convertToRegex(String)}, but the patterns are split
+ * at their wildcards once, so matching a topic does neither compile nor evaluate a regular expression.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class SseTopicFilter {
+
+    private final String filter;
+    private final List<String[]> patterns = new ArrayList<>();
+
+    private SseTopicFilter(@Nullable String topicFilter) {
+        StringBuilder normalized = new StringBuilder();
+        if (topicFilter == null || topicFilter.isEmpty()) {
+            patterns.add(new String[] { "" });
+        } else {
+            StringTokenizer tokenizer = new StringTokenizer(topicFilter, ",");
+            while (tokenizer.hasMoreTokens()) {
+                String pattern = tokenizer.nextToken().trim();
+                patterns.add(pattern.split("\\*", -1));
+                if (normalized.length() > 0) {
+                    normalized.append(',');
+                }
+                normalized.append(pattern);
+            }
+        }
+        filter = normalized.toString();
+    }
+
+    /**
+     * Compiles the given topic filter.
+     *
+     * @param topicFilter the topic filter, an empty or {@code null} filter matches all topics
+     * @return the compiled topic filter
+     */
+    public static SseTopicFilter compile(@Nullable String topicFilter) {
+        return new SseTopicFilter(topicFilter);
+    }
+
+    /**
+     * Gets the normalized topic filter, i.e. the filter without the whitespace around its patterns. Equal normalized
+     * filters match the same topics.
+     *
+     * @return the normalized topic filter
+     */
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Checks if the given topic matches the filter.
+     *
+     * @param topic the topic of an event
+     * @return true if the topic matches any of the patterns of the filter
+     */
+    public boolean matches(String topic) {
+        for (String[] parts : patterns) {
+            if (matches(parts, topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String[] parts, String topic) {
+        if (!topic.startsWith(parts[0])) {
+            return false;
+        }
+        // as any suffix is accepted, the leftmost occurrence of each part is always the best choice
+        int index = parts[0].length();
+        for (int i = 1; i < parts.length; i++) {
+            index = topic.indexOf(parts[i], index);
+            if (index < 0) {
+                return false;
+            }
+            index += parts[i].length();
+        }
+        return true;
+    }
+
+}
@@ -24,6 +24,8 @@ import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.io.rest.sse.beans.EventBean;
 import org.glassfish.jersey.media.sse.OutboundEvent;
 
+import com.google.gson.Gson;
+
 /**
  * Utility class containing helper methods for the SSE implementation.
  * 
@@ -33,6 +35,8 @@ import org.glassfish.jersey.media.sse.OutboundEvent;
 public class SseUtil {
     static final String TOPIC_VALIDATE_PATTERN = "(\\w*\\*?\\/?,?\\s*)*";
 
+    private static final Gson GSON = new Gson();
+
     static {
         boolean servlet3 = false;
         try {
@@ -50,8 +54,11 @@ public class SseUtil {
     public static final boolean SERVLET3_SUPPORT;
 
     /**
-     * Creates a new {@link OutboundEvent} object containing an {@link EventBean} created for the given Eclipse
-     * SmartHome {@link Event}.
+     * Creates a new {@link OutboundEvent} object containing the JSON of an {@link EventBean} created for the given
+     * Eclipse SmartHome {@link Event}.
+     * 
+     * The JSON is serialized right away, so the event is only serialized once, no matter to how many clients it is
+     * written.
      * 
      * @param event the event
      * 
@@ -63,9 +70,10 @@ public class SseUtil {
         eventBean.type = event.getType();
         eventBean.payload = event.getPayload();
 
+        // the data is written as is, the media type of an event is not part of the SSE stream
         OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
-        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.APPLICATION_JSON_TYPE)
-                .data(eventBean).build();
+        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.TEXT_PLAIN_TYPE)
+                .data(String.class, GSON.toJson(eventBean)).build();
 
         return outboundEvent;
     }
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+public class JSONStreamingOutputTest {
+
+    private final Gson GSON = new GsonBuilder().create();
+
+    @Test
+    public void shouldWriteEmptyStream() throws Exception {
+        List<Object> emptyList = Collections.emptyList();
+
+        assertThat(write(new JSONStreamingOutput(emptyList.stream())), is(GSON.toJson(emptyList)));
+    }
+
+    @Test
+    public void shouldWriteSingleObjectToJSON() throws Exception {
+        DummyObject dummyObject = new DummyObject("demoKey", "demoValue");
+        List<DummyObject> dummyList = Arrays.asList(dummyObject);
+
+        assertThat(write(new JSONStreamingOutput(Stream.of(dummyObject))), is(GSON.toJson(dummyList)));
+    }
+
+    @Test
+    public void shouldWriteCollectionStreamToJSON() throws Exception {
+        DummyObject dummyObject1 = new DummyObject("demoKey1", "<demoValue1>");
+        DummyObject dummyObject2 = new DummyObject("demoKey2", null);
+        List<DummyObject> dummyCollection = Arrays.asList(dummyObject1, null, dummyObject2);
+
+        assertThat(write(new JSONStreamingOutput(dummyCollection.stream())), is(GSON.toJson(dummyCollection)));
+    }
+
+    @Test
+    public void shouldOnlyWriteGivenFields() throws Exception {
+        DummyObject dummyObject1 = new DummyObject("demoKey1", "demoValue1");
+        DummyObject dummyObject2 = new DummyObject("demoKey2", "demoValue2");
+
+        assertThat(write(new JSONStreamingOutput(Stream.of(dummyObject1, dummyObject2), " key, unknown")),
+                is("[{\"key\":\"demoKey1\"},{\"key\":\"demoKey2\"}]"));
+        assertThat(write(new JSONStreamingOutput(Stream.of(dummyObject1), " ")),
+                is(GSON.toJson(Arrays.asList(dummyObject1))));
+    }
+
+    private String write(JSONStreamingOutput streamingOutput) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        streamingOutput.write(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unused")
+    private class DummyObject {
+        private final String key;
+        private final String value;
+
+        DummyObject(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.internal.filter;
+
+import static org.eclipse.smarthome.io.rest.internal.filter.GzipFilter.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Test for the {@link GzipFilter} filter
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class GzipFilterTest {
+
+    private GzipFilter filter;
+    private MultivaluedMap<String, Object> responseHeaders = new MultivaluedHashMap<>();
+
+    private @Mock ContainerRequestContext requestContext;
+    private @Mock ContainerResponseContext responseContext;
+    private @Mock WriterInterceptorContext writerContext;
+
+    public @Rule MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Before
+    public void setUp() {
+        filter = new GzipFilter();
+        when(responseContext.getHeaders()).thenReturn(responseHeaders);
+    }
+
+    @Test
+    public void acceptEncodingTest() {
+        assertTrue(acceptsGzip("gzip"));
+        assertTrue(acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(acceptsGzip("gzip;q=0"));
+        assertFalse(acceptsGzip("deflate, br"));
+        assertFalse(acceptsGzip(null));
+    }
+
+    @Test
+    public void streamedJsonIsCompressedTest() throws IOException {
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip, deflate");
+        when(responseContext.getEntity()).thenReturn(new JSONStreamingOutput(Stream.of("a", "b")));
+
+        filter.filter(requestContext, responseContext);
+
+        assertThat(responseHeaders.getFirst(HttpHeaders.CONTENT_ENCODING), is(GZIP_ENCODING));
+        assertThat(responseHeaders.getFirst(VARY_HEADER), is(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void notAcceptedEncodingTest() throws IOException {
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn(null);
+        when(responseContext.getEntity()).thenReturn(new JSONStreamingOutput(Stream.of("a", "b")));
+
+        filter.filter(requestContext, responseContext);
+
+        assertThat(responseHeaders.getFirst(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+        assertThat(responseHeaders.getFirst(VARY_HEADER), is(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void otherEntitiesAreNotCompressedTest() throws IOException {
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        when(responseContext.getEntity()).thenReturn("entity");
+
+        filter.filter(requestContext, responseContext);
+
+        assertThat(responseHeaders.isEmpty(), is(true));
+    }
+
+    @Test
+    public void entityIsWrittenCompressedTest() throws IOException {
+        JSONStreamingOutput entity = new JSONStreamingOutput(Stream.of("a", "b"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        responseHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        when(writerContext.getEntity()).thenReturn(entity);
+        when(writerContext.getHeaders()).thenReturn(responseHeaders);
+        when(writerContext.getOutputStream()).thenReturn(outputStream);
+        OutputStream[] entityStream = new OutputStream[1];
+        doAnswer(invocation -> entityStream[0] = invocation.getArgument(0)).when(writerContext)
+                .setOutputStream(any());
+        doAnswer(invocation -> {
+            entity.write(entityStream[0]);
+            return null;
+        }).when(writerContext).proceed();
+
+        filter.aroundWriteTo(writerContext);
+
+        String json = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())),
+                StandardCharsets.UTF_8.name());
+        assertThat(json, is("[\"a\",\"b\"]"));
+        verify(writerContext).setOutputStream(outputStream);
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * This {@link StreamingOutput} writes a {@link Stream} as a JSON array directly to the response, one element at a time.
+ * Unlike the {@link Stream2JSONInputStream}, the elements are serialized straight into the buffered output, so no
+ * intermediate JSON string is created for them.
+ * <p>
+ * Optionally, the output can be limited to some fields of the elements, i.e. only the given members of the JSON objects
+ * are written. The source stream is closed once it has been written.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class JSONStreamingOutput implements StreamingOutput {
+
+    private final Gson gson = new GsonBuilder().create();
+
+    private final Stream<?> source;
+
+    private final @Nullable Set<String> fields;
+
+    /**
+     * Creates a new {@link JSONStreamingOutput} backed by the given {@link Stream} source.
+     *
+     * @param source the {@link Stream} backing this output
+     */
+    public JSONStreamingOutput(Stream<?> source) {
+        this(source, null);
+    }
+
+    /**
+     * Creates a new {@link JSONStreamingOutput} backed by the given {@link Stream} source, which only writes the given
+     * fields of the elements.
+     *
+     * @param source the {@link Stream} backing this output
+     * @param fields the comma separated names of the fields to write, all fields are written if it is {@code null} or
+     *            empty
+     */
+    public JSONStreamingOutput(Stream<?> source, @Nullable String fields) {
+        this.source = source;
+        this.fields = parseFields(fields);
+    }
+
+    private static @Nullable Set<String> parseFields(@Nullable String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (String field : fields.split(",")) {
+            result.add(field.trim());
+        }
+        return result;
+    }
+
+    @Override
+    public void write(@Nullable OutputStream output) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        // written the same way as by Gson#toJson(Object)
+        jsonWriter.setHtmlSafe(true);
+        try (Stream<?> elements = source) {
+            jsonWriter.beginArray();
+            Iterator<?> iterator = elements.iterator();
+            while (iterator.hasNext()) {
+                writeElement(jsonWriter, iterator.next());
+            }
+            jsonWriter.endArray();
+        } catch (JsonIOException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
+        jsonWriter.flush();
+    }
+
+    private void writeElement(JsonWriter jsonWriter, @Nullable Object element) throws IOException {
+        final Set<String> fields = this.fields;
+        if (element == null) {
+            jsonWriter.nullValue();
+        } else if (fields == null) {
+            gson.toJson(element, element.getClass(), jsonWriter);
+        } else {
+            JsonElement tree = gson.toJsonTree(element);
+            if (!tree.isJsonObject()) {
+                gson.toJson(tree, jsonWriter);
+                return;
+            }
+            jsonWriter.beginObject();
+            for (Entry<String, JsonElement> member : tree.getAsJsonObject().entrySet()) {
+                if (fields.contains(member.getKey())) {
+                    jsonWriter.name(member.getKey());
+                    gson.toJson(member.getValue(), jsonWriter);
+                }
+            }
+            jsonWriter.endObject();
+        }
+    }
+
+}
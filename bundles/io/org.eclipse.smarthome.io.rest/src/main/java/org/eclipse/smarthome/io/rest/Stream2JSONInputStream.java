@@ -31,7 +31,9 @@ import com.google.gson.GsonBuilder;
  *
  * @author Henning Treu - initial contribution
  *
+ * @deprecated use the {@link JSONStreamingOutput}, which writes the elements directly to the response
  */
+@Deprecated
 public class Stream2JSONInputStream extends InputStream {
 
     private final Iterator<String> iterator;
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.internal.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * A filter used to compress the JSON lists streamed by a {@link JSONStreamingOutput} with gzip, if the client accepts
+ * it. The compression is applied while the entity is written, so the response is still streamed.
+ *
+ * @author afuechsel - Initial contribution
+ *
+ */
+@Provider
+@Component(immediate = true, service = GzipFilter.class)
+public class GzipFilter implements ContainerResponseFilter, WriterInterceptor {
+
+    static final String GZIP_ENCODING = "gzip";
+
+    static final String VARY_HEADER = "Vary";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        if (!(responseContext.getEntity() instanceof JSONStreamingOutput)
+                || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+
+        responseContext.getHeaders().add(VARY_HEADER, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!(context.getEntity() instanceof JSONStreamingOutput)
+                || !GZIP_ENCODING.equals(context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream outputStream = context.getOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        context.setOutputStream(gzipOutputStream);
+        try {
+            context.proceed();
+            gzipOutputStream.finish();
+        } finally {
+            context.setOutputStream(outputStream);
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP_ENCODING.equalsIgnoreCase(parts[0].trim())) {
+                // a quality value of 0 means "not acceptable"
+                return parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Queue;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.OverflowPolicy;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+/**
+ * Tests the {@link MessageDispatcher} class
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class MessageDispatcherTests {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+    private final MqttMessageSubscriber subscriber2 = mock(MqttMessageSubscriber.class);
+    private final TopicTrie subscribers = new TopicTrie();
+
+    @Before
+    public void setUp() {
+        subscribers.add("#", subscriber);
+        subscribers.add("#", subscriber2);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void messagesAreDeliveredInOrder() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 10, OverflowPolicy.DROP_OLDEST,
+                false);
+        dispatcher.dispatch("a", "1".getBytes(), Arrays.asList(subscriber, subscriber2));
+        dispatcher.dispatch("b", "2".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "3".getBytes(), Collections.singletonList(subscriber));
+
+        verifyZeroInteractions(subscriber, subscriber2);
+        assertThat(dispatcher.getQueuedMessages(), is(4));
+
+        runTasks();
+
+        InOrder inOrder = inOrder(subscriber);
+        inOrder.verify(subscriber).processMessage(eq("a"), eq("1".getBytes()));
+        inOrder.verify(subscriber).processMessage(eq("b"), eq("2".getBytes()));
+        inOrder.verify(subscriber).processMessage(eq("a"), eq("3".getBytes()));
+        verify(subscriber2).processMessage(eq("a"), eq("1".getBytes()));
+        assertThat(dispatcher.getQueuedMessages(), is(0));
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockOthers() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 100, OverflowPolicy.DROP_OLDEST,
+                false);
+        for (int i = 0; i < 50; i++) {
+            dispatcher.dispatch("slow", new byte[] { (byte) i }, Collections.singletonList(subscriber));
+        }
+        dispatcher.dispatch("fast", "1".getBytes(), Collections.singletonList(subscriber2));
+
+        // The slow subscriber only gets one batch, before the fast subscriber is served
+        tasks.poll().run();
+        tasks.poll().run();
+        verify(subscriber2).processMessage(eq("fast"), any());
+        assertTrue(dispatcher.getQueuedMessages() > 0);
+
+        runTasks();
+        verify(subscriber, times(50)).processMessage(eq("slow"), any());
+    }
+
+    @Test
+    public void overflowDropOldest() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 2, OverflowPolicy.DROP_OLDEST,
+                false);
+        dispatcher.dispatch("a", "1".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "2".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "3".getBytes(), Collections.singletonList(subscriber));
+        assertThat(dispatcher.getDroppedMessages(), is(1L));
+
+        runTasks();
+        verify(subscriber, never()).processMessage(eq("a"), eq("1".getBytes()));
+        verify(subscriber).processMessage(eq("a"), eq("2".getBytes()));
+        verify(subscriber).processMessage(eq("a"), eq("3".getBytes()));
+    }
+
+    @Test
+    public void overflowDropNewest() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 2, OverflowPolicy.DROP_NEWEST,
+                false);
+        dispatcher.dispatch("a", "1".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "2".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "3".getBytes(), Collections.singletonList(subscriber));
+        assertThat(dispatcher.getDroppedMessages(), is(1L));
+
+        runTasks();
+        verify(subscriber).processMessage(eq("a"), eq("1".getBytes()));
+        verify(subscriber).processMessage(eq("a"), eq("2".getBytes()));
+        verify(subscriber, never()).processMessage(eq("a"), eq("3".getBytes()));
+    }
+
+    @Test
+    public void coalesceByTopic() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 10, OverflowPolicy.DROP_OLDEST,
+                true);
+        dispatcher.dispatch("a", "1".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("b", "2".getBytes(), Collections.singletonList(subscriber));
+        dispatcher.dispatch("a", "3".getBytes(), Collections.singletonList(subscriber));
+        assertThat(dispatcher.getCoalescedMessages(), is(1L));
+        assertThat(dispatcher.getQueuedMessages(), is(2));
+
+        runTasks();
+        InOrder inOrder = inOrder(subscriber);
+        inOrder.verify(subscriber).processMessage(eq("a"), eq("3".getBytes()));
+        inOrder.verify(subscriber).processMessage(eq("b"), eq("2".getBytes()));
+        verify(subscriber, never()).processMessage(eq("a"), eq("1".getBytes()));
+
+        // A delivered message is not replaced anymore
+        dispatcher.dispatch("a", "4".getBytes(), Collections.singletonList(subscriber));
+        runTasks();
+        verify(subscriber).processMessage(eq("a"), eq("4".getBytes()));
+    }
+
+    @Test
+    public void messagesAreDiscardedAfterUnsubscribe() {
+        MessageDispatcher dispatcher = new MessageDispatcher(subscribers, tasks::add, 10, OverflowPolicy.DROP_OLDEST,
+                false);
+        dispatcher.dispatch("a", "1".getBytes(), Arrays.asList(subscriber, subscriber2));
+        subscribers.remove("#", subscriber);
+
+        runTasks();
+        verify(subscriber, never()).processMessage(any(), any());
+        verify(subscriber2).processMessage(eq("a"), eq("1".getBytes()));
+        assertThat(dispatcher.getQueuedMessages(), is(0));
+    }
+}
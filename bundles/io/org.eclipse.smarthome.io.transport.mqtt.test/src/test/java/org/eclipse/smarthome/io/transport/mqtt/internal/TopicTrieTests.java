@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TopicTrie} class
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class TopicTrieTests {
+    private final TopicTrie trie = new TopicTrie();
+    private final MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+    private final MqttMessageSubscriber subscriber2 = mock(MqttMessageSubscriber.class);
+
+    @Test
+    public void exactTopic() {
+        trie.add("homie/device123/$name", subscriber);
+        trie.add("homie/device123/$state", subscriber2);
+
+        assertThat(trie.getSubscribers("homie/device123/$name"), is(Arrays.asList(subscriber)));
+        assertThat(trie.getSubscribers("homie/device123"), is(Collections.emptyList()));
+        assertThat(trie.getSubscribers("homie/device123/$name/sub"), is(Collections.emptyList()));
+        // Topics are matched literally, not as regular expressions
+        assertThat(trie.getSubscribers("homie/device123/.name"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void singleLevelWildcard() {
+        trie.add("homie/+/$name", subscriber);
+
+        assertThat(trie.getSubscribers("homie/device123/$name"), is(Arrays.asList(subscriber)));
+        assertThat(trie.getSubscribers("homie//$name"), is(Arrays.asList(subscriber)));
+        assertThat(trie.getSubscribers("homie/device123/node/$name"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void multiLevelWildcard() {
+        trie.add("homie/#", subscriber);
+        trie.add("#", subscriber2);
+
+        assertThat(trie.getSubscribers("homie/device123/$name"), hasItems(subscriber, subscriber2));
+        assertThat(trie.getSubscribers("homie"), hasItems(subscriber, subscriber2));
+        assertThat(trie.getSubscribers("other/topic"), is(Arrays.asList(subscriber2)));
+    }
+
+    @Test
+    public void subscriberOfSeveralMatchingFilters() {
+        trie.add("homie/device123/$name", subscriber);
+        trie.add("homie/+/$name", subscriber);
+
+        assertThat(trie.getSubscribers("homie/device123/$name"), is(Arrays.asList(subscriber, subscriber)));
+    }
+
+    @Test
+    public void remove() {
+        trie.add("homie/+/$name", subscriber);
+        trie.add("homie/+/$name", subscriber2);
+        trie.add("homie/device123/$name", subscriber);
+        assertThat(trie.getTopicFilters(), hasItems("homie/+/$name", "homie/device123/$name"));
+
+        assertFalse(trie.remove("homie/+/$name", subscriber));
+        assertFalse(trie.remove("unknown/topic", subscriber));
+        assertThat(trie.getSubscribers("homie/device123/$name"), is(Arrays.asList(subscriber, subscriber2)));
+
+        assertTrue(trie.remove("homie/+/$name", subscriber2));
+        assertThat(trie.getTopicFilters(), is(Collections.singleton("homie/device123/$name")));
+        assertTrue(trie.remove("homie/device123/$name", subscriber));
+        assertTrue(trie.isEmpty());
+        assertThat(trie.getSubscribers("homie/device123/$name"), is(Collections.emptyList()));
+    }
+}
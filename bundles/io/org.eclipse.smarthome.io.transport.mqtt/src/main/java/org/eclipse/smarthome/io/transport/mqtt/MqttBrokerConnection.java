@@ -17,9 +17,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
@@ -42,8 +40,9 @@ import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.persist.MqttDefaultFilePersistence;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.io.transport.mqtt.internal.ClientCallback;
+import org.eclipse.smarthome.io.transport.mqtt.internal.MessageDispatcher;
 import org.eclipse.smarthome.io.transport.mqtt.internal.MqttActionAdapterCallback;
-import org.eclipse.smarthome.io.transport.mqtt.internal.TopicSubscribers;
+import org.eclipse.smarthome.io.transport.mqtt.internal.TopicTrie;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.AbstractReconnectStrategy;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.PeriodicReconnectStrategy;
 import org.eclipse.smarthome.io.transport.mqtt.sslcontext.AcceptAllCertificatesSSLContext;
@@ -66,6 +65,8 @@ public class MqttBrokerConnection {
     final Logger logger = LoggerFactory.getLogger(MqttBrokerConnection.class);
     public static final int DEFAULT_KEEPALIVE_INTERVAL = 60;
     public static final int DEFAULT_QOS = 0;
+    /** The thread pool delivering the received messages, if queued message dispatching is configured */
+    public static final String DISPATCH_THREAD_POOL_NAME = "mqtt-dispatch";
 
     /**
      * MQTT transport protocols
@@ -75,6 +76,17 @@ public class MqttBrokerConnection {
         WEBSOCKETS
     };
 
+    /**
+     * Determines the discarded message, if the queue of a subscriber is full.
+     * See {@link MqttBrokerConnection#setDispatchExecutor(Executor, int, OverflowPolicy, boolean)}.
+     */
+    public enum OverflowPolicy {
+        /** Discard the oldest queued message */
+        DROP_OLDEST,
+        /** Discard the received message */
+        DROP_NEWEST
+    };
+
     /// Connection parameters
     protected final Protocol protocol;
     protected final String host;
@@ -99,7 +111,8 @@ public class MqttBrokerConnection {
     protected boolean isConnecting = false;
     protected final List<MqttConnectionObserver> connectionObservers = new CopyOnWriteArrayList<>();
 
-    protected final Map<String, TopicSubscribers> subscribers = new HashMap<>();
+    protected final TopicTrie subscribers = new TopicTrie();
+    protected @Nullable MessageDispatcher messageDispatcher;
 
     // Connection timeout handling
     protected final AtomicReference<@Nullable ScheduledFuture<?>> timeoutFuture = new AtomicReference<>(null);
@@ -131,7 +144,7 @@ public class MqttBrokerConnection {
                 connection.reconnectStrategy.connectionEstablished();
             }
             List<CompletableFuture<Boolean>> futures = new ArrayList<>();
-            connection.subscribers.forEach((topic, subscriberList) -> {
+            connection.subscribers.getTopicFilters().forEach(topic -> {
                 futures.add(connection.subscribeRaw(topic));
             });
 
@@ -257,6 +270,53 @@ public class MqttBrokerConnection {
         this.timeout = timeoutInMS;
     }
 
+    /**
+     * Set a dispatch executor. If set, received messages are delivered to the subscribers with the given executor
+     * instead of the thread of the MQTT client. Each subscriber has its own bounded queue, whose messages are delivered
+     * in order, so a slow subscriber does not delay the messages of the other subscribers. Queued messages are only
+     * delivered as long as the subscriber is subscribed to their topic. By default no executor is set, see
+     * {@link MqttBrokerConnectionConfig#dispatchQueueSize} to configure one.
+     *
+     * @param executor The executor or null to deliver the messages on the thread of the MQTT client.
+     * @param queueSize The maximum number of queued messages per subscriber.
+     * @param overflowPolicy Determines the discarded message, if the queue of a subscriber is full.
+     * @param coalesce If true, a queued message is replaced by a newer message of the same topic, so only the last
+     *            value of a topic is delivered. Only useful if the subscribers are interested in the current state of
+     *            their topics, not in every single message.
+     * @throws IllegalArgumentException If the queue size is not positive.
+     */
+    public void setDispatchExecutor(@Nullable Executor executor, int queueSize, OverflowPolicy overflowPolicy,
+            boolean coalesce) {
+        MessageDispatcher messageDispatcher = executor == null ? null
+                : new MessageDispatcher(subscribers, executor, queueSize, overflowPolicy, coalesce);
+        this.messageDispatcher = messageDispatcher;
+        clientCallback.setMessageDispatcher(messageDispatcher);
+    }
+
+    /**
+     * Return the number of received messages waiting to be delivered by the dispatch executor.
+     */
+    public int getQueuedMessages() {
+        MessageDispatcher messageDispatcher = this.messageDispatcher;
+        return messageDispatcher != null ? messageDispatcher.getQueuedMessages() : 0;
+    }
+
+    /**
+     * Return the number of received messages discarded because the queue of a subscriber was full.
+     */
+    public long getDroppedMessages() {
+        MessageDispatcher messageDispatcher = this.messageDispatcher;
+        return messageDispatcher != null ? messageDispatcher.getDroppedMessages() : 0;
+    }
+
+    /**
+     * Return the number of queued messages replaced by a newer message of the same topic.
+     */
+    public long getCoalescedMessages() {
+        MessageDispatcher messageDispatcher = this.messageDispatcher;
+        return messageDispatcher != null ? messageDispatcher.getCoalescedMessages() : 0;
+    }
+
     /**
      * Get the MQTT broker protocol
      */
@@ -482,11 +542,7 @@ public class MqttBrokerConnection {
      */
     public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
         CompletableFuture<Boolean> future = new CompletableFuture<Boolean>();
-        synchronized (subscribers) {
-            TopicSubscribers subscriberList = subscribers.getOrDefault(topic, new TopicSubscribers(topic));
-            subscribers.put(topic, subscriberList);
-            subscriberList.add(subscriber);
-        }
+        subscribers.add(topic, subscriber);
         final MqttAsyncClient client = this.client;
         if (client == null) {
             future.completeExceptionally(new Exception("No MQTT client"));
@@ -536,20 +592,13 @@ public class MqttBrokerConnection {
      * @param subscriber The callback listener to remove.
      * @return Completes with true if successful. Exceptionally otherwise.
      */
-    @SuppressWarnings({ "null", "unused" })
     public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
 
         synchronized (subscribers) {
-            final @Nullable List<MqttMessageSubscriber> list = subscribers.get(topic);
-            if (list == null) {
-                return CompletableFuture.completedFuture(true);
-            }
-            list.remove(subscriber);
-            if (!list.isEmpty()) {
+            // Remove from subscriber list
+            if (!subscribers.remove(topic, subscriber)) {
                 return CompletableFuture.completedFuture(true);
             }
-            // Remove from subscriber list
-            subscribers.remove(topic);
             // No more subscribers to this topic. Unsubscribe topic on the broker
             MqttAsyncClient client = this.client;
             if (client != null) {
@@ -785,7 +834,7 @@ public class MqttBrokerConnection {
         MqttAsyncClient client = this.client;
         List<CompletableFuture<Boolean>> futures = new ArrayList<>();
         if (client != null) {
-            subscribers.forEach((topic, subList) -> {
+            subscribers.getTopicFilters().forEach(topic -> {
                 futures.add(unsubscribeRaw(client, topic));
             });
             subscribers.clear();
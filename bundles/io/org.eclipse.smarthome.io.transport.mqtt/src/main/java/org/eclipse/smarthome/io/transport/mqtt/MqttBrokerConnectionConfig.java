@@ -14,6 +14,7 @@ package org.eclipse.smarthome.io.transport.mqtt;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.OverflowPolicy;
 
 /**
  * Contains configuration for a MqttBrokerConnection. Necessary to add a new broker connection the {@link MqttService}.
@@ -42,6 +43,11 @@ public class MqttBrokerConnectionConfig {
     public @Nullable String lwtMessage;
     public Integer lwtQos = MqttBrokerConnection.DEFAULT_QOS;
     public Boolean lwtRetain = false;
+    // Message dispatching parameters
+    /** Maximum number of queued received messages per subscriber. 0 delivers them on the MQTT client thread. */
+    public Integer dispatchQueueSize = 0;
+    public OverflowPolicy dispatchOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+    public Boolean dispatchCoalesce = false;
 
     /**
      * Return the brokerID of this connection. This is either the name or host:port(:s), for instance "myhost:8080:s".
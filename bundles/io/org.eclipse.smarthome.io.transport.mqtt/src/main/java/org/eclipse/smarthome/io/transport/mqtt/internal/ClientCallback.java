@@ -12,9 +12,7 @@
  */
 package org.eclipse.smarthome.io.transport.mqtt.internal;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
@@ -38,15 +36,26 @@ public class ClientCallback implements MqttCallback {
     final Logger logger = LoggerFactory.getLogger(ClientCallback.class);
     private final MqttBrokerConnection connection;
     private final List<MqttConnectionObserver> connectionObservers;
-    private final Map<String, TopicSubscribers> subscribers;
+    private final TopicTrie subscribers;
+    private volatile @Nullable MessageDispatcher messageDispatcher;
 
     public ClientCallback(MqttBrokerConnection mqttBrokerConnectionImpl,
-            List<MqttConnectionObserver> connectionObservers, Map<String, TopicSubscribers> subscribers) {
+            List<MqttConnectionObserver> connectionObservers, TopicTrie subscribers) {
         this.connection = mqttBrokerConnectionImpl;
         this.connectionObservers = connectionObservers;
         this.subscribers = subscribers;
     }
 
+    /**
+     * Set the dispatcher to deliver received messages with. If none is set, the subscribers are called on the
+     * thread of the MQTT client.
+     *
+     * @param messageDispatcher The message dispatcher or null.
+     */
+    public void setMessageDispatcher(@Nullable MessageDispatcher messageDispatcher) {
+        this.messageDispatcher = messageDispatcher;
+    }
+
     @Override
     public synchronized void connectionLost(@Nullable Throwable exception) {
         if (exception instanceof MqttException) {
@@ -72,19 +81,18 @@ public class ClientCallback implements MqttCallback {
     @Override
     public void messageArrived(String topic, MqttMessage message) {
         byte[] payload = message.getPayload();
-        logger.trace("Received message on topic '{}' : {}", topic, new String(payload));
-        List<MqttMessageSubscriber> matches = new ArrayList<>();
-        synchronized (subscribers) {
-            subscribers.values().forEach(subscriberList -> {
-                if (topic.matches(subscriberList.regexMatchTopic)) {
-                    logger.trace("Topic match for '{}' using regex {}", topic, subscriberList.regexMatchTopic);
-                    subscriberList.forEach(consumer -> matches.add(consumer));
-                } else {
-                    logger.trace("No topic match for '{}' using regex {}", topic, subscriberList.regexMatchTopic);
-
-                }
-            });
-
+        if (logger.isTraceEnabled()) {
+            logger.trace("Received message on topic '{}' : {}", topic, new String(payload));
+        }
+        List<MqttMessageSubscriber> matches = subscribers.getSubscribers(topic);
+        if (matches.isEmpty()) {
+            logger.trace("No subscriber for topic '{}'", topic);
+            return;
+        }
+        final MessageDispatcher messageDispatcher = this.messageDispatcher;
+        if (messageDispatcher != null) {
+            messageDispatcher.dispatch(topic, payload, matches);
+            return;
         }
         try {
             matches.forEach(subscriber -> subscriber.processMessage(topic, payload));
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.OverflowPolicy;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers received messages to the subscribers with an executor instead of the MQTT client thread.
+ *
+ * Each subscriber has its own bounded queue, which is processed in order by at most one thread at a time. A slow
+ * subscriber therefore only delays its own messages. If a queue is full, a message is discarded according to the
+ * {@link OverflowPolicy}. If coalescing is enabled, a queued message is replaced by a newer message of the same topic.
+ * Queued messages are only delivered as long as the subscriber is subscribed to their topic.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class MessageDispatcher {
+    /** Messages processed for a subscriber, before the thread is handed over to other subscribers */
+    private static final int MAX_MESSAGES_PER_RUN = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(MessageDispatcher.class);
+    private final TopicTrie subscribers;
+    private final Executor executor;
+    private final int queueSize;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean coalesce;
+
+    /** The queues of the subscribers with pending messages */
+    private final Map<MqttMessageSubscriber, SubscriberQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong coalescedMessages = new AtomicLong();
+
+    /**
+     * Creates a message dispatcher.
+     *
+     * @param subscribers The subscribers of the connection, to check if a subscriber is still subscribed.
+     * @param executor The executor to deliver the messages with.
+     * @param queueSize The maximum number of queued messages per subscriber.
+     * @param overflowPolicy Determines the discarded message, if the queue of a subscriber is full.
+     * @param coalesce If true, a queued message is replaced by a newer message of the same topic.
+     * @throws IllegalArgumentException If the queue size is not positive.
+     */
+    public MessageDispatcher(TopicTrie subscribers, Executor executor, int queueSize, OverflowPolicy overflowPolicy,
+            boolean coalesce) {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("The queue size must be greater than 0");
+        }
+        this.subscribers = subscribers;
+        this.executor = executor;
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * Queues a received message for the given subscribers.
+     *
+     * @param topic The topic of the message.
+     * @param payload The content of the message.
+     * @param subscribers The subscribers of the topic.
+     */
+    public void dispatch(String topic, byte[] payload, List<MqttMessageSubscriber> subscribers) {
+        for (MqttMessageSubscriber subscriber : subscribers) {
+            while (!queues.computeIfAbsent(subscriber, SubscriberQueue::new).offer(topic, payload)) {
+                // The queue has been drained and closed in the meantime, a new one is created.
+            }
+        }
+    }
+
+    /**
+     * Return the number of messages waiting to be delivered.
+     */
+    public int getQueuedMessages() {
+        return queuedMessages.get();
+    }
+
+    /**
+     * Return the number of messages discarded because the queue of a subscriber was full.
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    /**
+     * Return the number of queued messages replaced by a newer message of the same topic.
+     */
+    public long getCoalescedMessages() {
+        return coalescedMessages.get();
+    }
+
+    private static class Message {
+        final String topic;
+        byte[] payload;
+
+        Message(String topic, byte[] payload) {
+            this.topic = topic;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * The pending messages of a subscriber. The queue is closed and removed as soon as all its messages have been
+     * delivered.
+     */
+    private class SubscriberQueue implements Runnable {
+        private final MqttMessageSubscriber subscriber;
+        private final Deque<Message> messages = new ArrayDeque<>();
+        /** The queued messages by their topic, only used if coalescing is enabled */
+        private final Map<String, Message> messagesByTopic = new HashMap<>();
+        private boolean scheduled = false;
+        private boolean closed = false;
+        private boolean overflowed = false;
+
+        SubscriberQueue(MqttMessageSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Queues a message.
+         *
+         * @return Returns false if the queue has already been closed.
+         */
+        synchronized boolean offer(String topic, byte[] payload) {
+            if (closed) {
+                return false;
+            }
+            if (coalesce) {
+                Message queued = messagesByTopic.get(topic);
+                if (queued != null) {
+                    queued.payload = payload;
+                    coalescedMessages.incrementAndGet();
+                    return true;
+                }
+            }
+            if (messages.size() >= queueSize) {
+                if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    dropped(topic);
+                    return true;
+                }
+                dropped(poll().topic);
+            }
+            Message message = new Message(topic, payload);
+            messages.add(message);
+            if (coalesce) {
+                messagesByTopic.put(topic, message);
+            }
+            queuedMessages.incrementAndGet();
+            if (!scheduled) {
+                schedule();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_MESSAGES_PER_RUN; i++) {
+                final Message message;
+                synchronized (this) {
+                    if (messages.isEmpty()) {
+                        closed = true;
+                        queues.remove(subscriber, this);
+                        return;
+                    }
+                    message = poll();
+                }
+                if (!subscribers.isSubscribed(message.topic, subscriber)) {
+                    logger.trace("Discarding message of topic '{}', {} has unsubscribed", message.topic, subscriber);
+                    continue;
+                }
+                try {
+                    subscriber.processMessage(message.topic, message.payload);
+                } catch (Exception e) {
+                    logger.error("MQTT message received. MqttMessageSubscriber#processMessage() implementation failure",
+                            e);
+                }
+            }
+            // Continue later, so other subscribers are not starved by this one
+            synchronized (this) {
+                schedule();
+            }
+        }
+
+        private Message poll() {
+            Message message = messages.remove();
+            if (coalesce) {
+                messagesByTopic.remove(message.topic, message);
+            }
+            queuedMessages.decrementAndGet();
+            return message;
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+                scheduled = true;
+            } catch (RejectedExecutionException e) {
+                // The messages stay queued, scheduling is tried again for the next message.
+                scheduled = false;
+                logger.warn("Could not deliver MQTT messages to {}: {}", subscriber, e.getMessage());
+            }
+        }
+
+        private void dropped(String topic) {
+            droppedMessages.incrementAndGet();
+            if (!overflowed) {
+                overflowed = true;
+                logger.warn("MQTT subscriber {} cannot keep up, discarding messages (e.g. of topic '{}')", subscriber,
+                        topic);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnectionConfig;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
@@ -107,6 +108,10 @@ public class MqttServiceImpl implements MqttService {
 
         connection.setQos(config.qos.intValue());
         connection.setRetain(config.retainMessages);
+        if (config.dispatchQueueSize > 0) {
+            connection.setDispatchExecutor(ThreadPoolManager.getPool(MqttBrokerConnection.DISPATCH_THREAD_POOL_NAME),
+                    config.dispatchQueueSize, config.dispatchOverflowPolicy, config.dispatchCoalesce);
+        }
         if (config.lwtTopic != null) {
             String topic = config.lwtTopic;
             MqttWillAndTestament will = new MqttWillAndTestament(topic,
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Stores the subscribers of a connection in a tree of topic levels, so that the subscribers of a received topic can be
+ * found by walking the levels of the topic instead of matching every subscribed topic filter. The MQTT wildcards '+'
+ * (one level) and '#' (all remaining levels, including the parent level) are supported.
+ *
+ * Subscribers are added and removed under the lock of this object, while the subscribers of a topic are looked up
+ * without locking.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+public class TopicTrie {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node root = new Node();
+    /** The subscribed topic filters */
+    private final Set<String> topicFilters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds a subscriber for the given topic filter. The same subscriber can be added more than once.
+     *
+     * @param topicFilter The topic filter, may contain MQTT wildcards.
+     * @param subscriber The subscriber.
+     */
+    public synchronized void add(String topicFilter, MqttMessageSubscriber subscriber) {
+        Node node = root;
+        for (String level : split(topicFilter)) {
+            node = node.children.computeIfAbsent(level, l -> new Node());
+        }
+        node.subscribers.add(subscriber);
+        topicFilters.add(topicFilter);
+    }
+
+    /**
+     * Removes a subscriber of the given topic filter.
+     *
+     * @param topicFilter The topic filter, may contain MQTT wildcards.
+     * @param subscriber The subscriber.
+     * @return Returns true if the last subscriber of the topic filter has been removed.
+     */
+    public synchronized boolean remove(String topicFilter, MqttMessageSubscriber subscriber) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        String[] levels = split(topicFilter);
+        for (String level : levels) {
+            path.push(node);
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+        }
+        if (!node.subscribers.remove(subscriber) || !node.subscribers.isEmpty()) {
+            return false;
+        }
+        topicFilters.remove(topicFilter);
+
+        // Remove the nodes which do not lead to any subscriber anymore
+        for (int i = levels.length - 1; i >= 0 && node.isEmpty(); i--) {
+            Node parent = path.pop();
+            parent.children.remove(levels[i]);
+            node = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Removes all subscribers.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        root.subscribers.clear();
+        topicFilters.clear();
+    }
+
+    /**
+     * Return true if there are no subscribers.
+     */
+    public boolean isEmpty() {
+        return topicFilters.isEmpty();
+    }
+
+    /**
+     * Return the subscribed topic filters.
+     */
+    public Set<String> getTopicFilters() {
+        return Collections.unmodifiableSet(new HashSet<>(topicFilters));
+    }
+
+    /**
+     * Return the subscribers whose topic filter matches the given topic. A subscriber is contained once for each of
+     * its matching topic filters.
+     *
+     * @param topic A topic without wildcards.
+     */
+    public List<MqttMessageSubscriber> getSubscribers(String topic) {
+        List<MqttMessageSubscriber> result = new ArrayList<>();
+        collect(root, split(topic), 0, result);
+        return result;
+    }
+
+    /**
+     * Return true if the given subscriber has a topic filter matching the given topic.
+     *
+     * @param topic A topic without wildcards.
+     * @param subscriber The subscriber.
+     */
+    public boolean isSubscribed(String topic, MqttMessageSubscriber subscriber) {
+        return getSubscribers(topic).contains(subscriber);
+    }
+
+    private static void collect(Node node, String[] levels, int index, List<MqttMessageSubscriber> result) {
+        Node multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+        if (multiLevel != null) {
+            result.addAll(multiLevel.subscribers);
+        }
+        if (index == levels.length) {
+            result.addAll(node.subscribers);
+            return;
+        }
+        Node exact = node.children.get(levels[index]);
+        if (exact != null) {
+            collect(exact, levels, index + 1, result);
+        }
+        Node singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+        if (singleLevel != null && singleLevel != exact) {
+            collect(singleLevel, levels, index + 1, result);
+        }
+    }
+
+    private static String[] split(String topic) {
+        // Keep empty levels, they are valid in MQTT topics
+        return topic.split("/", -1);
+    }
+
+    private static class Node {
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+        final List<MqttMessageSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && subscribers.isEmpty();
+        }
+    }
+}
@@ -14,12 +14,19 @@ package org.eclipse.smarthome.model.persistence.extensions;
 
 import static org.junit.Assert.*;
 
+import java.time.ZoneId;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.smarthome.core.i18n.TimeZoneProvider;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.AggregatingPersistenceService;
+import org.eclipse.smarthome.core.persistence.AggregationRequest;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
@@ -40,9 +47,12 @@ import org.junit.Test;
 @SuppressWarnings("deprecation")
 public class PersistenceExtensionsTest {
 
+    private static final String AGGREGATING = "aggregating";
+
     private final PersistenceServiceRegistry registry = new PersistenceServiceRegistry() {
 
         private final PersistenceService testPersistenceService = new TestPersistenceService();
+        private final PersistenceService aggregatingPersistenceService = new TestAggregatingPersistenceService();
 
         @Override
         public String getDefaultId() {
@@ -61,10 +71,12 @@ public class PersistenceExtensionsTest {
 
         @Override
         public PersistenceService get(String serviceId) {
-            return testPersistenceService;
+            return AGGREGATING.equals(serviceId) ? aggregatingPersistenceService : testPersistenceService;
         }
     };
 
+    private final TimeZoneProvider timeZoneProvider = () -> ZoneId.systemDefault();
+
     private PersistenceExtensions ext;
     private GenericItem item;
 
@@ -72,6 +84,7 @@ public class PersistenceExtensionsTest {
     public void setUp() {
         ext = new PersistenceExtensions();
         ext.setPersistenceServiceRegistry(registry);
+        ext.setTimeZoneProvider(timeZoneProvider);
         item = new GenericItem("Test", "Test") {
             @Override
             public List<Class<? extends State>> getAcceptedDataTypes() {
@@ -88,6 +101,7 @@ public class PersistenceExtensionsTest {
     @After
     public void tearDown() {
         ext.unsetPersistenceServiceRegistry(registry);
+        ext.unsetTimeZoneProvider(timeZoneProvider);
     }
 
     @Test
@@ -141,6 +155,24 @@ public class PersistenceExtensionsTest {
         assertEquals(expected, average.doubleValue(), 0.01);
     }
 
+    @Test
+    public void testSumSince() {
+        DecimalType sum = PersistenceExtensions.sumSince(item, new DateMidnight(2003, 1, 1), "test");
+        assertEquals(new DecimalType(20075), sum);
+
+        sum = PersistenceExtensions.sumSince(item, new DateMidnight(2013, 1, 1), "test");
+        assertEquals(DecimalType.ZERO, sum);
+    }
+
+    @Test
+    public void testAggregationIsDelegatedToAggregatingService() {
+        item.setState(new DecimalType(1));
+        assertEquals(new DecimalType(Function.SUM.ordinal()),
+                PersistenceExtensions.sumSince(item, new DateMidnight(2003, 1, 1), AGGREGATING));
+        assertEquals(new DecimalType(Function.MAXIMUM.ordinal()),
+                PersistenceExtensions.maximumSince(item, new DateMidnight(2003, 1, 1), AGGREGATING).getState());
+    }
+
     @Test
     public void testPreviousStateNoSkip() {
         item.setState(new DecimalType(4321));
@@ -161,4 +193,42 @@ public class PersistenceExtensionsTest {
         assertNotNull(prevStateItem);
         assertEquals("2011", prevStateItem.getState().toString());
     }
+
+    /**
+     * A persistence service which answers each aggregation with the ordinal of the requested function.
+     */
+    private static class TestAggregatingPersistenceService extends TestPersistenceService
+            implements AggregatingPersistenceService {
+
+        @Override
+        public String getId() {
+            return AGGREGATING;
+        }
+
+        @Override
+        public Iterable<HistoricItem> query(FilterCriteria filter) {
+            throw new UnsupportedOperationException("The states must not be queried");
+        }
+
+        @Override
+        public Iterable<HistoricItem> aggregate(AggregationRequest request) {
+            return Collections.singletonList(new HistoricItem() {
+                @Override
+                public Date getTimestamp() {
+                    return new Date();
+                }
+
+                @Override
+                public State getState() {
+                    return new DecimalType(request.getFunction().ordinal());
+                }
+
+                @Override
+                public String getName() {
+                    return request.getItemName();
+                }
+            });
+        }
+    }
+
 }
@@ -19,13 +19,19 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.eclipse.smarthome.core.i18n.TimeZoneProvider;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.AggregatingPersistenceService;
+import org.eclipse.smarthome.core.persistence.AggregationRequest;
+import org.eclipse.smarthome.core.persistence.AggregationRequest.Function;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
 import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.HistoricStateAggregator;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
@@ -285,44 +291,16 @@ public class PersistenceExtensions {
      *         {@link QueryablePersistenceService}
      */
     public static HistoricItem maximumSince(final Item item, AbstractInstant timestamp, String serviceId) {
-        Iterable<HistoricItem> result = getAllStatesSince(item, timestamp, serviceId);
-        Iterator<HistoricItem> it = result.iterator();
-        HistoricItem maximumHistoricItem = null;
+        HistoricItem maximumHistoricItem = aggregateSince(item, timestamp, serviceId, Function.MAXIMUM);
         DecimalType maximum = item.getStateAs(DecimalType.class);
-        while (it.hasNext()) {
-            HistoricItem historicItem = it.next();
-            State state = historicItem.getState();
-            if (state instanceof DecimalType) {
-                DecimalType value = (DecimalType) state;
-                if (maximum == null || value.compareTo(maximum) > 0) {
-                    maximum = value;
-                    maximumHistoricItem = historicItem;
-                }
+        if (maximumHistoricItem != null) {
+            DecimalType value = maximumHistoricItem.getState().as(DecimalType.class);
+            if (maximum == null || (value != null && value.compareTo(maximum) > 0)) {
+                return maximumHistoricItem;
             }
         }
-        if (maximumHistoricItem == null && maximum != null) {
-            // the maximum state is the current one, so construct a historic item on the fly
-            final DecimalType state = maximum;
-            return new HistoricItem() {
-
-                @Override
-                public Date getTimestamp() {
-                    return Calendar.getInstance().getTime();
-                }
-
-                @Override
-                public State getState() {
-                    return state;
-                }
-
-                @Override
-                public String getName() {
-                    return item.getName();
-                }
-            };
-        } else {
-            return maximumHistoricItem;
-        }
+        // the maximum state is the current one, so construct a historic item on the fly
+        return maximum != null ? createCurrentHistoricItem(item, maximum) : null;
     }
 
     /**
@@ -352,44 +330,36 @@ public class PersistenceExtensions {
      *         the given <code>serviceId</code> does not refer to an available {@link QueryablePersistenceService}
      */
     public static HistoricItem minimumSince(final Item item, AbstractInstant timestamp, String serviceId) {
-        Iterable<HistoricItem> result = getAllStatesSince(item, timestamp, serviceId);
-        Iterator<HistoricItem> it = result.iterator();
-        HistoricItem minimumHistoricItem = null;
+        HistoricItem minimumHistoricItem = aggregateSince(item, timestamp, serviceId, Function.MINIMUM);
         DecimalType minimum = item.getStateAs(DecimalType.class);
-        while (it.hasNext()) {
-            HistoricItem historicItem = it.next();
-            State state = historicItem.getState();
-            if (state instanceof DecimalType) {
-                DecimalType value = (DecimalType) state;
-                if (minimum == null || value.compareTo(minimum) < 0) {
-                    minimum = value;
-                    minimumHistoricItem = historicItem;
-                }
+        if (minimumHistoricItem != null) {
+            DecimalType value = minimumHistoricItem.getState().as(DecimalType.class);
+            if (minimum == null || (value != null && value.compareTo(minimum) < 0)) {
+                return minimumHistoricItem;
             }
         }
-        if (minimumHistoricItem == null && minimum != null) {
-            // the minimal state is the current one, so construct a historic item on the fly
-            final DecimalType state = minimum;
-            return new HistoricItem() {
-
-                @Override
-                public Date getTimestamp() {
-                    return Calendar.getInstance().getTime();
-                }
+        // the minimal state is the current one, so construct a historic item on the fly
+        return minimum != null ? createCurrentHistoricItem(item, minimum) : null;
+    }
 
-                @Override
-                public State getState() {
-                    return state;
-                }
+    private static HistoricItem createCurrentHistoricItem(final Item item, final DecimalType state) {
+        return new HistoricItem() {
 
-                @Override
-                public String getName() {
-                    return item.getName();
-                }
-            };
-        } else {
-            return minimumHistoricItem;
-        }
+            @Override
+            public Date getTimestamp() {
+                return Calendar.getInstance().getTime();
+            }
+
+            @Override
+            public State getState() {
+                return state;
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+        };
     }
 
     /**
@@ -419,55 +389,36 @@ public class PersistenceExtensions {
      *         refer to an available {@link QueryablePersistenceService}
      */
     public static DecimalType averageSince(Item item, AbstractInstant timestamp, String serviceId) {
-        Iterable<HistoricItem> result = getAllStatesSince(item, timestamp, serviceId);
-        Iterator<HistoricItem> it = result.iterator();
-
-        BigDecimal total = BigDecimal.ZERO;
-
-        BigDecimal avgValue, timeSpan;
-        DecimalType lastState = null, thisState = null;
-        BigDecimal lastTimestamp = null, thisTimestamp = null;
-        BigDecimal firstTimestamp = null;
-
-        while (it.hasNext()) {
-            HistoricItem thisItem = it.next();
-            State state = thisItem.getState();
-
-            if (state instanceof DecimalType) {
-                thisState = (DecimalType) state;
-                thisTimestamp = BigDecimal.valueOf(thisItem.getTimestamp().getTime());
-                if (firstTimestamp == null) {
-                    firstTimestamp = thisTimestamp;
-                } else {
-                    avgValue = (thisState.toBigDecimal().add(lastState.toBigDecimal())).divide(BigDecimal.valueOf(2),
-                            MathContext.DECIMAL64);
-                    timeSpan = thisTimestamp.subtract(lastTimestamp);
-                    total = total.add(avgValue.multiply(timeSpan, MathContext.DECIMAL64));
-                }
-                lastTimestamp = thisTimestamp;
-                lastState = thisState;
-            }
+        // the average of the persisted states is weighted by the time span they cover
+        HistoricItem[] results = aggregateSince(item, timestamp, serviceId,
+                new Function[] { Function.TIME_WEIGHTED_AVERAGE, Function.LAST });
+        HistoricItem average = results[0];
+        HistoricItem last = results[1];
+        if (average == null || last == null) {
+            return null;
         }
-
-        if (lastState != null) {
-            thisState = item.getStateAs(DecimalType.class);
-            if (thisState != null) {
-                thisTimestamp = BigDecimal.valueOf((new DateTime()).getMillis());
-                avgValue = (thisState.toBigDecimal().add(lastState.toBigDecimal())).divide(BigDecimal.valueOf(2),
-                        MathContext.DECIMAL64);
-                timeSpan = thisTimestamp.subtract(lastTimestamp);
-                total = total.add(avgValue.multiply(timeSpan, MathContext.DECIMAL64));
-            }
+        BigDecimal firstTimestamp = BigDecimal.valueOf(average.getTimestamp().getTime());
+        BigDecimal lastTimestamp = BigDecimal.valueOf(last.getTimestamp().getTime());
+        BigDecimal averageValue = average.getState().as(DecimalType.class).toBigDecimal();
+        BigDecimal total = averageValue.multiply(lastTimestamp.subtract(firstTimestamp), MathContext.DECIMAL64);
+        BigDecimal endTimestamp = lastTimestamp;
+
+        // the current state extends the time series up to now
+        DecimalType lastState = last.getState().as(DecimalType.class);
+        DecimalType thisState = item.getStateAs(DecimalType.class);
+        if (lastState != null && thisState != null) {
+            endTimestamp = BigDecimal.valueOf((new DateTime()).getMillis());
+            BigDecimal avgValue = (thisState.toBigDecimal().add(lastState.toBigDecimal()))
+                    .divide(BigDecimal.valueOf(2), MathContext.DECIMAL64);
+            BigDecimal timeSpan = endTimestamp.subtract(lastTimestamp);
+            total = total.add(avgValue.multiply(timeSpan, MathContext.DECIMAL64));
         }
 
-        if (thisTimestamp != null) {
-            timeSpan = thisTimestamp.subtract(firstTimestamp, MathContext.DECIMAL64);
-
-            BigDecimal average = total.divide(timeSpan, MathContext.DECIMAL64);
-            return new DecimalType(average);
-        } else {
-            return null;
+        BigDecimal timeSpan = endTimestamp.subtract(firstTimestamp, MathContext.DECIMAL64);
+        if (timeSpan.signum() == 0) {
+            return new DecimalType(averageValue);
         }
+        return new DecimalType(total.divide(timeSpan, MathContext.DECIMAL64));
     }
 
     /**
@@ -496,18 +447,60 @@ public class PersistenceExtensions {
      *         {@link QueryablePersistenceService}
      */
     public static DecimalType sumSince(Item item, AbstractInstant timestamp, String serviceId) {
-        Iterable<HistoricItem> result = getAllStatesSince(item, timestamp, serviceId);
-        Iterator<HistoricItem> it = result.iterator();
+        HistoricItem sum = aggregateSince(item, timestamp, serviceId, Function.SUM);
+        return sum != null ? sum.getState().as(DecimalType.class) : DecimalType.ZERO;
+    }
 
-        BigDecimal sum = BigDecimal.ZERO;
-        while (it.hasNext()) {
-            State state = it.next().getState();
-            if (state instanceof DecimalType) {
-                sum = sum.add(((DecimalType) state).toBigDecimal());
+    private static HistoricItem aggregateSince(Item item, AbstractInstant timestamp, String serviceId,
+            Function function) {
+        return aggregateSince(item, timestamp, serviceId, new Function[] { function })[0];
+    }
+
+    /**
+     * Aggregates the states of an item since a point in time with several functions. If the service cannot aggregate
+     * the states itself, they are only queried once for all functions.
+     *
+     * @return the results of the functions, an element is <code>null</code> if there are no states to aggregate
+     */
+    private static HistoricItem[] aggregateSince(Item item, AbstractInstant timestamp, String serviceId,
+            Function[] functions) {
+        HistoricItem[] results = new HistoricItem[functions.length];
+        PersistenceService service = getService(serviceId);
+        if (service instanceof QueryablePersistenceService) {
+            QueryablePersistenceService qService = (QueryablePersistenceService) service;
+            ZonedDateTime begin = ZonedDateTime.ofInstant(timestamp.toDate().toInstant(),
+                    timeZoneProvider.getTimeZone());
+            AggregationRequest[] requests = new AggregationRequest[functions.length];
+            for (int i = 0; i < functions.length; i++) {
+                requests[i] = new AggregationRequest(item.getName(), functions[i]).setBeginDate(begin);
             }
+            if (service instanceof AggregatingPersistenceService) {
+                for (int i = 0; i < functions.length; i++) {
+                    Iterator<HistoricItem> it = HistoricStateAggregator.aggregate(qService, requests[i]).iterator();
+                    results[i] = it.hasNext() ? it.next() : null;
+                }
+            } else {
+                HistoricStateAggregator[] aggregators = new HistoricStateAggregator[functions.length];
+                for (int i = 0; i < functions.length; i++) {
+                    aggregators[i] = new HistoricStateAggregator(requests[i]);
+                }
+                try (Stream<HistoricItem> historicItems = qService.stream(requests[0].toFilterCriteria())) {
+                    historicItems.forEachOrdered(historicItem -> {
+                        for (HistoricStateAggregator aggregator : aggregators) {
+                            aggregator.add(historicItem);
+                        }
+                    });
+                }
+                for (int i = 0; i < functions.length; i++) {
+                    List<HistoricItem> result = aggregators[i].getResult();
+                    results[i] = result.isEmpty() ? null : result.get(0);
+                }
+            }
+        } else {
+            LoggerFactory.getLogger(PersistenceExtensions.class)
+                    .warn("There is no queryable persistence service registered with the id '{}'", serviceId);
         }
-
-        return new DecimalType(sum);
+        return results;
     }
 
     private static Iterable<HistoricItem> getAllStatesSince(Item item, AbstractInstant timestamp, String serviceId) {
@@ -20,10 +20,13 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,12 +39,27 @@ public class JSonStorageTest extends JavaTest {
 
     private JsonStorage<DummyObject> objectStorage;
     private File tmpFile;
+    private File journalFile;
+    private ScheduledExecutorService scheduler;
 
     @Before
     public void setUp() throws IOException {
         tmpFile = File.createTempFile("storage-debug", ".json");
         tmpFile.deleteOnExit();
+        journalFile = new File(tmpFile.getPath() + ".journal");
+        journalFile.deleteOnExit();
         objectStorage = new JsonStorage<>(tmpFile, this.getClass().getClassLoader(), 0, 0, 0);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private JsonStorage<String> createJournaledStorage() {
+        // a long write delay keeps the deferred commits from interfering with the explicit ones
+        return new JsonStorage<>(tmpFile, this.getClass().getClassLoader(), 0, 60000, 60000, true, scheduler);
     }
 
     private void persistAndReadAgain() {
@@ -126,6 +144,121 @@ public class JSonStorageTest extends JavaTest {
         assertEquals(storageString1, storageString2);
     }
 
+    @Test
+    public void testJournalIsAppendedAndReplayed() throws IOException {
+        JsonStorage<String> storage = createJournaledStorage();
+        storage.put("key1", "value1");
+        storage.put("key2", "value2");
+        storage.commitDatabase();
+        String storageString = FileUtils.readFileToString(tmpFile);
+
+        storage.put("key1", "value3");
+        storage.remove("key2");
+        storage.commitDatabase();
+
+        // the storage file is not rewritten for the modifications
+        assertEquals(storageString, FileUtils.readFileToString(tmpFile));
+        assertEquals(4, FileUtils.readLines(journalFile, "UTF-8").size());
+
+        storage = createJournaledStorage();
+        assertEquals("value3", storage.get("key1"));
+        assertNull(storage.get("key2"));
+        assertEquals(1, storage.getKeys().size());
+    }
+
+    @Test
+    public void testJournalIsCompacted() throws IOException {
+        JsonStorage<String> storage = createJournaledStorage();
+        for (int i = 0; i <= 1000; i++) {
+            storage.put("key", "value" + i);
+        }
+        storage.commitDatabase();
+
+        assertFalse(journalFile.exists());
+        storage = createJournaledStorage();
+        assertEquals("value1000", storage.get("key"));
+    }
+
+    @Test
+    public void testJournalIsKeptIfCompactionFails() throws IOException {
+        JsonStorage<String> storage = createJournaledStorage();
+        storage.put("key1", "value1");
+        storage.commitDatabase();
+        String storageString = FileUtils.readFileToString(tmpFile);
+        // a directory cannot be written as a file
+        File tempFile = new File(tmpFile.getPath() + ".tmp");
+        assertTrue(tempFile.mkdir());
+
+        try {
+            for (int i = 0; i <= 1000; i++) {
+                storage.put("key2", "value" + i);
+            }
+            storage.commitDatabase();
+
+            assertEquals(storageString, FileUtils.readFileToString(tmpFile));
+            assertEquals(1, FileUtils.readLines(journalFile, "UTF-8").size());
+        } finally {
+            tempFile.delete();
+        }
+
+        // the modifications are still pending and compacted with the next commit
+        storage.commitDatabase();
+        assertFalse(journalFile.exists());
+        storage = createJournaledStorage();
+        assertEquals("value1", storage.get("key1"));
+        assertEquals("value1000", storage.get("key2"));
+    }
+
+    @Test
+    public void testIncompleteJournalRecordIsIgnored() throws IOException {
+        JsonStorage<String> storage = createJournaledStorage();
+        storage.put("key1", "value1");
+        storage.commitDatabase();
+        FileUtils.write(journalFile, "{\"key\":\"key2\",\"cla", "UTF-8", true);
+
+        storage = createJournaledStorage();
+        assertEquals("value1", storage.get("key1"));
+        assertFalse(storage.containsKey("key2"));
+        assertFalse(journalFile.exists());
+
+        storage = new JsonStorage<>(tmpFile, this.getClass().getClassLoader(), 0, 0, 0);
+        assertEquals("value1", storage.get("key1"));
+    }
+
+    @Test
+    public void testUnreadableJournalIsKept() {
+        JsonStorage<String> storage = createJournaledStorage();
+        storage.put("key1", "value1");
+        storage.commitDatabase();
+        // a directory cannot be read as a file
+        assertTrue(journalFile.delete());
+        assertTrue(journalFile.mkdir());
+
+        try {
+            createJournaledStorage();
+            fail("The storage must not be opened without its journal");
+        } catch (IllegalStateException e) {
+            assertTrue(journalFile.isDirectory());
+        } finally {
+            journalFile.delete();
+        }
+    }
+
+    @Test
+    public void testJournalIsAppliedWithoutJournalMode() {
+        JsonStorage<String> storage = createJournaledStorage();
+        storage.put("key1", "value1");
+        storage.commitDatabase();
+
+        storage = new JsonStorage<>(tmpFile, this.getClass().getClassLoader(), 0, 0, 0);
+        assertEquals("value1", storage.get("key1"));
+        storage.commitDatabase();
+        assertFalse(journalFile.exists());
+
+        storage = new JsonStorage<>(tmpFile, this.getClass().getClassLoader(), 0, 0, 0);
+        assertEquals("value1", storage.get("key1"));
+    }
+
     private static class DummyObject {
 
         private final Configuration configuration = new Configuration();
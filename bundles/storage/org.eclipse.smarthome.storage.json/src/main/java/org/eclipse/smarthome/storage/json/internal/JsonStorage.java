@@ -16,19 +16,25 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.config.core.ConfigurationDeserializer;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +52,10 @@ import com.google.gson.JsonSyntaxException;
  * A deferred write mechanism of WRITE_DELAY milliseconds is used to improve performance.
  * The service keeps backups in a /backup folder, and maintains a maximum of MAX_FILES
  * at any time
+ * <p>
+ * In journal mode the modifications are appended to a {@link StorageJournal} instead of rewriting the whole file on
+ * every commit. The journal is compacted into the file once it has grown larger than the storage itself. A journal
+ * file found on startup is always replayed, so a storage can be switched between both modes.
  *
  * @author Chris Jackson - Initial Contribution
  * @author Stefan Triller - Removed dependency to internal GSon packages
@@ -64,9 +74,17 @@ public class JsonStorage<T> implements Storage<T> {
     static final String VALUE = "value";
     private final String BACKUP_EXTENSION = "backup";
     private final String SEPARATOR = "--";
+    private final String JOURNAL_EXTENSION = ".journal";
+    private final String TEMP_EXTENSION = ".tmp";
 
-    private final Timer commitTimer;
-    private @Nullable TimerTask commitTimerTask = null;
+    /** The name of the thread pool the deferred commits are run in, if no scheduler is given. */
+    static final String COMMIT_THREAD_POOL_NAME = "jsonstorage";
+
+    /** The minimum number of journal records before the journal is compacted into the storage file. */
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private final ScheduledExecutorService scheduler;
+    private @Nullable ScheduledFuture<?> commitJob = null;
 
     private long deferredSince = 0;
 
@@ -74,15 +92,30 @@ public class JsonStorage<T> implements Storage<T> {
     private final ClassLoader classLoader;
     private final Map<String, StorageEntry> map = new ConcurrentHashMap<String, StorageEntry>();
 
+    private final StorageJournal journal;
+    private final boolean journaled;
+
+    /** The records of the modifications which have not been written to the journal yet. */
+    private final List<String> pendingRecords = new ArrayList<>();
+
     private transient Gson internalMapper;
     private transient Gson entityMapper;
 
     public JsonStorage(File file, ClassLoader classLoader, int maxBackupFiles, int writeDelay, int maxDeferredPeriod) {
+        this(file, classLoader, maxBackupFiles, writeDelay, maxDeferredPeriod, false,
+                ThreadPoolManager.getScheduledPool(COMMIT_THREAD_POOL_NAME));
+    }
+
+    public JsonStorage(File file, ClassLoader classLoader, int maxBackupFiles, int writeDelay, int maxDeferredPeriod,
+            boolean journaled, ScheduledExecutorService scheduler) {
         this.file = file;
         this.classLoader = classLoader;
         this.maxBackupFiles = maxBackupFiles;
         this.writeDelay = writeDelay;
         this.maxDeferredPeriod = maxDeferredPeriod;
+        this.journaled = journaled;
+        this.scheduler = scheduler;
+        this.journal = new StorageJournal(new File(file.getPath() + JOURNAL_EXTENSION));
 
         this.internalMapper = new GsonBuilder()
                 .registerTypeHierarchyAdapter(Map.class, new StorageEntryMapDeserializer()).setPrettyPrinting()
@@ -90,8 +123,6 @@ public class JsonStorage<T> implements Storage<T> {
         this.entityMapper = new GsonBuilder().registerTypeAdapter(Configuration.class, new ConfigurationDeserializer())
                 .setPrettyPrinting().create();
 
-        commitTimer = new Timer();
-
         Map<String, StorageEntry> inputMap = null;
         if (file.exists()) {
             // Read the file
@@ -125,6 +156,19 @@ public class JsonStorage<T> implements Storage<T> {
             map.putAll(inputMap);
             logger.debug("Opened Json storage file at '{}'.", file.getAbsolutePath());
         }
+
+        // Apply the modifications which have not been compacted into the file yet
+        try {
+            if (!journal.replay(map)) {
+                // further records must not be appended to an incomplete one
+                writeDatabase();
+            }
+        } catch (IOException e) {
+            // compacting the storage now would delete the modifications which could not be read
+            logger.error("Error reading Json storage journal of {}. Cause {}.", file.getPath(), e.getMessage());
+            throw new IllegalStateException("Json storage journal of '" + file.getAbsolutePath()
+                    + "' could not be read, it is kept for the next attempt", e);
+        }
     }
 
     @Override
@@ -134,7 +178,7 @@ public class JsonStorage<T> implements Storage<T> {
         }
 
         StorageEntry val = new StorageEntry(value.getClass().getName(), entityMapper.toJsonTree(value));
-        StorageEntry previousValue = map.put(key, val);
+        StorageEntry previousValue = apply(key, val);
         deferredCommit();
 
         if (previousValue == null) {
@@ -146,7 +190,7 @@ public class JsonStorage<T> implements Storage<T> {
 
     @Override
     public @Nullable T remove(String key) {
-        StorageEntry removedElement = map.remove(key);
+        StorageEntry removedElement = apply(key, null);
         deferredCommit();
         if (removedElement == null) {
             return null;
@@ -154,6 +198,18 @@ public class JsonStorage<T> implements Storage<T> {
         return deserialize(removedElement);
     }
 
+    private @Nullable StorageEntry apply(String key, @Nullable StorageEntry entry) {
+        if (!journaled) {
+            return entry == null ? map.remove(key) : map.put(key, entry);
+        }
+        String record = entry == null ? journal.createRemoveRecord(key) : journal.createPutRecord(key, entry);
+        synchronized (pendingRecords) {
+            // the records have to be written in the order the modifications are applied
+            pendingRecords.add(record);
+            return entry == null ? map.remove(key) : map.put(key, entry);
+        }
+    }
+
     @Override
     public boolean containsKey(final String key) {
         return map.containsKey(key);
@@ -267,52 +323,149 @@ public class JsonStorage<T> implements Storage<T> {
         return fileTimes;
     }
 
-    private void writeDatabaseFile(File dataFile, String data) {
+    private boolean writeDatabaseFile(File dataFile, String data) {
+        return writeDatabaseFile(dataFile, data, false);
+    }
+
+    /**
+     * Writes the data to the given file.
+     *
+     * @param sync whether the data has to reach the disk before this method returns
+     * @return whether the file has been written completely
+     */
+    private boolean writeDatabaseFile(File dataFile, String data, boolean sync) {
         try (FileOutputStream outputStream = new FileOutputStream(dataFile, false)) {
             outputStream.write(data.getBytes());
             outputStream.flush();
+            if (sync) {
+                outputStream.getChannel().force(true);
+            }
+            return true;
         } catch (Exception e) {
             logger.error("Error writing JsonDB to {}. Cause {}.", dataFile.getPath(), e.getMessage());
+            return false;
         }
     }
 
     /**
      * Write out any outstanding data.
      * <p>
-     * This creates the backup copy at the same time as writing the database file. This avoids
+     * In journal mode the modifications are appended to the journal, unless it is compacted into the database file.
+     */
+    public void commitDatabase() {
+        synchronized (map) {
+            if (journaled) {
+                commitJournal();
+            } else {
+                writeDatabase();
+            }
+            deferredSince = 0;
+        }
+    }
+
+    private void commitJournal() {
+        boolean compact;
+        List<String> records = new ArrayList<>();
+        synchronized (pendingRecords) {
+            compact = journal.getRecordCount() + pendingRecords.size() > Math.max(MIN_COMPACTION_RECORDS, map.size());
+            if (!compact) {
+                records.addAll(pendingRecords);
+                pendingRecords.clear();
+            }
+        }
+        if (compact) {
+            // rewriting the file is cheaper than replaying the journal from now on
+            compactJournal();
+        } else if (!records.isEmpty()) {
+            try {
+                journal.append(records);
+            } catch (IOException e) {
+                logger.error("Error writing JsonDB journal of {}. Cause {}.", file.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the database file, including the modifications of the journal. Must be called while holding the lock of
+     * the map.
+     * <p>
+     * In journal mode the file is written to a temporary file first, which then replaces the database file. So the
+     * database file is complete at any time and the journal can be deleted afterwards.
+     * <p>
+     * Otherwise this creates the backup copy at the same time as writing the database file. This avoids
      * having to either rename the file later (which may leave a small window for there to
      * be no file if the system crashes during the write process), or to copy the file when
      * writing the backup copy (which would require a read and write, and is thus slower).
      */
-    public void commitDatabase() {
+    private void writeDatabase() {
+        if (journaled) {
+            compactJournal();
+            return;
+        }
+
         String json = internalMapper.toJson(map);
 
-        synchronized (map) {
-            // Write the database file
-            writeDatabaseFile(file, json);
+        // Write the database file
+        boolean written = writeDatabaseFile(file, json);
 
-            // And also write the backup
-            writeDatabaseFile(new File(file.getParent() + File.separator + BACKUP_EXTENSION,
-                    System.currentTimeMillis() + SEPARATOR + file.getName()), json);
+        // And also write the backup
+        writeDatabaseFile(new File(file.getParent() + File.separator + BACKUP_EXTENSION,
+                System.currentTimeMillis() + SEPARATOR + file.getName()), json);
 
-            deferredSince = 0;
+        if (written) {
+            // The journal of a former journal mode is contained in the file now
+            journal.delete();
         }
     }
 
-    private class CommitTimerTask extends TimerTask {
-        @Override
-        public void run() {
-            // Save the database
-            commitDatabase();
-            List<Long> fileTimes = calculateFileTimes();
-
-            // delete the oldest
-            if (fileTimes.size() > maxBackupFiles) {
-                for (int counter = 0; counter < fileTimes.size() - maxBackupFiles; counter++) {
-                    File deleter = new File(file.getParent() + File.separator + BACKUP_EXTENSION,
-                            fileTimes.get(counter) + SEPARATOR + file.getName());
-                    deleter.delete();
-                }
+    /**
+     * Writes the database file and deletes the journal. Must be called while holding the lock of the map, so no records
+     * are appended to the journal meanwhile.
+     * <p>
+     * If the database file cannot be replaced, the journal is kept and the pending records are written with the next
+     * commit.
+     */
+    private void compactJournal() {
+        Map<String, StorageEntry> snapshot;
+        int recordCount;
+        synchronized (pendingRecords) {
+            // the copy contains all modifications up to now, so their records are not needed once it is written
+            snapshot = new HashMap<>(map);
+            recordCount = pendingRecords.size();
+        }
+
+        String json = internalMapper.toJson(snapshot);
+        File tempFile = new File(file.getPath() + TEMP_EXTENSION);
+        if (!writeDatabaseFile(tempFile, json, true)) {
+            return;
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Error writing JsonDB to {}. Cause {}.", file.getPath(), e.getMessage());
+            return;
+        }
+        synchronized (pendingRecords) {
+            pendingRecords.subList(0, recordCount).clear();
+        }
+        writeDatabaseFile(new File(file.getParent() + File.separator + BACKUP_EXTENSION,
+                System.currentTimeMillis() + SEPARATOR + file.getName()), json);
+        journal.delete();
+        logger.debug("Compacted Json storage journal into '{}'.", file.getAbsolutePath());
+    }
+
+    private void commitAndCleanupBackups() {
+        // Save the database
+        commitDatabase();
+        List<Long> fileTimes = calculateFileTimes();
+
+        // delete the oldest
+        if (fileTimes.size() > maxBackupFiles) {
+            for (int counter = 0; counter < fileTimes.size() - maxBackupFiles; counter++) {
+                File deleter = new File(file.getParent() + File.separator + BACKUP_EXTENSION,
+                        fileTimes.get(counter) + SEPARATOR + file.getName());
+                deleter.delete();
             }
         }
     }
@@ -320,24 +473,22 @@ public class JsonStorage<T> implements Storage<T> {
     public synchronized void deferredCommit() {
         // Handle a maximum time for deferring the commit.
         // This stops a pathological loop preventing saving
-        if (deferredSince != 0 && deferredSince < System.nanoTime() - maxDeferredPeriod) {
+        if (deferredSince != 0
+                && deferredSince < System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxDeferredPeriod)) {
             commitDatabase();
         }
         if (deferredSince == 0) {
             deferredSince = System.nanoTime();
         }
 
-        // Stop any existing timer
-        if (commitTimerTask != null) {
-            commitTimerTask.cancel();
-            commitTimerTask = null;
+        // Stop any existing commit
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
         }
 
-        // Create the timer task
-        commitTimerTask = new CommitTimerTask();
-
-        // Start the timer
-        commitTimer.schedule(commitTimerTask, writeDelay);
+        // Schedule the commit
+        this.commitJob = scheduler.schedule(this::commitAndCleanupBackups, writeDelay, TimeUnit.MILLISECONDS);
     }
 
 }
@@ -17,8 +17,10 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
 import org.osgi.service.component.ComponentContext;
@@ -27,7 +29,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This implementation of {@link StorageService} provides a mechanism to store
- * data in Json files.
+ * data in Json files. The deferred commits of all storages are run by a shared scheduler.
  *
  * @author Chris Jackson - Initial Contribution
  */
@@ -43,10 +45,15 @@ public class JsonStorageService implements StorageService {
     private final String CFG_MAX_BACKUP_FILES = "backup_files";
     private final String CFG_WRITE_DELAY = "write_delay";
     private final String CFG_MAX_DEFER_DELAY = "max_defer_delay";
+    private final String CFG_JOURNAL = "journal";
 
     private int maxBackupFiles = 5;
     private int writeDelay = 500;
     private int maxDeferredPeriod = 60000;
+    private boolean journaled = false;
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(JsonStorage.COMMIT_THREAD_POOL_NAME);
 
     private final Map<String, JsonStorage<Object>> storageList = new HashMap<String, JsonStorage<Object>>();
 
@@ -90,6 +97,9 @@ public class JsonStorageService implements StorageService {
             logger.error("Value {} for {} is invalid. Using {}.", properties.get(CFG_MAX_DEFER_DELAY),
                     CFG_MAX_DEFER_DELAY, maxDeferredPeriod);
         }
+        if (properties.get(CFG_JOURNAL) != null) {
+            journaled = Boolean.parseBoolean(properties.get(CFG_JOURNAL).toString());
+        }
     }
 
     protected void deactivate() {
@@ -112,7 +122,7 @@ public class JsonStorageService implements StorageService {
         }
 
         JsonStorage<T> newStorage = new JsonStorage<T>(file, classLoader, maxBackupFiles, writeDelay,
-                maxDeferredPeriod);
+                maxDeferredPeriod, journaled, scheduler);
 
         JsonStorage<Object> oldStorage = storageList.put(name, (JsonStorage<Object>) newStorage);
         if (oldStorage != null) {
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.json.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * The {@link StorageJournal} is the append-only log of the modifications of a {@link JsonStorage} since its file has
+ * been written the last time. Each line of the journal file holds one JSON record, which is either the new entry of a
+ * key or - if it does not contain an entry - the removal of a key.
+ * <p>
+ * The records are written in the order the modifications have been applied, so replaying them over the content of the
+ * storage file restores the latest committed state. Replaying the records over a storage file which has been written
+ * after them does not change its content.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class StorageJournal {
+
+    static final String KEY = "key";
+
+    private final Logger logger = LoggerFactory.getLogger(StorageJournal.class);
+
+    private final File file;
+    private final Gson mapper = new Gson();
+    private final JsonParser parser = new JsonParser();
+
+    private int recordCount;
+
+    StorageJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates the record for a new entry of a key.
+     *
+     * @param key the key
+     * @param entry the new entry
+     * @return the record
+     */
+    String createPutRecord(String key, StorageEntry entry) {
+        JsonObject record = new JsonObject();
+        record.addProperty(KEY, key);
+        record.addProperty(JsonStorage.CLASS, entry.getEntityClassName());
+        record.add(JsonStorage.VALUE, mapper.toJsonTree(entry.getValue()));
+        // the compact format escapes all line breaks, so each record is a single line
+        return mapper.toJson(record);
+    }
+
+    /**
+     * Creates the record for the removal of a key.
+     *
+     * @param key the key
+     * @return the record
+     */
+    String createRemoveRecord(String key) {
+        JsonObject record = new JsonObject();
+        record.addProperty(KEY, key);
+        return mapper.toJson(record);
+    }
+
+    /**
+     * Applies the records of the journal file to the given map.
+     *
+     * @param map the content of the storage file
+     * @return {@code true} if all records have been applied, {@code false} if the journal file contains an incomplete
+     *         record, e.g. because the system crashed while writing it
+     * @throws IOException if the journal file could not be read, in which case it has to be kept
+     */
+    boolean replay(Map<String, StorageEntry> map) throws IOException {
+        recordCount = 0;
+        if (!file.exists()) {
+            return true;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JsonElement element = parser.parse(line);
+                if (!element.isJsonObject() || !element.getAsJsonObject().has(KEY)) {
+                    throw new JsonParseException("Invalid record: " + line);
+                }
+                JsonObject record = element.getAsJsonObject();
+                String key = record.get(KEY).getAsString();
+                JsonElement entityClassName = record.get(JsonStorage.CLASS);
+                if (entityClassName == null) {
+                    map.remove(key);
+                } else {
+                    map.put(key, new StorageEntry(entityClassName.getAsString(), record.get(JsonStorage.VALUE)));
+                }
+                recordCount++;
+            }
+            logger.debug("Applied {} records of the Json storage journal at '{}'.", recordCount,
+                    file.getAbsolutePath());
+            return true;
+        } catch (JsonParseException e) {
+            logger.warn("Json storage journal at '{}' is incomplete after {} records: {}", file.getAbsolutePath(),
+                    recordCount, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Appends records to the journal file.
+     *
+     * @param records the records
+     * @throws IOException if the records could not be written
+     */
+    void append(List<String> records) throws IOException {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            for (String record : records) {
+                writer.write(record);
+                writer.write('\n');
+            }
+        }
+        recordCount += records.size();
+    }
+
+    /**
+     * Deletes the journal file, once its records are contained in the storage file.
+     */
+    void delete() {
+        if (file.exists() && !file.delete()) {
+            logger.warn("Could not delete the Json storage journal at '{}'.", file.getAbsolutePath());
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Gets the number of records in the journal file.
+     *
+     * @return the number of records
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+
+/**
+ * Tests the {@link GroupCommitter}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class GroupCommitterTest {
+
+    private DB db;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        db = mock(DB.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testEveryModificationIsCommittedWithoutDelay() {
+        GroupCommitter committer = new GroupCommitter(db, scheduler, 0, 100);
+        committer.commit();
+        committer.commit();
+
+        verify(db, times(2)).commit();
+    }
+
+    @Test
+    public void testModificationsAreCommittedAfterTheDelay() {
+        GroupCommitter committer = new GroupCommitter(db, scheduler, 50, 100);
+        committer.commit();
+        committer.commit();
+        committer.commit();
+
+        verify(db, never()).commit();
+        verify(db, timeout(5000)).commit();
+        verifyNoMoreInteractions(db);
+    }
+
+    @Test
+    public void testModificationsAreCommittedOnceTheBatchIsFull() {
+        GroupCommitter committer = new GroupCommitter(db, scheduler, 60000, 3);
+        committer.commit();
+        committer.commit();
+        verify(db, never()).commit();
+
+        committer.commit();
+        verify(db).commit();
+    }
+
+    @Test
+    public void testFlushCommitsOnlyPendingModifications() {
+        GroupCommitter committer = new GroupCommitter(db, scheduler, 60000, 100);
+        committer.flush();
+        verify(db, never()).commit();
+
+        committer.commit();
+        committer.flush();
+        committer.flush();
+        verify(db).commit();
+    }
+
+}
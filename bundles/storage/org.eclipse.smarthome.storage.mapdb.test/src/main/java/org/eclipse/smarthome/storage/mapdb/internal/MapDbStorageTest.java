@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+/**
+ * Tests the {@link MapDbStorage} with values stored in the current and in the legacy format.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class MapDbStorageTest {
+
+    private static final String STORAGE_NAME = "test";
+
+    private DB db;
+    private ScheduledExecutorService scheduler;
+    private Map<String, Object> storedValues;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        storedValues = db.createTreeMap(STORAGE_NAME).makeOrGet();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        db.close();
+    }
+
+    private MapDbStorage<Object> createStorage() {
+        return new MapDbStorage<>(db, STORAGE_NAME, getClass().getClassLoader(),
+                new ClassDictionary(db.createTreeMap("classes").makeOrGet()), db.getAtomicLong("versions"),
+                new GroupCommitter(db, scheduler, 0, 1));
+    }
+
+    @Test
+    public void testLegacyValuesAreRead() {
+        storedValues.put("string", "java.lang.String@@@\"value\"");
+        storedValues.put("object",
+                PersistedItem.class.getName() + "@@@{\"itemType\":\"Switch\",\"groupNames\":[\"g1\"]}");
+
+        MapDbStorage<Object> storage = createStorage();
+        assertEquals("value", storage.get("string"));
+        PersistedItem item = (PersistedItem) storage.get("object");
+        assertNotNull(item);
+        assertEquals("Switch", item.itemType);
+        assertEquals(Arrays.asList("g1"), item.groupNames);
+    }
+
+    @Test
+    public void testLegacyValuesAreReplacedAndRemoved() {
+        storedValues.put("string", "java.lang.String@@@\"value\"");
+        storedValues.put("other", "java.lang.String@@@\"other\"");
+
+        MapDbStorage<Object> storage = createStorage();
+        assertEquals("value", storage.put("string", "new value"));
+        assertTrue(storedValues.get("string") instanceof byte[]);
+        assertEquals("new value", storage.get("string"));
+        assertEquals("other", storage.remove("other"));
+        assertFalse(storage.containsKey("other"));
+
+        // the replaced value is read by a new storage as well
+        assertEquals("new value", createStorage().get("string"));
+    }
+
+    @Test
+    public void testInvalidLegacyValueIsIgnored() {
+        storedValues.put("untyped", "\"value\"");
+        storedValues.put("unknown", "org.example.Unknown@@@{}");
+
+        MapDbStorage<Object> storage = createStorage();
+        assertNull(storage.get("untyped"));
+        assertNull(storage.get("unknown"));
+    }
+
+    private static class PersistedItem {
+        private String itemType;
+        private List<String> groupNames;
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ValueCodec} and the {@link ClassDictionary}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class ValueCodecTest {
+
+    @Test
+    public void testEncodedValueIsDecoded() throws IOException {
+        String json = "{\"label\":\"Küche\"}";
+        byte[] value = ValueCodec.encode(300, 1234567890123L, json);
+
+        ValueCodec.Header header = ValueCodec.readHeader(value);
+        assertEquals(300, header.classId);
+        assertEquals(1234567890123L, header.version);
+        assertEquals(json, read(ValueCodec.getJson(value, header)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFormatIsRejected() {
+        ValueCodec.readHeader("java.lang.String@@@\"value\"".getBytes());
+    }
+
+    @Test
+    public void testClassIdsAreKept() {
+        Map<String, Integer> ids = new HashMap<>();
+        ClassDictionary dictionary = new ClassDictionary(ids);
+        int stringId = dictionary.getId(String.class.getName());
+        int integerId = dictionary.getId(Integer.class.getName());
+        assertNotEquals(stringId, integerId);
+        assertEquals(stringId, dictionary.getId(String.class.getName()));
+
+        dictionary = new ClassDictionary(ids);
+        assertEquals(String.class.getName(), dictionary.getClassName(stringId));
+        assertEquals(Integer.class.getName(), dictionary.getClassName(integerId));
+        assertNull(dictionary.getClassName(integerId + 1));
+        assertEquals(integerId + 1, dictionary.getId(Long.class.getName()));
+    }
+
+    private String read(Reader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[64];
+        int length;
+        while ((length = reader.read(buffer)) >= 0) {
+            builder.append(buffer, 0, length);
+        }
+        return builder.toString();
+    }
+
+}
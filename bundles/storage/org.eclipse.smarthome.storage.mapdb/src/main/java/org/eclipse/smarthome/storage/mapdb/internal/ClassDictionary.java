@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link ClassDictionary} assigns numeric ids to the names of the classes of the values stored by the
+ * {@link MapDbStorage}s of a database, so the stored values do not need to contain the class names.
+ * <p>
+ * The ids are kept in a map of the database, so they are committed together with the values which refer to them.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class ClassDictionary {
+
+    private final Map<String, Integer> ids;
+    private final Map<Integer, String> classNames = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a dictionary.
+     *
+     * @param ids the map the ids are kept in
+     */
+    ClassDictionary(Map<String, Integer> ids) {
+        this.ids = ids;
+        ids.forEach((className, id) -> classNames.put(id, className));
+    }
+
+    /**
+     * Gets the id of a class, assigning a new one if the class has not been added to the dictionary yet.
+     *
+     * @param className the name of the class
+     * @return the id of the class
+     */
+    int getId(String className) {
+        Integer id = ids.get(className);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(className);
+            if (id == null) {
+                id = classNames.size();
+                ids.put(className, id);
+                classNames.put(id, className);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Gets the name of the class with the given id.
+     *
+     * @param id the id of the class
+     * @return the name of the class or {@code null} if the id is unknown
+     */
+    @Nullable
+    String getClassName(int id) {
+        return classNames.get(id);
+    }
+
+}
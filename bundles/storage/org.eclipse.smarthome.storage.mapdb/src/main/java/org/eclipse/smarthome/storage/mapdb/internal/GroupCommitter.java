@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link GroupCommitter} commits the modifications of the {@link MapDbStorage}s of a database. Instead of
+ * committing each modification on its own, all modifications within a short period are committed together, unless
+ * too many of them are pending.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class GroupCommitter {
+
+    private final Logger logger = LoggerFactory.getLogger(GroupCommitter.class);
+
+    private final DB db;
+    private final ScheduledExecutorService scheduler;
+    private final long commitDelay;
+    private final int maxPendingModifications;
+
+    private int pendingModifications;
+    private @Nullable ScheduledFuture<?> commitJob;
+
+    /**
+     * Creates a committer.
+     *
+     * @param db the database
+     * @param scheduler the scheduler to run the deferred commits
+     * @param commitDelay the maximum time in milliseconds a modification is not committed, 0 to commit every
+     *            modification immediately
+     * @param maxPendingModifications the number of modifications which are committed immediately
+     */
+    GroupCommitter(DB db, ScheduledExecutorService scheduler, long commitDelay, int maxPendingModifications) {
+        this.db = db;
+        this.scheduler = scheduler;
+        this.commitDelay = commitDelay;
+        this.maxPendingModifications = maxPendingModifications;
+    }
+
+    /**
+     * Requests the commit of a modification of the database.
+     */
+    synchronized void commit() {
+        if (commitDelay == 0) {
+            db.commit();
+            return;
+        }
+        pendingModifications++;
+        if (pendingModifications >= maxPendingModifications) {
+            flush();
+        } else if (commitJob == null) {
+            commitJob = scheduler.schedule(this::flush, commitDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Commits all pending modifications of the database.
+     */
+    synchronized void flush() {
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+            this.commitJob = null;
+        }
+        if (pendingModifications > 0) {
+            logger.trace("Committing {} modifications of the MapDB storage", pendingModifications);
+            pendingModifications = 0;
+            try {
+                db.commit();
+            } catch (RuntimeException e) {
+                logger.error("Failed to commit the MapDB storage: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+}
@@ -17,17 +17,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.storage.DeletableStorage;
 import org.eclipse.smarthome.core.storage.Storage;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 
 /**
  * The MapDbStorage is concrete implementation of the {@link Storage} interface.
@@ -35,6 +39,10 @@ import com.google.gson.GsonBuilder;
  * the given values using their JSON representation (generated by {@code Gson}.
  * This transformation should help maintaining version compatibility of the stored
  * data.
+ * <p>
+ * The values are stored in the binary format of the {@link ValueCodec}, values stored as strings by former versions
+ * are still read. The parsed JSON representation of the values is kept as long as the version of the stored entry
+ * does not change, so reading a value again only needs to create the object from it.
  *
  * @author Thomas.Eichstaedt-Engelen - Initial Contribution and API
  * @author Alex Tugarev - Loading with Class.forName() if classLoader is null
@@ -50,14 +58,25 @@ public class MapDbStorage<T> implements DeletableStorage<T> {
     private final String name;
     private final DB db;
     private final ClassLoader classLoader;
-    private Map<String, String> map;
+    private final ClassDictionary classDictionary;
+    private final Atomic.Long versions;
+    private final GroupCommitter committer;
+    private Map<String, Object> map;
+
+    /** The decoded values by their keys, which are only valid as long as the stored entry has the same version. */
+    private final Map<String, DecodedValue<T>> decodedValues = new ConcurrentHashMap<>();
 
     private transient Gson mapper;
+    private final JsonParser parser = new JsonParser();
 
-    public MapDbStorage(DB db, String name, ClassLoader classLoader) {
+    public MapDbStorage(DB db, String name, ClassLoader classLoader, ClassDictionary classDictionary,
+            Atomic.Long versions, GroupCommitter committer) {
         this.name = name;
         this.db = db;
         this.classLoader = classLoader;
+        this.classDictionary = classDictionary;
+        this.versions = versions;
+        this.committer = committer;
         this.map = db.createTreeMap(name).makeOrGet();
         this.mapper = new GsonBuilder().registerTypeAdapterFactory(new PropertiesTypeAdapterFactory()).create();
     }
@@ -66,24 +85,32 @@ public class MapDbStorage<T> implements DeletableStorage<T> {
     public void delete() {
         // Use an unmodifiable map. After deletion no operation / modification should be called anymore.
         map = Collections.emptyMap();
+        decodedValues.clear();
         db.delete(name);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @Nullable T put(String key, @Nullable T value) {
         if (value == null) {
             return remove(key);
         }
-        String previousValue = map.put(key, serialize(value));
-        db.commit();
-        return deserialize(previousValue);
+        long version = versions.incrementAndGet();
+        JsonElement json = mapper.toJsonTree(value);
+        Object previousValue = map.put(key, serialize(value, version, json));
+        committer.commit();
+        T previous = deserialize(key, previousValue);
+        decodedValues.put(key, new DecodedValue<>(version, (Class<T>) value.getClass(), json));
+        return previous;
     }
 
     @Override
     public @Nullable T remove(String key) {
-        String removedElement = map.remove(key);
-        db.commit();
-        return deserialize(removedElement);
+        Object removedElement = map.remove(key);
+        committer.commit();
+        T removed = deserialize(key, removedElement);
+        decodedValues.remove(key);
+        return removed;
     }
 
     @Override
@@ -93,7 +120,7 @@ public class MapDbStorage<T> implements DeletableStorage<T> {
 
     @Override
     public @Nullable T get(String key) {
-        return deserialize(map.get(key));
+        return deserialize(key, map.get(key));
     }
 
     @Override
@@ -111,59 +138,97 @@ public class MapDbStorage<T> implements DeletableStorage<T> {
     }
 
     /**
-     * Transforms the given {@code value} into its JSON representation using {@code Gson}. Since we do not know the type
-     * of {@code value} while
-     * deserializing it afterwards we prepend its qualified type name to the
-     * JSON String.
+     * Encodes the JSON representation of the given {@code value} with the {@link ValueCodec}. Since we do not know
+     * the type of {@code value} while deserializing it afterwards we prepend the id of its type in the
+     * {@link ClassDictionary}.
      *
      * @param value the {@code value} to store
-     * @return the JSON document prepended with the qualified type name of {@code value}
+     * @param version the version of the entry
+     * @param json the JSON representation of the value
+     * @return the encoded value
      */
-    private String serialize(T value) {
+    private byte[] serialize(T value, long version, JsonElement json) {
         if (value == null) {
             throw new IllegalArgumentException("Cannot serialize NULL");
         }
 
-        String valueTypeName = value.getClass().getName();
-        String valueAsString = mapper.toJson(value);
-        String concatValue = valueTypeName + TYPE_SEPARATOR + valueAsString;
+        int classId = classDictionary.getId(value.getClass().getName());
+        String valueAsString = mapper.toJson(json);
 
-        logger.trace("serialized value '{}' to MapDB", concatValue);
-        return concatValue;
+        logger.trace("serialized value '{}' of type {} to MapDB", valueAsString, classId);
+        return ValueCodec.encode(classId, version, valueAsString);
     }
 
     /**
      * Deserializes and instantiates an object of type {@code T} out of the
-     * given JSON String. A special classloader (other than the one of the
+     * given stored value. A special classloader (other than the one of the
      * MapDB bundle) is used in order to load the classes in the context of
      * the calling bundle.
      *
+     * @param key the key of the entry
+     * @param storedValue the stored value, either encoded with the {@link ValueCodec} or a legacy JSON String
+     * @return the value
+     */
+    private @Nullable T deserialize(String key, @Nullable Object storedValue) {
+        if (storedValue == null) {
+            // nothing to deserialize
+            return null;
+        }
+        if (storedValue instanceof String) {
+            return deserialize((String) storedValue);
+        }
+
+        @Nullable
+        T value = null;
+        try {
+            byte[] encodedValue = (byte[]) storedValue;
+            ValueCodec.Header header = ValueCodec.readHeader(encodedValue);
+            DecodedValue<T> decodedValue = decodedValues.get(key);
+            if (decodedValue == null || decodedValue.version != header.version) {
+                String valueTypeName = classDictionary.getClassName(header.classId);
+                if (valueTypeName == null) {
+                    throw new IllegalStateException("Unknown type " + header.classId);
+                }
+                decodedValue = new DecodedValue<>(header.version, loadClass(valueTypeName),
+                        parser.parse(ValueCodec.getJson(encodedValue, header)));
+                decodedValues.put(key, decodedValue);
+            }
+
+            value = mapper.fromJson(decodedValue.json, decodedValue.type);
+            logger.trace("deserialized value '{}' from MapDB", value);
+        } catch (Exception e) {
+            logger.warn("Couldn't deserialize value of '{}'. Root cause is: {}", key, e.getMessage());
+        }
+
+        return value;
+    }
+
+    /**
+     * Deserializes and instantiates an object of type {@code T} out of the
+     * given JSON String prepended with the qualified type name, which is the format
+     * values have been stored in by former versions.
+     *
      * @param json
      * @return
      */
-    @SuppressWarnings("unchecked")
     public @Nullable T deserialize(@Nullable String json) {
         if (json == null) {
             // nothing to deserialize
             return null;
         }
 
-        String[] concatValue = json.split(TYPE_SEPARATOR);
-        String valueTypeName = concatValue[0];
-        String valueAsString = concatValue[1];
+        int separatorIndex = json.indexOf(TYPE_SEPARATOR);
+        if (separatorIndex < 0) {
+            logger.warn("Couldn't deserialize value '{}'. Root cause is: type is missing", json);
+            return null;
+        }
+        String valueTypeName = json.substring(0, separatorIndex);
+        String valueAsString = json.substring(separatorIndex + TYPE_SEPARATOR.length());
 
         @Nullable
         T value = null;
         try {
-            // load required class within the given bundle context
-            Class<T> loadedValueType = null;
-            if (classLoader == null) {
-                loadedValueType = (Class<T>) Class.forName(valueTypeName);
-            } else {
-                loadedValueType = (Class<T>) classLoader.loadClass(valueTypeName);
-            }
-
-            value = mapper.fromJson(valueAsString, loadedValueType);
+            value = mapper.fromJson(valueAsString, loadClass(valueTypeName));
             logger.trace("deserialized value '{}' from MapDB", value);
         } catch (Exception e) {
             logger.warn("Couldn't deserialize value '{}'. Root cause is: {}", json, e.getMessage());
@@ -172,4 +237,27 @@ public class MapDbStorage<T> implements DeletableStorage<T> {
         return value;
     }
 
+    @SuppressWarnings("unchecked")
+    private Class<T> loadClass(String valueTypeName) throws ClassNotFoundException {
+        // load required class within the given bundle context
+        if (classLoader == null) {
+            return (Class<T>) Class.forName(valueTypeName);
+        } else {
+            return (Class<T>) classLoader.loadClass(valueTypeName);
+        }
+    }
+
+    private static class DecodedValue<T> {
+
+        private final long version;
+        private final Class<T> type;
+        private final JsonElement json;
+
+        DecodedValue(long version, Class<T> type, JsonElement json) {
+            this.version = version;
+            this.type = type;
+            this.json = json;
+        }
+    }
+
 }
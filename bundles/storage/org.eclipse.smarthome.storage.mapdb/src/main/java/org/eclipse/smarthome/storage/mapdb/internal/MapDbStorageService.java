@@ -13,11 +13,14 @@
 package org.eclipse.smarthome.storage.mapdb.internal;
 
 import java.io.File;
+import java.util.Map;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.storage.DeletableStorage;
 import org.eclipse.smarthome.core.storage.DeletableStorageService;
 import org.eclipse.smarthome.core.storage.StorageService;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
 import org.slf4j.Logger;
@@ -26,6 +29,10 @@ import org.slf4j.LoggerFactory;
 /**
  * This implementation of {@link StorageService} provides abilities to store
  * data in the lightweight key-value-store <a href="http://www.mapdb.org">MapDB</a>.
+ * <p>
+ * By default every modification is committed immediately. If a {@code commit_delay} (in milliseconds) is configured,
+ * the modifications of all storages are committed together after the delay or once {@code commit_batch_size}
+ * modifications are pending. The modifications of that period are lost if the system crashes.
  *
  * @author Thomas.Eichstaedt-Engelen - Initial Contribution and API
  * @author Alex Tugarev - Added getStorage for name only
@@ -38,13 +45,28 @@ public class MapDbStorageService implements DeletableStorageService {
     /** the name of the mapdb database ({@code storage.mapdb}) */
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** the names of the collections of the database which are not storages */
+    private static final String CLASS_DICTIONARY_NAME = "org.eclipse.smarthome.storage.mapdb.classes";
+    private static final String VERSIONS_NAME = "org.eclipse.smarthome.storage.mapdb.versions";
+
+    private static final String CFG_COMMIT_DELAY = "commit_delay";
+    private static final String CFG_COMMIT_BATCH_SIZE = "commit_batch_size";
+    private static final String COMMIT_THREAD_POOL_NAME = "mapdbstorage";
+
+    private int commitDelay = 0;
+    private int commitBatchSize = 100;
+
     /** holds the local instance of the MapDB database */
     private DB db;
 
+    private ClassDictionary classDictionary;
+    private Atomic.Long versions;
+    private GroupCommitter committer;
+
     /** the folder name to store mapdb databases ({@code mapdb} by default) */
     private String dbFolderName = "mapdb";
 
-    public void activate() {
+    public void activate(Map<String, Object> properties) {
         dbFolderName = ConfigConstants.getUserDataFolder() + File.separator + dbFolderName;
         File folder = new File(dbFolderName);
         if (!folder.exists()) {
@@ -54,17 +76,42 @@ public class MapDbStorageService implements DeletableStorageService {
         File dbFile = new File(dbFolderName, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
 
+        commitDelay = getNonNegativeInteger(properties, CFG_COMMIT_DELAY, commitDelay);
+        commitBatchSize = Math.max(1, getNonNegativeInteger(properties, CFG_COMMIT_BATCH_SIZE, commitBatchSize));
+        classDictionary = new ClassDictionary(db.createTreeMap(CLASS_DICTIONARY_NAME).makeOrGet());
+        versions = db.getAtomicLong(VERSIONS_NAME);
+        committer = new GroupCommitter(db, ThreadPoolManager.getScheduledPool(COMMIT_THREAD_POOL_NAME), commitDelay,
+                commitBatchSize);
+
         logger.debug("Opened MapDB file at '{}'.", dbFile.getAbsolutePath());
     }
 
+    private int getNonNegativeInteger(Map<String, Object> properties, String key, int defaultValue) {
+        Object value = properties == null ? null : properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int result = Integer.parseInt(value.toString());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        logger.error("Value {} for {} is invalid. Using {}.", value, key, defaultValue);
+        return defaultValue;
+    }
+
     public void deactivate() {
+        committer.flush();
         db.close();
         logger.debug("Deactivated MapDB Storage Service.");
     }
 
     @Override
     public <T> DeletableStorage<T> getStorage(String name, ClassLoader classLoader) {
-        return new MapDbStorage<T>(db, name, classLoader);
+        return new MapDbStorage<T>(db, name, classLoader, classDictionary, versions, committer);
     }
 
     @Override
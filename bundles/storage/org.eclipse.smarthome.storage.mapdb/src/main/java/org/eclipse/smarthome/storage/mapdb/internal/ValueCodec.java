@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.storage.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ValueCodec} encodes the values stored by a {@link MapDbStorage}. An encoded value consists of
+ * <ul>
+ * <li>the version of the format,
+ * <li>the id of the class of the value in the {@link ClassDictionary},
+ * <li>the version of the entry, which is changed by every modification of the entry,
+ * <li>the JSON representation of the value in UTF-8.
+ * </ul>
+ * The ids and the entry version are written as variable length integers.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+final class ValueCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private ValueCodec() {
+    }
+
+    /**
+     * Encodes a value.
+     *
+     * @param classId the id of the class of the value
+     * @param version the version of the entry
+     * @param json the JSON representation of the value
+     * @return the encoded value
+     */
+    static byte[] encode(int classId, long version, String json) {
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 12);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, classId);
+        writeVarLong(out, version);
+        out.write(data, 0, data.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the header of an encoded value.
+     *
+     * @param value the encoded value
+     * @return the header
+     * @throws IllegalArgumentException if the value has not been encoded in a known format
+     */
+    static Header readHeader(byte[] value) {
+        if (value.length == 0 || value[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown value format");
+        }
+        int[] position = { 1 };
+        long classId = readVarLong(value, position);
+        long version = readVarLong(value, position);
+        return new Header((int) classId, version, position[0]);
+    }
+
+    /**
+     * Gets a reader for the JSON representation of an encoded value.
+     *
+     * @param value the encoded value
+     * @param header the header of the encoded value
+     * @return the reader
+     */
+    static Reader getJson(byte[] value, Header header) {
+        return new InputStreamReader(
+                new ByteArrayInputStream(value, header.jsonOffset, value.length - header.jsonOffset),
+                StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private static long readVarLong(byte[] value, int[] position) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= value.length) {
+                break;
+            }
+            byte b = value[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Truncated value header");
+    }
+
+    /**
+     * The header of an encoded value.
+     */
+    static class Header {
+
+        final int classId;
+        final long version;
+        final int jsonOffset;
+
+        Header(int classId, long version, int jsonOffset) {
+            this.classId = classId;
+            this.version = version;
+            this.jsonOffset = jsonOffset;
+        }
+    }
+
+}
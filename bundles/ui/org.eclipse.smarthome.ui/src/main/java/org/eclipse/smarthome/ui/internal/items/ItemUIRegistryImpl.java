@@ -1236,6 +1236,25 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
         }
     }
 
+    @Override
+    public Collection<Item> getItemsByTagAndTypeAndGroup(@Nullable String type, @Nullable String groupName,
+            String... tags) {
+        if (itemRegistry != null) {
+            return itemRegistry.getItemsByTagAndTypeAndGroup(type, groupName, tags);
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public Set<String> getAllGroupNames(String itemName) {
+        if (itemRegistry != null) {
+            return itemRegistry.getAllGroupNames(itemName);
+        } else {
+            return Collections.emptySet();
+        }
+    }
+
     @Override
     public <T extends Item> Collection<T> getItemsByTag(Class<T> typeFilter, String... tags) {
         if (itemRegistry != null) {
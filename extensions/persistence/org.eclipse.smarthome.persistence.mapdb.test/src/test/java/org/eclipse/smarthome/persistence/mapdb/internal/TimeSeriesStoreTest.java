@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.persistence.mapdb.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.persistence.mapdb.internal.TimeSeriesSegment.Sample;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TimeSeriesStore} and the encoding of its {@link TimeSeriesSegment}s.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class TimeSeriesStoreTest {
+
+    private static final String ITEM = "item";
+    private static final long HOUR = TimeSeriesStore.SEGMENT_DURATION;
+    private static final long START = 1_500_001_200_000L;
+
+    private ConcurrentSkipListMap<String, byte[]> segments;
+    private TimeSeriesStore store;
+
+    @Before
+    public void setUp() {
+        segments = new ConcurrentSkipListMap<>();
+        store = new TimeSeriesStore(segments);
+    }
+
+    @Test
+    public void testSegmentRoundtripKeepsStates() {
+        List<State> states = Arrays.asList(new DecimalType("21.5"), new DecimalType("21.5"), new DecimalType("-3"),
+                new DecimalType("0.1234567890123456789"), new PercentType(42), HSBType.GREEN, OnOffType.ON,
+                new QuantityType<>("20.5 °C"), new QuantityType<>("68 °F"), StringType.valueOf("text"),
+                new DecimalType("1E+400"), new DateTimeType("2018-01-01T12:00:00.000+0100"));
+        List<Sample> samples = new ArrayList<>();
+        long timestamp = START;
+        for (int i = 0; i < states.size(); i++) {
+            // irregular intervals exercise all buckets of the timestamp encoding
+            timestamp += 1000 + i * i * i * 7;
+            samples.add(new Sample(timestamp, states.get(i)));
+        }
+
+        List<Sample> decoded = TimeSeriesSegment.decode(TimeSeriesSegment.encode(samples, 0).toByteArray());
+
+        assertThat(decoded.size(), is(samples.size()));
+        for (int i = 0; i < samples.size(); i++) {
+            assertThat(decoded.get(i).getTimestamp(), is(samples.get(i).getTimestamp()));
+            assertThat(decoded.get(i).getState(), is(equalTo(samples.get(i).getState())));
+            assertThat(decoded.get(i).getState().getClass(), is(equalTo(samples.get(i).getState().getClass())));
+        }
+    }
+
+    @Test
+    public void testRegularNumericSamplesAreCompact() {
+        for (int i = 0; i < 60; i++) {
+            store.add(ITEM, START + i * 60_000, new DecimalType(20 + (i % 3) * 0.5));
+        }
+        store.flush();
+
+        assertThat(segments.size(), is(1));
+        // a JSON representation of the samples would take more than 60 bytes per sample
+        assertThat(segments.firstEntry().getValue().length < 60 * 4, is(true));
+        assertThat(query(START, Long.MAX_VALUE, false).size(), is(60));
+    }
+
+    @Test
+    public void testBitsRoundtripAtAnyAlignment() {
+        BitOutput out = new BitOutput();
+        for (int length = 0; length <= 64; length++) {
+            out.writeBit(length % 2 == 0);
+            out.writeBits(0xA5C3_F00F_1234_5678L, length);
+        }
+
+        BitInput in = new BitInput(out.toByteArray(), 0);
+        for (int length = 0; length <= 64; length++) {
+            assertThat(in.readBit(), is(length % 2 == 0));
+            long mask = length == 64 ? -1L : (1L << length) - 1;
+            assertThat(in.readBits(length), is(0xA5C3_F00F_1234_5678L & mask));
+        }
+    }
+
+    @Test
+    public void testCorruptSegmentIsSkipped() {
+        for (int i = 0; i < 4; i++) {
+            store.add(ITEM, START + i * HOUR / 2, new DecimalType(i));
+        }
+        store.flush();
+        String firstKey = segments.firstKey();
+        segments.put(firstKey, Arrays.copyOf(segments.get(firstKey), 8));
+
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(2, 3)));
+    }
+
+    @Test
+    public void testQueryReturnsSamplesOfTheTimeRangeInOrder() {
+        for (int i = 0; i < 10; i++) {
+            store.add(ITEM, START + i * HOUR / 2, new DecimalType(i));
+        }
+        store.add("other", START, new DecimalType(100));
+
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, true), is(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0)));
+        assertThat(query(START + HOUR, START + 3 * HOUR, false), is(Arrays.asList(2, 3, 4, 5, 6)));
+        assertThat(query(START + HOUR + 1, START + 3 * HOUR - 1, true), is(Arrays.asList(5, 4, 3)));
+        assertThat(store.getNames(), hasItems(ITEM, "other"));
+    }
+
+    @Test
+    public void testOpenSegmentIsBufferedUntilFlushed() {
+        store.add(ITEM, START, new DecimalType(0));
+        store.add(ITEM, START + 1000, new DecimalType(1));
+
+        // the buffered samples are queried, but not written yet
+        assertThat(segments.isEmpty(), is(true));
+        assertThat(store.contains(ITEM), is(true));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 1)));
+
+        // moving on to the next segment writes the previous one
+        store.add(ITEM, START + HOUR, new DecimalType(2));
+        assertThat(segments.size(), is(1));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 1, 2)));
+
+        store.flush();
+        assertThat(segments.size(), is(2));
+        assertThat(new TimeSeriesStore(segments).query(ITEM, Long.MIN_VALUE, Long.MAX_VALUE, false).count(), is(3L));
+    }
+
+    @Test
+    public void testSamplesOutOfOrderAreMerged() {
+        store.add(ITEM, START + 2000, new DecimalType(2));
+        store.add(ITEM, START, new DecimalType(0));
+        store.add(ITEM, START + 1000, new DecimalType(1));
+        store.add(ITEM, START + 3000, new DecimalType(3));
+        // the same timestamp replaces the existing sample
+        store.add(ITEM, START + 1000, new DecimalType(10));
+
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 10, 2, 3)));
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 0; i < 6; i++) {
+            store.add(ITEM, START + i * HOUR, new DecimalType(i));
+        }
+
+        assertThat(store.remove(ITEM, START + HOUR, START + 3 * HOUR, state -> true), is(3));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 4, 5)));
+
+        assertThat(store.remove(ITEM, Long.MIN_VALUE, Long.MAX_VALUE, state -> state.equals(new DecimalType(4))),
+                is(1));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 5)));
+
+        store.add(ITEM, START + 6 * HOUR, new DecimalType(6));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false), is(Arrays.asList(0, 5, 6)));
+    }
+
+    @Test
+    public void testMaintainDropsAndDownsamplesOldSegments() {
+        for (int i = 0; i < 4 * 60; i++) {
+            store.add(ITEM, START + i * 60_000, new DecimalType(i));
+        }
+
+        // the first hour is dropped, the second one is downsampled to one sample per 15 minutes
+        assertThat(store.maintain(START + HOUR, START + 2 * HOUR, 15 * 60_000), is(true));
+        List<Integer> values = query(Long.MIN_VALUE, START + 2 * HOUR - 1, false);
+        assertThat(values, is(Arrays.asList(74, 89, 104, 119)));
+        assertThat(query(START + 2 * HOUR, Long.MAX_VALUE, false).size(), is(2 * 60));
+
+        // the latest segment is always kept
+        assertThat(store.maintain(Long.MAX_VALUE, Long.MIN_VALUE, 1), is(true));
+        assertThat(query(Long.MIN_VALUE, Long.MAX_VALUE, false).size(), is(60));
+        assertThat(store.maintain(Long.MAX_VALUE, Long.MIN_VALUE, 1), is(false));
+    }
+
+    private List<Integer> query(long begin, long end, boolean descending) {
+        return store.query(ITEM, begin, end, descending)
+                .map(sample -> ((DecimalType) sample.getState()).intValue()).collect(Collectors.toList());
+    }
+
+}
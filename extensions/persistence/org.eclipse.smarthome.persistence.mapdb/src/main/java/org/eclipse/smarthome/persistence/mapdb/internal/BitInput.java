@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.persistence.mapdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link BitInput} reads the values written by a {@link BitOutput}.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class BitInput {
+
+    private final byte[] data;
+    private final int offset;
+    private long position;
+
+    /**
+     * Creates an input for the bit stream starting at the given byte offset.
+     *
+     * @param data the data
+     * @param offset the offset of the bit stream in the data
+     */
+    BitInput(byte[] data, int offset) {
+        this.data = data;
+        this.offset = offset;
+    }
+
+    boolean readBit() {
+        int index = offset + (int) (position >>> 3);
+        if (index >= data.length) {
+            throw new IllegalStateException("Unexpected end of bit stream");
+        }
+        boolean bit = (data[index] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    /**
+     * Reads a value of the given number of bits, the most significant bit first. The bits are read byte by byte.
+     *
+     * @param length the number of bits to read, between 0 and 64
+     * @return the value
+     */
+    long readBits(int length) {
+        if (length > 0 && offset + ((position + length - 1) >>> 3) >= data.length) {
+            throw new IllegalStateException("Unexpected end of bit stream");
+        }
+        long value = 0;
+        int remaining = length;
+        while (remaining > 0) {
+            int index = offset + (int) (position >>> 3);
+            int available = 8 - (int) (position & 7);
+            int count = Math.min(available, remaining);
+            int bits = ((data[index] & 0xFF) >>> (available - count)) & ((1 << count) - 1);
+            value = (value << count) | bits;
+            remaining -= count;
+            position += count;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the given number of bits and sign-extends them.
+     *
+     * @param length the number of bits to read, between 1 and 64
+     * @return the value
+     */
+    long readSignedBits(int length) {
+        long value = readBits(length);
+        return length == 64 ? value : (value << (64 - length)) >> (64 - length);
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.persistence.mapdb.internal;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link BitOutput} writes values of arbitrary bit lengths into a growing byte array.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class BitOutput {
+
+    private byte[] buffer;
+    private long bitCount;
+
+    BitOutput() {
+        buffer = new byte[64];
+    }
+
+    void writeBit(boolean bit) {
+        int index = (int) (bitCount >>> 3);
+        ensureCapacity(index + 1);
+        if (bit) {
+            buffer[index] |= 0x80 >>> (bitCount & 7);
+        }
+        bitCount++;
+    }
+
+    /**
+     * Writes the lowest bits of the given value, the most significant bit first. The bits are written byte by byte.
+     *
+     * @param value the value
+     * @param length the number of bits to write, between 0 and 64
+     */
+    void writeBits(long value, int length) {
+        ensureCapacity((int) ((bitCount + length + 7) >>> 3));
+        int remaining = length;
+        while (remaining > 0) {
+            int index = (int) (bitCount >>> 3);
+            int free = 8 - (int) (bitCount & 7);
+            int count = Math.min(free, remaining);
+            int bits = (int) (value >>> (remaining - count)) & ((1 << count) - 1);
+            buffer[index] |= bits << (free - count);
+            remaining -= count;
+            bitCount += count;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitCount + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+        }
+    }
+
+}
@@ -13,13 +13,17 @@
 package org.eclipse.smarthome.persistence.mapdb.internal;
 
 import java.io.File;
-import java.util.Collections;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,16 +32,29 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.AggregatingPersistenceService;
+import org.eclipse.smarthome.core.persistence.AggregationRequest;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.HistoricStateAggregator;
+import org.eclipse.smarthome.core.persistence.ModifiablePersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
+import org.eclipse.smarthome.core.persistence.StoreRequest;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.eclipse.smarthome.persistence.mapdb.internal.TimeSeriesSegment.Sample;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,16 +65,30 @@ import com.google.gson.GsonBuilder;
  * This is the implementation of the MapDB {@link PersistenceService}. To learn
  * more about MapDB please visit their <a
  * href="http://www.mapdb.org/">website</a>.
+ * <p>
+ * The service always keeps the last value of each item. If a retention period is configured, it additionally keeps
+ * the history of the items in a {@link TimeSeriesStore}, which is dropped and optionally downsampled once it ages.
+ * Aggregations are computed directly from the decoded history.
  *
  * @author Jens Viebig - Initial contribution
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
-public class MapDbPersistenceService implements QueryablePersistenceService {
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        ModifiablePersistenceService.class,
+        AggregatingPersistenceService.class }, configurationPid = "org.eclipse.smarthome.mapdb")
+public class MapDbPersistenceService implements ModifiablePersistenceService, AggregatingPersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
 
+    private static final String CONFIG_RETENTION = "retention";
+    private static final String CONFIG_DOWNSAMPLE_AFTER = "downsampleAfter";
+    private static final String CONFIG_DOWNSAMPLE_INTERVAL = "downsampleInterval";
+
+    private static final long DEFAULT_DOWNSAMPLE_INTERVAL = 300;
+    private static final long MAINTENANCE_INTERVAL_MINUTES = 60;
+    private static final String MAINTENANCE_THREAD_POOL_NAME = "persistence";
+
     private static final String DB_FOLDER_NAME = ConfigConstants.getUserDataFolder() + File.separator + "persistence" + File.separator + "mapdb";
 
     private static final String DB_FILE_NAME = "storage.mapdb";
@@ -72,13 +103,23 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private DB db;
     @NonNullByDefault({})
     private Map<String, String> map;
+    @NonNullByDefault({})
+    private TimeSeriesStore history;
+    private @Nullable ScheduledFuture<?> maintenanceJob;
+
+    /** The retention period of the history in milliseconds, no history is kept if it is 0. */
+    private volatile long retention;
+    private volatile long downsampleAfter;
+    private volatile long downsampleInterval;
 
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    @Activate
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
+        modified(config);
 
         threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
 
@@ -94,12 +135,49 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
         map = db.createTreeMap("itemStore").makeOrGet();
+        history = new TimeSeriesStore(
+                db.createTreeMap("history").valueSerializer(Serializer.BYTE_ARRAY).<String, byte[]> makeOrGet());
+        maintenanceJob = ThreadPoolManager.getScheduledPool(MAINTENANCE_THREAD_POOL_NAME).scheduleWithFixedDelay(
+                this::maintain, 1, MAINTENANCE_INTERVAL_MINUTES, TimeUnit.MINUTES);
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        retention = TimeUnit.DAYS.toMillis(getNonNegativeInteger(config, CONFIG_RETENTION, 0));
+        downsampleAfter = TimeUnit.DAYS.toMillis(getNonNegativeInteger(config, CONFIG_DOWNSAMPLE_AFTER, 0));
+        downsampleInterval = TimeUnit.SECONDS
+                .toMillis(Math.max(1, getNonNegativeInteger(config, CONFIG_DOWNSAMPLE_INTERVAL,
+                        DEFAULT_DOWNSAMPLE_INTERVAL)));
+    }
+
+    private long getNonNegativeInteger(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long number = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        logger.warn("Ignoring invalid configuration for '{}': {} - value must be a non-negative integer", key, value);
+        return defaultValue;
+    }
+
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> maintenanceJob = this.maintenanceJob;
+        if (maintenanceJob != null) {
+            maintenanceJob.cancel(false);
+            this.maintenanceJob = null;
+        }
         if (db != null) {
+            history.flush();
             db.close();
         }
         threadPool.shutdown();
@@ -130,9 +208,42 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public void store(Item item, String alias) {
-        if (item.getState() instanceof UnDefType) {
+        if (put(item, alias)) {
+            commit();
+        }
+    }
+
+    @Override
+    public void storeBatch(Collection<StoreRequest> requests) {
+        boolean stored = false;
+        for (StoreRequest request : requests) {
+            stored |= put(request.getItem(), request.getAlias());
+        }
+        // all items of the batch are committed at once
+        if (stored) {
+            commit();
+        }
+    }
+
+    @Override
+    public void store(Item item, Date date, State state) {
+        if (state instanceof UnDefType) {
             return;
         }
+        String name = item.getName();
+        putHistory(name, date, state);
+        Optional<MapDbItem> lastValue = getLastValue(name);
+        // the last value is only replaced by a newer state
+        if (!lastValue.isPresent() || !date.before(lastValue.get().getTimestamp())) {
+            putLastValue(name, date, state);
+        }
+        commit();
+    }
+
+    private boolean put(Item item, @Nullable String alias) {
+        if (item.getState() instanceof UnDefType) {
+            return false;
+        }
 
         // PersistenceManager passes SimpleItemConfiguration.alias which can be null
         if (alias == null) {
@@ -141,27 +252,173 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         logger.debug("store called for {}", alias);
 
         State state = item.getState();
-        MapDbItem mItem = new MapDbItem();
-        mItem.setName(alias);
-        mItem.setState(state);
-        mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        Date date = new Date();
+        putHistory(alias, date, state);
+        putLastValue(alias, date, state);
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
+        return true;
+    }
+
+    private void putLastValue(String name, Date date, State state) {
+        map.put(name, serialize(toItem(name, date, state)));
+    }
+
+    private void putHistory(String name, Date date, State state) {
+        if (isHistoryEnabled()) {
+            try {
+                history.add(name, date.getTime(), state);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Not adding state '{}' of '{}' to the history: {}", state, name, e.getMessage());
+            }
+        }
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
-            return Collections.emptyList();
+        try (Stream<HistoricItem> items = stream(filter)) {
+            return items.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<HistoricItem> stream(FilterCriteria filter) {
+        String name = filter.getItemName();
+        if (name == null) {
+            return Stream.empty();
+        }
+        // the segments are only decoded while the stream is consumed
+        long begin = toMillis(filter.getBeginDateZoned(), Long.MIN_VALUE);
+        long end = toMillis(filter.getEndDateZoned(), Long.MAX_VALUE);
+        Stream<Sample> samples = getSamples(name, begin, end, filter.getOrdering() == Ordering.DESCENDING);
+        Predicate<State> stateFilter = getStateFilter(filter);
+        return samples.filter(sample -> stateFilter.test(sample.getState()))
+                .skip((long) filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize())
+                .map(sample -> toItem(name, new Date(sample.getTimestamp()), sample.getState()));
+    }
+
+    @Override
+    public Iterable<HistoricItem> aggregate(AggregationRequest request) {
+        // the states are aggregated while the segments are decoded, without creating historic items for them
+        HistoricStateAggregator aggregator = new HistoricStateAggregator(request);
+        getSamples(request.getItemName(), toMillis(request.getBeginDate(), Long.MIN_VALUE),
+                toMillis(request.getEndDate(), Long.MAX_VALUE), false)
+                        .forEach(sample -> aggregator.add(sample.getTimestamp(), sample.getState()));
+        return aggregator.getResult();
+    }
+
+    private Stream<Sample> getSamples(String name, long begin, long end, boolean descending) {
+        if (isHistoryEnabled() && history.contains(name)) {
+            return history.query(name, begin, end, descending);
         }
-        Optional<MapDbItem> item = deserialize(json);
-        if (!item.isPresent()) {
-            return Collections.emptyList();
+        return streamOptional(getLastValue(name))
+                .map(item -> new Sample(item.getTimestamp().getTime(), item.getState()))
+                .filter(sample -> sample.getTimestamp() >= begin && sample.getTimestamp() <= end);
+    }
+
+    @Override
+    public boolean remove(FilterCriteria filter) throws IllegalArgumentException {
+        String name = filter.getItemName();
+        if (name == null) {
+            throw new IllegalArgumentException("Item name must not be null");
+        }
+        long begin = toMillis(filter.getBeginDateZoned(), Long.MIN_VALUE);
+        long end = toMillis(filter.getEndDateZoned(), Long.MAX_VALUE);
+        Predicate<State> stateFilter = getStateFilter(filter);
+
+        int removed = history.remove(name, begin, end, stateFilter);
+        Optional<MapDbItem> lastValue = getLastValue(name);
+        if (lastValue.isPresent()) {
+            long timestamp = lastValue.get().getTimestamp().getTime();
+            if (timestamp >= begin && timestamp <= end && stateFilter.test(lastValue.get().getState())) {
+                // the latest remaining state of the history becomes the last value
+                Optional<Sample> latest = history.query(name, Long.MIN_VALUE, Long.MAX_VALUE, true).findFirst();
+                if (latest.isPresent()) {
+                    putLastValue(name, new Date(latest.get().getTimestamp()), latest.get().getState());
+                } else {
+                    map.remove(name);
+                }
+                removed++;
+            }
+        }
+        logger.debug("Removed {} states of '{}' from MapDB database", removed, name);
+        commit();
+        return true;
+    }
+
+    private void maintain() {
+        long retention = this.retention;
+        if (retention == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long downsampleAfter = this.downsampleAfter;
+        try {
+            if (history.maintain(now - retention, downsampleAfter == 0 ? Long.MIN_VALUE : now - downsampleAfter,
+                    downsampleInterval)) {
+                db.commit();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply the retention policy to the MapDB history: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isHistoryEnabled() {
+        return retention > 0;
+    }
+
+    private Optional<MapDbItem> getLastValue(String name) {
+        String json = map.get(name);
+        return json == null ? Optional.empty() : deserialize(json);
+    }
+
+    private static MapDbItem toItem(String name, Date date, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(date);
+        return item;
+    }
+
+    private static long toMillis(@Nullable ZonedDateTime date, long defaultValue) {
+        return date == null ? defaultValue : date.toInstant().toEpochMilli();
+    }
+
+    private static Predicate<State> getStateFilter(FilterCriteria filter) {
+        State filterState = filter.getState();
+        Operator operator = filter.getOperator();
+        if (filterState == null) {
+            return state -> true;
+        }
+        switch (operator) {
+            case EQ:
+                return filterState::equals;
+            case NEQ:
+                return state -> !filterState.equals(state);
+            default:
+                DecimalType filterValue = filterState.as(DecimalType.class);
+                if (filterValue == null) {
+                    return state -> false;
+                }
+                return state -> {
+                    DecimalType value = state.as(DecimalType.class);
+                    return value != null && matches(value.compareTo(filterValue), operator);
+                };
+        }
+    }
+
+    private static boolean matches(int comparison, Operator operator) {
+        switch (operator) {
+            case GT:
+                return comparison > 0;
+            case GTE:
+                return comparison >= 0;
+            case LT:
+                return comparison < 0;
+            case LTE:
+                return comparison <= 0;
+            default:
+                return false;
         }
-        return Collections.singletonList(item.get());
     }
 
     private String serialize(MapDbItem item) {
@@ -178,7 +435,11 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     }
 
     private void commit() {
-        threadPool.submit(() -> db.commit());
+        threadPool.submit(() -> {
+            // the segments the items are appended to are only written to the database on commit
+            history.flush();
+            db.commit();
+        });
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
@@ -0,0 +1,446 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.persistence.mapdb.internal;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TimeSeriesSegment} encodes the samples of one item within one time partition into a compact binary form.
+ * <p>
+ * A segment consists of a header (format version, flags and number of samples) followed by a bit stream holding the
+ * samples in ascending order of their timestamps:
+ * <ul>
+ * <li>the timestamps are stored as the delta of their deltas in buckets of increasing bit lengths,
+ * <li>the type of each state is stored as a descriptor, which is only repeated if it differs from the previous one,
+ * <li>numeric states are stored as the XOR of their double value with the previous one, which only needs a few bits
+ * for slowly changing values. States whose value cannot be represented exactly as a double and all other states are
+ * stored as their string representation.
+ * </ul>
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class TimeSeriesSegment {
+
+    /** Marks a segment whose samples have been downsampled. */
+    static final int FLAG_DOWNSAMPLED = 1;
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 6;
+
+    private static final char NUMERIC = 'N';
+    private static final char TEXT = 'T';
+    private static final char UNIT_SEPARATOR = '|';
+
+    private static final int DESCRIPTOR_INDEX_BITS = 16;
+    private static final int LEADING_ZEROS_BITS = 5;
+    private static final int MAX_LEADING_ZEROS = (1 << LEADING_ZEROS_BITS) - 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesSegment.class);
+
+    /** Whether the units of quantities can be restored from their string representation. */
+    private static final Map<String, Boolean> RESTORABLE_UNITS = new ConcurrentHashMap<>();
+
+    private TimeSeriesSegment() {
+        // only static methods
+    }
+
+    /**
+     * A state of an item at a point in time.
+     */
+    static class Sample {
+
+        private final long timestamp;
+        private final State state;
+
+        Sample(long timestamp, State state) {
+            this.timestamp = timestamp;
+            this.state = state;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        State getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Encodes samples incrementally, so samples can be appended to a segment without decoding it again.
+     */
+    static class Writer {
+
+        private final int flags;
+        private final BitOutput out = new BitOutput();
+        private int count;
+
+        private long lastTimestamp;
+        private long lastDelta;
+
+        private final Map<String, Integer> descriptorIndex = new HashMap<>();
+        private int lastDescriptor = -1;
+
+        private boolean hasValue;
+        private long lastValueBits;
+        private int lastLeadingZeros = -1;
+        private int lastTrailingZeros;
+
+        Writer(int flags) {
+            this.flags = flags;
+        }
+
+        int getFlags() {
+            return flags;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        long getLastTimestamp() {
+            return lastTimestamp;
+        }
+
+        /**
+         * Appends a sample to the segment.
+         *
+         * @param timestamp the timestamp, which must be greater than the timestamp of the last appended sample
+         * @param state the state
+         */
+        void append(long timestamp, State state) {
+            if (count > 0 && timestamp <= lastTimestamp) {
+                throw new IllegalArgumentException("Samples must be appended in ascending order of their timestamps");
+            }
+            writeTimestamp(timestamp);
+            BigDecimal value = toNumericValue(state);
+            if (value != null) {
+                writeDescriptor(NUMERIC + state.getClass().getName() + getUnitSuffix(state));
+                writeValue(value.doubleValue());
+            } else {
+                writeDescriptor(TEXT + state.getClass().getName());
+                writeString(out, state.toFullString());
+            }
+            count++;
+        }
+
+        byte[] toByteArray() {
+            byte[] bits = out.toByteArray();
+            return ByteBuffer.allocate(HEADER_LENGTH + bits.length).put(VERSION).put((byte) flags).putInt(count)
+                    .put(bits).array();
+        }
+
+        private void writeTimestamp(long timestamp) {
+            if (count == 0) {
+                out.writeBits(timestamp, 64);
+            } else {
+                long delta = timestamp - lastTimestamp;
+                long deltaOfDelta = delta - lastDelta;
+                if (deltaOfDelta == 0) {
+                    out.writeBit(false);
+                } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(deltaOfDelta, 7);
+                } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+                    out.writeBits(0b110, 3);
+                    out.writeBits(deltaOfDelta, 9);
+                } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+                    out.writeBits(0b1110, 4);
+                    out.writeBits(deltaOfDelta, 12);
+                } else {
+                    out.writeBits(0b1111, 4);
+                    out.writeBits(deltaOfDelta, 64);
+                }
+                lastDelta = delta;
+            }
+            lastTimestamp = timestamp;
+        }
+
+        private void writeDescriptor(String descriptor) {
+            Integer index = descriptorIndex.get(descriptor);
+            if (index != null && index == lastDescriptor) {
+                out.writeBit(false);
+                return;
+            }
+            out.writeBit(true);
+            if (index != null) {
+                out.writeBit(false);
+                out.writeBits(index, DESCRIPTOR_INDEX_BITS);
+            } else {
+                out.writeBit(true);
+                writeString(out, descriptor);
+                index = descriptorIndex.size();
+                descriptorIndex.put(descriptor, index);
+            }
+            lastDescriptor = index;
+        }
+
+        private void writeValue(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (!hasValue) {
+                out.writeBits(bits, 64);
+                hasValue = true;
+            } else {
+                long xor = bits ^ lastValueBits;
+                if (xor == 0) {
+                    out.writeBit(false);
+                } else {
+                    out.writeBit(true);
+                    int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+                    int trailingZeros = Long.numberOfTrailingZeros(xor);
+                    if (lastLeadingZeros >= 0 && leadingZeros >= lastLeadingZeros
+                            && trailingZeros >= lastTrailingZeros) {
+                        // the changed bits fit into the window of the previous value
+                        out.writeBit(false);
+                        out.writeBits(xor >>> lastTrailingZeros, 64 - lastLeadingZeros - lastTrailingZeros);
+                    } else {
+                        int length = 64 - leadingZeros - trailingZeros;
+                        out.writeBit(true);
+                        out.writeBits(leadingZeros, LEADING_ZEROS_BITS);
+                        out.writeBits(length - 1, 6);
+                        out.writeBits(xor >>> trailingZeros, length);
+                        lastLeadingZeros = leadingZeros;
+                        lastTrailingZeros = trailingZeros;
+                    }
+                }
+            }
+            lastValueBits = bits;
+        }
+    }
+
+    /**
+     * Encodes the given samples into a new segment.
+     *
+     * @param samples the samples in ascending order of their timestamps
+     * @param flags the flags of the segment
+     * @return the writer holding the encoded samples, which can be used to append further samples
+     */
+    static Writer encode(List<Sample> samples, int flags) {
+        Writer writer = new Writer(flags);
+        for (Sample sample : samples) {
+            writer.append(sample.getTimestamp(), sample.getState());
+        }
+        return writer;
+    }
+
+    /**
+     * Decodes the samples of a segment. Samples whose state cannot be restored are skipped.
+     *
+     * @param data the encoded segment
+     * @return the samples in ascending order of their timestamps
+     */
+    static List<Sample> decode(byte[] data) {
+        ByteBuffer header = ByteBuffer.wrap(data);
+        if (data.length < HEADER_LENGTH || header.get() != VERSION) {
+            logger.warn("Ignoring time series segment of unknown format");
+            return Collections.emptyList();
+        }
+        header.get();
+        int count = header.getInt();
+
+        List<Sample> samples = new ArrayList<>(count);
+        BitInput in = new BitInput(data, HEADER_LENGTH);
+        List<String> descriptors = new ArrayList<>();
+        String descriptor = "";
+        long timestamp = 0;
+        long delta = 0;
+        long valueBits = 0;
+        boolean hasValue = false;
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamp = in.readBits(64);
+            } else {
+                delta += readDeltaOfDelta(in);
+                timestamp += delta;
+            }
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    descriptor = readString(in);
+                    descriptors.add(descriptor);
+                } else {
+                    descriptor = descriptors.get((int) in.readBits(DESCRIPTOR_INDEX_BITS));
+                }
+            }
+
+            String text;
+            if (descriptor.charAt(0) == NUMERIC) {
+                if (!hasValue) {
+                    valueBits = in.readBits(64);
+                    hasValue = true;
+                } else if (in.readBit()) {
+                    if (in.readBit()) {
+                        leadingZeros = (int) in.readBits(LEADING_ZEROS_BITS);
+                        int length = (int) in.readBits(6) + 1;
+                        trailingZeros = 64 - leadingZeros - length;
+                    }
+                    valueBits ^= in.readBits(64 - leadingZeros - trailingZeros) << trailingZeros;
+                }
+                text = BigDecimal.valueOf(Double.longBitsToDouble(valueBits)).stripTrailingZeros().toPlainString();
+            } else {
+                text = readString(in);
+            }
+
+            State state = toState(descriptor, text);
+            if (state != null) {
+                samples.add(new Sample(timestamp, state));
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Gets the flags of an encoded segment.
+     *
+     * @param data the encoded segment
+     * @return the flags
+     */
+    static int getFlags(byte[] data) {
+        return data.length < HEADER_LENGTH ? 0 : data[1];
+    }
+
+    /**
+     * Keeps the last sample of each interval.
+     *
+     * @param samples the samples in ascending order of their timestamps
+     * @param interval the length of the intervals in milliseconds
+     * @return the remaining samples
+     */
+    static List<Sample> downsample(List<Sample> samples, long interval) {
+        List<Sample> result = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            Sample sample = samples.get(i);
+            if (i == samples.size() - 1 || Math.floorDiv(sample.getTimestamp(), interval) != Math
+                    .floorDiv(samples.get(i + 1).getTimestamp(), interval)) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    private static long readDeltaOfDelta(BitInput in) {
+        if (!in.readBit()) {
+            return 0;
+        } else if (!in.readBit()) {
+            return in.readSignedBits(7);
+        } else if (!in.readBit()) {
+            return in.readSignedBits(9);
+        } else if (!in.readBit()) {
+            return in.readSignedBits(12);
+        } else {
+            return in.readSignedBits(64);
+        }
+    }
+
+    private static void writeString(BitOutput out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeBits(bytes.length, 32);
+        for (byte b : bytes) {
+            out.writeBits(b, 8);
+        }
+    }
+
+    private static String readString(BitInput in) {
+        byte[] bytes = new byte[(int) in.readBits(32)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) in.readBits(8);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the value of a numeric state, if it can be restored exactly from its double value.
+     */
+    private static @Nullable BigDecimal toNumericValue(State state) {
+        BigDecimal value;
+        // subclasses like HSBType carry more than a single value
+        if (state.getClass() == DecimalType.class || state.getClass() == PercentType.class) {
+            value = ((DecimalType) state).toBigDecimal();
+        } else if (state.getClass() == QuantityType.class && isRestorableUnit(getUnit((QuantityType<?>) state))) {
+            value = ((QuantityType<?>) state).toBigDecimal();
+        } else {
+            return null;
+        }
+        double doubleValue = value.doubleValue();
+        if (Double.isInfinite(doubleValue) || BigDecimal.valueOf(doubleValue).compareTo(value) != 0) {
+            return null;
+        }
+        return value;
+    }
+
+    private static String getUnitSuffix(State state) {
+        return state instanceof QuantityType ? UNIT_SEPARATOR + getUnit((QuantityType<?>) state) : "";
+    }
+
+    private static String getUnit(QuantityType<?> quantity) {
+        return quantity.getUnit().toString();
+    }
+
+    private static boolean isRestorableUnit(String unit) {
+        return RESTORABLE_UNITS.computeIfAbsent(unit, u -> {
+            try {
+                return !u.isEmpty() && u.equals(getUnit(new QuantityType<>("1 " + u)));
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
+    }
+
+    private static @Nullable State toState(String descriptor, String text) {
+        int unitIndex = descriptor.indexOf(UNIT_SEPARATOR);
+        String className = descriptor.substring(1, unitIndex < 0 ? descriptor.length() : unitIndex);
+        try {
+            if (descriptor.charAt(0) == NUMERIC) {
+                BigDecimal value = new BigDecimal(text);
+                if (DecimalType.class.getName().equals(className)) {
+                    return new DecimalType(value);
+                } else if (PercentType.class.getName().equals(className)) {
+                    return new PercentType(value);
+                } else if (QuantityType.class.getName().equals(className) && unitIndex >= 0) {
+                    return new QuantityType<>(text + " " + descriptor.substring(unitIndex + 1));
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                Class<? extends State> type = (Class<? extends State>) Class.forName(className);
+                return TypeParser.parseState(Collections.singletonList(type), text);
+            }
+        } catch (ClassNotFoundException | RuntimeException e) {
+            logger.warn("Couldn't decode state '{}' of type '{}': {}", text, className, e.getMessage());
+            return null;
+        }
+        logger.warn("Couldn't decode state '{}' of unknown type '{}'", text, className);
+        return null;
+    }
+
+}
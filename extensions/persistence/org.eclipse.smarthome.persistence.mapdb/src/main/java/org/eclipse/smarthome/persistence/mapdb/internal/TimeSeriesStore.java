@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.persistence.mapdb.internal.TimeSeriesSegment.Sample;
+import org.eclipse.smarthome.persistence.mapdb.internal.TimeSeriesSegment.Writer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TimeSeriesStore} keeps the history of the items in time partitioned {@link TimeSeriesSegment}s.
+ * <p>
+ * The segments are stored in a sorted map, keyed by the item name and the start of their time partition, so the
+ * segments of an item within a time range can be looked up by a range query. The segment an item is currently
+ * appended to is buffered as a {@link Writer}, so new samples do not require decoding the segment again. It is only
+ * written to the map when the item moves on to another segment or when the store is {@link #flush() flushed}.
+ * <p>
+ * Modifications are synchronized, while queries only read the map and can run concurrently.
+ *
+ * @author afuechsel - Initial contribution
+ */
+@NonNullByDefault
+class TimeSeriesStore {
+
+    /** The length of the time partitions of the segments. */
+    static final long SEGMENT_DURATION = TimeUnit.HOURS.toMillis(1);
+
+    private static final char KEY_SEPARATOR = '\0';
+    private static final char KEY_END = '\u0001';
+
+    private final Logger logger = LoggerFactory.getLogger(TimeSeriesStore.class);
+
+    private final NavigableMap<String, byte[]> segments;
+
+    /** The segments the items are currently appended to, by item name. */
+    private final Map<String, OpenSegment> openSegments = new HashMap<>();
+
+    /**
+     * Creates a store.
+     *
+     * @param segments the map the segments are stored in
+     */
+    TimeSeriesStore(NavigableMap<String, byte[]> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Adds a sample to the history of an item. A sample with the same timestamp as an existing one replaces it.
+     *
+     * @param name the name of the item
+     * @param timestamp the timestamp of the sample
+     * @param state the state
+     * @throws IllegalArgumentException if the timestamp is negative
+     */
+    synchronized void add(String name, long timestamp, State state) {
+        if (timestamp < 0) {
+            throw new IllegalArgumentException("Samples before 1970 cannot be stored");
+        }
+        long segmentStart = getSegmentStart(timestamp);
+        OpenSegment segment = openSegments.get(name);
+        if (segment == null || segment.start != segmentStart) {
+            if (segment != null) {
+                flush(name, segment);
+            }
+            byte[] data = segments.get(toKey(name, segmentStart));
+            segment = new OpenSegment(segmentStart, data == null ? new Writer(0)
+                    : TimeSeriesSegment.encode(TimeSeriesSegment.decode(data), TimeSeriesSegment.getFlags(data)));
+            openSegments.put(name, segment);
+        }
+
+        Writer writer = segment.writer;
+        if (writer.getCount() == 0 || timestamp > writer.getLastTimestamp()) {
+            writer.append(timestamp, state);
+        } else {
+            // samples out of order require the segment to be encoded again
+            List<Sample> samples = new ArrayList<>(TimeSeriesSegment.decode(writer.toByteArray()));
+            samples.removeIf(sample -> sample.getTimestamp() == timestamp);
+            int index = 0;
+            while (index < samples.size() && samples.get(index).getTimestamp() < timestamp) {
+                index++;
+            }
+            samples.add(index, new Sample(timestamp, state));
+            segment.writer = TimeSeriesSegment.encode(samples, writer.getFlags());
+        }
+        segment.dirty = true;
+    }
+
+    /**
+     * Writes the buffered samples of the segments the items are currently appended to into the map.
+     */
+    synchronized void flush() {
+        for (Entry<String, OpenSegment> entry : openSegments.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flush(String name, OpenSegment segment) {
+        if (segment.dirty) {
+            segments.put(toKey(name, segment.start), segment.writer.toByteArray());
+            segment.dirty = false;
+        }
+    }
+
+    /**
+     * Checks whether the store holds any samples of an item.
+     *
+     * @param name the name of the item
+     * @return true, if there is a history for the item
+     */
+    boolean contains(String name) {
+        synchronized (this) {
+            if (openSegments.containsKey(name)) {
+                return true;
+            }
+        }
+        return !getSegments(name).isEmpty();
+    }
+
+    /**
+     * Gets the names of all items with a history.
+     *
+     * @return the item names
+     */
+    Set<String> getNames() {
+        Set<String> names;
+        synchronized (this) {
+            names = new HashSet<>(openSegments.keySet());
+        }
+        for (String key : segments.keySet()) {
+            names.add(key.substring(0, key.indexOf(KEY_SEPARATOR)));
+        }
+        return names;
+    }
+
+    /**
+     * Gets the samples of an item within a time range. The segments are only decoded while the stream is consumed.
+     * Segments which cannot be decoded are skipped.
+     *
+     * @param name the name of the item
+     * @param begin the begin of the time range (inclusive)
+     * @param end the end of the time range (inclusive)
+     * @param descending whether the samples should be returned in descending order of their timestamps
+     * @return the samples
+     */
+    Stream<Sample> query(String name, long begin, long end, boolean descending) {
+        if (begin > end) {
+            return Stream.empty();
+        }
+        NavigableMap<String, byte[]> range = new TreeMap<>(getSegments(name, begin, end));
+        synchronized (this) {
+            // the buffered samples replace the ones of the segment in the map
+            OpenSegment segment = openSegments.get(name);
+            if (segment != null && segment.dirty && segment.start >= getSegmentStart(Math.max(begin, 0))
+                    && segment.start <= getSegmentStart(end)) {
+                range.put(toKey(name, segment.start), segment.writer.toByteArray());
+            }
+        }
+        return (descending ? range.descendingMap() : range).entrySet().stream().flatMap(entry -> {
+            List<Sample> samples = decode(entry.getKey(), entry.getValue());
+            if (descending) {
+                samples = new ArrayList<>(samples);
+                Collections.reverse(samples);
+            }
+            return samples.stream();
+        }).filter(sample -> sample.getTimestamp() >= begin && sample.getTimestamp() <= end);
+    }
+
+    private List<Sample> decode(String key, byte[] data) {
+        try {
+            return TimeSeriesSegment.decode(data);
+        } catch (RuntimeException e) {
+            logger.warn("Skipping corrupt time series segment of item '{}' starting at {}: {}",
+                    key.substring(0, key.indexOf(KEY_SEPARATOR)), getSegmentStart(key), e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Removes the samples of an item within a time range, which match the given predicate.
+     *
+     * @param name the name of the item
+     * @param begin the begin of the time range (inclusive)
+     * @param end the end of the time range (inclusive)
+     * @param filter the predicate the states of the samples to be removed have to match
+     * @return the number of removed samples
+     */
+    synchronized int remove(String name, long begin, long end, Predicate<State> filter) {
+        if (begin > end) {
+            return 0;
+        }
+        OpenSegment segment = openSegments.remove(name);
+        if (segment != null) {
+            flush(name, segment);
+        }
+        int removed = 0;
+        for (Entry<String, byte[]> entry : new ArrayList<>(getSegments(name, begin, end).entrySet())) {
+            List<Sample> samples = TimeSeriesSegment.decode(entry.getValue());
+            List<Sample> remaining = new ArrayList<>(samples.size());
+            for (Sample sample : samples) {
+                if (sample.getTimestamp() < begin || sample.getTimestamp() > end || !filter.test(sample.getState())) {
+                    remaining.add(sample);
+                }
+            }
+            removed += samples.size() - remaining.size();
+            replace(entry.getKey(), remaining, TimeSeriesSegment.getFlags(entry.getValue()));
+        }
+        return removed;
+    }
+
+    /**
+     * Applies the retention policy: drops all segments which ended before the retention time and downsamples the
+     * segments which ended before the downsampling time. The latest segment of each item and the segments items are
+     * currently appended to are always kept, so the last state of an item is not lost.
+     * <p>
+     * The segments are looked up without holding the lock of the store, which is only held while a single segment is
+     * changed, so samples can be added while the policy is applied.
+     *
+     * @param retainAfter the time before which the segments are dropped or {@link Long#MIN_VALUE} to keep all segments
+     * @param downsampleBefore the time before which the segments are downsampled or {@link Long#MIN_VALUE} to not
+     *            downsample any segment
+     * @param interval the interval of the downsampled samples in milliseconds
+     * @return true, if any segment has been changed
+     */
+    boolean maintain(long retainAfter, long downsampleBefore, long interval) {
+        boolean changed = false;
+        for (String name : getNames()) {
+            for (String key : new ArrayList<>(getSegments(name).keySet())) {
+                long segmentEnd = getSegmentStart(key) + SEGMENT_DURATION;
+                if (segmentEnd <= retainAfter) {
+                    changed |= maintain(name, key, data -> Collections.emptyList());
+                } else if (segmentEnd <= downsampleBefore) {
+                    changed |= maintain(name, key, data -> (TimeSeriesSegment.getFlags(data)
+                            & TimeSeriesSegment.FLAG_DOWNSAMPLED) != 0 ? null
+                                    : TimeSeriesSegment.downsample(TimeSeriesSegment.decode(data), interval));
+                }
+            }
+        }
+        return changed;
+    }
+
+    private synchronized boolean maintain(String name, String key, Function<byte[], @Nullable List<Sample>> policy) {
+        OpenSegment segment = openSegments.get(name);
+        long start = getSegmentStart(key);
+        if (segment != null && segment.start == start) {
+            // the segment is appended to
+            return false;
+        }
+        String next = segments.higherKey(key);
+        boolean latest = (next == null || !next.startsWith(name + KEY_SEPARATOR))
+                && (segment == null || segment.start < start);
+        byte[] data = segments.get(key);
+        if (data == null || latest) {
+            return false;
+        }
+        List<Sample> samples = policy.apply(data);
+        if (samples == null) {
+            return false;
+        }
+        int flags = TimeSeriesSegment.getFlags(data);
+        replace(key, samples, samples.isEmpty() ? flags : flags | TimeSeriesSegment.FLAG_DOWNSAMPLED);
+        return true;
+    }
+
+    private void replace(String key, List<Sample> samples, int flags) {
+        if (samples.isEmpty()) {
+            segments.remove(key);
+        } else {
+            segments.put(key, TimeSeriesSegment.encode(samples, flags).toByteArray());
+        }
+    }
+
+    private NavigableMap<String, byte[]> getSegments(String name) {
+        return segments.subMap(name + KEY_SEPARATOR, true, name + KEY_END, false);
+    }
+
+    private NavigableMap<String, byte[]> getSegments(String name, long begin, long end) {
+        return segments.subMap(toKey(name, getSegmentStart(Math.max(begin, 0))), true,
+                toKey(name, getSegmentStart(end)), true);
+    }
+
+    private static long getSegmentStart(long timestamp) {
+        return Math.floorDiv(timestamp, SEGMENT_DURATION) * SEGMENT_DURATION;
+    }
+
+    private static long getSegmentStart(String key) {
+        return Long.parseUnsignedLong(key.substring(key.indexOf(KEY_SEPARATOR) + 1), 16);
+    }
+
+    private static String toKey(String name, long segmentStart) {
+        // fixed length keys keep the segments of an item sorted by time
+        return name + KEY_SEPARATOR + String.format("%016x", segmentStart);
+    }
+
+    private static class OpenSegment {
+
+        private final long start;
+        private Writer writer;
+
+        /** Whether the writer holds samples which have not been written to the map yet. */
+        private boolean dirty;
+
+        OpenSegment(long start, Writer writer) {
+            this.start = start;
+            this.writer = writer;
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2014,2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.javascript.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.script.ScriptEngineManager;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link JavaScriptTransformationService}. The tests are skipped if the JVM has no Java Script engine.
+ *
+ * @author afuechsel - Initial contribution
+ */
+public class JavaScriptTransformationServiceTest {
+
+    private static final String SCRIPT_NAME = "test.js";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private String defaultConfigDir;
+    private File script;
+
+    private JavaScriptTransformationService processor;
+
+    @Before
+    public void init() throws IOException {
+        assumeNotNull(new ScriptEngineManager().getEngineByName("javascript"));
+
+        defaultConfigDir = System.getProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT);
+        System.setProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT, folder.getRoot().getPath());
+        File transformDir = folder.newFolder(TransformationService.TRANSFORM_FOLDER_NAME);
+        script = new File(transformDir, SCRIPT_NAME);
+
+        processor = new JavaScriptTransformationService();
+    }
+
+    @After
+    public void tearDown() {
+        if (defaultConfigDir != null) {
+            System.setProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT, defaultConfigDir);
+        } else {
+            System.clearProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT);
+        }
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        writeScript("input.toUpperCase()");
+
+        assertEquals("ABC", processor.transform(SCRIPT_NAME, "abc"));
+        assertEquals("DEF", processor.transform(SCRIPT_NAME, "def"));
+    }
+
+    @Test
+    public void testScriptIsCachedWhileFileIsUnchanged() throws Exception {
+        writeScript("'a' + input");
+        assertEquals("a1", processor.transform(SCRIPT_NAME, "1"));
+
+        // the same length and modification time, the cached script is still used
+        long lastModified = script.lastModified();
+        writeScript("'b' + input");
+        script.setLastModified(lastModified);
+
+        assertEquals("a2", processor.transform(SCRIPT_NAME, "2"));
+    }
+
+    @Test
+    public void testScriptIsReloadedWhenFileChanges() throws Exception {
+        writeScript("'a' + input");
+        assertEquals("a1", processor.transform(SCRIPT_NAME, "1"));
+
+        writeScript("'b' + input");
+        script.setLastModified(script.lastModified() + 2000);
+        assertEquals("b2", processor.transform(SCRIPT_NAME, "2"));
+
+        writeScript("'changed' + input");
+        assertEquals("changed3", processor.transform(SCRIPT_NAME, "3"));
+    }
+
+    @Test
+    public void testGlobalsAreNotSharedBetweenTransformations() throws Exception {
+        writeScript("var result = typeof previous === 'undefined' ? 'first' : previous; previous = input; result");
+
+        assertEquals("first", processor.transform(SCRIPT_NAME, "1"));
+        assertEquals("first", processor.transform(SCRIPT_NAME, "2"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidScript() throws Exception {
+        writeScript("input.(");
+
+        processor.transform(SCRIPT_NAME, "1");
+    }
+
+    private void writeScript(String content) throws IOException {
+        Files.write(script.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
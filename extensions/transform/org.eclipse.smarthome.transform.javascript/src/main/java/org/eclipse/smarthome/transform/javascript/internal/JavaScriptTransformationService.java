@@ -14,10 +14,13 @@ package org.eclipse.smarthome.transform.javascript.internal;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
@@ -26,6 +29,7 @@ import org.apache.commons.io.IOUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.FileTransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
@@ -36,12 +40,22 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by Java Script.
  *
+ * The scripts are compiled once and kept until their file is modified. Each
+ * transformation evaluates the script with new bindings, so transformations
+ * do not share any state.
+ *
  * @author Pauli Anttila
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=JS" })
 public class JavaScriptTransformationService implements TransformationService {
 
+    private final Logger logger = LoggerFactory.getLogger(JavaScriptTransformationService.class);
+
+    private final FileTransformationCache<CachedScript> cachedScripts = new FileTransformationCache<>(this::loadScript);
+
+    private @Nullable ScriptEngine engine;
+
     /**
      * Transforms the input <code>source</code> by Java Script. It expects the
      * transformation rule to be read from a file which is stored under the
@@ -55,38 +69,24 @@ public class JavaScriptTransformationService implements TransformationService {
      */
     @Override
     public @Nullable String transform(String filename, String source) throws TransformationException {
-        Logger logger = LoggerFactory.getLogger(JavaScriptTransformationService.class);
         if (filename == null || source == null) {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
         logger.debug("about to transform '{}' by the Java Script '{}'", source, filename);
 
-        Reader reader;
-
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            reader = new InputStreamReader(new FileInputStream(path));
-        } catch (FileNotFoundException e) {
-            throw new TransformationException("An error occurred while loading script.", e);
-        }
-
-        ScriptEngineManager manager = new ScriptEngineManager();
-
-        ScriptEngine engine = manager.getEngineByName("javascript");
-        engine.put("input", source);
+        String path = ConfigConstants.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
+                + File.separator + filename;
+        CachedScript script = cachedScripts.get(new File(path));
 
         Object result = null;
 
         long startTime = System.currentTimeMillis();
 
         try {
-            result = engine.eval(reader);
+            result = script.eval(source);
         } catch (ScriptException e) {
             throw new TransformationException("An error occurred while executing script.", e);
-        } finally {
-            IOUtils.closeQuietly(reader);
         }
 
         logger.trace("JavaScript execution elapsed {} ms", System.currentTimeMillis() - startTime);
@@ -94,4 +94,60 @@ public class JavaScriptTransformationService implements TransformationService {
         return String.valueOf(result);
     }
 
+    private CachedScript loadScript(File file) throws TransformationException {
+        String source;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file))) {
+            source = IOUtils.toString(reader);
+        } catch (IOException e) {
+            throw new TransformationException("An error occurred while loading script.", e);
+        }
+
+        logger.debug("Compiling Java Script '{}'", file);
+        ScriptEngine engine = getEngine();
+        CompiledScript compiledScript = null;
+        if (engine instanceof Compilable) {
+            try {
+                compiledScript = ((Compilable) engine).compile(source);
+            } catch (ScriptException e) {
+                throw new TransformationException("An error occurred while compiling script.", e);
+            }
+        }
+        return new CachedScript(engine, source, compiledScript);
+    }
+
+    private synchronized ScriptEngine getEngine() throws TransformationException {
+        ScriptEngine engine = this.engine;
+        if (engine == null) {
+            engine = new ScriptEngineManager().getEngineByName("javascript");
+            if (engine == null) {
+                throw new TransformationException("No Java Script engine is available.");
+            }
+            this.engine = engine;
+        }
+        return engine;
+    }
+
+    /**
+     * A loaded script, optionally compiled. Only the script is kept, the bindings are created for each evaluation.
+     */
+    private static class CachedScript {
+        private final ScriptEngine engine;
+        private final String source;
+        private final @Nullable CompiledScript compiledScript;
+
+        CachedScript(ScriptEngine engine, String source, @Nullable CompiledScript compiledScript) {
+            this.engine = engine;
+            this.source = source;
+            this.compiledScript = compiledScript;
+        }
+
+        @Nullable
+        Object eval(String input) throws ScriptException {
+            Bindings bindings = engine.createBindings();
+            bindings.put("input", input);
+            CompiledScript compiledScript = this.compiledScript;
+            return compiledScript != null ? compiledScript.eval(bindings) : engine.eval(source, bindings);
+        }
+    }
+
 }
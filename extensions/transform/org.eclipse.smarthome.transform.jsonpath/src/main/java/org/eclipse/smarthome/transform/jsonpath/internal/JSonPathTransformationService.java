@@ -16,6 +16,7 @@ import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.ExpressionTransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.UnDefType;
@@ -42,6 +43,12 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /** The maximum number of compiled paths to keep */
+    private static final int MAX_CACHED_PATHS = 500;
+
+    private final ExpressionTransformationCache<JsonPath> compiledPaths = new ExpressionTransformationCache<>(
+            MAX_CACHED_PATHS, path -> JsonPath.compile(path));
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -59,7 +66,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = compiledPaths.get(jsonPathExpression).read(source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
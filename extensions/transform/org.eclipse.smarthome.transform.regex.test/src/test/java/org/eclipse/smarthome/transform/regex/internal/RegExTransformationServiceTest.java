@@ -78,4 +78,13 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_reusedExpression() throws TransformationException {
+        // method under test
+        assertEquals("12", processor.transform("X(\\d+)", "X12"));
+        assertEquals("54", processor.transform("X(\\d+)", "X54"));
+        assertEquals("varX=1", processor.transform("s/([A-Z]+)([0-9]+)/var$1=$2/", "X1"));
+        assertEquals("varY=2", processor.transform("s/([A-Z]+)([0-9]+)/var$1=$2/", "Y2"));
+    }
 }
@@ -17,6 +17,7 @@ import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.ExpressionTransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
@@ -40,6 +41,12 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /** The maximum number of compiled expressions to keep */
+    private static final int MAX_CACHED_EXPRESSIONS = 500;
+
+    private final ExpressionTransformationCache<CompiledRegEx> compiledExpressions = new ExpressionTransformationCache<>(
+            MAX_CACHED_EXPRESSIONS, CompiledRegEx::new);
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -50,23 +57,19 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        CompiledRegEx compiledRegEx = compiledExpressions.get(regExpression);
+        String substitution = compiledRegEx.substitution;
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+            Matcher substMatcher = compiledRegEx.pattern.matcher(source.trim());
+            if (compiledRegEx.global) {
+                return substMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
+                return substMatcher.replaceFirst(substitution);
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = compiledRegEx.pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +98,28 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    /**
+     * The compiled form of a regular expression given to the transformation, either a pattern the whole input has to
+     * match or a substitution (<code>s/regex/substitution/options</code>).
+     */
+    private static class CompiledRegEx {
+
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        CompiledRegEx(String regExpression) {
+            Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+            if (substMatcher.matches()) {
+                pattern = Pattern.compile(substMatcher.group(1));
+                substitution = substMatcher.group(2);
+                global = substMatcher.group(3).equals("g");
+            } else {
+                pattern = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL);
+                substitution = null;
+                global = false;
+            }
+        }
+    }
+
 }